@@ -5,6 +5,8 @@ import io.keyko.nevermined.models.DID;
 import io.keyko.nevermined.models.service.Agreement;
 import io.keyko.nevermined.models.service.AgreementStatus;
 
+import java.util.List;
+
 /**
  * Exposes the Public API related with the management of Agreements
  */
@@ -31,6 +33,15 @@ public interface AgreementsAPI {
      */
     AgreementStatus status(String agreementId) throws ServiceAgreementException;
 
+    /**
+     * Get the status of several service agreements, fetching all of them in a constant number of requests to the keeper
+     *
+     * @param agreementIds ids of the agreements
+     * @return AgreementStatus of every agreement, in the same order as the ids
+     * @throws ServiceAgreementException Exception
+     */
+    List<AgreementStatus> statuses(List<String> agreementIds) throws ServiceAgreementException;
+
     /**
      * Returns if a service agreement is granted
      *
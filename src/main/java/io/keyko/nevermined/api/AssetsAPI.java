@@ -6,7 +6,12 @@ import io.keyko.nevermined.models.AssetRewards;
 import io.keyko.nevermined.models.DDO;
 import io.keyko.nevermined.models.DID;
 import io.keyko.nevermined.models.asset.AssetMetadata;
+import io.keyko.nevermined.models.asset.DownloadReport;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import io.keyko.nevermined.models.asset.OrderRequest;
 import io.keyko.nevermined.models.asset.OrderResult;
+import io.keyko.nevermined.models.asset.PublishReport;
+import io.keyko.nevermined.models.asset.PublishRequest;
 import io.keyko.nevermined.models.gateway.ComputeLogs;
 import io.keyko.nevermined.models.gateway.ComputeStatus;
 import io.keyko.nevermined.models.metadata.SearchResult;
@@ -21,6 +26,8 @@ import java.io.InputStream;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Exposes the Public API related with Assets
@@ -110,6 +117,26 @@ public interface AssetsAPI {
     DDO create(AssetMetadata metadata, List<ServiceDescriptor> serviceDescriptors, ProviderConfig providerConfig) throws DDOException;
 
 
+    /**
+     * Creates several DDOs, registering them on-chain through DidRegistry contract and off-chain in Metadata.
+     * The DDOs are built and encrypted, registered and stored in separate stages working in parallel,
+     * using the concurrency of the configuration
+     *
+     * @param publishRequests the assets to create
+     * @return the result of every asset, in the same order of the requests, and the throughput of the publication
+     */
+    PublishReport createAll(List<PublishRequest> publishRequests);
+
+    /**
+     * Creates several DDOs, registering them on-chain through DidRegistry contract and off-chain in Metadata.
+     * The DDOs are built and encrypted, registered and stored in separate stages working in parallel
+     *
+     * @param publishRequests the assets to create
+     * @param concurrency     maximum number of assets in flight in every stage
+     * @return the result of every asset, in the same order of the requests, and the throughput of the publication
+     */
+    PublishReport createAll(List<PublishRequest> publishRequests, int concurrency);
+
     /**
      * Creates a new ComputingService DDO, registering it on-chain through DidRegistry contract and off-chain in Metadata
      *
@@ -217,6 +244,62 @@ public interface AssetsAPI {
      */
     Boolean download(String serviceAgreementId, DID did, int serviceIndex, int fileIndex, String basePath) throws DownloadServiceException;
 
+    /**
+     * Downloads all the files of an Asset previously ordered through a Service Agreement in parallel,
+     * using the download parallelism and timeout of the configuration
+     *
+     * @param serviceAgreementId  the service agreement id of the asset
+     * @param did                 the did
+     * @param serviceIndex the service definition id
+     * @param basePath            the path where the asset will be downloaded
+     * @return the status and bytes transferred of every file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    DownloadReport downloadAll(String serviceAgreementId, DID did, int serviceIndex, String basePath) throws DownloadServiceException;
+
+    /**
+     * Downloads all the files of an Asset previously ordered through a Service Agreement in parallel
+     *
+     * @param serviceAgreementId  the service agreement id of the asset
+     * @param did                 the did
+     * @param serviceIndex the service definition id
+     * @param basePath            the path where the asset will be downloaded
+     * @param parallelism         maximum number of files downloaded at the same time
+     * @param fileTimeout         maximum milliseconds to download every file, or 0 for no limit
+     * @return the status and bytes transferred of every file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    DownloadReport downloadAll(String serviceAgreementId, DID did, int serviceIndex, String basePath, int parallelism, long fileTimeout) throws DownloadServiceException;
+
+    /**
+     * Downloads one large file of an Asset previously ordered through a Service Agreement,
+     * fetching several byte ranges of it at the same time
+     *
+     * @param serviceAgreementId  the service agreement id of the asset
+     * @param did                 the did
+     * @param serviceIndex the service definition id
+     * @param fileIndex           index of the file inside the files definition in metadata
+     * @param basePath            the path where the asset will be downloaded
+     * @return the status and bytes transferred of the file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    FileDownloadResult downloadSegmented(String serviceAgreementId, DID did, int serviceIndex, int fileIndex, String basePath) throws DownloadServiceException;
+
+    /**
+     * Downloads one large file of an Asset previously ordered through a Service Agreement,
+     * fetching several byte ranges of it at the same time
+     *
+     * @param serviceAgreementId  the service agreement id of the asset
+     * @param did                 the did
+     * @param serviceIndex the service definition id
+     * @param fileIndex           index of the file inside the files definition in metadata
+     * @param basePath            the path where the asset will be downloaded
+     * @param segments            maximum number of byte ranges fetched at the same time
+     * @return the status and bytes transferred of the file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    FileDownloadResult downloadSegmented(String serviceAgreementId, DID did, int serviceIndex, int fileIndex, String basePath, int segments) throws DownloadServiceException;
+
 
     /**
      * Gets the input stream of one file of the asset
@@ -315,6 +398,34 @@ public interface AssetsAPI {
      */
     OrderResult order(DID did, int serviceIndex, Service.ServiceTypes serviceTypes) throws OrderException, ServiceException, EscrowPaymentException;
 
+    /**
+     * Purchases several Assets in parallel, approving the tokens of all the orders in a single transaction.
+     * It uses the concurrency and executor of the configuration
+     *
+     * @param orderRequests the assets and services to purchase
+     * @return a future for every request, in the same order, completed with its OrderResult or an OrderException
+     */
+    List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests);
+
+    /**
+     * Purchases several Assets in parallel, approving the tokens of all the orders in a single transaction
+     *
+     * @param orderRequests the assets and services to purchase
+     * @param concurrency   maximum number of orders in flight
+     * @return a future for every request, in the same order, completed with its OrderResult or an OrderException
+     */
+    List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests, int concurrency);
+
+    /**
+     * Purchases several Assets in parallel, approving the tokens of all the orders in a single transaction
+     *
+     * @param orderRequests the assets and services to purchase
+     * @param concurrency   maximum number of orders in flight
+     * @param executor      the executor running the orders
+     * @return a future for every request, in the same order, completed with its OrderResult or an OrderException
+     */
+    List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests, int concurrency, Executor executor);
+
 
     /**
      * Purchases an Asset represented by a DID. It implies to initialize a Service Agreement between publisher and consumer
@@ -328,6 +439,31 @@ public interface AssetsAPI {
      */
     Boolean ownerDownload(DID did, int serviceIndex, String basePath) throws ServiceException, DownloadServiceException;
 
+    /**
+     * Downloads all the files of an Asset by its owner in parallel, using the download parallelism and timeout
+     * of the configuration
+     *
+     * @param did                 the did of the DDO
+     * @param serviceIndex the service definition id
+     * @param basePath            the path where the asset will be downloaded
+     * @return the status and bytes transferred of every file
+     * @throws ServiceException ServiceException
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    DownloadReport ownerDownloadAll(DID did, int serviceIndex, String basePath) throws ServiceException, DownloadServiceException;
+
+    /**
+     * Downloads one large file of an Asset owned by the caller, fetching several byte ranges of it at the same time
+     *
+     * @param did the did
+     * @param serviceIndex the service index
+     * @param fileIndex index of the file inside the files definition in metadata
+     * @param basePath the path where the asset will be downloaded
+     * @return the status and bytes transferred of the file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    FileDownloadResult ownerDownloadSegmented(DID did, int serviceIndex, int fileIndex, String basePath) throws DownloadServiceException;
+
 
 
     /**
@@ -475,4 +611,26 @@ public interface AssetsAPI {
     ComputeStatus getComputeStatus(String serviceAgreementId, String executionId,
                                    ProviderConfig providerConfig) throws ServiceException;
 
+    /**
+     * Follow the status of the compute job with executionId and serviceAgreementId. The gateway is polled less
+     * often while the status doesn't change and not anymore once the job finishes
+     * @param serviceAgreementId The service agreement id for the compute service
+     * @param executionId The execution id of the compute job
+     * @param providerConfig Object encapsulating the configuration of the provider
+     * @return a Flowable emitting every change of status of the compute job, completed when the job finishes
+     */
+    Flowable<ComputeStatus> watchComputeStatus(String serviceAgreementId, String executionId,
+                                               ProviderConfig providerConfig);
+
+    /**
+     * Follow the logs of the compute job with executionId and serviceAgreementId, getting only the lines not
+     * read before
+     * @param serviceAgreementId The service agreement id for the compute service
+     * @param executionId The execution id of the compute job
+     * @param providerConfig Object encapsulating the configuration of the provider
+     * @return a Flowable emitting the new lines of the logs, completed when the job finishes
+     */
+    Flowable<ComputeLogs> tailComputeLogs(String serviceAgreementId, String executionId,
+                                          ProviderConfig providerConfig);
+
 }
@@ -7,9 +7,19 @@ import io.keyko.nevermined.api.config.NeverminedConfigFactory;
 import io.keyko.nevermined.api.helper.InitializationHelper;
 import io.keyko.nevermined.api.impl.*;
 import io.keyko.nevermined.contracts.*;
+import io.keyko.nevermined.core.cache.AccessTokenCache;
+import io.keyko.nevermined.core.cache.DIDResolutionCache;
+import io.keyko.nevermined.core.cache.DecryptedFilesCache;
 import io.keyko.nevermined.core.conditions.LockPaymentConditionPayable;
+import io.keyko.nevermined.core.download.DownloadCache;
+import io.keyko.nevermined.core.download.DownloadEngine;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.EventLogScanner;
+import io.keyko.nevermined.core.keeper.ReceiptTracker;
 import io.keyko.nevermined.exceptions.InitializationException;
 import io.keyko.nevermined.exceptions.InvalidConfiguration;
+import io.keyko.nevermined.external.GatewayClientRegistry;
+import io.keyko.nevermined.external.MetadataApiRegistry;
 import io.keyko.nevermined.external.MetadataApiService;
 import io.keyko.nevermined.manager.*;
 import io.keyko.nevermined.models.Account;
@@ -36,10 +46,21 @@ public class NeverminedAPI {
 
     private KeeperService keeperService;
     private MetadataApiService metadataApiService;
+    private MetadataApiRegistry metadataApiRegistry;
     private SecretStoreDto secretStoreDto;
     private EvmDto evmDto;
+    private DIDResolutionCache didResolutionCache;
+    private DecryptedFilesCache decryptedFilesCache;
+    private AccessTokenCache accessTokenCache;
+    private EventLogScanner eventLogScanner;
+    private EventIndex eventIndex;
+    private ReceiptTracker receiptTracker;
+    private DownloadEngine downloadEngine;
+    private GatewayClientRegistry gatewayClientRegistry;
+    private DownloadCache downloadCache;
 
     private SecretStoreManager secretStoreManager;
+    private SecretStoreRegistry secretStoreRegistry;
     private NeverminedManager neverminedManager;
     private AssetsManager assetsManager;
     private ProvenanceManager provenanceManager;
@@ -171,12 +192,17 @@ public class NeverminedAPI {
 
         try {
             neverminedAPI.neverminedConfig = neverminedConfig;
-            neverminedAPI.metadataApiService = initializationHelper.getMetadataService();
+            neverminedAPI.metadataApiRegistry = initializationHelper.getMetadataApiRegistry();
+            neverminedAPI.metadataApiService = initializationHelper.getMetadataService(neverminedAPI.metadataApiRegistry);
+            neverminedAPI.downloadEngine = initializationHelper.getDownloadEngine();
+            neverminedAPI.gatewayClientRegistry = initializationHelper.getGatewayClientRegistry(neverminedAPI.downloadEngine);
             neverminedAPI.keeperService = initializationHelper.getKeeper();
             neverminedAPI.secretStoreDto = initializationHelper.getSecretStoreDto();
             neverminedAPI.evmDto = initializationHelper.getEvmDto();
             neverminedAPI.secretStoreManager = initializationHelper.getSecretStoreManager(neverminedAPI.secretStoreDto, neverminedAPI.evmDto);
+            neverminedAPI.secretStoreRegistry = initializationHelper.getSecretStoreRegistry(neverminedAPI.secretStoreManager, neverminedAPI.evmDto);
 
+            neverminedAPI.receiptTracker = initializationHelper.getReceiptTracker(neverminedAPI.keeperService);
             neverminedAPI.didRegistryContract = initializationHelper.loadDIDRegistryContract(neverminedAPI.keeperService);
             neverminedAPI.lockPaymentCondition = initializationHelper.loadLockPaymentCondition(neverminedAPI.keeperService);
             neverminedAPI.accessCondition = initializationHelper.loadAccessCondition(neverminedAPI.keeperService);
@@ -199,6 +225,14 @@ public class NeverminedAPI {
             neverminedAPI.nftAccessTemplate = initializationHelper.loadNFTAccessTemplate(neverminedAPI.keeperService);
             neverminedAPI.didSalesTemplate = initializationHelper.loadDIDSalesTemplate(neverminedAPI.keeperService);
 
+            neverminedAPI.didResolutionCache = initializationHelper.getDIDResolutionCache(neverminedAPI.didRegistryContract);
+            neverminedAPI.downloadCache = initializationHelper.getDownloadCache();
+            neverminedAPI.decryptedFilesCache = initializationHelper.getDecryptedFilesCache();
+            neverminedAPI.accessTokenCache = initializationHelper.getAccessTokenCache();
+            neverminedAPI.eventLogScanner = initializationHelper.getEventLogScanner(neverminedAPI.keeperService);
+            neverminedAPI.eventIndex = initializationHelper.getEventIndex(neverminedAPI.eventLogScanner,
+                    neverminedAPI.didRegistryContract, neverminedAPI.accessCondition, neverminedAPI.computeExecutionCondition);
+
             neverminedAPI.agreementsManager = initializationHelper.getAgreementsManager(neverminedAPI.keeperService, neverminedAPI.metadataApiService);
             neverminedAPI.agreementsManager
                     .setConditionStoreManagerContract(neverminedAPI.conditionStoreManager)
@@ -215,20 +249,27 @@ public class NeverminedAPI {
                     .setNFTHolderCondition(neverminedAPI.nftHolderCondition)
                     .setEscrowCondition(neverminedAPI.escrowPaymentCondition)
                     .setComputeExecutionCondition(neverminedAPI.computeExecutionCondition)
-                    .setEscrowComputeExecutionTemplate(neverminedAPI.escrowComputeExecutionTemplate);
+                    .setEscrowComputeExecutionTemplate(neverminedAPI.escrowComputeExecutionTemplate)
+                    .setDIDResolutionCache(neverminedAPI.didResolutionCache)
+                    .setEventLogScanner(neverminedAPI.eventLogScanner)
+                    .setMetadataApiRegistry(neverminedAPI.metadataApiRegistry)
+                    .setEventIndex(neverminedAPI.eventIndex);
 
             neverminedAPI.templatesManager = initializationHelper.getTemplatesManager(neverminedAPI.keeperService, neverminedAPI.metadataApiService);
             neverminedAPI.templatesManager.setMainAccount(neverminedAPI.mainAccount);
             neverminedAPI.templatesManager.setTemplateStoreManagerContract(neverminedAPI.templateStoreManagerContract);
+            neverminedAPI.templatesManager.setMetadataApiRegistry(neverminedAPI.metadataApiRegistry);
 
             neverminedAPI.accountsManager = initializationHelper.getAccountsManager(neverminedAPI.keeperService, neverminedAPI.metadataApiService);
             neverminedAPI.accountsManager
                     .setTokenContract(neverminedAPI.tokenContract)
                     .setDispenserContract(neverminedAPI.dispenser)
-                    .setMainAccount(neverminedAPI.mainAccount);
+                    .setMainAccount(neverminedAPI.mainAccount)
+                    .setMetadataApiRegistry(neverminedAPI.metadataApiRegistry);
 
             neverminedAPI.conditionsManager = initializationHelper.getConditionsManager(neverminedAPI.keeperService, neverminedAPI.metadataApiService);
             neverminedAPI.conditionsManager
+                    .setOfflineConditionIds(neverminedConfig.isConditionsOfflineIds())
                     .setTokenContract(neverminedAPI.tokenContract)
                     .setDidRegistryContract(neverminedAPI.didRegistryContract)
                     .setConditionStoreManagerContract(neverminedAPI.conditionStoreManager)
@@ -245,16 +286,28 @@ public class NeverminedAPI {
                     .setNFTAccessCondition(neverminedAPI.nftAccessCondition)
                     .setNFTHolderCondition(neverminedAPI.nftHolderCondition)
                     .setTransferNFTCondition(neverminedAPI.transferNFTCondition)
-                    .setTransferDIDCondition(neverminedAPI.transferDIDCondition);
+                    .setTransferDIDCondition(neverminedAPI.transferDIDCondition)
+                    .setDIDResolutionCache(neverminedAPI.didResolutionCache)
+                    .setEventLogScanner(neverminedAPI.eventLogScanner)
+                    .setMetadataApiRegistry(neverminedAPI.metadataApiRegistry)
+                    .setEventIndex(neverminedAPI.eventIndex);
 
 
             neverminedAPI.assetsManager = initializationHelper.getAssetsManager(neverminedAPI.keeperService, neverminedAPI.metadataApiService);
             neverminedAPI.assetsManager
                     .setMainAccount(neverminedAPI.mainAccount)
-                    .setDidRegistryContract(neverminedAPI.didRegistryContract);
+                    .setDidRegistryContract(neverminedAPI.didRegistryContract)
+                    .setDIDResolutionCache(neverminedAPI.didResolutionCache)
+                    .setEventLogScanner(neverminedAPI.eventLogScanner)
+                    .setMetadataApiRegistry(neverminedAPI.metadataApiRegistry)
+                    .setEventIndex(neverminedAPI.eventIndex);
 
             neverminedAPI.provenanceManager = initializationHelper.getProvenanceManager(neverminedAPI.keeperService);
-            neverminedAPI.provenanceManager.setDidRegistryContract(neverminedAPI.didRegistryContract);
+            neverminedAPI.provenanceManager
+                    .setDidRegistryContract(neverminedAPI.didRegistryContract)
+                    .setEventLogScanner(neverminedAPI.eventLogScanner)
+                    .setMetadataApiRegistry(neverminedAPI.metadataApiRegistry)
+                    .setEventIndex(neverminedAPI.eventIndex);
 
             neverminedAPI.neverminedManager = initializationHelper.getNeverminedManager(neverminedAPI.keeperService, neverminedAPI.metadataApiService);
             neverminedAPI.neverminedManager
@@ -262,6 +315,19 @@ public class NeverminedAPI {
                     .setTemplatesManager(neverminedAPI.templatesManager)
                     .setConditionsManager(neverminedAPI.conditionsManager)
                     .setAccountsManager(neverminedAPI.accountsManager)
+                    .setAgreementWatcher(initializationHelper.getAgreementWatcher(neverminedAPI.keeperService, neverminedAPI.agreementsManager))
+                    .setTransactionPipelineFactory(initializationHelper.getTransactionPipelineFactory(neverminedAPI.keeperService))
+                    .setOrderConcurrency(neverminedConfig.getOrdersConcurrency())
+                    .setPublishConcurrency(neverminedConfig.getPublishConcurrency())
+                    .setDownloadParallelism(neverminedConfig.getDownloadParallelism())
+                    .setDownloadFileTimeout(neverminedConfig.getDownloadFileTimeout())
+                    .setDownloadSegments(neverminedConfig.getDownloadSegments())
+                    .setDownloadSegmentRetries(neverminedConfig.getDownloadSegmentRetries())
+                    .setVerifyChecksums(neverminedConfig.isDownloadVerifyChecksums())
+                    .setDownloadCache(neverminedAPI.downloadCache)
+                    .setGatewayClientRegistry(neverminedAPI.gatewayClientRegistry)
+                    .setAccessTokenCache(neverminedAPI.accessTokenCache)
+                    .setComputeJobMonitor(initializationHelper.getComputeJobMonitor())
                     .setSecretStoreManager(neverminedAPI.secretStoreManager)
                     .setDidRegistryContract(neverminedAPI.didRegistryContract)
                     .setAccessTemplate(neverminedAPI.accessTemplate)
@@ -279,7 +345,15 @@ public class NeverminedAPI {
                     .setTransferNFTCondition(neverminedAPI.transferNFTCondition)
                     .setTransferDIDCondition(neverminedAPI.transferDIDCondition)
                     .setMainAccount(neverminedAPI.mainAccount)
-                    .setEvmDto(neverminedAPI.evmDto);
+                    .setEvmDto(neverminedAPI.evmDto)
+                    .setDIDResolutionCache(neverminedAPI.didResolutionCache)
+                    .setDecryptedFilesCache(neverminedAPI.decryptedFilesCache)
+                    .setSecretStoreRegistry(neverminedAPI.secretStoreRegistry)
+                    .setSecretStoreRetries(neverminedConfig.getSecretStoreRetries(),
+                            neverminedConfig.getSecretStoreRetryDelay(), neverminedConfig.getSecretStoreMaxRetryDelay())
+                    .setEventLogScanner(neverminedAPI.eventLogScanner)
+                    .setMetadataApiRegistry(neverminedAPI.metadataApiRegistry)
+                    .setEventIndex(neverminedAPI.eventIndex);
 
             neverminedAPI.accountsAPI = new AccountsImpl(neverminedAPI.accountsManager);
             neverminedAPI.agreementsAPI = new AgreementsImpl(neverminedAPI.agreementsManager, neverminedAPI.neverminedManager);
@@ -321,6 +395,69 @@ public class NeverminedAPI {
         return this.mainAccount;
     }
 
+    /**
+     * Gets the cache used to resolve DIDs, giving access to its statistics
+     *
+     * @return the DIDResolutionCache or null if it is disabled in the configuration
+     */
+    public DIDResolutionCache getDIDResolutionCache() {
+        return this.didResolutionCache;
+    }
+
+    /**
+     * Gets the cache of the access tokens issued by the gateways, giving access to its statistics
+     *
+     * @return the AccessTokenCache
+     */
+    public AccessTokenCache getAccessTokenCache() {
+        return this.accessTokenCache;
+    }
+
+    /**
+     * Gets the tracker waiting for the receipts of the transactions, giving access to its statistics
+     *
+     * @return the ReceiptTracker or null if it is disabled in the configuration
+     */
+    public ReceiptTracker getReceiptTracker() {
+        return this.receiptTracker;
+    }
+
+    /**
+     * Gets the engine copying the downloaded files to disk, giving access to its buffers and active transfers
+     *
+     * @return the DownloadEngine
+     */
+    public DownloadEngine getDownloadEngine() {
+        return this.downloadEngine;
+    }
+
+    /**
+     * Gets the registry of the clients used to call the gateways
+     *
+     * @return the GatewayClientRegistry
+     */
+    public GatewayClientRegistry getGatewayClientRegistry() {
+        return this.gatewayClientRegistry;
+    }
+
+    /**
+     * Gets the registry of the Metadata API instances used to resolve the DIDs
+     *
+     * @return the MetadataApiRegistry
+     */
+    public MetadataApiRegistry getMetadataApiRegistry() {
+        return this.metadataApiRegistry;
+    }
+
+    /**
+     * Gets the local cache of the downloaded files, giving access to its statistics
+     *
+     * @return the DownloadCache or null if it is disabled in the configuration
+     */
+    public DownloadCache getDownloadCache() {
+        return this.downloadCache;
+    }
+
     /**
      * Gets the AccountsAPI
      *
@@ -15,7 +15,24 @@ public class NeverminedConfig {
     public static final String KEEPER_GAS_PRICE = "keeper.gasPrice";
     public static final String KEEPER_TX_ATTEMPTS = "keeper.tx.attempts";
     public static final String KEEPER_TX_SLEEPDURATION = "keeper.tx.sleepDuration";
+    public static final String KEEPER_TX_PIPELINE = "keeper.tx.pipeline";
+    public static final String KEEPER_RECEIPTS_TRACKER = "keeper.receipts.tracker";
+    public static final String KEEPER_RECEIPTS_POLL_INTERVAL = "keeper.receipts.pollInterval";
+    public static final String KEEPER_LOGS_FROM_BLOCK = "keeper.logs.fromBlock";
+    public static final String KEEPER_LOGS_WINDOW_SIZE = "keeper.logs.windowSize";
+    public static final String KEEPER_LOGS_MAX_WINDOW_SIZE = "keeper.logs.maxWindowSize";
+    public static final String KEEPER_LOGS_CONCURRENCY = "keeper.logs.concurrency";
+    public static final String KEEPER_AGREEMENTS_POLL_INTERVAL = "keeper.agreements.pollInterval";
+    public static final String KEEPER_AGREEMENTS_CONDITION_TIMEOUT = "keeper.agreements.conditionTimeout";
+    public static final String KEEPER_AGREEMENTS_CREATION_TIMEOUT = "keeper.agreements.creationTimeout";
+    public static final String KEEPER_AGREEMENTS_MAX_ERRORS = "keeper.agreements.maxErrors";
     public static final String METADATA_URL = "metadata.url";
+    public static final String METADATA_MAX_CONNECTIONS = "metadata.http.maxConnections";
+    public static final String METADATA_CONNECT_TIMEOUT = "metadata.http.connectTimeout";
+    public static final String METADATA_READ_TIMEOUT = "metadata.http.readTimeout";
+    public static final String METADATA_IDLE_TIMEOUT = "metadata.http.idleTimeout";
+    public static final String GATEWAY_CONNECT_TIMEOUT = "gateway.http.connectTimeout";
+    public static final String GATEWAY_REQUEST_TIMEOUT = "gateway.http.requestTimeout";
     public static final String SECRETSTORE_URL = "secretstore.url";
     public static final String FAUCET_URL = "faucet.url";
     public static final String PROVIDER_ADDRESS = "provider.address";
@@ -46,12 +63,73 @@ public class NeverminedConfig {
 
     public static final String CONSUME_BASE_PATH = "consume.basePath";
 
+    public static final String EVENTS_INDEX_ENABLED = "events.index.enabled";
+    public static final String EVENTS_INDEX_PATH = "events.index.path";
+    public static final String EVENTS_INDEX_SYNC_INTERVAL = "events.index.syncInterval";
+    public static final String EVENTS_INDEX_CONFIRMATIONS = "events.index.confirmations";
+
+    public static final String CONDITIONS_OFFLINE_IDS = "conditions.offlineIds";
+
+    public static final String ORDERS_CONCURRENCY = "orders.concurrency";
+    public static final String PUBLISH_CONCURRENCY = "publish.concurrency";
+
+    public static final String DOWNLOAD_PARALLELISM = "download.parallelism";
+    public static final String DOWNLOAD_FILE_TIMEOUT = "download.fileTimeout";
+    public static final String DOWNLOAD_SEGMENTS = "download.segments";
+    public static final String DOWNLOAD_SEGMENT_RETRIES = "download.segmentRetries";
+    public static final String DOWNLOAD_VERIFY_CHECKSUMS = "download.verifyChecksums";
+    public static final String DOWNLOAD_BUFFER_SIZE = "download.bufferSize";
+    public static final String DOWNLOAD_MAX_BUFFERS = "download.maxBuffers";
+    public static final String DOWNLOAD_MAX_BYTES_PER_SECOND = "download.maxBytesPerSecond";
+    public static final String DOWNLOAD_CACHE_ENABLED = "download.cache.enabled";
+    public static final String DOWNLOAD_CACHE_PATH = "download.cache.path";
+    public static final String DOWNLOAD_CACHE_MAX_SIZE = "download.cache.maxSize";
+
+    public static final String DID_CACHE_ENABLED = "did.cache.enabled";
+    public static final String DID_CACHE_MAX_ENTRIES = "did.cache.maxEntries";
+    public static final String DID_CACHE_URL_TTL = "did.cache.urlTtl";
+    public static final String DID_CACHE_DDO_TTL = "did.cache.ddoTtl";
+
+    public static final String TOKEN_CACHE_MAX_ENTRIES = "token.cache.maxEntries";
+    public static final String TOKEN_CACHE_TTL = "token.cache.ttl";
+    public static final String TOKEN_CACHE_REFRESH_MARGIN = "token.cache.refreshMargin";
+
+    public static final String COMPUTE_MONITOR_MIN_INTERVAL = "compute.monitor.minInterval";
+    public static final String COMPUTE_MONITOR_MAX_INTERVAL = "compute.monitor.maxInterval";
+    public static final String COMPUTE_MONITOR_MAX_REQUESTS_PER_GATEWAY = "compute.monitor.maxRequestsPerGateway";
+    public static final String COMPUTE_MONITOR_MAX_ERRORS = "compute.monitor.maxErrors";
+    public static final String COMPUTE_MONITOR_LOGS_INTERVAL = "compute.monitor.logsInterval";
+
+    public static final String SECRETSTORE_CACHE_ENABLED = "secretstore.cache.enabled";
+    public static final String SECRETSTORE_CACHE_MAX_ENTRIES = "secretstore.cache.maxEntries";
+    public static final String SECRETSTORE_CACHE_TTL = "secretstore.cache.ttl";
+    public static final String SECRETSTORE_RETRIES = "secretstore.retries";
+    public static final String SECRETSTORE_RETRY_DELAY = "secretstore.retryDelay";
+    public static final String SECRETSTORE_MAX_RETRY_DELAY = "secretstore.maxRetryDelay";
+
     private String keeperUrl;
     private BigInteger keeperGasLimit;
     private BigInteger keeperGasPrice;
     private int keeperTxAttempts;
     private long keeperTxSleepDuration;
+    private boolean keeperTxPipeline;
+    private boolean keeperReceiptsTracker;
+    private long keeperReceiptsPollInterval;
+    private long keeperLogsFromBlock;
+    private long keeperLogsWindowSize;
+    private long keeperLogsMaxWindowSize;
+    private int keeperLogsConcurrency;
+    private long keeperAgreementsPollInterval;
+    private long keeperAgreementsConditionTimeout;
+    private long keeperAgreementsCreationTimeout;
+    private int keeperAgreementsMaxErrors;
     private String metadataUrl;
+    private int metadataMaxConnections;
+    private int metadataConnectTimeout;
+    private int metadataReadTimeout;
+    private long metadataIdleTimeout;
+    private int gatewayConnectTimeout;
+    private int gatewayRequestTimeout;
     private String secretStoreUrl;
     private String faucetUrl;
     private String providerAddress;
@@ -82,6 +160,48 @@ public class NeverminedConfig {
 
     private String consumeBasePath;
 
+    private boolean eventsIndexEnabled;
+    private String eventsIndexPath;
+    private long eventsIndexSyncInterval;
+    private int eventsIndexConfirmations;
+
+    private boolean conditionsOfflineIds;
+    private int ordersConcurrency;
+    private int publishConcurrency;
+
+    private int downloadParallelism;
+    private long downloadFileTimeout;
+    private int downloadSegments;
+    private int downloadSegmentRetries;
+    private boolean downloadVerifyChecksums;
+    private int downloadBufferSize;
+    private int downloadMaxBuffers;
+    private long downloadMaxBytesPerSecond;
+    private boolean downloadCacheEnabled;
+    private String downloadCachePath;
+    private long downloadCacheMaxSize;
+
+    private boolean didCacheEnabled;
+    private int didCacheMaxEntries;
+    private long didCacheUrlTtl;
+    private long didCacheDdoTtl;
+
+    private int tokenCacheMaxEntries;
+    private long tokenCacheTtl;
+    private long tokenCacheRefreshMargin;
+    private long computeMonitorMinInterval;
+    private long computeMonitorMaxInterval;
+    private int computeMonitorMaxRequestsPerGateway;
+    private int computeMonitorMaxErrors;
+    private long computeMonitorLogsInterval;
+
+    private boolean secretStoreCacheEnabled;
+    private int secretStoreCacheMaxEntries;
+    private long secretStoreCacheTtl;
+    private int secretStoreRetries;
+    private long secretStoreRetryDelay;
+    private long secretStoreMaxRetryDelay;
+
     /**
      * Class to hold the result of a Configuration's validation
      */
@@ -278,6 +398,105 @@ public class NeverminedConfig {
         return this;
     }
 
+    public boolean isKeeperTxPipeline() {
+        return keeperTxPipeline;
+    }
+
+    public NeverminedConfig setKeeperTxPipeline(boolean keeperTxPipeline) {
+        this.keeperTxPipeline = keeperTxPipeline;
+        return this;
+    }
+
+    public boolean isKeeperReceiptsTracker() {
+        return keeperReceiptsTracker;
+    }
+
+    public NeverminedConfig setKeeperReceiptsTracker(boolean keeperReceiptsTracker) {
+        this.keeperReceiptsTracker = keeperReceiptsTracker;
+        return this;
+    }
+
+    public long getKeeperReceiptsPollInterval() {
+        return keeperReceiptsPollInterval;
+    }
+
+    public NeverminedConfig setKeeperReceiptsPollInterval(long keeperReceiptsPollInterval) {
+        this.keeperReceiptsPollInterval = keeperReceiptsPollInterval;
+        return this;
+    }
+
+    public long getKeeperLogsFromBlock() {
+        return keeperLogsFromBlock;
+    }
+
+    public NeverminedConfig setKeeperLogsFromBlock(long keeperLogsFromBlock) {
+        this.keeperLogsFromBlock = keeperLogsFromBlock;
+        return this;
+    }
+
+    public long getKeeperLogsWindowSize() {
+        return keeperLogsWindowSize;
+    }
+
+    public NeverminedConfig setKeeperLogsWindowSize(long keeperLogsWindowSize) {
+        this.keeperLogsWindowSize = keeperLogsWindowSize;
+        return this;
+    }
+
+    public long getKeeperLogsMaxWindowSize() {
+        return keeperLogsMaxWindowSize;
+    }
+
+    public NeverminedConfig setKeeperLogsMaxWindowSize(long keeperLogsMaxWindowSize) {
+        this.keeperLogsMaxWindowSize = keeperLogsMaxWindowSize;
+        return this;
+    }
+
+    public int getKeeperLogsConcurrency() {
+        return keeperLogsConcurrency;
+    }
+
+    public NeverminedConfig setKeeperLogsConcurrency(int keeperLogsConcurrency) {
+        this.keeperLogsConcurrency = keeperLogsConcurrency;
+        return this;
+    }
+
+    public long getKeeperAgreementsPollInterval() {
+        return keeperAgreementsPollInterval;
+    }
+
+    public NeverminedConfig setKeeperAgreementsPollInterval(long keeperAgreementsPollInterval) {
+        this.keeperAgreementsPollInterval = keeperAgreementsPollInterval;
+        return this;
+    }
+
+    public long getKeeperAgreementsConditionTimeout() {
+        return keeperAgreementsConditionTimeout;
+    }
+
+    public NeverminedConfig setKeeperAgreementsConditionTimeout(long keeperAgreementsConditionTimeout) {
+        this.keeperAgreementsConditionTimeout = keeperAgreementsConditionTimeout;
+        return this;
+    }
+
+    public long getKeeperAgreementsCreationTimeout() {
+        return keeperAgreementsCreationTimeout;
+    }
+
+    public NeverminedConfig setKeeperAgreementsCreationTimeout(long keeperAgreementsCreationTimeout) {
+        this.keeperAgreementsCreationTimeout = keeperAgreementsCreationTimeout;
+        return this;
+    }
+
+    public int getKeeperAgreementsMaxErrors() {
+        return keeperAgreementsMaxErrors;
+    }
+
+    public NeverminedConfig setKeeperAgreementsMaxErrors(int keeperAgreementsMaxErrors) {
+        this.keeperAgreementsMaxErrors = keeperAgreementsMaxErrors;
+        return this;
+    }
+
     public String getMetadataUrl() {
         return metadataUrl;
     }
@@ -287,6 +506,60 @@ public class NeverminedConfig {
         return this;
     }
 
+    public int getMetadataMaxConnections() {
+        return metadataMaxConnections;
+    }
+
+    public NeverminedConfig setMetadataMaxConnections(int metadataMaxConnections) {
+        this.metadataMaxConnections = metadataMaxConnections;
+        return this;
+    }
+
+    public int getMetadataConnectTimeout() {
+        return metadataConnectTimeout;
+    }
+
+    public NeverminedConfig setMetadataConnectTimeout(int metadataConnectTimeout) {
+        this.metadataConnectTimeout = metadataConnectTimeout;
+        return this;
+    }
+
+    public int getMetadataReadTimeout() {
+        return metadataReadTimeout;
+    }
+
+    public NeverminedConfig setMetadataReadTimeout(int metadataReadTimeout) {
+        this.metadataReadTimeout = metadataReadTimeout;
+        return this;
+    }
+
+    public long getMetadataIdleTimeout() {
+        return metadataIdleTimeout;
+    }
+
+    public NeverminedConfig setMetadataIdleTimeout(long metadataIdleTimeout) {
+        this.metadataIdleTimeout = metadataIdleTimeout;
+        return this;
+    }
+
+    public int getGatewayConnectTimeout() {
+        return gatewayConnectTimeout;
+    }
+
+    public NeverminedConfig setGatewayConnectTimeout(int gatewayConnectTimeout) {
+        this.gatewayConnectTimeout = gatewayConnectTimeout;
+        return this;
+    }
+
+    public int getGatewayRequestTimeout() {
+        return gatewayRequestTimeout;
+    }
+
+    public NeverminedConfig setGatewayRequestTimeout(int gatewayRequestTimeout) {
+        this.gatewayRequestTimeout = gatewayRequestTimeout;
+        return this;
+    }
+
     public String getSecretStoreUrl() {
         return secretStoreUrl;
     }
@@ -394,6 +667,330 @@ public class NeverminedConfig {
         return this;
     }
 
+    public boolean isEventsIndexEnabled() {
+        return eventsIndexEnabled;
+    }
+
+    public NeverminedConfig setEventsIndexEnabled(boolean eventsIndexEnabled) {
+        this.eventsIndexEnabled = eventsIndexEnabled;
+        return this;
+    }
+
+    public String getEventsIndexPath() {
+        return eventsIndexPath;
+    }
+
+    public NeverminedConfig setEventsIndexPath(String eventsIndexPath) {
+        this.eventsIndexPath = eventsIndexPath;
+        return this;
+    }
+
+    public long getEventsIndexSyncInterval() {
+        return eventsIndexSyncInterval;
+    }
+
+    public NeverminedConfig setEventsIndexSyncInterval(long eventsIndexSyncInterval) {
+        this.eventsIndexSyncInterval = eventsIndexSyncInterval;
+        return this;
+    }
+
+    public int getEventsIndexConfirmations() {
+        return eventsIndexConfirmations;
+    }
+
+    public NeverminedConfig setEventsIndexConfirmations(int eventsIndexConfirmations) {
+        this.eventsIndexConfirmations = eventsIndexConfirmations;
+        return this;
+    }
+
+    public boolean isConditionsOfflineIds() {
+        return conditionsOfflineIds;
+    }
+
+    public NeverminedConfig setConditionsOfflineIds(boolean conditionsOfflineIds) {
+        this.conditionsOfflineIds = conditionsOfflineIds;
+        return this;
+    }
+
+    public int getOrdersConcurrency() {
+        return ordersConcurrency;
+    }
+
+    public NeverminedConfig setOrdersConcurrency(int ordersConcurrency) {
+        this.ordersConcurrency = ordersConcurrency;
+        return this;
+    }
+
+    public int getPublishConcurrency() {
+        return publishConcurrency;
+    }
+
+    public NeverminedConfig setPublishConcurrency(int publishConcurrency) {
+        this.publishConcurrency = publishConcurrency;
+        return this;
+    }
+
+    public int getDownloadParallelism() {
+        return downloadParallelism;
+    }
+
+    public NeverminedConfig setDownloadParallelism(int downloadParallelism) {
+        this.downloadParallelism = downloadParallelism;
+        return this;
+    }
+
+    public long getDownloadFileTimeout() {
+        return downloadFileTimeout;
+    }
+
+    public NeverminedConfig setDownloadFileTimeout(long downloadFileTimeout) {
+        this.downloadFileTimeout = downloadFileTimeout;
+        return this;
+    }
+
+    public int getDownloadSegments() {
+        return downloadSegments;
+    }
+
+    public NeverminedConfig setDownloadSegments(int downloadSegments) {
+        this.downloadSegments = downloadSegments;
+        return this;
+    }
+
+    public int getDownloadSegmentRetries() {
+        return downloadSegmentRetries;
+    }
+
+    public NeverminedConfig setDownloadSegmentRetries(int downloadSegmentRetries) {
+        this.downloadSegmentRetries = downloadSegmentRetries;
+        return this;
+    }
+
+    public boolean isDownloadVerifyChecksums() {
+        return downloadVerifyChecksums;
+    }
+
+    public NeverminedConfig setDownloadVerifyChecksums(boolean downloadVerifyChecksums) {
+        this.downloadVerifyChecksums = downloadVerifyChecksums;
+        return this;
+    }
+
+    public int getDownloadBufferSize() {
+        return downloadBufferSize;
+    }
+
+    public NeverminedConfig setDownloadBufferSize(int downloadBufferSize) {
+        this.downloadBufferSize = downloadBufferSize;
+        return this;
+    }
+
+    public int getDownloadMaxBuffers() {
+        return downloadMaxBuffers;
+    }
+
+    public NeverminedConfig setDownloadMaxBuffers(int downloadMaxBuffers) {
+        this.downloadMaxBuffers = downloadMaxBuffers;
+        return this;
+    }
+
+    public long getDownloadMaxBytesPerSecond() {
+        return downloadMaxBytesPerSecond;
+    }
+
+    public NeverminedConfig setDownloadMaxBytesPerSecond(long downloadMaxBytesPerSecond) {
+        this.downloadMaxBytesPerSecond = downloadMaxBytesPerSecond;
+        return this;
+    }
+
+    public boolean isDownloadCacheEnabled() {
+        return downloadCacheEnabled;
+    }
+
+    public NeverminedConfig setDownloadCacheEnabled(boolean downloadCacheEnabled) {
+        this.downloadCacheEnabled = downloadCacheEnabled;
+        return this;
+    }
+
+    public String getDownloadCachePath() {
+        return downloadCachePath;
+    }
+
+    public NeverminedConfig setDownloadCachePath(String downloadCachePath) {
+        this.downloadCachePath = downloadCachePath;
+        return this;
+    }
+
+    public long getDownloadCacheMaxSize() {
+        return downloadCacheMaxSize;
+    }
+
+    public NeverminedConfig setDownloadCacheMaxSize(long downloadCacheMaxSize) {
+        this.downloadCacheMaxSize = downloadCacheMaxSize;
+        return this;
+    }
+
+    public boolean isDidCacheEnabled() {
+        return didCacheEnabled;
+    }
+
+    public NeverminedConfig setDidCacheEnabled(boolean didCacheEnabled) {
+        this.didCacheEnabled = didCacheEnabled;
+        return this;
+    }
+
+    public int getDidCacheMaxEntries() {
+        return didCacheMaxEntries;
+    }
+
+    public NeverminedConfig setDidCacheMaxEntries(int didCacheMaxEntries) {
+        this.didCacheMaxEntries = didCacheMaxEntries;
+        return this;
+    }
+
+    public long getDidCacheUrlTtl() {
+        return didCacheUrlTtl;
+    }
+
+    public NeverminedConfig setDidCacheUrlTtl(long didCacheUrlTtl) {
+        this.didCacheUrlTtl = didCacheUrlTtl;
+        return this;
+    }
+
+    public long getDidCacheDdoTtl() {
+        return didCacheDdoTtl;
+    }
+
+    public NeverminedConfig setDidCacheDdoTtl(long didCacheDdoTtl) {
+        this.didCacheDdoTtl = didCacheDdoTtl;
+        return this;
+    }
+
+    public int getTokenCacheMaxEntries() {
+        return tokenCacheMaxEntries;
+    }
+
+    public NeverminedConfig setTokenCacheMaxEntries(int tokenCacheMaxEntries) {
+        this.tokenCacheMaxEntries = tokenCacheMaxEntries;
+        return this;
+    }
+
+    public long getTokenCacheTtl() {
+        return tokenCacheTtl;
+    }
+
+    public NeverminedConfig setTokenCacheTtl(long tokenCacheTtl) {
+        this.tokenCacheTtl = tokenCacheTtl;
+        return this;
+    }
+
+    public long getTokenCacheRefreshMargin() {
+        return tokenCacheRefreshMargin;
+    }
+
+    public NeverminedConfig setTokenCacheRefreshMargin(long tokenCacheRefreshMargin) {
+        this.tokenCacheRefreshMargin = tokenCacheRefreshMargin;
+        return this;
+    }
+
+    public long getComputeMonitorMinInterval() {
+        return computeMonitorMinInterval;
+    }
+
+    public NeverminedConfig setComputeMonitorMinInterval(long computeMonitorMinInterval) {
+        this.computeMonitorMinInterval = computeMonitorMinInterval;
+        return this;
+    }
+
+    public long getComputeMonitorMaxInterval() {
+        return computeMonitorMaxInterval;
+    }
+
+    public NeverminedConfig setComputeMonitorMaxInterval(long computeMonitorMaxInterval) {
+        this.computeMonitorMaxInterval = computeMonitorMaxInterval;
+        return this;
+    }
+
+    public int getComputeMonitorMaxRequestsPerGateway() {
+        return computeMonitorMaxRequestsPerGateway;
+    }
+
+    public NeverminedConfig setComputeMonitorMaxRequestsPerGateway(int computeMonitorMaxRequestsPerGateway) {
+        this.computeMonitorMaxRequestsPerGateway = computeMonitorMaxRequestsPerGateway;
+        return this;
+    }
+
+    public int getComputeMonitorMaxErrors() {
+        return computeMonitorMaxErrors;
+    }
+
+    public NeverminedConfig setComputeMonitorMaxErrors(int computeMonitorMaxErrors) {
+        this.computeMonitorMaxErrors = computeMonitorMaxErrors;
+        return this;
+    }
+
+    public long getComputeMonitorLogsInterval() {
+        return computeMonitorLogsInterval;
+    }
+
+    public NeverminedConfig setComputeMonitorLogsInterval(long computeMonitorLogsInterval) {
+        this.computeMonitorLogsInterval = computeMonitorLogsInterval;
+        return this;
+    }
+
+    public boolean isSecretStoreCacheEnabled() {
+        return secretStoreCacheEnabled;
+    }
+
+    public NeverminedConfig setSecretStoreCacheEnabled(boolean secretStoreCacheEnabled) {
+        this.secretStoreCacheEnabled = secretStoreCacheEnabled;
+        return this;
+    }
+
+    public int getSecretStoreCacheMaxEntries() {
+        return secretStoreCacheMaxEntries;
+    }
+
+    public NeverminedConfig setSecretStoreCacheMaxEntries(int secretStoreCacheMaxEntries) {
+        this.secretStoreCacheMaxEntries = secretStoreCacheMaxEntries;
+        return this;
+    }
+
+    public long getSecretStoreCacheTtl() {
+        return secretStoreCacheTtl;
+    }
+
+    public NeverminedConfig setSecretStoreCacheTtl(long secretStoreCacheTtl) {
+        this.secretStoreCacheTtl = secretStoreCacheTtl;
+        return this;
+    }
+
+    public int getSecretStoreRetries() {
+        return secretStoreRetries;
+    }
+
+    public NeverminedConfig setSecretStoreRetries(int secretStoreRetries) {
+        this.secretStoreRetries = secretStoreRetries;
+        return this;
+    }
+
+    public long getSecretStoreRetryDelay() {
+        return secretStoreRetryDelay;
+    }
+
+    public NeverminedConfig setSecretStoreRetryDelay(long secretStoreRetryDelay) {
+        this.secretStoreRetryDelay = secretStoreRetryDelay;
+        return this;
+    }
+
+    public long getSecretStoreMaxRetryDelay() {
+        return secretStoreMaxRetryDelay;
+    }
+
+    public NeverminedConfig setSecretStoreMaxRetryDelay(long secretStoreMaxRetryDelay) {
+        this.secretStoreMaxRetryDelay = secretStoreMaxRetryDelay;
+        return this;
+    }
+
     public String getMainAccountAddress() {
         return mainAccountAddress;
     }
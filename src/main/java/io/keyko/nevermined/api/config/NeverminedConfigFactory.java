@@ -1,9 +1,26 @@
 package io.keyko.nevermined.api.config;
 
 
+import io.keyko.nevermined.core.cache.AccessTokenCache;
+import io.keyko.nevermined.core.compute.ComputeJobMonitor;
+import io.keyko.nevermined.core.cache.DIDResolutionCache;
+import io.keyko.nevermined.core.cache.DecryptedFilesCache;
+import io.keyko.nevermined.core.download.DownloadCache;
+import io.keyko.nevermined.core.download.DownloadEngine;
+import io.keyko.nevermined.core.download.ParallelDownloader;
+import io.keyko.nevermined.core.download.SegmentedDownloader;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.EventLogScanner;
+import io.keyko.nevermined.core.keeper.ReceiptTracker;
+import io.keyko.nevermined.core.sla.AgreementWatcher;
+import io.keyko.nevermined.external.GatewayClient;
+import io.keyko.nevermined.external.MetadataApiService;
+import io.keyko.nevermined.manager.BaseManager;
+import io.keyko.nevermined.manager.NeverminedManager;
 import org.web3j.tx.TransactionManager;
 
 import java.math.BigInteger;
+import java.nio.file.Paths;
 import java.util.Properties;
 
 
@@ -20,6 +37,7 @@ public class NeverminedConfigFactory {
     private static final String DEFAULT_SECRET_STORE_URL = "http://localhost:12001";
     private static final String DEFAULT_FAUCET_URL = "http://localhost:3001";
     private static final String DEFAULT_CONSUME_PATH = "/tmp";
+    private static final String DEFAULT_EVENTS_INDEX_FOLDER = "nevermined-events";
 
 
     /**
@@ -45,8 +63,42 @@ public class NeverminedConfigFactory {
                 Long.parseLong(
                         (String) properties.getOrDefault(NeverminedConfig.KEEPER_TX_SLEEPDURATION, String.valueOf(TransactionManager.DEFAULT_POLLING_FREQUENCY))
                 ));
+        neverminedConfig.setKeeperTxPipeline(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_TX_PIPELINE, "true")));
+        neverminedConfig.setKeeperReceiptsTracker(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_RECEIPTS_TRACKER, "true")));
+        neverminedConfig.setKeeperReceiptsPollInterval(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_RECEIPTS_POLL_INTERVAL, String.valueOf(ReceiptTracker.DEFAULT_POLL_INTERVAL))));
+        neverminedConfig.setKeeperLogsFromBlock(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_LOGS_FROM_BLOCK, String.valueOf(EventLogScanner.DEFAULT_START_BLOCK))));
+        neverminedConfig.setKeeperLogsWindowSize(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_LOGS_WINDOW_SIZE, String.valueOf(EventLogScanner.DEFAULT_WINDOW_SIZE))));
+        neverminedConfig.setKeeperLogsMaxWindowSize(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_LOGS_MAX_WINDOW_SIZE, String.valueOf(EventLogScanner.DEFAULT_MAX_WINDOW_SIZE))));
+        neverminedConfig.setKeeperLogsConcurrency(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_LOGS_CONCURRENCY, String.valueOf(EventLogScanner.DEFAULT_CONCURRENCY))));
+        neverminedConfig.setKeeperAgreementsPollInterval(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_AGREEMENTS_POLL_INTERVAL, String.valueOf(AgreementWatcher.DEFAULT_POLL_INTERVAL))));
+        neverminedConfig.setKeeperAgreementsConditionTimeout(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_AGREEMENTS_CONDITION_TIMEOUT, String.valueOf(AgreementWatcher.DEFAULT_CONDITION_TIMEOUT))));
+        neverminedConfig.setKeeperAgreementsCreationTimeout(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_AGREEMENTS_CREATION_TIMEOUT, String.valueOf(AgreementWatcher.DEFAULT_AGREEMENT_TIMEOUT))));
+        neverminedConfig.setKeeperAgreementsMaxErrors(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.KEEPER_AGREEMENTS_MAX_ERRORS, String.valueOf(AgreementWatcher.DEFAULT_MAX_ERRORS))));
 
         neverminedConfig.setMetadataUrl((String) properties.getOrDefault(NeverminedConfig.METADATA_URL, DEFAULT_METADATA_URL));
+        neverminedConfig.setMetadataMaxConnections(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.METADATA_MAX_CONNECTIONS, String.valueOf(MetadataApiService.ConnectionSettings.DEFAULT_MAX_CONNECTIONS))));
+        neverminedConfig.setMetadataConnectTimeout(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.METADATA_CONNECT_TIMEOUT, String.valueOf(MetadataApiService.ConnectionSettings.DEFAULT_CONNECT_TIMEOUT))));
+        neverminedConfig.setMetadataReadTimeout(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.METADATA_READ_TIMEOUT, String.valueOf(MetadataApiService.ConnectionSettings.DEFAULT_READ_TIMEOUT))));
+        neverminedConfig.setMetadataIdleTimeout(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.METADATA_IDLE_TIMEOUT, String.valueOf(MetadataApiService.ConnectionSettings.DEFAULT_IDLE_TIMEOUT))));
+        neverminedConfig.setGatewayConnectTimeout(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.GATEWAY_CONNECT_TIMEOUT, String.valueOf(GatewayClient.ConnectionSettings.DEFAULT_CONNECT_TIMEOUT))));
+        neverminedConfig.setGatewayRequestTimeout(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.GATEWAY_REQUEST_TIMEOUT, String.valueOf(GatewayClient.ConnectionSettings.DEFAULT_REQUEST_TIMEOUT))));
         neverminedConfig.setSecretStoreUrl((String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_URL, DEFAULT_SECRET_STORE_URL));
         neverminedConfig.setFaucetUrl((String) properties.getOrDefault(NeverminedConfig.FAUCET_URL, DEFAULT_FAUCET_URL));
         neverminedConfig.setProviderAddress((String) properties.getOrDefault(NeverminedConfig.PROVIDER_ADDRESS, ""));
@@ -75,6 +127,86 @@ public class NeverminedConfigFactory {
         neverminedConfig.setEscrowComputeExecutionTemplateAddress((String) properties.getOrDefault(NeverminedConfig.ESCROW_COMPUTE_EXECUTION_TEMPLATE_ADDRESS, ""));
         neverminedConfig.setComputeExecutionConditionAddress((String) properties.getOrDefault(NeverminedConfig.COMPUTE_EXECUTION_CONDITION_ADDRESS, ""));
 
+        neverminedConfig.setEventsIndexEnabled(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.EVENTS_INDEX_ENABLED, "false")));
+        neverminedConfig.setEventsIndexPath((String) properties.getOrDefault(NeverminedConfig.EVENTS_INDEX_PATH,
+                neverminedConfig.getConsumeBasePath() + "/" + DEFAULT_EVENTS_INDEX_FOLDER));
+        neverminedConfig.setEventsIndexSyncInterval(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.EVENTS_INDEX_SYNC_INTERVAL, String.valueOf(EventIndex.DEFAULT_SYNC_INTERVAL))));
+        neverminedConfig.setEventsIndexConfirmations(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.EVENTS_INDEX_CONFIRMATIONS, String.valueOf(EventIndex.DEFAULT_CONFIRMATIONS))));
+
+        neverminedConfig.setConditionsOfflineIds(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.CONDITIONS_OFFLINE_IDS, "true")));
+
+        neverminedConfig.setOrdersConcurrency(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.ORDERS_CONCURRENCY, String.valueOf(NeverminedManager.DEFAULT_ORDER_CONCURRENCY))));
+        neverminedConfig.setPublishConcurrency(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.PUBLISH_CONCURRENCY, String.valueOf(NeverminedManager.DEFAULT_PUBLISH_CONCURRENCY))));
+
+        neverminedConfig.setDownloadParallelism(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_PARALLELISM, String.valueOf(ParallelDownloader.DEFAULT_PARALLELISM))));
+        neverminedConfig.setDownloadFileTimeout(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_FILE_TIMEOUT, "0")));
+        neverminedConfig.setDownloadSegments(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_SEGMENTS, String.valueOf(SegmentedDownloader.DEFAULT_SEGMENTS))));
+        neverminedConfig.setDownloadSegmentRetries(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_SEGMENT_RETRIES, String.valueOf(SegmentedDownloader.DEFAULT_SEGMENT_RETRIES))));
+        neverminedConfig.setDownloadVerifyChecksums(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_VERIFY_CHECKSUMS, "false")));
+        neverminedConfig.setDownloadBufferSize(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_BUFFER_SIZE, String.valueOf(DownloadEngine.DEFAULT_BUFFER_SIZE))));
+        neverminedConfig.setDownloadMaxBuffers(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_MAX_BUFFERS, String.valueOf(DownloadEngine.DEFAULT_MAX_BUFFERS))));
+        neverminedConfig.setDownloadMaxBytesPerSecond(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_MAX_BYTES_PER_SECOND, "0")));
+        neverminedConfig.setDownloadCacheEnabled(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_CACHE_ENABLED, "false")));
+        neverminedConfig.setDownloadCachePath(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_CACHE_PATH, Paths.get(System.getProperty("java.io.tmpdir"), "nevermined-download-cache").toString()));
+        neverminedConfig.setDownloadCacheMaxSize(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.DOWNLOAD_CACHE_MAX_SIZE, String.valueOf(DownloadCache.DEFAULT_MAX_SIZE))));
+
+        neverminedConfig.setDidCacheEnabled(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.DID_CACHE_ENABLED, "true")));
+        neverminedConfig.setDidCacheMaxEntries(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.DID_CACHE_MAX_ENTRIES, String.valueOf(DIDResolutionCache.DEFAULT_MAX_ENTRIES))));
+        neverminedConfig.setDidCacheUrlTtl(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.DID_CACHE_URL_TTL, String.valueOf(DIDResolutionCache.DEFAULT_URL_TTL))));
+        neverminedConfig.setDidCacheDdoTtl(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.DID_CACHE_DDO_TTL, String.valueOf(DIDResolutionCache.DEFAULT_DDO_TTL))));
+
+        neverminedConfig.setTokenCacheMaxEntries(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.TOKEN_CACHE_MAX_ENTRIES, String.valueOf(AccessTokenCache.DEFAULT_MAX_ENTRIES))));
+        neverminedConfig.setTokenCacheTtl(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.TOKEN_CACHE_TTL, String.valueOf(AccessTokenCache.DEFAULT_TTL))));
+        neverminedConfig.setTokenCacheRefreshMargin(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.TOKEN_CACHE_REFRESH_MARGIN, String.valueOf(AccessTokenCache.DEFAULT_REFRESH_MARGIN))));
+
+        neverminedConfig.setComputeMonitorMinInterval(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.COMPUTE_MONITOR_MIN_INTERVAL, String.valueOf(ComputeJobMonitor.DEFAULT_MIN_INTERVAL))));
+        neverminedConfig.setComputeMonitorMaxInterval(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.COMPUTE_MONITOR_MAX_INTERVAL, String.valueOf(ComputeJobMonitor.DEFAULT_MAX_INTERVAL))));
+        neverminedConfig.setComputeMonitorMaxRequestsPerGateway(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.COMPUTE_MONITOR_MAX_REQUESTS_PER_GATEWAY, String.valueOf(ComputeJobMonitor.DEFAULT_MAX_REQUESTS_PER_GATEWAY))));
+        neverminedConfig.setComputeMonitorMaxErrors(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.COMPUTE_MONITOR_MAX_ERRORS, String.valueOf(ComputeJobMonitor.DEFAULT_MAX_ERRORS))));
+        neverminedConfig.setComputeMonitorLogsInterval(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.COMPUTE_MONITOR_LOGS_INTERVAL, String.valueOf(ComputeJobMonitor.DEFAULT_LOGS_INTERVAL))));
+
+        neverminedConfig.setSecretStoreCacheEnabled(Boolean.parseBoolean(
+                (String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_CACHE_ENABLED, "true")));
+        neverminedConfig.setSecretStoreCacheMaxEntries(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_CACHE_MAX_ENTRIES, String.valueOf(DecryptedFilesCache.DEFAULT_MAX_ENTRIES))));
+        neverminedConfig.setSecretStoreCacheTtl(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_CACHE_TTL, String.valueOf(DecryptedFilesCache.DEFAULT_TTL))));
+        neverminedConfig.setSecretStoreRetries(Integer.parseInt(
+                (String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_RETRIES, String.valueOf(BaseManager.DEFAULT_SS_RETRIES))));
+        neverminedConfig.setSecretStoreRetryDelay(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_RETRY_DELAY, String.valueOf(BaseManager.DEFAULT_SS_RETRY_DELAY))));
+        neverminedConfig.setSecretStoreMaxRetryDelay(Long.parseLong(
+                (String) properties.getOrDefault(NeverminedConfig.SECRETSTORE_MAX_RETRY_DELAY, String.valueOf(BaseManager.DEFAULT_SS_MAX_RETRY_DELAY))));
+
         return neverminedConfig;
 
     }
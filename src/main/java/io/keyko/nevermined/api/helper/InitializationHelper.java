@@ -3,14 +3,33 @@ package io.keyko.nevermined.api.helper;
 import io.keyko.common.web3.KeeperService;
 import io.keyko.nevermined.api.config.NeverminedConfig;
 import io.keyko.nevermined.contracts.*;
+import io.keyko.nevermined.core.cache.AccessTokenCache;
+import io.keyko.nevermined.core.compute.ComputeJobMonitor;
+import io.keyko.nevermined.core.cache.DIDResolutionCache;
+import io.keyko.nevermined.core.cache.DecryptedFilesCache;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.EventLogScanner;
+import io.keyko.nevermined.core.keeper.ReceiptTracker;
+import io.keyko.nevermined.core.keeper.TransactionPipeline;
 import io.keyko.nevermined.core.conditions.LockPaymentConditionPayable;
+import io.keyko.nevermined.core.download.DownloadCache;
+import io.keyko.nevermined.core.download.DownloadEngine;
+import io.keyko.nevermined.core.sla.AgreementWatcher;
+import io.keyko.nevermined.external.GatewayClient;
+import io.keyko.nevermined.external.GatewayClientRegistry;
+import io.keyko.nevermined.external.MetadataApiRegistry;
 import io.keyko.nevermined.external.MetadataApiService;
 import io.keyko.nevermined.manager.*;
 import io.keyko.secretstore.core.EvmDto;
 import io.keyko.secretstore.core.SecretStoreDto;
 import org.web3j.crypto.CipherException;
+import org.web3j.protocol.Web3j;
+import org.web3j.tx.TransactionManager;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * Helper to initialize all the managers, services and contracts needed for the API
@@ -18,6 +37,8 @@ import java.io.IOException;
 public class InitializationHelper {
 
     private NeverminedConfig neverminedConfig;
+    private final Map<Web3j, ReceiptTracker> receiptTrackers = new IdentityHashMap<>();
+    private final Map<KeeperService, TransactionManager> trackedTransactionManagers = new IdentityHashMap<>();
 
     /**
      * Constructor
@@ -52,13 +73,235 @@ public class InitializationHelper {
         return keeper;
     }
 
+    /**
+     * Initialize the registry of the Metadata API instances, including the ones used to resolve DIDs.
+     * All of them use the connection settings of the configuration
+     *
+     * @return an initialized MetadataApiRegistry object
+     */
+    public MetadataApiRegistry getMetadataApiRegistry() {
+        return new MetadataApiRegistry(new MetadataApiService.ConnectionSettings()
+                .setMaxConnections(neverminedConfig.getMetadataMaxConnections())
+                .setConnectTimeout(neverminedConfig.getMetadataConnectTimeout())
+                .setReadTimeout(neverminedConfig.getMetadataReadTimeout())
+                .setIdleTimeout(neverminedConfig.getMetadataIdleTimeout()));
+    }
+
     /**
      * Initialize an instance of MetadataApiService
      *
+     * @param metadataApiRegistry the registry of the Metadata API instances
      * @return an initialized MetadataApiService object
      */
-    public MetadataApiService getMetadataService() {
-        return MetadataApiService.getInstance(neverminedConfig.getMetadataUrl());
+    public MetadataApiService getMetadataService(MetadataApiRegistry metadataApiRegistry) {
+        return metadataApiRegistry.get(neverminedConfig.getMetadataUrl());
+    }
+
+    /**
+     * Initialize the registry of the HTTP clients of the gateways, there is one client per gateway url.
+     * The clients copy the downloaded files with the engine of the registry
+     *
+     * @param downloadEngine the engine copying the downloaded files to disk
+     * @return an initialized GatewayClientRegistry object
+     */
+    public GatewayClientRegistry getGatewayClientRegistry(DownloadEngine downloadEngine) {
+        return new GatewayClientRegistry(new GatewayClient.ConnectionSettings()
+                .setConnectTimeout(neverminedConfig.getGatewayConnectTimeout())
+                .setRequestTimeout(neverminedConfig.getGatewayRequestTimeout()),
+                downloadEngine);
+    }
+
+    /**
+     * Initialize the engine copying the downloaded files to disk. It is used by all the downloads made through
+     * the gateway clients of the API instance, so it bounds the memory and the throughput of all of them together
+     *
+     * @return an initialized DownloadEngine object
+     */
+    public DownloadEngine getDownloadEngine() {
+        return new DownloadEngine(
+                neverminedConfig.getDownloadBufferSize(),
+                neverminedConfig.getDownloadMaxBuffers(),
+                neverminedConfig.getDownloadMaxBytesPerSecond());
+    }
+
+    /**
+     * Initialize the local cache of the downloaded files
+     *
+     * @return an initialized DownloadCache object or null if the cache is disabled
+     * @throws IOException if the directory of the cache can't be created or read
+     */
+    public DownloadCache getDownloadCache() throws IOException {
+        if (!neverminedConfig.isDownloadCacheEnabled())
+            return null;
+
+        return new DownloadCache(Paths.get(neverminedConfig.getDownloadCachePath()),
+                neverminedConfig.getDownloadCacheMaxSize());
+    }
+
+    /**
+     * Initialize the engine used to scan the contract events
+     *
+     * @param keeperService the keeperService
+     * @return an initialized EventLogScanner object
+     */
+    public EventLogScanner getEventLogScanner(KeeperService keeperService) {
+        return new EventLogScanner(
+                keeperService.getWeb3(),
+                neverminedConfig.getKeeperLogsFromBlock(),
+                neverminedConfig.getKeeperLogsWindowSize(),
+                neverminedConfig.getKeeperLogsMaxWindowSize(),
+                neverminedConfig.getKeeperLogsConcurrency());
+    }
+
+    /**
+     * Initialize the tracker waiting for the receipts of the transactions sent by the contracts loaded by this helper.
+     * The same tracker is returned for all the keepers connected through the same Web3j client
+     *
+     * @param keeperService the keeperService
+     * @return an initialized ReceiptTracker object, or null if it is disabled in the configuration
+     */
+    public synchronized ReceiptTracker getReceiptTracker(KeeperService keeperService) {
+        if (!neverminedConfig.isKeeperReceiptsTracker())
+            return null;
+        return receiptTrackers.computeIfAbsent(keeperService.getWeb3(), web3j -> new ReceiptTracker(
+                web3j,
+                neverminedConfig.getKeeperReceiptsPollInterval(),
+                neverminedConfig.getKeeperTxAttempts() * neverminedConfig.getKeeperTxSleepDuration()));
+    }
+
+    /**
+     * Gets the transaction manager used to load the contracts, waiting for the receipts through the
+     * ReceiptTracker when it is enabled. Each keeper gets its own wrapped transaction manager, so the contracts
+     * loaded for it sign with its account
+     *
+     * @param keeper the keeper Service
+     * @return the transaction manager
+     */
+    private synchronized TransactionManager getTransactionManager(KeeperService keeper) {
+        ReceiptTracker tracker = getReceiptTracker(keeper);
+        if (tracker == null)
+            return keeper.getTxManager();
+        return trackedTransactionManagers.computeIfAbsent(keeper, k -> tracker.wrap(k.getTxManager()));
+    }
+
+    /**
+     * Initialize the factory of the pipelines used to submit the transactions of an order back to back
+     *
+     * @param keeperService the keeperService
+     * @return an initialized TransactionPipeline.Factory object, or null if the pipelining is disabled
+     */
+    public TransactionPipeline.Factory getTransactionPipelineFactory(KeeperService keeperService) {
+        if (!neverminedConfig.isKeeperTxPipeline())
+            return null;
+        return new TransactionPipeline.Factory(
+                keeperService,
+                neverminedConfig.getKeeperTxAttempts(),
+                neverminedConfig.getKeeperTxSleepDuration());
+    }
+
+    /**
+     * Initialize the watcher used to wait for the creation of agreements and the fulfillment of their conditions
+     *
+     * @param keeperService     the keeperService
+     * @param agreementsManager the manager used to get the status of the agreements
+     * @return an initialized AgreementWatcher object
+     */
+    public AgreementWatcher getAgreementWatcher(KeeperService keeperService, AgreementsManager agreementsManager) {
+        return new AgreementWatcher(
+                agreementsManager,
+                keeperService.getWeb3(),
+                neverminedConfig.getKeeperAgreementsPollInterval(),
+                neverminedConfig.getKeeperAgreementsConditionTimeout(),
+                neverminedConfig.getKeeperAgreementsCreationTimeout(),
+                neverminedConfig.getKeeperAgreementsMaxErrors());
+    }
+
+    /**
+     * Initialize the local index of the events queried by the managers (assets registered by owner,
+     * agreements fulfilled by consumer and provenance events by DID)
+     *
+     * @param eventLogScanner           the scanner used to ingest the events
+     * @param didRegistry               DIDRegistry contract
+     * @param accessCondition           AccessCondition contract
+     * @param computeExecutionCondition ComputeExecutionCondition contract
+     * @return an initialized EventIndex object or null if the index is disabled
+     */
+    public EventIndex getEventIndex(EventLogScanner eventLogScanner, DIDRegistry didRegistry,
+                                    AccessCondition accessCondition, ComputeExecutionCondition computeExecutionCondition) {
+        if (!neverminedConfig.isEventsIndexEnabled())
+            return null;
+
+        String directory = neverminedConfig.getEventsIndexPath() + "/" + didRegistry.getContractAddress().toLowerCase();
+        return new EventIndex(eventLogScanner, directory,
+                neverminedConfig.getKeeperLogsFromBlock(), neverminedConfig.getEventsIndexSyncInterval(),
+                neverminedConfig.getEventsIndexConfirmations())
+                .index(EventIndex.DID_ATTRIBUTE_REGISTERED, didRegistry.getContractAddress(), DIDRegistry.DIDATTRIBUTEREGISTERED_EVENT, 1, 2)
+                .index(EventIndex.ACCESS_FULFILLED, accessCondition.getContractAddress(), AccessCondition.FULFILLED_EVENT, 3)
+                .index(EventIndex.COMPUTE_FULFILLED, computeExecutionCondition.getContractAddress(), ComputeExecutionCondition.FULFILLED_EVENT, 3)
+                .index(EventIndex.PROVENANCE_ATTRIBUTE_REGISTERED, didRegistry.getContractAddress(), DIDRegistry.PROVENANCEATTRIBUTEREGISTERED_EVENT, 2)
+                .index(EventIndex.WAS_GENERATED_BY, didRegistry.getContractAddress(), DIDRegistry.WASGENERATEDBY_EVENT, 1)
+                .index(EventIndex.USED, didRegistry.getContractAddress(), DIDRegistry.USED_EVENT, 1)
+                .index(EventIndex.WAS_DERIVED_FROM, didRegistry.getContractAddress(), DIDRegistry.WASDERIVEDFROM_EVENT, 1)
+                .index(EventIndex.WAS_ASSOCIATED_WITH, didRegistry.getContractAddress(), DIDRegistry.WASASSOCIATEDWITH_EVENT, 1)
+                .index(EventIndex.ACTED_ON_BEHALF, didRegistry.getContractAddress(), DIDRegistry.ACTEDONBEHALF_EVENT, 1);
+    }
+
+    /**
+     * Initialize the cache used to resolve DIDs, listening the DIDRegistry to invalidate the updated DIDs
+     *
+     * @param didRegistry DIDRegistry contract
+     * @return an initialized DIDResolutionCache object or null if the cache is disabled
+     */
+    public DIDResolutionCache getDIDResolutionCache(DIDRegistry didRegistry) {
+        if (!neverminedConfig.isDidCacheEnabled())
+            return null;
+
+        DIDResolutionCache didResolutionCache = new DIDResolutionCache(
+                neverminedConfig.getDidCacheMaxEntries(),
+                neverminedConfig.getDidCacheUrlTtl(),
+                neverminedConfig.getDidCacheDdoTtl());
+        didResolutionCache.listenForRegistryUpdates(didRegistry);
+        return didResolutionCache;
+    }
+
+    /**
+     * Initialize the cache of the files decrypted using the Secret Store
+     *
+     * @return an initialized DecryptedFilesCache object or null if the cache is disabled
+     */
+    public DecryptedFilesCache getDecryptedFilesCache() {
+        if (!neverminedConfig.isSecretStoreCacheEnabled())
+            return null;
+
+        return new DecryptedFilesCache(
+                neverminedConfig.getSecretStoreCacheMaxEntries(),
+                neverminedConfig.getSecretStoreCacheTtl());
+    }
+
+    /**
+     * Initialize the cache of the access tokens issued by the gateways
+     *
+     * @return an initialized AccessTokenCache object
+     */
+    public AccessTokenCache getAccessTokenCache() {
+        return new AccessTokenCache(
+                neverminedConfig.getTokenCacheMaxEntries(),
+                neverminedConfig.getTokenCacheTtl(),
+                neverminedConfig.getTokenCacheRefreshMargin());
+    }
+
+    /**
+     * Initialize the monitor following the status of the compute jobs
+     *
+     * @return an initialized ComputeJobMonitor object
+     */
+    public ComputeJobMonitor getComputeJobMonitor() {
+        return new ComputeJobMonitor(
+                neverminedConfig.getComputeMonitorMinInterval(),
+                neverminedConfig.getComputeMonitorMaxInterval(),
+                neverminedConfig.getComputeMonitorMaxRequestsPerGateway(),
+                neverminedConfig.getComputeMonitorMaxErrors(),
+                neverminedConfig.getComputeMonitorLogsInterval());
     }
 
     /**
@@ -94,6 +337,19 @@ public class InitializationHelper {
         return SecretStoreManager.getInstance(secretStoreDto, evmDto);
     }
 
+    /**
+     * Initialize the registry of the managers of the Secret Store endpoints used by the assets,
+     * starting with the one of the configured Secret Store
+     *
+     * @param secretStoreManager the manager of the configured Secret Store
+     * @param evmDto             DTO with the EVM
+     * @return an initialized SecretStoreRegistry object
+     */
+    public SecretStoreRegistry getSecretStoreRegistry(SecretStoreManager secretStoreManager, EvmDto evmDto) {
+        return new SecretStoreRegistry(evmDto)
+                .register(neverminedConfig.getSecretStoreUrl(), secretStoreManager);
+    }
+
     /**
      * Initialize an instance of NeverminedManager
      *
@@ -182,7 +438,7 @@ public class InitializationHelper {
         return NeverminedToken.load(
                 neverminedConfig.getTokenAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -213,7 +469,7 @@ public class InitializationHelper {
         return TemplateStoreManager.load(
                 neverminedConfig.getTemplateStoreManagerAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -228,7 +484,7 @@ public class InitializationHelper {
         return Dispenser.load(
                 neverminedConfig.getDispenserAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -245,7 +501,7 @@ public class InitializationHelper {
         return DIDRegistry.load(
                 neverminedConfig.getDidRegistryAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -260,7 +516,7 @@ public class InitializationHelper {
         return AccessTemplate.load(
                 neverminedConfig.getAccessTemplateAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -274,7 +530,7 @@ public class InitializationHelper {
         return NFTSalesTemplate.load(
                 neverminedConfig.getNFTSalesTemplateAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -288,7 +544,7 @@ public class InitializationHelper {
         return NFTAccessTemplate.load(
                 neverminedConfig.getNFTAccessTemplateAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -302,7 +558,7 @@ public class InitializationHelper {
         return DIDSalesTemplate.load(
                 neverminedConfig.getDIDSalesTemplateAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -316,7 +572,7 @@ public class InitializationHelper {
         return LockPaymentConditionPayable.load(
                 neverminedConfig.getLockPaymentConditionsAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -331,7 +587,7 @@ public class InitializationHelper {
         return EscrowPaymentCondition.load(
                 neverminedConfig.getEscrowPaymentConditionAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -346,7 +602,7 @@ public class InitializationHelper {
         return AgreementStoreManager.load(
                 neverminedConfig.getAgreementStoreManagerAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -362,7 +618,7 @@ public class InitializationHelper {
         return ConditionStoreManager.load(
                 neverminedConfig.getConditionStoreManagerAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -377,7 +633,7 @@ public class InitializationHelper {
         return AccessCondition.load(
                 neverminedConfig.getAccessConditionsAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -392,7 +648,7 @@ public class InitializationHelper {
         return TransferNFTCondition.load(
                 neverminedConfig.getTransferNFTConditionAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -407,7 +663,7 @@ public class InitializationHelper {
         return TransferDIDOwnershipCondition.load(
                 neverminedConfig.getTransferDIDConditionAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -422,7 +678,7 @@ public class InitializationHelper {
         return NFTAccessCondition.load(
                 neverminedConfig.getNFTAccessConditionAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -437,7 +693,7 @@ public class InitializationHelper {
         return NFTHolderCondition.load(
                 neverminedConfig.getNFTHolderConditionAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -452,7 +708,7 @@ public class InitializationHelper {
         return EscrowComputeExecutionTemplate.load(
                 neverminedConfig.getEscrowComputeExecutionTemplateAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider());
     }
 
@@ -466,7 +722,7 @@ public class InitializationHelper {
         return ComputeExecutionCondition.load(
                 neverminedConfig.getComputeExecutionConditionAddress(),
                 keeper.getWeb3(),
-                keeper.getTxManager(),
+                getTransactionManager(keeper),
                 keeper.getContractGasProvider()
         );
     }
@@ -66,6 +66,15 @@ public class AgreementsImpl implements AgreementsAPI {
         }
     }
 
+    @Override
+    public List<AgreementStatus> statuses(List<String> agreementIds) throws ServiceAgreementException {
+        try {
+            return agreementsManager.getStatuses(agreementIds);
+        }catch (Exception e) {
+            throw new ServiceAgreementException(String.join(",", agreementIds), "There was a problem getting the status of the agreements", e);
+        }
+    }
+
     @Override
     public Agreement getAgreement(String agreementId) throws ServiceAgreementException {
         try {
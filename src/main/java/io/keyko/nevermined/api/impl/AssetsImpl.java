@@ -10,7 +10,12 @@ import io.keyko.nevermined.models.AssetRewards;
 import io.keyko.nevermined.models.DDO;
 import io.keyko.nevermined.models.DID;
 import io.keyko.nevermined.models.asset.AssetMetadata;
+import io.keyko.nevermined.models.asset.DownloadReport;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import io.keyko.nevermined.models.asset.OrderRequest;
 import io.keyko.nevermined.models.asset.OrderResult;
+import io.keyko.nevermined.models.asset.PublishReport;
+import io.keyko.nevermined.models.asset.PublishRequest;
 import io.keyko.nevermined.models.gateway.ComputeLogs;
 import io.keyko.nevermined.models.gateway.ComputeStatus;
 import io.keyko.nevermined.models.metadata.SearchResult;
@@ -25,6 +30,8 @@ import java.io.InputStream;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of AssetsAPI
@@ -83,6 +90,16 @@ public class AssetsImpl implements AssetsAPI {
         return neverminedManager.registerAsset(metadata, serviceDescriptors, providerConfig, new AuthConfig(providerConfig.getGatewayUrl()), BigInteger.ZERO, BigInteger.ZERO);
     }
 
+    @Override
+    public PublishReport createAll(List<PublishRequest> publishRequests) {
+        return neverminedManager.createAll(publishRequests);
+    }
+
+    @Override
+    public PublishReport createAll(List<PublishRequest> publishRequests, int concurrency) {
+        return neverminedManager.createAll(publishRequests, concurrency);
+    }
+
     @Override
     public DDO createMintableDID(AssetMetadata metadata, ProviderConfig providerConfig, AssetRewards assetRewards, BigInteger cap, BigInteger royalties) throws DDOException {
         return neverminedManager.registerAccessServiceAsset(metadata, providerConfig, new AuthConfig(providerConfig.getGatewayUrl()), assetRewards, cap, royalties);
@@ -112,6 +129,18 @@ public class AssetsImpl implements AssetsAPI {
         return neverminedManager.getComputeStatus(serviceAgreementId, executionId, providerConfig);
     }
 
+    @Override
+    public Flowable<ComputeStatus> watchComputeStatus(String serviceAgreementId, String executionId,
+                                                      ProviderConfig providerConfig) {
+        return neverminedManager.watchComputeStatus(serviceAgreementId, executionId, providerConfig);
+    }
+
+    @Override
+    public Flowable<ComputeLogs> tailComputeLogs(String serviceAgreementId, String executionId,
+                                                 ProviderConfig providerConfig) {
+        return neverminedManager.tailComputeLogs(serviceAgreementId, executionId, providerConfig);
+    }
+
     @Override
     public DDO resolve(DID did) throws DDOException {
         return neverminedManager.resolveDID(did);
@@ -157,6 +186,26 @@ public class AssetsImpl implements AssetsAPI {
         return neverminedManager.access(serviceAgreementId, did, serviceIndex, fileIndex, basePath);
     }
 
+    @Override
+    public DownloadReport downloadAll(String serviceAgreementId, DID did, int serviceIndex, String basePath) throws DownloadServiceException {
+        return neverminedManager.accessAll(serviceAgreementId, did, serviceIndex, basePath);
+    }
+
+    @Override
+    public DownloadReport downloadAll(String serviceAgreementId, DID did, int serviceIndex, String basePath, int parallelism, long fileTimeout) throws DownloadServiceException {
+        return neverminedManager.accessAll(serviceAgreementId, did, serviceIndex, basePath, parallelism, fileTimeout);
+    }
+
+    @Override
+    public FileDownloadResult downloadSegmented(String serviceAgreementId, DID did, int serviceIndex, int fileIndex, String basePath) throws DownloadServiceException {
+        return neverminedManager.accessSegmented(serviceAgreementId, did, serviceIndex, fileIndex, basePath);
+    }
+
+    @Override
+    public FileDownloadResult downloadSegmented(String serviceAgreementId, DID did, int serviceIndex, int fileIndex, String basePath, int segments) throws DownloadServiceException {
+        return neverminedManager.accessSegmented(serviceAgreementId, did, serviceIndex, fileIndex, basePath, segments);
+    }
+
 
     @Override
     public InputStream downloadBinary(String serviceAgreementId, DID did, int serviceIndex) throws DownloadServiceException {
@@ -182,6 +231,16 @@ public class AssetsImpl implements AssetsAPI {
         return neverminedManager.downloadAssetByOwner(did, serviceIndex, basePath, fileIndex);
     }
 
+    @Override
+    public DownloadReport ownerDownloadAll(DID did, int serviceIndex, String basePath) throws ServiceException, DownloadServiceException {
+        return neverminedManager.downloadAllByOwner(did, serviceIndex, basePath);
+    }
+
+    @Override
+    public FileDownloadResult ownerDownloadSegmented(DID did, int serviceIndex, int fileIndex, String basePath) throws DownloadServiceException {
+        return neverminedManager.downloadSegmentedByOwner(did, serviceIndex, fileIndex, basePath);
+    }
+
     @Override
     public Flowable<OrderResult> purchaseOrder(DID did, int serviceIndex) throws OrderException {
         return neverminedManager.purchaseAssetFlowable(did, serviceIndex);
@@ -204,6 +263,21 @@ public class AssetsImpl implements AssetsAPI {
         return neverminedManager.orderDirect(did, serviceIndex);
     }
 
+    @Override
+    public List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests) {
+        return neverminedManager.orderAll(orderRequests);
+    }
+
+    @Override
+    public List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests, int concurrency) {
+        return neverminedManager.orderAll(orderRequests, concurrency);
+    }
+
+    @Override
+    public List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests, int concurrency, Executor executor) {
+        return neverminedManager.orderAll(orderRequests, concurrency, executor);
+    }
+
     @Override
     public Boolean retire(DID did) throws DDOException {
         return assetsManager.deleteAsset(did);
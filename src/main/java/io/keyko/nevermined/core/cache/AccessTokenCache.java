@@ -0,0 +1,271 @@
+package io.keyko.nevermined.core.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.keyko.nevermined.models.AbstractModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe cache of the access tokens issued by the gateway. Every token is kept until the expiration time
+ * in the exp claim of the JWT, minus a refresh margin, so a token is renewed before the gateway rejects it.
+ * Concurrent requests of the same token share a single call to the gateway.
+ */
+public class AccessTokenCache {
+
+    private static final Logger log = LogManager.getLogger(AccessTokenCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL = 600000L;
+    public static final long DEFAULT_REFRESH_MARGIN = 30000L;
+
+    private final int maxEntries;
+    private final long defaultTtl;
+    private final long refreshMargin;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<List<String>, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+    private final AtomicLong expirations = new AtomicLong(0);
+    private final AtomicLong sharedLoads = new AtomicLong(0);
+    private final AtomicLong failedLoads = new AtomicLong(0);
+
+    /**
+     * Requests a new access token to the gateway
+     *
+     * @param <E> type of the exception thrown when the token can't be issued
+     */
+    @FunctionalInterface
+    public interface TokenLoader<E extends Exception> {
+        String load() throws E;
+    }
+
+    private static class Entry {
+        private final CompletableFuture<String> token = new CompletableFuture<>();
+        // Time in milliseconds when the token must be renewed, set once it is loaded
+        private volatile long refreshAt = Long.MAX_VALUE;
+    }
+
+    public AccessTokenCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL, DEFAULT_REFRESH_MARGIN);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries    maximum number of tokens kept in the cache
+     * @param defaultTtl    time to live in milliseconds of the tokens without exp claim
+     * @param refreshMargin milliseconds before the expiration of a token when it is renewed
+     */
+    public AccessTokenCache(int maxEntries, long defaultTtl, long refreshMargin) {
+        this(maxEntries, defaultTtl, refreshMargin, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries    maximum number of tokens kept in the cache
+     * @param defaultTtl    time to live in milliseconds of the tokens without exp claim
+     * @param refreshMargin milliseconds before the expiration of a token when it is renewed
+     * @param clock         source of the current time in milliseconds
+     */
+    public AccessTokenCache(int maxEntries, long defaultTtl, long refreshMargin, LongSupplier clock) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("The maximum number of entries must be greater than 0");
+        if (defaultTtl < 1)
+            throw new IllegalArgumentException("The time to live must be greater than 0");
+
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.refreshMargin = Math.max(0, refreshMargin);
+        this.clock = clock;
+    }
+
+    /**
+     * Builds the key of a token. Every part is kept apart, so different arguments never produce the same key
+     *
+     * @param parts the kind of token and the arguments used to request it
+     * @return the key
+     */
+    public static List<String> key(String... parts) {
+        return Collections.unmodifiableList(Arrays.asList(parts));
+    }
+
+    /**
+     * Gets a token from the cache, requesting it with the loader if it is not cached or it is about to expire.
+     * If the token is already being requested by another thread, waits for that request instead of sending
+     * a new one
+     *
+     * @param key    the key of the token
+     * @param loader the loader requesting the token to the gateway
+     * @param <E>    type of the exception thrown by the loader
+     * @return the access token
+     * @throws E if the token can't be issued
+     */
+    public <E extends Exception> String get(List<String> key, TokenLoader<E> loader) throws E {
+        while (true) {
+            final Entry current = entries.get(key);
+            if (current != null) {
+                if (!current.token.isDone()) {
+                    sharedLoads.incrementAndGet();
+                    return await(key, current);
+                }
+                if (current.refreshAt > clock.getAsLong() && !current.token.isCompletedExceptionally()) {
+                    hits.incrementAndGet();
+                    return current.token.join();
+                }
+                if (entries.remove(key, current))
+                    expirations.incrementAndGet();
+                continue;
+            }
+
+            final Entry entry = new Entry();
+            if (entries.putIfAbsent(key, entry) != null)
+                continue;
+            misses.incrementAndGet();
+            return load(key, entry, loader);
+        }
+    }
+
+    private <E extends Exception> String load(List<String> key, Entry entry, TokenLoader<E> loader) throws E {
+        final String token;
+        try {
+            token = loader.load();
+            if (token == null)
+                throw new IllegalStateException("The gateway didn't return an access token");
+        } catch (Exception | Error e) {
+            failedLoads.incrementAndGet();
+            entries.remove(key, entry);
+            entry.token.completeExceptionally(e);
+            throw e;
+        }
+
+        entry.refreshAt = expirationOf(token) - refreshMargin;
+        entry.token.complete(token);
+        if (entries.size() > maxEntries)
+            evict();
+        return token;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> String await(List<String> key, Entry entry) throws E {
+        try {
+            return entry.token.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Error)
+                throw (Error) cause;
+            // The request was sent by a loader of the same key, so it throws the same exceptions
+            throw (E) cause;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the access token of " + key, e);
+        }
+    }
+
+    /**
+     * Gets the expiration time of a token from its exp claim
+     *
+     * @param token the JWT
+     * @return the expiration time in milliseconds
+     */
+    long expirationOf(String token) {
+        final long now = clock.getAsLong();
+        try {
+            final String[] parts = token.split("\\.");
+            if (parts.length >= 2) {
+                final JsonNode claims = AbstractModel.getMapperInstance()
+                        .readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+                final JsonNode exp = claims.get("exp");
+                if (exp != null && exp.canConvertToLong())
+                    return exp.asLong() * 1000L;
+            }
+        } catch (Exception e) {
+            log.debug("Unable to read the expiration of the access token: " + e.getMessage());
+        }
+        return now + defaultTtl;
+    }
+
+    private void evict() {
+        final long now = clock.getAsLong();
+        for (Map.Entry<List<String>, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().token.isDone() && entry.getValue().refreshAt <= now
+                    && entries.remove(entry.getKey(), entry.getValue()))
+                expirations.incrementAndGet();
+        }
+
+        while (entries.size() > maxEntries) {
+            final Map.Entry<List<String>, Entry> eldest = entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().token.isDone())
+                    .min(Comparator.comparingLong(entry -> entry.getValue().refreshAt))
+                    .orElse(null);
+            if (eldest == null)
+                return;
+            if (entries.remove(eldest.getKey(), eldest.getValue()))
+                evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes a token, for example after the gateway rejected it
+     *
+     * @param key the key of the token
+     * @return true if the token was cached
+     */
+    public boolean invalidate(List<String> key) {
+        return entries.remove(key) != null;
+    }
+
+    /**
+     * Removes all the tokens of the cache
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of requests that waited for a token already being requested by another thread
+     *
+     * @return the number of requests
+     */
+    public long getSharedLoads() {
+        return sharedLoads.get();
+    }
+
+    /**
+     * Number of token requests to the gateway that failed
+     *
+     * @return the number of requests
+     */
+    public long getFailedLoads() {
+        return failedLoads.get();
+    }
+
+    /**
+     * Gets a snapshot of the counters of the cache. The expirations are the tokens renewed because they were
+     * about to expire
+     *
+     * @return CacheStats
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(), entries.size());
+    }
+}
@@ -0,0 +1,76 @@
+package io.keyko.nevermined.core.cache;
+
+/**
+ * Immutable snapshot of the counters of a cache
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long size;
+
+    public CacheStats(long hits, long misses, long evictions, long expirations, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Number of entries removed because the cache reached its maximum size
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Number of entries removed because their time to live expired
+     *
+     * @return the number of expirations
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getRequests() {
+        return hits + misses;
+    }
+
+    /**
+     * Ratio of requests served from the cache
+     *
+     * @return a value between 0 and 1, or 0 if the cache was never queried
+     */
+    public double getHitRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                ", size=" + size +
+                '}';
+    }
+}
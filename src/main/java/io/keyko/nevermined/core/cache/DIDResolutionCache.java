@@ -0,0 +1,180 @@
+package io.keyko.nevermined.core.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.keyko.nevermined.contracts.DIDRegistry;
+import io.keyko.nevermined.models.DDO;
+import io.keyko.nevermined.models.DID;
+import io.reactivex.disposables.Disposable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+
+/**
+ * Two levels cache used to resolve DIDs. The first level keeps the url registered on-chain for a DID
+ * (avoiding the DIDRegistry call), the second one keeps the DDO fetched from that url (avoiding the
+ * Metadata API request).
+ * The DDOs are kept serialized and parsed on every hit, so every caller gets its own copy and modifying it
+ * doesn't change the DDO returned to the next ones.
+ */
+public class DIDResolutionCache {
+
+    private static final Logger log = LogManager.getLogger(DIDResolutionCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_URL_TTL = 600000L;
+    public static final long DEFAULT_DDO_TTL = 60000L;
+
+    private final ExpiringLruCache<String, String> urls;
+    private final ExpiringLruCache<String, String> ddos;
+
+    private Disposable registrySubscription;
+
+    public DIDResolutionCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_URL_TTL, DEFAULT_DDO_TTL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries maximum number of DIDs kept in every level of the cache
+     * @param urlTtl     time to live in milliseconds of the DID to url entries
+     * @param ddoTtl     time to live in milliseconds of the DID to DDO entries
+     */
+    public DIDResolutionCache(int maxEntries, long urlTtl, long ddoTtl) {
+        this.urls = new ExpiringLruCache<>(maxEntries, urlTtl);
+        this.ddos = new ExpiringLruCache<>(maxEntries, ddoTtl);
+    }
+
+    /**
+     * Normalizes the different representations of a DID (did:nv:..., 0x prefixed hash or plain hash)
+     *
+     * @param did the did or the hash of the did
+     * @return the key used in the cache
+     */
+    public static String toKey(String did) {
+        String hash = did.startsWith(DID.PREFIX) ? did.substring(DID.PREFIX.length()) : did;
+        return Numeric.cleanHexPrefix(hash).toLowerCase();
+    }
+
+    public String getUrl(DID did) {
+        return urls.get(toKey(did.getHash()));
+    }
+
+    public void putUrl(DID did, String url) {
+        urls.put(toKey(did.getHash()), url);
+    }
+
+    /**
+     * Gets a copy of the DDO cached for a DID
+     *
+     * @param did the did
+     * @return a new DDO instance, or null if the DID is not cached
+     */
+    public DDO getDDO(DID did) {
+        final String key = toKey(did.getHash());
+        final String json = ddos.get(key);
+        if (json == null)
+            return null;
+        try {
+            return DDO.fromJSON(new TypeReference<DDO>() {
+            }, json);
+        } catch (IOException e) {
+            log.warn("Unable to read the cached DDO of " + key + ": " + e.getMessage());
+            ddos.invalidate(key);
+            return null;
+        }
+    }
+
+    /**
+     * Caches a DDO, the later changes of the instance are not cached
+     *
+     * @param did the did
+     * @param ddo the DDO
+     */
+    public void putDDO(DID did, DDO ddo) {
+        final String key = toKey(did.getHash());
+        try {
+            ddos.put(key, ddo.toJson());
+        } catch (JsonProcessingException e) {
+            log.warn("Unable to cache the DDO of " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a DID from both levels of the cache
+     *
+     * @param did the did or the hash of the did
+     */
+    public void invalidate(String did) {
+        String key = toKey(did);
+        boolean removed = urls.invalidate(key) | ddos.invalidate(key);
+        if (removed)
+            log.debug("Invalidated DID resolution cache entry: " + key);
+    }
+
+    public void invalidate(DID did) {
+        invalidate(did.getHash());
+    }
+
+    public void invalidateAll() {
+        urls.invalidateAll();
+        ddos.invalidateAll();
+    }
+
+    /**
+     * Subscribes to the DIDAttributeRegistered events of the DIDRegistry contract, invalidating the DIDs
+     * updated on-chain as soon as the event is received
+     *
+     * @param didRegistry the DIDRegistry contract
+     */
+    public synchronized void listenForRegistryUpdates(DIDRegistry didRegistry) {
+        stopListening();
+        registrySubscription = didRegistry
+                .dIDAttributeRegisteredEventFlowable(DefaultBlockParameterName.LATEST, DefaultBlockParameterName.LATEST)
+                .subscribe(
+                        event -> invalidate(Numeric.toHexStringNoPrefix(event._did)),
+                        error -> {
+                            log.warn("Stopped listening DIDRegistry events, flushing the DID resolution cache: " + error.getMessage());
+                            invalidateAll();
+                        });
+    }
+
+    /**
+     * Stops listening the DIDRegistry events
+     */
+    public synchronized void stopListening() {
+        if (registrySubscription != null && !registrySubscription.isDisposed())
+            registrySubscription.dispose();
+        registrySubscription = null;
+    }
+
+    /**
+     * Gets the counters of the DID to url level
+     *
+     * @return CacheStats
+     */
+    public CacheStats getUrlStats() {
+        return urls.stats();
+    }
+
+    /**
+     * Gets the counters of the DID to DDO level
+     *
+     * @return CacheStats
+     */
+    public CacheStats getDDOStats() {
+        return ddos.stats();
+    }
+
+    @Override
+    public String toString() {
+        return "DIDResolutionCache{" +
+                "urls=" + urls.stats() +
+                ", ddos=" + ddos.stats() +
+                '}';
+    }
+}
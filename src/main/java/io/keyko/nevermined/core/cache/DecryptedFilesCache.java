@@ -0,0 +1,97 @@
+package io.keyko.nevermined.core.cache;
+
+import io.keyko.nevermined.models.asset.AssetMetadata;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the files of the assets decrypted using the Secret Store, so consuming the same asset again
+ * doesn't request a new decryption.
+ * The entries are keyed by the DID and the hash of the encrypted files, so a DDO published again with
+ * different files never returns the previous ones.
+ * The files returned are shared between callers, so they must be considered read-only.
+ */
+public class DecryptedFilesCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL = 600000L;
+
+    private final ExpiringLruCache<String, List<AssetMetadata.File>> files;
+
+    public DecryptedFilesCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries maximum number of assets kept in the cache
+     * @param ttl        time to live in milliseconds of the entries
+     */
+    public DecryptedFilesCache(int maxEntries, long ttl) {
+        this.files = new ExpiringLruCache<>(maxEntries, ttl);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries maximum number of assets kept in the cache
+     * @param ttl        time to live in milliseconds of the entries
+     * @param clock      source of the current time in milliseconds
+     */
+    public DecryptedFilesCache(int maxEntries, long ttl, LongSupplier clock) {
+        this.files = new ExpiringLruCache<>(maxEntries, ttl, clock);
+    }
+
+    /**
+     * Builds the key of the files of an asset
+     *
+     * @param did            the did or the hash of the did
+     * @param encryptedFiles the files encrypted, as published in the DDO
+     * @return the key used in the cache
+     */
+    public static String toKey(String did, String encryptedFiles) {
+        return DIDResolutionCache.toKey(did) + ":" + Numeric.cleanHexPrefix(Hash.sha3String(encryptedFiles));
+    }
+
+    /**
+     * Gets the decrypted files of an asset
+     *
+     * @param did            the did or the hash of the did
+     * @param encryptedFiles the files encrypted, as published in the DDO
+     * @return a new list with the files, or null if they are not cached
+     */
+    public List<AssetMetadata.File> get(String did, String encryptedFiles) {
+        final List<AssetMetadata.File> cached = files.get(toKey(did, encryptedFiles));
+        return cached == null ? null : new ArrayList<>(cached);
+    }
+
+    public void put(String did, String encryptedFiles, List<AssetMetadata.File> decryptedFiles) {
+        files.put(toKey(did, encryptedFiles), new ArrayList<>(decryptedFiles));
+    }
+
+    public boolean invalidate(String did, String encryptedFiles) {
+        return files.invalidate(toKey(did, encryptedFiles));
+    }
+
+    public void invalidateAll() {
+        files.invalidateAll();
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Gets the counters of the cache
+     *
+     * @return CacheStats
+     */
+    public CacheStats getStats() {
+        return files.stats();
+    }
+}
@@ -0,0 +1,154 @@
+package io.keyko.nevermined.core.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe cache bounded in size (least recently used entries are evicted first) where every
+ * entry expires after a fixed time to live
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries maximum number of entries kept in the cache
+     * @param ttlMillis  time to live of every entry in milliseconds
+     */
+    public ExpiringLruCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries maximum number of entries kept in the cache
+     * @param ttlMillis  time to live of every entry in milliseconds
+     * @param clock      source of the current time in milliseconds
+     */
+    public ExpiringLruCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("The maximum number of entries must be greater than 0");
+        if (ttlMillis < 1)
+            throw new IllegalArgumentException("The time to live must be greater than 0");
+
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the value associated with a key
+     *
+     * @param key the key
+     * @return the value or null if the key is not cached or it expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Adds or replaces the value associated with a key
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+        if (entries.size() > maxEntries)
+            evict();
+    }
+
+    /**
+     * Removes the value associated with a key
+     *
+     * @param key the key
+     * @return true if there was an entry for the key
+     */
+    public synchronized boolean invalidate(K key) {
+        return entries.remove(key) != null;
+    }
+
+    /**
+     * Removes all the entries of the cache
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Gets a snapshot of the counters of the cache
+     *
+     * @return CacheStats
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, expirations, entries.size());
+    }
+
+    private void evict() {
+        long now = clock.getAsLong();
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            Entry<V> eldest = iterator.next().getValue();
+            iterator.remove();
+            if (eldest.expiresAt <= now)
+                expirations++;
+            else
+                evictions++;
+        }
+    }
+}
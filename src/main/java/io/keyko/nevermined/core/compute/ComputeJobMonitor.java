@@ -0,0 +1,401 @@
+package io.keyko.nevermined.core.compute;
+
+import io.keyko.nevermined.models.gateway.ComputeLogs;
+import io.keyko.nevermined.models.gateway.ComputeStatus;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Follows the status of many compute jobs without a polling loop per job.
+ * A single thread checks which jobs are due and asks their gateways for the status, limiting the requests in
+ * flight to each gateway. The interval of a job is reset to the minimum every time its status changes and doubles,
+ * up to the maximum, while it stays the same, so long running jobs are polled less often.
+ * Every job is polled once whatever the number of subscribers, and it is not polled anymore when it finishes.
+ * The thread only runs while there are jobs being watched.
+ * The logs of a job can be followed too, getting only the lines not read before until the job finishes.
+ */
+public class ComputeJobMonitor {
+
+    private static final Logger log = LogManager.getLogger(ComputeJobMonitor.class);
+
+    public static final long DEFAULT_MIN_INTERVAL = 1000L;
+    public static final long DEFAULT_MAX_INTERVAL = 30000L;
+    public static final int DEFAULT_MAX_REQUESTS_PER_GATEWAY = 16;
+    public static final int DEFAULT_MAX_ERRORS = 5;
+    public static final long DEFAULT_LOGS_INTERVAL = 2000L;
+
+    private static final List<String> TERMINAL_STATUSES = Arrays.asList("succeeded", "failed", "error");
+
+    private final long minInterval;
+    private final long maxInterval;
+    private final int maxRequestsPerGateway;
+    private final int maxErrors;
+    private final long logsInterval;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestsInFlight = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> task;
+
+    /**
+     * Gets the current status of a compute job from its gateway
+     */
+    @FunctionalInterface
+    public interface StatusLoader {
+        CompletableFuture<ComputeStatus> load() throws Exception;
+    }
+
+    /**
+     * Gets all the lines of the logs of a compute job from its gateway
+     */
+    @FunctionalInterface
+    public interface LogsLoader {
+        CompletableFuture<List<ComputeLogs>> load() throws Exception;
+    }
+
+    private static class Job {
+        private final String key;
+        private final String gateway;
+        private final StatusLoader loader;
+        private final List<FlowableEmitter<ComputeStatus>> emitters = new CopyOnWriteArrayList<>();
+        private ComputeStatus lastStatus;
+        private long interval;
+        private long nextPoll;
+        private int errors;
+        private boolean inFlight;
+        private boolean finished;
+
+        private Job(String key, String gateway, StatusLoader loader, long interval) {
+            this.key = key;
+            this.gateway = gateway;
+            this.loader = loader;
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Constructor using the default settings
+     */
+    public ComputeJobMonitor() {
+        this(DEFAULT_MIN_INTERVAL, DEFAULT_MAX_INTERVAL, DEFAULT_MAX_REQUESTS_PER_GATEWAY, DEFAULT_MAX_ERRORS,
+                DEFAULT_LOGS_INTERVAL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param minInterval           milliseconds between the requests of a job whose status just changed
+     * @param maxInterval           maximum milliseconds between the requests of a job
+     * @param maxRequestsPerGateway maximum number of status requests in flight to the same gateway
+     * @param maxErrors             consecutive failed requests of a job before its Flowable fails
+     */
+    public ComputeJobMonitor(long minInterval, long maxInterval, int maxRequestsPerGateway, int maxErrors) {
+        this(minInterval, maxInterval, maxRequestsPerGateway, maxErrors, DEFAULT_LOGS_INTERVAL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param minInterval           milliseconds between the requests of a job whose status just changed
+     * @param maxInterval           maximum milliseconds between the requests of a job
+     * @param maxRequestsPerGateway maximum number of status requests in flight to the same gateway
+     * @param maxErrors             consecutive failed requests of a job before its Flowable fails
+     * @param logsInterval          milliseconds between the requests of the logs of a job being followed
+     */
+    public ComputeJobMonitor(long minInterval, long maxInterval, int maxRequestsPerGateway, int maxErrors,
+                             long logsInterval) {
+        if (minInterval < 1 || maxInterval < minInterval)
+            throw new IllegalArgumentException("The intervals must be greater than 0 and the maximum not lower than the minimum");
+        if (maxRequestsPerGateway < 1)
+            throw new IllegalArgumentException("The maximum number of requests per gateway must be greater than 0");
+
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.maxRequestsPerGateway = maxRequestsPerGateway;
+        this.maxErrors = Math.max(1, maxErrors);
+        this.logsInterval = Math.max(1, logsInterval);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compute-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "compute-monitor-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Follows the status of a compute job. The Flowable emits the last status known when subscribed and then
+     * every change of status, completing when the job reaches a terminal status. The job is not polled anymore
+     * when all its subscribers cancel
+     *
+     * @param gatewayUrl  the url of the gateway running the job, the requests to the same gateway are limited
+     * @param agreementId the agreement id of the compute service
+     * @param executionId the id of the compute job
+     * @param loader      the request of the status to the gateway
+     * @return a Flowable over the status of the job
+     */
+    public Flowable<ComputeStatus> watch(String gatewayUrl, String agreementId, String executionId,
+                                         StatusLoader loader) {
+        final String key = agreementId + "/" + executionId;
+        return Flowable.create(emitter -> {
+            while (true) {
+                final Job job = jobs.computeIfAbsent(key, k -> new Job(k, gatewayUrl, loader, minInterval));
+                synchronized (job) {
+                    if (job.finished) {
+                        if (!isTerminal(job.lastStatus))
+                            // Left by its last subscriber, it is being removed
+                            continue;
+                        emitter.onNext(job.lastStatus);
+                        emitter.onComplete();
+                        return;
+                    }
+                    if (job.lastStatus != null)
+                        emitter.onNext(job.lastStatus);
+                    job.emitters.add(emitter);
+                }
+                emitter.setCancellable(() -> unsubscribe(job, emitter));
+                start();
+                return;
+            }
+        }, BackpressureStrategy.LATEST);
+    }
+
+    /**
+     * Follows the logs of a compute job. The Flowable emits the lines not emitted before every time the logs
+     * are requested, and completes after reading the logs once the job reaches a terminal status.
+     * A failed request of the logs is repeated with the backoff of the status requests, and the Flowable only fails
+     * after maxErrors consecutive failures.
+     * The gateway returns all the lines in every request, so the new ones are found with a {@link ComputeLogTail}
+     *
+     * @param gatewayUrl   the url of the gateway running the job
+     * @param agreementId  the agreement id of the compute service
+     * @param executionId  the id of the compute job
+     * @param statusLoader the request of the status to the gateway, used to know when the job finishes
+     * @param logsLoader   the request of the logs to the gateway
+     * @return a Flowable over the new lines of the logs
+     */
+    public Flowable<ComputeLogs> tailLogs(String gatewayUrl, String agreementId, String executionId,
+                                          StatusLoader statusLoader, LogsLoader logsLoader) {
+        return Flowable.defer(() -> {
+            final ComputeLogTail tail = new ComputeLogTail();
+            final Flowable<ComputeStatus> finished = watch(gatewayUrl, agreementId, executionId, statusLoader)
+                    .filter(ComputeJobMonitor::isTerminal);
+
+            // A last request after the end of the job gets the lines written since the previous one
+            return Flowable.interval(0, logsInterval, TimeUnit.MILLISECONDS, Schedulers.io())
+                    .onBackpressureDrop()
+                    .takeUntil(finished)
+                    .concatWith(Flowable.just(-1L))
+                    .concatMapSingle(tick -> loadWithRetries(logsLoader, executionId))
+                    .concatMapIterable(tail::update);
+        });
+    }
+
+    /**
+     * Requests the logs, requesting them again after every failure with a wait that doubles up to maxInterval,
+     * until maxErrors requests fail in a row
+     *
+     * @param loader      the request of the logs to the gateway
+     * @param executionId the id of the compute job
+     * @return a Single with the logs
+     */
+    private Single<List<ComputeLogs>> loadWithRetries(LogsLoader loader, String executionId) {
+        final AtomicInteger errors = new AtomicInteger(0);
+        return load(loader).retryWhen(failures -> failures.flatMap(error -> {
+            final int attempt = errors.incrementAndGet();
+            if (attempt >= maxErrors)
+                return Flowable.error(error);
+            final long delay = Math.min(maxInterval, logsInterval << Math.min(attempt, 20));
+            log.debug("Error getting the logs of the compute job " + executionId + ", retrying in " + delay
+                    + " ms: " + error.getMessage());
+            return Flowable.timer(delay, TimeUnit.MILLISECONDS, Schedulers.io());
+        }));
+    }
+
+    private static Single<List<ComputeLogs>> load(LogsLoader loader) {
+        return Single.create(emitter -> {
+            final CompletableFuture<List<ComputeLogs>> future = loader.load();
+            emitter.setCancellable(() -> future.cancel(false));
+            future.whenComplete((logs, error) -> {
+                if (error != null)
+                    emitter.tryOnError(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                else
+                    emitter.onSuccess(logs);
+            });
+        });
+    }
+
+    /**
+     * Number of jobs being watched
+     *
+     * @return the number of jobs
+     */
+    public int size() {
+        return jobs.size();
+    }
+
+    /**
+     * Stops polling and completes the Flowables of the jobs being watched
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        for (Job job : jobs.values()) {
+            synchronized (job) {
+                job.finished = true;
+                job.emitters.forEach(FlowableEmitter::onComplete);
+                job.emitters.clear();
+            }
+        }
+        jobs.clear();
+    }
+
+    public static boolean isTerminal(ComputeStatus status) {
+        return status != null && status.status != null && TERMINAL_STATUSES.contains(status.status.toLowerCase());
+    }
+
+    private synchronized void start() {
+        if (task == null || task.isDone())
+            task = scheduler.scheduleWithFixedDelay(this::check, 0, minInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopIfIdle() {
+        if (jobs.isEmpty() && task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    private void unsubscribe(Job job, FlowableEmitter<ComputeStatus> emitter) {
+        synchronized (job) {
+            job.emitters.remove(emitter);
+            if (job.emitters.isEmpty())
+                finish(job);
+        }
+    }
+
+    private void finish(Job job) {
+        job.finished = true;
+        jobs.remove(job.key, job);
+    }
+
+    private void check() {
+        try {
+            if (jobs.isEmpty()) {
+                stopIfIdle();
+                return;
+            }
+
+            // Groups the jobs due by gateway, so a gateway with many jobs doesn't delay the others
+            final long now = System.currentTimeMillis();
+            final Map<String, List<Job>> due = new HashMap<>();
+            for (Job job : jobs.values()) {
+                synchronized (job) {
+                    if (!job.inFlight && !job.finished && job.nextPoll <= now)
+                        due.computeIfAbsent(job.gateway, k -> new ArrayList<>()).add(job);
+                }
+            }
+
+            for (Map.Entry<String, List<Job>> entry : due.entrySet()) {
+                final AtomicInteger inFlight = requestsInFlight.computeIfAbsent(entry.getKey(), k -> new AtomicInteger());
+                entry.getValue().sort(Comparator.comparingLong(job -> job.nextPoll));
+                for (Job job : entry.getValue()) {
+                    if (inFlight.get() >= maxRequestsPerGateway)
+                        break;
+                    poll(job, inFlight);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Error checking the status of the compute jobs: " + e.getMessage());
+        }
+    }
+
+    private void poll(Job job, AtomicInteger inFlight) {
+        synchronized (job) {
+            job.inFlight = true;
+        }
+        inFlight.incrementAndGet();
+        // The loader may need to request an access token, so it doesn't run in the thread of the monitor
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return job.loader.load();
+            } catch (Exception e) {
+                return CompletableFuture.<ComputeStatus>failedFuture(e);
+            }
+        }, workers)
+                .thenCompose(future -> future)
+                .whenComplete((status, error) -> {
+                    inFlight.decrementAndGet();
+                    update(job, status, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                });
+    }
+
+    private void update(Job job, ComputeStatus status, Throwable error) {
+        synchronized (job) {
+            job.inFlight = false;
+            if (job.finished)
+                return;
+
+            if (error != null || status == null) {
+                job.errors++;
+                log.debug("Error getting the status of the compute job " + job.key + ": "
+                        + (error != null ? error.getMessage() : "empty response"));
+                if (job.errors >= maxErrors) {
+                    final Throwable cause = error != null ? error
+                            : new IllegalStateException("The gateway didn't return the status of " + job.key);
+                    job.emitters.forEach(emitter -> emitter.tryOnError(cause));
+                    job.emitters.clear();
+                    finish(job);
+                    return;
+                }
+                job.interval = Math.min(maxInterval, job.interval * 2);
+            } else {
+                job.errors = 0;
+                final boolean changed = job.lastStatus == null || !Objects.equals(job.lastStatus.status, status.status);
+                job.lastStatus = status;
+                if (changed) {
+                    job.interval = minInterval;
+                    job.emitters.forEach(emitter -> emitter.onNext(status));
+                } else {
+                    job.interval = Math.min(maxInterval, job.interval * 2);
+                }
+                if (isTerminal(status)) {
+                    job.emitters.forEach(FlowableEmitter::onComplete);
+                    job.emitters.clear();
+                    finish(job);
+                    return;
+                }
+            }
+            job.nextPoll = System.currentTimeMillis() + job.interval;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.keyko.nevermined.core.compute;
+
+import io.keyko.nevermined.models.gateway.ComputeLogs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the position of the last line read of the logs of a compute job, so only the new lines are returned.
+ * The gateway returns all the lines of every pod in each request, so the lines are counted per pod: the lines
+ * of a pod beyond the ones already read are the new ones.
+ * If a pod returns fewer lines than the ones already read, its logs were replaced (for example the pod was
+ * restarted) and all its lines are returned again.
+ */
+public class ComputeLogTail {
+
+    private final Map<String, Integer> offsets = new HashMap<>();
+
+    /**
+     * Gets the lines not returned before, and moves the position to the end of the logs
+     *
+     * @param logs all the lines of the logs of the compute job
+     * @return the new lines, in the same order
+     */
+    public synchronized List<ComputeLogs> update(List<ComputeLogs> logs) {
+        final Map<String, List<ComputeLogs>> byPod = new LinkedHashMap<>();
+        for (ComputeLogs line : logs)
+            byPod.computeIfAbsent(podOf(line), k -> new ArrayList<>()).add(line);
+
+        final Map<String, Integer> skip = new HashMap<>();
+        for (Map.Entry<String, List<ComputeLogs>> pod : byPod.entrySet()) {
+            final int offset = offsets.getOrDefault(pod.getKey(), 0);
+            skip.put(pod.getKey(), pod.getValue().size() < offset ? 0 : offset);
+            offsets.put(pod.getKey(), pod.getValue().size());
+        }
+
+        final List<ComputeLogs> newLines = new ArrayList<>();
+        for (ComputeLogs line : logs) {
+            final String pod = podOf(line);
+            final int remaining = skip.get(pod);
+            if (remaining > 0)
+                skip.put(pod, remaining - 1);
+            else
+                newLines.add(line);
+        }
+        return newLines;
+    }
+
+    /**
+     * Number of lines of a pod already read
+     *
+     * @param podName the name of the pod
+     * @return the number of lines
+     */
+    public synchronized int getOffset(String podName) {
+        return offsets.getOrDefault(podName == null ? "" : podName, 0);
+    }
+
+    private static String podOf(ComputeLogs line) {
+        return line.podName == null ? "" : line.podName;
+    }
+}
@@ -0,0 +1,134 @@
+package io.keyko.nevermined.core.conditions;
+
+import io.keyko.common.helpers.EncodingHelper;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes in the JVM the same values that the condition contracts return from their hashValues and generateId
+ * functions, so the condition ids of an agreement can be generated without calling the keeper.
+ * All the values are hashed as keccak256(abi.encode(...)) of the function parameters.
+ */
+public final class ConditionIdCalculator {
+
+    private ConditionIdCalculator() {
+    }
+
+    /**
+     * Equivalent to Condition.generateId
+     *
+     * @param agreementId      the service agreement id
+     * @param conditionAddress the address of the condition contract
+     * @param valueHash        the hash of the condition parameters
+     * @return the condition id
+     */
+    public static byte[] generateId(String agreementId, String conditionAddress, byte[] valueHash) {
+        return hash(bytes32(agreementId), new Address(conditionAddress), new Bytes32(valueHash));
+    }
+
+    /**
+     * Equivalent to LockPaymentCondition.hashValues
+     *
+     * @param did           the DID hash
+     * @param rewardAddress the address where the payment is locked
+     * @param tokenAddress  the token used for the payment
+     * @param amounts       payment amounts
+     * @param receivers     receivers of the payment
+     * @return the hash of the parameters
+     */
+    public static byte[] hashLockPayment(String did, String rewardAddress, String tokenAddress,
+                                         List<BigInteger> amounts, List<String> receivers) {
+        return hash(bytes32(did), new Address(rewardAddress), new Address(tokenAddress),
+                uint256Array(amounts), addressArray(receivers));
+    }
+
+    /**
+     * Equivalent to the hashValues function of the AccessCondition, ComputeExecutionCondition, NFTAccessCondition
+     * and TransferDIDOwnershipCondition contracts, all of them hashing a DID and an address
+     *
+     * @param did     the DID hash
+     * @param grantee the address of the grantee
+     * @return the hash of the parameters
+     */
+    public static byte[] hashDIDGrantee(String did, String grantee) {
+        return hash(bytes32(did), new Address(grantee));
+    }
+
+    /**
+     * Equivalent to EscrowPaymentCondition.hashValues
+     *
+     * @param did                the DID hash
+     * @param amounts            payment amounts
+     * @param receivers          receivers of the payment
+     * @param lockPaymentAddress the address where the payment is locked
+     * @param tokenAddress       the token used for the payment
+     * @param lockConditionId    id of the lock payment condition
+     * @param releaseConditionId id of the condition releasing the payment
+     * @return the hash of the parameters
+     */
+    public static byte[] hashEscrowPayment(String did, List<BigInteger> amounts, List<String> receivers,
+                                           String lockPaymentAddress, String tokenAddress,
+                                           String lockConditionId, String releaseConditionId) {
+        return hash(bytes32(did), uint256Array(amounts), addressArray(receivers), new Address(lockPaymentAddress),
+                new Address(tokenAddress), bytes32(lockConditionId), bytes32(releaseConditionId));
+    }
+
+    /**
+     * Equivalent to NFTHolderCondition.hashValues
+     *
+     * @param did    the DID hash
+     * @param holder the address of the holder
+     * @param amount number of NFTs to hold
+     * @return the hash of the parameters
+     */
+    public static byte[] hashNFTHolder(String did, String holder, BigInteger amount) {
+        return hash(bytes32(did), new Address(holder), new Uint256(amount));
+    }
+
+    /**
+     * Equivalent to TransferNFTCondition.hashValues
+     *
+     * @param did             the DID hash
+     * @param receiver        the address receiving the NFTs
+     * @param amount          number of NFTs transferred
+     * @param lockConditionId id of the lock payment condition
+     * @return the hash of the parameters
+     */
+    public static byte[] hashTransferNFT(String did, String receiver, BigInteger amount, String lockConditionId) {
+        return hash(bytes32(did), new Address(receiver), new Uint256(amount), bytes32(lockConditionId));
+    }
+
+    /**
+     * ABI encodes a list of values as abi.encode does and hashes them with keccak256
+     *
+     * @param values the values
+     * @return the hash
+     */
+    @SuppressWarnings("rawtypes")
+    public static byte[] hash(Type... values) {
+        return Hash.sha3(Numeric.hexStringToByteArray(FunctionEncoder.encodeConstructor(Arrays.asList(values))));
+    }
+
+    private static Bytes32 bytes32(String value) {
+        return new Bytes32(EncodingHelper.hexStringToBytes(value));
+    }
+
+    private static DynamicArray<Uint256> uint256Array(List<BigInteger> values) {
+        return new DynamicArray<>(Uint256.class, values.stream().map(Uint256::new).collect(Collectors.toList()));
+    }
+
+    private static DynamicArray<Address> addressArray(List<String> values) {
+        return new DynamicArray<>(Address.class, values.stream().map(Address::new).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,31 @@
+package io.keyko.nevermined.core.download;
+
+import java.io.IOException;
+
+/**
+ * The content of a downloaded file doesn't match the checksum or the content length in its metadata
+ */
+public class ChecksumMismatchException extends IOException {
+
+    private final String expectedChecksum;
+    private final String actualChecksum;
+
+    public ChecksumMismatchException(String message, String expectedChecksum, String actualChecksum) {
+        super(message);
+        this.expectedChecksum = expectedChecksum;
+        this.actualChecksum = actualChecksum;
+    }
+
+    public String getExpectedChecksum() {
+        return expectedChecksum;
+    }
+
+    /**
+     * Checksum of the content downloaded
+     *
+     * @return the checksum, or null if the download was aborted before reading the whole file
+     */
+    public String getActualChecksum() {
+        return actualChecksum;
+    }
+}
@@ -0,0 +1,232 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.models.asset.AssetMetadata;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bouncycastle.jcajce.provider.digest.Keccak;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Hashes the content of a file while it is written to disk, checking it against the checksum and
+ * content length of the file in the metadata without reading the file again.
+ * A verifier is used for a single download.
+ */
+public class ChecksumVerifier {
+
+    private static final Logger log = LogManager.getLogger(ChecksumVerifier.class);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String algorithm;
+    private final String expectedChecksum;
+    private final long expectedLength;
+    private final MessageDigest digest;
+    private long length = 0;
+    private String checksum;
+
+    /**
+     * Constructor
+     *
+     * @param algorithm        name of the hash algorithm, like MD5, SHA-256 or KECCAK-256
+     * @param expectedChecksum the checksum in hexadecimal, or null to only compute it
+     * @param expectedLength   the size of the file in bytes, or -1 if it is not known
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     */
+    public ChecksumVerifier(String algorithm, String expectedChecksum, long expectedLength)
+            throws NoSuchAlgorithmException {
+        this.algorithm = algorithm;
+        this.digest = newDigest(algorithm);
+        this.expectedChecksum = expectedChecksum != null ? normalize(expectedChecksum) : null;
+        this.expectedLength = expectedLength;
+    }
+
+    /**
+     * Creates the verifier of a file of an asset from its metadata. The checksum can include the algorithm
+     * as a prefix (sha256:...) instead of using the checksumType attribute
+     *
+     * @param file the file in the metadata
+     * @return the verifier, or null if the file has no checksum or its algorithm is not supported
+     */
+    public static ChecksumVerifier forFile(AssetMetadata.File file) {
+        if (file == null || file.checksum == null || file.checksum.isEmpty())
+            return null;
+
+        String algorithm = file.checksumType;
+        String checksum = file.checksum;
+        final int separator = checksum.indexOf(':');
+        if (separator > 0) {
+            algorithm = checksum.substring(0, separator);
+            checksum = checksum.substring(separator + 1);
+        }
+        if (algorithm == null || algorithm.isEmpty())
+            return null;
+
+        long contentLength = -1;
+        try {
+            if (file.contentLength != null && !file.contentLength.isEmpty())
+                contentLength = Long.parseLong(file.contentLength.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring the content length of the file " + file.index + ": " + file.contentLength);
+        }
+
+        try {
+            return new ChecksumVerifier(algorithm, checksum, contentLength);
+        } catch (NoSuchAlgorithmException e) {
+            log.warn("Unable to verify the file " + file.index + ", unsupported checksum type " + algorithm);
+            return null;
+        }
+    }
+
+    private static MessageDigest newDigest(String algorithm) throws NoSuchAlgorithmException {
+        switch (algorithm.toUpperCase(Locale.ROOT).replace("-", "").replace("_", "")) {
+            case "MD5":
+                return MessageDigest.getInstance("MD5");
+            case "SHA1":
+                return MessageDigest.getInstance("SHA-1");
+            case "SHA256":
+                return MessageDigest.getInstance("SHA-256");
+            case "SHA384":
+                return MessageDigest.getInstance("SHA-384");
+            case "SHA512":
+                return MessageDigest.getInstance("SHA-512");
+            case "SHA3256":
+                return MessageDigest.getInstance("SHA3-256");
+            case "KECCAK256":
+                return new Keccak.Digest256();
+            default:
+                throw new NoSuchAlgorithmException("Unsupported checksum type " + algorithm);
+        }
+    }
+
+    private static String normalize(String checksum) {
+        final String value = checksum.trim().toLowerCase(Locale.ROOT);
+        return value.startsWith("0x") ? value.substring(2) : value;
+    }
+
+    private static String toHex(byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Checksum expected for the file
+     *
+     * @return the checksum in lowercase hexadecimal without prefix, or null if it is only computed
+     */
+    public String getExpectedChecksum() {
+        return expectedChecksum;
+    }
+
+    /**
+     * Hashes a chunk of the file, failing as soon as the file is longer than expected
+     *
+     * @param bytes  the buffer
+     * @param offset the first byte of the chunk in the buffer
+     * @param count  the length of the chunk
+     * @throws ChecksumMismatchException if the file is longer than its content length
+     */
+    public void update(byte[] bytes, int offset, int count) throws ChecksumMismatchException {
+        digest.update(bytes, offset, count);
+        addLength(count);
+    }
+
+    /**
+     * Hashes the bytes of the buffer between its position and its limit, consuming them
+     *
+     * @param buffer the buffer
+     * @throws ChecksumMismatchException if the file is longer than its content length
+     */
+    public void update(ByteBuffer buffer) throws ChecksumMismatchException {
+        final int count = buffer.remaining();
+        digest.update(buffer);
+        addLength(count);
+    }
+
+    private void addLength(long count) throws ChecksumMismatchException {
+        length += count;
+        if (expectedLength >= 0 && length > expectedLength)
+            throw new ChecksumMismatchException("The file is longer than its content length " + expectedLength,
+                    expectedChecksum, null);
+    }
+
+    /**
+     * Completes the hash once the whole file is read and checks it against the expected checksum and length
+     *
+     * @return the checksum of the file in hexadecimal
+     * @throws ChecksumMismatchException if the checksum or the length don't match
+     */
+    public String verify() throws ChecksumMismatchException {
+        if (checksum == null)
+            checksum = toHex(digest.digest());
+        if (expectedLength >= 0 && length != expectedLength)
+            throw new ChecksumMismatchException("The file has " + length + " bytes instead of " + expectedLength,
+                    expectedChecksum, checksum);
+        if (expectedChecksum != null && !expectedChecksum.equals(checksum))
+            throw new ChecksumMismatchException("The " + algorithm + " checksum of the file is " + checksum
+                    + " instead of " + expectedChecksum, expectedChecksum, checksum);
+        return checksum;
+    }
+
+    /**
+     * Checksum of the file, once it has been verified
+     *
+     * @return the checksum in hexadecimal, or null if the file was not completely read
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Wraps a channel hashing the bytes read from it. The reads fail as soon as the content is longer than
+     * expected, and the checksum is verified when the channel reaches the end of the stream.
+     * FileChannel.transferFrom stops on those errors but doesn't throw them once some bytes were transferred,
+     * so {@link #verify()} must still be called after the copy
+     *
+     * @param channel the channel with the content of the file
+     * @return the hashing channel
+     */
+    public ReadableByteChannel wrap(ReadableByteChannel channel) {
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                final int read = channel.read(dst);
+                if (read > 0) {
+                    final ByteBuffer chunk = dst.duplicate();
+                    chunk.flip();
+                    chunk.position(chunk.limit() - read);
+                    update(chunk);
+                } else if (read < 0)
+                    verify();
+                return read;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,448 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.core.cache.CacheStats;
+import io.keyko.nevermined.core.cache.DIDResolutionCache;
+import io.keyko.nevermined.models.asset.AssetMetadata;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local cache of the downloaded files, stored in a directory and keyed by DID, file index and checksum.
+ * Only the files with a supported checksum in the metadata are cached, and the content is verified against
+ * that checksum both when it is stored and when it is served, so a stale or corrupted entry is never returned.
+ * When the total size exceeds the limit the least recently used files are removed. The order of use is kept
+ * in the modification time of the files, so the entries survive restarts.
+ */
+public class DownloadCache {
+
+    private static final Logger log = LogManager.getLogger(DownloadCache.class);
+
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxSize;
+    // Size of the cached files by key, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructor, loading the files already stored in the directory
+     *
+     * @param directory directory where the files are stored, created if needed
+     * @param maxSize   maximum bytes of all the files cached
+     * @throws IOException if the directory can't be created or read
+     */
+    public DownloadCache(Path directory, long maxSize) throws IOException {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    private void load() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(TEMPORARY_SUFFIX))
+                    Files.deleteIfExists(file);
+                else if (Files.isRegularFile(file))
+                    files.add(file);
+            }
+        }
+        files.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+
+        synchronized (this) {
+            for (Path file : files) {
+                final long length = Files.size(file);
+                entries.put(file.getFileName().toString(), length);
+                size += length;
+            }
+            evict();
+        }
+        log.debug("Loaded " + files.size() + " files in the download cache " + directory);
+    }
+
+    /**
+     * Builds the key of a file, used as the name of the file in the cache
+     *
+     * @param did       the did or the hash of the did
+     * @param fileIndex index of the file inside the files definition in metadata
+     * @param verifier  the verifier with the checksum of the file
+     * @return the key
+     */
+    static String toKey(String did, int fileIndex, ChecksumVerifier verifier) {
+        return DIDResolutionCache.toKey(did) + "-" + fileIndex + "-"
+                + verifier.getAlgorithm().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "") + "-"
+                + verifier.getExpectedChecksum().replaceAll("[^0-9a-f]", "");
+    }
+
+    private static ChecksumVerifier verifierOf(AssetMetadata.File file) {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file);
+        return verifier != null && verifier.getExpectedChecksum() != null ? verifier : null;
+    }
+
+    /**
+     * Checks if a file can be cached
+     *
+     * @param file the file in the metadata
+     * @return true if the file has a supported checksum
+     */
+    public static boolean isCacheable(AssetMetadata.File file) {
+        return verifierOf(file) != null;
+    }
+
+    /**
+     * Copies a cached file to the destination path, verifying its content while it is copied
+     *
+     * @param did         the did
+     * @param fileIndex   index of the file inside the files definition in metadata
+     * @param file        the file in the metadata
+     * @param destination path where the file is copied, its parent directories are created if needed
+     * @return true if the file was copied, false if it is not cached or its content doesn't match the checksum
+     * @throws IOException if the destination can't be written
+     */
+    public boolean copyTo(String did, int fileIndex, AssetMetadata.File file, Path destination) throws IOException {
+        final ChecksumVerifier verifier = verifierOf(file);
+        if (verifier == null)
+            return false;
+        final String key = toKey(did, fileIndex, verifier);
+
+        final InputStream input = openEntry(key);
+        if (input == null)
+            return false;
+
+        if (destination.getParent() != null)
+            Files.createDirectories(destination.getParent());
+        try (InputStream source = input;
+             OutputStream output = Files.newOutputStream(destination)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                verifier.update(buffer, 0, read);
+                output.write(buffer, 0, read);
+            }
+            verifier.verify();
+        } catch (ChecksumMismatchException e) {
+            Files.deleteIfExists(destination);
+            discard(key, e);
+            return false;
+        }
+        hit(key);
+        return true;
+    }
+
+    /**
+     * Opens a cached file, verifying its content before returning it
+     *
+     * @param did       the did
+     * @param fileIndex index of the file inside the files definition in metadata
+     * @param file      the file in the metadata
+     * @return the content of the file, or null if it is not cached or its content doesn't match the checksum
+     * @throws IOException if the file can't be read
+     */
+    public InputStream open(String did, int fileIndex, AssetMetadata.File file) throws IOException {
+        final ChecksumVerifier verifier = verifierOf(file);
+        if (verifier == null)
+            return null;
+        final String key = toKey(did, fileIndex, verifier);
+
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(directory.resolve(key), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            miss(key);
+            return null;
+        }
+
+        // The channel stays valid if the entry is evicted while it is read
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                verifier.update(buffer);
+                buffer.clear();
+            }
+            verifier.verify();
+            channel.position(0);
+        } catch (ChecksumMismatchException e) {
+            channel.close();
+            discard(key, e);
+            return null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        hit(key);
+        return Channels.newInputStream(channel);
+    }
+
+    private InputStream openEntry(String key) throws IOException {
+        try {
+            return Files.newInputStream(directory.resolve(key));
+        } catch (NoSuchFileException e) {
+            miss(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a copy of a downloaded file if its content matches the checksum in the metadata
+     *
+     * @param did       the did
+     * @param fileIndex index of the file inside the files definition in metadata
+     * @param file      the file in the metadata
+     * @param source    path of the downloaded file
+     * @return true if the file was stored
+     */
+    public boolean put(String did, int fileIndex, AssetMetadata.File file, Path source) {
+        final ChecksumVerifier verifier = verifierOf(file);
+        if (verifier == null)
+            return false;
+
+        try (InputStream input = Files.newInputStream(source);
+             CachingInputStream caching = new CachingInputStream(input, toKey(did, fileIndex, verifier), verifier)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (caching.read(buffer) != -1) {
+                // The content is written to the cache while it is read
+            }
+            return caching.isCommitted();
+        } catch (IOException e) {
+            log.warn("Unable to cache the file " + fileIndex + " of " + did + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Wraps the content of a file being downloaded, storing it in the cache while it is read. The file is
+     * stored once the stream is read to the end and its content matches the checksum in the metadata.
+     * If the stream is closed before, nothing is stored
+     *
+     * @param did       the did
+     * @param fileIndex index of the file inside the files definition in metadata
+     * @param file      the file in the metadata
+     * @param input     the content of the file
+     * @return the stream to read instead of the input, or the input itself if the file can't be cached
+     */
+    public InputStream cacheWhileReading(String did, int fileIndex, AssetMetadata.File file, InputStream input) {
+        final ChecksumVerifier verifier = verifierOf(file);
+        if (verifier == null)
+            return input;
+        try {
+            return new CachingInputStream(input, toKey(did, fileIndex, verifier), verifier);
+        } catch (IOException e) {
+            log.warn("Unable to cache the file " + fileIndex + " of " + did + ": " + e.getMessage());
+            return input;
+        }
+    }
+
+    private void commit(String key, Path temporary) throws IOException {
+        final long length = Files.size(temporary);
+        if (length > maxSize) {
+            Files.deleteIfExists(temporary);
+            log.debug("Not caching " + key + ", it is bigger than the cache");
+            return;
+        }
+        Files.move(temporary, directory.resolve(key), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this) {
+            final Long previous = entries.put(key, length);
+            size += length - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    private synchronized void hit(String key) {
+        hits++;
+        entries.get(key);
+        try {
+            Files.setLastModifiedTime(directory.resolve(key), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Unable to update the last use of " + key + ": " + e.getMessage());
+        }
+    }
+
+    private synchronized void miss(String key) {
+        misses++;
+        remove(key);
+    }
+
+    private synchronized void discard(String key, ChecksumMismatchException e) {
+        log.warn("Removing the corrupted file " + key + " from the download cache: " + e.getMessage());
+        misses++;
+        remove(key);
+        delete(key);
+    }
+
+    private void remove(String key) {
+        final Long length = entries.remove(key);
+        if (length != null)
+            size -= length;
+    }
+
+    private void delete(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key));
+        } catch (IOException e) {
+            log.warn("Unable to delete " + key + " from the download cache: " + e.getMessage());
+        }
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            evictions++;
+            delete(eldest.getKey());
+        }
+    }
+
+    /**
+     * Removes all the files of the cache
+     */
+    public synchronized void invalidateAll() {
+        for (String key : entries.keySet())
+            delete(key);
+        entries.clear();
+        size = 0;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Bytes of all the files cached
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the counters of the cache, its size is the number of files cached
+     *
+     * @return the statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, 0, entries.size());
+    }
+
+    /**
+     * Stream writing the bytes read to a temporary file of the cache, committed at the end of the stream
+     */
+    private class CachingInputStream extends FilterInputStream {
+
+        private final String key;
+        private final ChecksumVerifier verifier;
+        private final Path temporary;
+        private OutputStream output;
+        private boolean committed = false;
+
+        CachingInputStream(InputStream input, String key, ChecksumVerifier verifier) throws IOException {
+            super(input);
+            this.key = key;
+            this.verifier = verifier;
+            this.temporary = Files.createTempFile(directory, key, TEMPORARY_SUFFIX);
+            this.output = Files.newOutputStream(temporary);
+        }
+
+        boolean isCommitted() {
+            return committed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            final int read = super.read(bytes, offset, length);
+            if (output == null)
+                return read;
+            try {
+                if (read > 0) {
+                    verifier.update(bytes, offset, read);
+                    output.write(bytes, offset, read);
+                } else if (read == -1) {
+                    output.close();
+                    output = null;
+                    verifier.verify();
+                    commit(key, temporary);
+                    committed = true;
+                }
+            } catch (IOException e) {
+                log.warn("Not caching " + key + ": " + e.getMessage());
+                abort();
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes can't be cached
+            abort();
+            return super.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void abort() {
+            try {
+                if (output != null)
+                    output.close();
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                log.debug("Unable to delete " + temporary + ": " + e.getMessage());
+            }
+            output = null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed)
+                abort();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.keyko.nevermined.core.download;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.keyko.nevermined.models.ModelMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Sidecar file next to a download recording the byte ranges of the file already written to disk,
+ * so a failed or interrupted download only requests the missing ranges when it is started again.
+ * A checkpoint belongs to a (DID, service agreement, file index) and a file size, if any of them changes
+ * the download starts from scratch.
+ */
+public class DownloadCheckpoint {
+
+    private static final Logger log = LogManager.getLogger(DownloadCheckpoint.class);
+
+    public static final String EXTENSION = ".checkpoint";
+
+    private final Path path;
+    private final String did;
+    private final String serviceAgreementId;
+    private final int fileIndex;
+    private final long size;
+    // Start of every completed range mapped to its end, inclusive. The ranges never overlap nor touch
+    private final TreeMap<Long, Long> completed = new TreeMap<>();
+
+    private DownloadCheckpoint(Path path, String did, String serviceAgreementId, int fileIndex, long size) {
+        this.path = path;
+        this.did = did;
+        this.serviceAgreementId = serviceAgreementId;
+        this.fileIndex = fileIndex;
+        this.size = size;
+    }
+
+    /**
+     * Path of the checkpoint of a download
+     *
+     * @param destinationPath path where the file is stored
+     * @return the path of the sidecar file
+     */
+    public static Path pathOf(String destinationPath) {
+        return Paths.get(destinationPath + EXTENSION);
+    }
+
+    /**
+     * Loads the checkpoint of a download, or creates an empty one if there is no checkpoint
+     * or it belongs to other file
+     *
+     * @param destinationPath    path where the file is stored
+     * @param did                the did of the asset
+     * @param serviceAgreementId the service agreement id, or null for downloads by the owner
+     * @param fileIndex          index of the file inside the files definition in metadata
+     * @param size               the size of the file in bytes
+     * @return the checkpoint
+     */
+    public static DownloadCheckpoint open(String destinationPath, String did, String serviceAgreementId,
+                                          int fileIndex, long size) {
+        final DownloadCheckpoint checkpoint = new DownloadCheckpoint(pathOf(destinationPath), did, serviceAgreementId,
+                fileIndex, size);
+        if (!Files.exists(checkpoint.path) || !Files.exists(Paths.get(destinationPath)))
+            return checkpoint;
+
+        try {
+            final JsonNode json = ModelMapper.readerFor(JsonNode.class).readValue(checkpoint.path.toFile());
+            if (!Objects.equals(did, json.path("did").asText(null))
+                    || !Objects.equals(serviceAgreementId, json.path("serviceAgreementId").asText(null))
+                    || fileIndex != json.path("fileIndex").asInt(-1)
+                    || size != json.path("size").asLong(-1)) {
+                log.debug("Ignoring the checkpoint " + checkpoint.path + " of a different download");
+                return checkpoint;
+            }
+            for (JsonNode range : json.path("completed"))
+                checkpoint.complete(range.get(0).asLong(), range.get(1).asLong());
+            log.debug("Resuming download from " + checkpoint.path + ", " + checkpoint.getCompletedBytes() + " of "
+                    + size + " bytes already downloaded");
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring the corrupted checkpoint " + checkpoint.path + ": " + e.getMessage());
+        }
+        return checkpoint;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Records a range as written, merging it with the adjacent ones
+     *
+     * @param start first byte of the range
+     * @param end   last byte of the range, inclusive
+     */
+    public synchronized void complete(long start, long end) {
+        if (end < start)
+            return;
+        final Map.Entry<Long, Long> previous = completed.floorEntry(start);
+        if (previous != null && previous.getValue() >= start - 1) {
+            start = previous.getKey();
+            end = Math.max(end, previous.getValue());
+        }
+        Map.Entry<Long, Long> next = completed.ceilingEntry(start);
+        while (next != null && next.getKey() <= end + 1) {
+            end = Math.max(end, next.getValue());
+            completed.remove(next.getKey());
+            next = completed.ceilingEntry(start);
+        }
+        completed.put(start, end);
+    }
+
+    public synchronized long getCompletedBytes() {
+        return completed.entrySet().stream().mapToLong(e -> e.getValue() - e.getKey() + 1).sum();
+    }
+
+    /**
+     * Ranges of the file not written yet
+     *
+     * @return the missing ranges as pairs of first and last byte, in order
+     */
+    public synchronized List<long[]> getMissing() {
+        final List<long[]> missing = new ArrayList<>();
+        long next = 0;
+        for (Map.Entry<Long, Long> range : completed.entrySet()) {
+            if (range.getKey() > next)
+                missing.add(new long[]{next, range.getKey() - 1});
+            next = range.getValue() + 1;
+        }
+        if (next < size)
+            missing.add(new long[]{next, size - 1});
+        return missing;
+    }
+
+    /**
+     * Writes the checkpoint to disk, replacing the previous one atomically
+     *
+     * @throws IOException IOException
+     */
+    public synchronized void save() throws IOException {
+        final ObjectNode json = ModelMapper.getMapper().createObjectNode();
+        json.put("did", did);
+        json.put("serviceAgreementId", serviceAgreementId);
+        json.put("fileIndex", fileIndex);
+        json.put("size", size);
+        final ArrayNode ranges = json.putArray("completed");
+        completed.forEach((start, end) -> ranges.addArray().add(start).add(end));
+
+        final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, ModelMapper.writerFor(ObjectNode.class).writeValueAsBytes(json));
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes the checkpoint once the file is complete
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete the checkpoint " + path + ": " + e.getMessage());
+        }
+    }
+}
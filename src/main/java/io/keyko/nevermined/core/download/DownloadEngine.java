@@ -0,0 +1,317 @@
+package io.keyko.nevermined.core.download;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies download streams to disk with bounded memory. Every transfer borrows a direct buffer from a fixed pool
+ * and returns it when it finishes, so the native memory used never exceeds maxBuffers * bufferSize. When all the
+ * buffers are in use the new transfers wait for one (backpressure). An optional limit of bytes per second is shared
+ * by all the transfers of the engine. The streams are always closed when a transfer ends, and so are the files
+ * opened by the engine.
+ */
+public class DownloadEngine {
+
+    private static final Logger log = LogManager.getLogger(DownloadEngine.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_BUFFERS = 64;
+
+    private static final long PROGRESS_INTERVAL = 1024 * 1024;
+    private static final int TRANSFER_SIZE = 8192;
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final long maxBytesPerSecond;
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger(0);
+    private final AtomicInteger activeTransfers = new AtomicInteger(0);
+    // Time in nanoseconds when the throughput limit allows transferring more bytes
+    private long nextTransferTime = 0;
+
+    /**
+     * Receives the progress of a transfer
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Called as the bytes are written to the file and when the transfer completes
+         *
+         * @param bytesTransferred bytes written to the file so far
+         * @param totalBytes       the bytes expected, or -1 if they are not known
+         */
+        void onProgress(long bytesTransferred, long totalBytes);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param bufferSize        size in bytes of every buffer
+     * @param maxBuffers        maximum number of buffers, and of transfers running at the same time
+     * @param maxBytesPerSecond maximum throughput of all the transfers together, or 0 for no limit
+     */
+    public DownloadEngine(int bufferSize, int maxBuffers, long maxBytesPerSecond) {
+        if (bufferSize < 1 || maxBuffers < 1)
+            throw new IllegalArgumentException("The buffer size and the number of buffers must be greater than 0");
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.maxBytesPerSecond = Math.max(0, maxBytesPerSecond);
+        this.freeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    public DownloadEngine() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_BUFFERS, 0);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getMaxBuffers() {
+        return maxBuffers;
+    }
+
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    /**
+     * Number of direct buffers allocated so far, they are kept in the pool when the transfers finish
+     *
+     * @return the number of buffers
+     */
+    public int getAllocatedBuffers() {
+        return allocatedBuffers.get();
+    }
+
+    public int getActiveTransfers() {
+        return activeTransfers.get();
+    }
+
+    /**
+     * Copies a stream to a file, closing both of them before returning
+     *
+     * @param input       the content of the file
+     * @param destination path where the file is stored, its parent directories are created if needed
+     * @param totalBytes  the size of the file, or -1 if it is not known, only used to report the progress
+     * @param verifier    the verifier hashing the content, or null
+     * @param listener    the listener of the progress, or null
+     * @return the number of bytes written
+     * @throws IOException if the copy fails or the content doesn't match the verifier
+     */
+    public long copy(InputStream input, Path destination, long totalBytes, ChecksumVerifier verifier,
+                     ProgressListener listener) throws IOException {
+
+        try (ReadableByteChannel source = Channels.newChannel(input)) {
+            if (destination.getParent() != null)
+                Files.createDirectories(destination.getParent());
+
+            final ByteBuffer buffer = acquire();
+            activeTransfers.incrementAndGet();
+            try (FileChannel output = FileChannel.open(destination, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+                long transferred = 0;
+                long reported = 0;
+                int read;
+                while ((read = source.read(buffer)) != -1) {
+                    buffer.flip();
+                    if (verifier != null)
+                        verifier.update(buffer.duplicate());
+                    while (buffer.hasRemaining())
+                        output.write(buffer);
+                    buffer.clear();
+
+                    transferred += read;
+                    throttle(read);
+                    if (listener != null && transferred - reported >= PROGRESS_INTERVAL) {
+                        listener.onProgress(transferred, totalBytes);
+                        reported = transferred;
+                    }
+                }
+                if (verifier != null)
+                    verifier.verify();
+                if (listener != null && transferred != reported)
+                    listener.onProgress(transferred, totalBytes);
+                return transferred;
+
+            } finally {
+                activeTransfers.decrementAndGet();
+                release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Copies a stream to a position of a file written by other transfers too, like a range of a file downloaded
+     * in segments. The stream is closed before returning but the file is left open. The listener is called after
+     * every buffer is written, so the caller knows the bytes already on disk when the copy fails
+     *
+     * @param input    the content of the range
+     * @param output   the channel of the destination file
+     * @param position position of the file where the first byte is written
+     * @param length   maximum number of bytes copied
+     * @param listener the listener of the progress, or null
+     * @return the number of bytes written, less than length if the stream ends before
+     * @throws IOException if the copy fails
+     */
+    public long copy(InputStream input, FileChannel output, long position, long length, ProgressListener listener)
+            throws IOException {
+
+        try (ReadableByteChannel source = new StreamChannel(input)) {
+            final ByteBuffer buffer = acquire();
+            activeTransfers.incrementAndGet();
+            try {
+                long transferred = 0;
+                while (transferred < length) {
+                    buffer.limit((int) Math.min(buffer.capacity(), length - transferred));
+                    final int read = source.read(buffer);
+                    if (read == -1)
+                        break;
+                    buffer.flip();
+                    long offset = position + transferred;
+                    while (buffer.hasRemaining())
+                        offset += output.write(buffer, offset);
+                    buffer.clear();
+
+                    transferred += read;
+                    throttle(read);
+                    if (listener != null)
+                        listener.onProgress(transferred, length);
+                }
+                return transferred;
+
+            } finally {
+                activeTransfers.decrementAndGet();
+                release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Hashes a file already written and checks it against a verifier. Used for the files whose parts are not
+     * written in order, so they can't be hashed while they are downloaded
+     *
+     * @param file     the channel of the file, read from its first byte without changing its position
+     * @param verifier the verifier of the content of the file
+     * @return the checksum of the file in hexadecimal
+     * @throws IOException if the file can't be read or its content doesn't match the verifier
+     */
+    public String verify(FileChannel file, ChecksumVerifier verifier) throws IOException {
+        final ByteBuffer buffer = acquire();
+        try {
+            long position = 0;
+            int read;
+            while ((read = file.read(buffer, position)) != -1) {
+                buffer.flip();
+                verifier.update(buffer);
+                buffer.clear();
+                position += read;
+            }
+            return verifier.verify();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private ByteBuffer acquire() throws InterruptedIOException {
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer != null)
+            return buffer;
+
+        if (allocatedBuffers.incrementAndGet() <= maxBuffers)
+            return ByteBuffer.allocateDirect(bufferSize);
+        allocatedBuffers.decrementAndGet();
+
+        try {
+            while ((buffer = freeBuffers.poll(1, TimeUnit.SECONDS)) == null)
+                log.debug("Waiting for a download buffer, " + activeTransfers.get() + " transfers running");
+            return buffer;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a download buffer");
+        }
+    }
+
+    private void release(ByteBuffer buffer) {
+        buffer.clear();
+        freeBuffers.offer(buffer);
+    }
+
+    /**
+     * Waits until the throughput limit allows the bytes just transferred
+     *
+     * @param bytes the bytes transferred
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    private void throttle(long bytes) throws InterruptedIOException {
+        if (maxBytesPerSecond == 0)
+            return;
+        final long wait;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            if (nextTransferTime < now)
+                nextTransferTime = now;
+            wait = nextTransferTime - now;
+            nextTransferTime += bytes * 1_000_000_000L / maxBytesPerSecond;
+        }
+        if (wait <= 0)
+            return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the download throughput limit");
+        }
+    }
+
+    /**
+     * Channel reading a stream once per call. Channels.newChannel keeps reading while the stream has bytes
+     * available, and the bytes already read are lost if one of those reads fails, so the range would not be
+     * resumed from the last byte the stream returned
+     */
+    private static class StreamChannel implements ReadableByteChannel {
+
+        private final InputStream input;
+        private final byte[] chunk = new byte[TRANSFER_SIZE];
+        private boolean open = true;
+
+        StreamChannel(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            final int read = input.read(chunk, 0, Math.min(chunk.length, dst.remaining()));
+            if (read > 0)
+                dst.put(chunk, 0, read);
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            open = false;
+            input.close();
+        }
+    }
+}
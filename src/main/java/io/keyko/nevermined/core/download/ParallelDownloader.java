@@ -0,0 +1,272 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.external.GatewayService;
+import io.keyko.nevermined.models.asset.DownloadReport;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Downloads the files of an asset in parallel, each one of them from its own stream.
+ * Up to parallelism files are transferred at the same time, and a file taking longer than the timeout
+ * is aborted closing its stream, or interrupting the opening of the stream if it's still waiting for it,
+ * without affecting the other ones.
+ * The files are written by a {@link DownloadEngine}, so they share its pool of buffers and throughput limit.
+ * Files with a {@link ChecksumVerifier} are hashed while they are written, and removed if they don't match.
+ */
+public class ParallelDownloader {
+
+    private static final Logger log = LogManager.getLogger(ParallelDownloader.class);
+
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "download-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ExecutorService opener = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "download-open");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int parallelism;
+    private final long fileTimeout;
+    private final DownloadEngine engine;
+
+    /**
+     * Opens the stream with the content of a file
+     */
+    @FunctionalInterface
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * A file to download
+     */
+    public static class FileDownload {
+
+        private final int index;
+        private final String destinationPath;
+        private final Source source;
+        private final ChecksumVerifier verifier;
+
+        /**
+         * Constructor
+         *
+         * @param index           index of the file inside the files definition in metadata
+         * @param destinationPath path where the file is stored
+         * @param source          the source of the content of the file
+         */
+        public FileDownload(int index, String destinationPath, Source source) {
+            this(index, destinationPath, source, null);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param index           index of the file inside the files definition in metadata
+         * @param destinationPath path where the file is stored
+         * @param source          the source of the content of the file
+         * @param verifier        the verifier of the content of the file, or null to not verify it
+         */
+        public FileDownload(int index, String destinationPath, Source source, ChecksumVerifier verifier) {
+            this.index = index;
+            this.destinationPath = destinationPath;
+            this.source = source;
+            this.verifier = verifier;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getDestinationPath() {
+            return destinationPath;
+        }
+    }
+
+    /**
+     * Constructor using the download engine of the GatewayService
+     *
+     * @param parallelism maximum number of files downloaded at the same time
+     * @param fileTimeout maximum milliseconds to download a file, or 0 for no limit
+     */
+    public ParallelDownloader(int parallelism, long fileTimeout) {
+        this(parallelism, fileTimeout, GatewayService.getDownloadEngine());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param parallelism maximum number of files downloaded at the same time
+     * @param fileTimeout maximum milliseconds to download a file, or 0 for no limit
+     * @param engine      the engine writing the files to disk
+     */
+    public ParallelDownloader(int parallelism, long fileTimeout, DownloadEngine engine) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than 0");
+        this.parallelism = parallelism;
+        this.fileTimeout = fileTimeout;
+        this.engine = engine;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    /**
+     * Downloads several files, waiting until all of them are downloaded, failed or timed out
+     *
+     * @param downloads the files to download
+     * @return the result of every file, in the same order
+     */
+    public DownloadReport downloadAll(List<FileDownload> downloads) {
+        final long start = System.currentTimeMillis();
+        final List<FileDownloadResult> results = new ArrayList<>(downloads.size());
+        if (downloads.isEmpty())
+            return new DownloadReport(results, 0);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, downloads.size()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-download");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            final List<Future<FileDownloadResult>> futures = new ArrayList<>(downloads.size());
+            for (FileDownload download : downloads)
+                futures.add(executor.submit(() -> download(download)));
+
+            for (int i = 0; i < futures.size(); i++) {
+                final FileDownload download = downloads.get(i);
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new FileDownloadResult(download.index, download.destinationPath,
+                            FileDownloadResult.Status.FAILED, 0, 0, new IOException(e.getCause())));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.add(new FileDownloadResult(download.index, download.destinationPath,
+                            FileDownloadResult.Status.FAILED, 0, 0, e));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final DownloadReport report = new DownloadReport(results, System.currentTimeMillis() - start);
+        log.debug("Parallel download finished: " + report);
+        return report;
+    }
+
+    /**
+     * Downloads one file, interrupting the opening of its stream or closing it if the timeout expires
+     *
+     * @param download the file to download
+     * @return the result of the download
+     */
+    public FileDownloadResult download(FileDownload download) {
+        final long start = System.currentTimeMillis();
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
+        final AtomicReference<Closeable> stream = new AtomicReference<>();
+        final AtomicLong bytes = new AtomicLong(0);
+        ScheduledFuture<?> timeout = null;
+        try {
+            final InputStream input;
+            if (fileTimeout > 0) {
+                // The stream is opened in other thread, so the watchdog can interrupt a request that never answers
+                final Future<InputStream> opening = opener.submit(() -> {
+                    final InputStream opened = download.source.open();
+                    stream.set(opened);
+                    if (timedOut.get()) {
+                        closeQuietly(opened);
+                        throw new IOException("Timed out opening the stream");
+                    }
+                    return opened;
+                });
+                timeout = watchdog.schedule(() -> {
+                    timedOut.set(true);
+                    opening.cancel(true);
+                    closeQuietly(stream.get());
+                }, fileTimeout, TimeUnit.MILLISECONDS);
+                input = opening.get();
+            } else
+                input = download.source.open();
+
+            final long written = engine.copy(input, Paths.get(download.destinationPath), -1, download.verifier,
+                    (transferred, total) -> bytes.set(transferred));
+            bytes.set(written);
+            // Some streams just end when they are closed by the watchdog
+            if (timedOut.get())
+                throw new IOException("The download did not finish in " + fileTimeout + " milliseconds");
+
+            final String checksum = download.verifier != null ? download.verifier.getChecksum() : null;
+            return new FileDownloadResult(download.index, download.destinationPath,
+                    FileDownloadResult.Status.DOWNLOADED, written, System.currentTimeMillis() - start, null, checksum);
+
+        } catch (Exception e) {
+            final Exception error = e instanceof ExecutionException && e.getCause() instanceof Exception
+                    ? (Exception) e.getCause() : e;
+            if (error instanceof InterruptedException)
+                Thread.currentThread().interrupt();
+            FileDownloadResult.Status status = FileDownloadResult.Status.FAILED;
+            if (timedOut.get())
+                status = FileDownloadResult.Status.TIMED_OUT;
+            else if (error instanceof ChecksumMismatchException) {
+                status = FileDownloadResult.Status.CHECKSUM_MISMATCH;
+                deleteQuietly(download.destinationPath);
+            }
+            log.error("Error downloading file " + download.index + " (" + status + "): " + error.getMessage());
+            return new FileDownloadResult(download.index, download.destinationPath, status, bytes.get(),
+                    System.currentTimeMillis() - start, error,
+                    download.verifier != null ? download.verifier.getChecksum() : null);
+        } finally {
+            if (timeout != null)
+                timeout.cancel(false);
+        }
+    }
+
+    private static void deleteQuietly(String path) {
+        try {
+            Files.deleteIfExists(Paths.get(path));
+        } catch (IOException e) {
+            log.debug("Error deleting the corrupted file " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null)
+            return;
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("Error closing the download stream: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.external.GatewayService;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads a large file splitting it in byte ranges that are fetched concurrently.
+ * The destination file is preallocated and every range is written at its own position, so the segments
+ * don't need to arrive in order. A segment failing is retried on its own, from the last byte it wrote.
+ * With a {@link DownloadCheckpoint} the download can also be resumed after the process stops.
+ * The ranges are written by a {@link DownloadEngine}, so they share its pool of buffers and throughput limit.
+ * Files with a {@link ChecksumVerifier} are hashed once all their ranges are written, and removed if they don't match.
+ */
+public class SegmentedDownloader {
+
+    private static final Logger log = LogManager.getLogger(SegmentedDownloader.class);
+
+    public static final int DEFAULT_SEGMENTS = 4;
+    public static final int DEFAULT_SEGMENT_RETRIES = 3;
+    public static final long DEFAULT_MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+
+    private static final long CHECKPOINT_INTERVAL = 8L * 1024 * 1024;
+
+    private final int segments;
+    private final int segmentRetries;
+    private final long minSegmentSize;
+    private final DownloadEngine engine;
+
+    /**
+     * Opens the stream with a range of bytes of a file
+     */
+    @FunctionalInterface
+    public interface RangeSource {
+        /**
+         * Opens a range of bytes
+         *
+         * @param start first byte of the range
+         * @param end   last byte of the range, inclusive
+         * @return the stream with the content of the range
+         * @throws IOException IOException
+         */
+        InputStream open(long start, long end) throws IOException;
+    }
+
+    /**
+     * Range of bytes of the file downloaded by one request
+     */
+    static class Segment {
+
+        final long start;
+        final long end;
+        final AtomicLong written = new AtomicLong(0);
+        // Bytes of the segment already recorded in the checkpoint, only accessed by the thread of the segment
+        long checkpointed = 0;
+
+        Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Constructor using the download engine of the GatewayService
+     *
+     * @param segments       maximum number of ranges fetched at the same time
+     * @param segmentRetries number of times a failed range is requested again
+     * @param minSegmentSize minimum bytes of a range, smaller files use less segments
+     */
+    public SegmentedDownloader(int segments, int segmentRetries, long minSegmentSize) {
+        this(segments, segmentRetries, minSegmentSize, GatewayService.getDownloadEngine());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param segments       maximum number of ranges fetched at the same time
+     * @param segmentRetries number of times a failed range is requested again
+     * @param minSegmentSize minimum bytes of a range, smaller files use less segments
+     * @param engine         the engine writing the ranges to disk
+     */
+    public SegmentedDownloader(int segments, int segmentRetries, long minSegmentSize, DownloadEngine engine) {
+        if (segments < 1)
+            throw new IllegalArgumentException("The number of segments must be greater than 0");
+        this.segments = segments;
+        this.segmentRetries = Math.max(0, segmentRetries);
+        this.minSegmentSize = Math.max(1, minSegmentSize);
+        this.engine = engine;
+    }
+
+    public SegmentedDownloader(int segments, int segmentRetries) {
+        this(segments, segmentRetries, DEFAULT_MIN_SEGMENT_SIZE);
+    }
+
+    public SegmentedDownloader(int segments, int segmentRetries, DownloadEngine engine) {
+        this(segments, segmentRetries, DEFAULT_MIN_SEGMENT_SIZE, engine);
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public int getSegmentRetries() {
+        return segmentRetries;
+    }
+
+    /**
+     * Splits a file in ranges of almost the same size
+     *
+     * @param size the size of the file
+     * @return the ranges
+     */
+    List<Segment> split(long size) {
+        final List<long[]> whole = new ArrayList<>();
+        if (size > 0)
+            whole.add(new long[]{0, size - 1});
+        return split(whole);
+    }
+
+    /**
+     * Splits the ranges missing in a file in segments of almost the same size
+     *
+     * @param missing the missing ranges as pairs of first and last byte
+     * @return the segments
+     */
+    List<Segment> split(List<long[]> missing) {
+        final long total = missing.stream().mapToLong(r -> r[1] - r[0] + 1).sum();
+        final long count = Math.max(1, Math.min(segments, total / minSegmentSize));
+        final long length = (total + count - 1) / count;
+        final List<Segment> result = new ArrayList<>();
+        for (long[] range : missing) {
+            for (long start = range[0]; start <= range[1]; start += length)
+                result.add(new Segment(start, Math.min(range[1], start + length - 1)));
+        }
+        return result;
+    }
+
+    /**
+     * Downloads a file, waiting until all its ranges are written or one of them runs out of retries
+     *
+     * @param index           index of the file inside the files definition in metadata
+     * @param destinationPath path where the file is stored
+     * @param size            the size of the file in bytes
+     * @param source          the source of the ranges of the file
+     * @return the result of the download
+     */
+    public FileDownloadResult download(int index, String destinationPath, long size, RangeSource source) {
+        return download(index, destinationPath, size, source, null);
+    }
+
+    /**
+     * Downloads a file, waiting until all its ranges are written or one of them runs out of retries.
+     * Only the ranges missing in the checkpoint are requested, and the progress of every segment is recorded
+     * in it, so a failed download can be resumed. The checkpoint is deleted when the file is complete
+     *
+     * @param index           index of the file inside the files definition in metadata
+     * @param destinationPath path where the file is stored
+     * @param size            the size of the file in bytes
+     * @param source          the source of the ranges of the file
+     * @param checkpoint      the checkpoint of the download, or null to download the whole file
+     * @return the result of the download
+     */
+    public FileDownloadResult download(int index, String destinationPath, long size, RangeSource source,
+                                       DownloadCheckpoint checkpoint) {
+        return download(index, destinationPath, size, source, checkpoint, null);
+    }
+
+    /**
+     * Downloads a file, waiting until all its ranges are written or one of them runs out of retries, and checks
+     * the whole file against the verifier once it is complete. A file not matching the verifier is removed with
+     * its checkpoint, so the next download starts from the beginning
+     *
+     * @param index           index of the file inside the files definition in metadata
+     * @param destinationPath path where the file is stored
+     * @param size            the size of the file in bytes
+     * @param source          the source of the ranges of the file
+     * @param checkpoint      the checkpoint of the download, or null to download the whole file
+     * @param verifier        the verifier of the content of the file, or null to not verify it
+     * @return the result of the download
+     */
+    public FileDownloadResult download(int index, String destinationPath, long size, RangeSource source,
+                                       DownloadCheckpoint checkpoint, ChecksumVerifier verifier) {
+        final long start = System.currentTimeMillis();
+        final List<Segment> ranges = checkpoint != null ? split(checkpoint.getMissing()) : split(size);
+
+        try {
+            final Path destination = Paths.get(destinationPath);
+            if (destination.getParent() != null)
+                Files.createDirectories(destination.getParent());
+
+            try (RandomAccessFile file = new RandomAccessFile(destination.toFile(), "rw")) {
+                file.setLength(size);
+                final FileChannel channel = file.getChannel();
+
+                if (!ranges.isEmpty()) {
+                    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(segments, ranges.size()),
+                            runnable -> {
+                                Thread thread = new Thread(runnable, "segment-download");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    try {
+                        final List<Future<?>> futures = new ArrayList<>(ranges.size());
+                        for (Segment segment : ranges)
+                            futures.add(executor.submit(() -> {
+                                downloadSegment(segment, channel, source, checkpoint);
+                                return null;
+                            }));
+                        for (Future<?> future : futures)
+                            future.get();
+                    } finally {
+                        // Stops the other segments before the file is closed when one of them fails
+                        executor.shutdownNow();
+                    }
+                }
+                channel.force(false);
+                if (verifier != null)
+                    engine.verify(channel, verifier);
+            }
+            if (checkpoint != null)
+                checkpoint.delete();
+
+            final long bytes = ranges.stream().mapToLong(s -> s.written.get()).sum();
+            log.debug("File " + index + " downloaded in " + ranges.size() + " segments: " + bytes + " bytes");
+            return new FileDownloadResult(index, destinationPath, FileDownloadResult.Status.DOWNLOADED, bytes,
+                    System.currentTimeMillis() - start, null, verifier != null ? verifier.getChecksum() : null);
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException)
+                Thread.currentThread().interrupt();
+            final Exception cause = e instanceof ExecutionException && e.getCause() instanceof Exception
+                    ? (Exception) e.getCause() : e;
+            FileDownloadResult.Status status = FileDownloadResult.Status.FAILED;
+            if (cause instanceof ChecksumMismatchException) {
+                status = FileDownloadResult.Status.CHECKSUM_MISMATCH;
+                if (checkpoint != null)
+                    checkpoint.delete();
+                deleteQuietly(destinationPath);
+            }
+            log.error("Error downloading file " + index + " in segments (" + status + "): " + cause.getMessage());
+            return new FileDownloadResult(index, destinationPath, status,
+                    ranges.stream().mapToLong(s -> s.written.get()).sum(), System.currentTimeMillis() - start, cause,
+                    verifier != null ? verifier.getChecksum() : null);
+        }
+    }
+
+    /**
+     * Writes one range in its position of the file with the engine, requesting again the remaining bytes when it
+     * fails
+     *
+     * @param segment    the range to download
+     * @param channel    the channel of the destination file
+     * @param source     the source of the ranges of the file
+     * @param checkpoint the checkpoint where the progress is recorded, or null
+     * @throws IOException if the range fails more times than the retries
+     */
+    void downloadSegment(Segment segment, FileChannel channel, RangeSource source, DownloadCheckpoint checkpoint)
+            throws IOException {
+        int attempt = 0;
+        while (true) {
+            if (Thread.currentThread().isInterrupted())
+                throw new IOException("Segment download interrupted");
+            final long written = segment.written.get();
+            final long from = segment.start + written;
+            try (InputStream input = source.open(from, segment.end)) {
+                final long length = segment.end - from + 1;
+                final long copied = engine.copy(input, channel, from, length, (transferred, total) -> {
+                    segment.written.set(written + transferred);
+                    if (segment.written.get() - segment.checkpointed >= CHECKPOINT_INTERVAL)
+                        recordProgress(segment, channel, checkpoint);
+                });
+                final long remaining = length - copied;
+                if (remaining == 0) {
+                    saveProgress(segment, channel, checkpoint);
+                    return;
+                }
+                throw new IOException("Range " + segment.start + "-" + segment.end + " ended " + remaining
+                        + " bytes before expected");
+            } catch (IOException e) {
+                recordProgress(segment, channel, checkpoint);
+                if (attempt++ >= segmentRetries)
+                    throw e;
+                log.warn("Retrying range " + segment.start + "-" + segment.end + " from byte "
+                        + (segment.start + segment.written.get()) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records in the checkpoint the bytes of a segment written since the last time, once they are on disk
+     *
+     * @param segment    the segment
+     * @param channel    the channel of the destination file
+     * @param checkpoint the checkpoint, or null
+     * @throws IOException IOException
+     */
+    private static void saveProgress(Segment segment, FileChannel channel, DownloadCheckpoint checkpoint)
+            throws IOException {
+        final long written = segment.written.get();
+        if (checkpoint == null || written == segment.checkpointed)
+            return;
+        channel.force(false);
+        checkpoint.complete(segment.start, segment.start + written - 1);
+        checkpoint.save();
+        segment.checkpointed = written;
+    }
+
+    /**
+     * Records the progress of a segment without failing it, so the error that made it fail is not hidden
+     *
+     * @param segment    the segment
+     * @param channel    the channel of the destination file
+     * @param checkpoint the checkpoint, or null
+     */
+    private static void recordProgress(Segment segment, FileChannel channel, DownloadCheckpoint checkpoint) {
+        try {
+            saveProgress(segment, channel, checkpoint);
+        } catch (IOException e) {
+            log.warn("Unable to record the progress of range " + segment.start + "-" + segment.end + ": "
+                    + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(String path) {
+        try {
+            Files.deleteIfExists(Paths.get(path));
+        } catch (IOException e) {
+            log.debug("Error deleting the corrupted file " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package io.keyko.nevermined.core.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.keyko.nevermined.exceptions.EthereumException;
+import io.keyko.nevermined.models.ModelMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local index of contract events. The events are ingested incrementally from a checkpointed block using the
+ * EventLogScanner and kept in memory, grouped by the value of some of their topics (owner, consumer, did...).
+ * The events and the checkpoint are persisted in a directory, so a restarted process only needs to ingest
+ * the blocks mined since the last checkpoint.
+ * Only the blocks with a number of confirmations are ingested, so the events of blocks replaced by a
+ * reorganization of the chain are not persisted. The events of the most recent blocks are fetched from the
+ * chain in every query instead.
+ * The index is not bounded: all the ingested events of the indexed contracts are kept in memory, so its size
+ * grows with the number of events emitted since the start block.
+ */
+public class EventIndex {
+
+    private static final Logger log = LogManager.getLogger(EventIndex.class);
+
+    public static final String DID_ATTRIBUTE_REGISTERED = "DIDAttributeRegistered";
+    public static final String ACCESS_FULFILLED = "AccessCondition.Fulfilled";
+    public static final String COMPUTE_FULFILLED = "ComputeExecutionCondition.Fulfilled";
+    public static final String PROVENANCE_ATTRIBUTE_REGISTERED = "ProvenanceAttributeRegistered";
+    public static final String WAS_GENERATED_BY = "WasGeneratedBy";
+    public static final String USED = "Used";
+    public static final String WAS_DERIVED_FROM = "WasDerivedFrom";
+    public static final String WAS_ASSOCIATED_WITH = "WasAssociatedWith";
+    public static final String ACTED_ON_BEHALF = "ActedOnBehalf";
+
+    public static final long DEFAULT_SYNC_INTERVAL = 5000L;
+    public static final int DEFAULT_CONFIRMATIONS = 12;
+
+    private static final String EVENTS_FILE = "events.jsonl";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final EventLogScanner scanner;
+    private final Path directory;
+    private final long startBlock;
+    private final long syncInterval;
+    private final int confirmations;
+
+    private final Map<String, IndexDefinition> definitions = new LinkedHashMap<>();
+    private final Map<String, List<IndexedLog>> logsByKey = new HashMap<>();
+    private final Set<String> ingested = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object syncMonitor = new Object();
+
+    private volatile long checkpoint;
+    private volatile long lastSync = 0;
+    private boolean loaded = false;
+
+    private static class IndexDefinition {
+        private final String name;
+        private final String address;
+        private final String signature;
+        private final int[] keyTopics;
+
+        private IndexDefinition(String name, String address, String signature, int[] keyTopics) {
+            this.name = name;
+            this.address = address;
+            this.signature = signature;
+            this.keyTopics = keyTopics;
+        }
+    }
+
+    /**
+     * Event as it is persisted in the index
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class IndexedLog {
+
+        @JsonProperty("n")
+        public String name;
+
+        @JsonProperty("a")
+        public String address;
+
+        @JsonProperty("b")
+        public long blockNumber;
+
+        @JsonProperty("i")
+        public long logIndex;
+
+        @JsonProperty("t")
+        public String transactionHash;
+
+        @JsonProperty("k")
+        public List<String> topics;
+
+        @JsonProperty("d")
+        public String data;
+
+        public IndexedLog() {
+        }
+
+        private IndexedLog(String name, EthLog.LogObject logObject) {
+            this.name = name;
+            this.address = logObject.getAddress();
+            this.blockNumber = logObject.getBlockNumber().longValueExact();
+            this.logIndex = logObject.getLogIndex() != null ? logObject.getLogIndex().longValueExact() : 0;
+            this.transactionHash = logObject.getTransactionHash();
+            this.topics = logObject.getTopics();
+            this.data = logObject.getData();
+        }
+
+        private String id() {
+            return transactionHash + ":" + logIndex;
+        }
+
+        private EthLog.LogObject toLogObject() {
+            EthLog.LogObject logObject = new EthLog.LogObject();
+            logObject.setAddress(address);
+            logObject.setBlockNumber("0x" + Long.toHexString(blockNumber));
+            logObject.setLogIndex("0x" + Long.toHexString(logIndex));
+            logObject.setTransactionHash(transactionHash);
+            logObject.setTopics(topics);
+            logObject.setData(data);
+            return logObject;
+        }
+    }
+
+    /**
+     * Constructor ingesting the blocks as soon as they are mined
+     *
+     * @param scanner      the scanner used to ingest the events
+     * @param directory    directory where the index is persisted
+     * @param startBlock   first block ingested when the index is empty
+     * @param syncInterval milliseconds after which a query ingests the new blocks before answering
+     */
+    public EventIndex(EventLogScanner scanner, String directory, long startBlock, long syncInterval) {
+        this(scanner, directory, startBlock, syncInterval, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param scanner       the scanner used to ingest the events
+     * @param directory     directory where the index is persisted
+     * @param startBlock    first block ingested when the index is empty
+     * @param syncInterval  milliseconds after which a query ingests the new blocks before answering
+     * @param confirmations number of blocks mined on top of a block before it's ingested
+     */
+    public EventIndex(EventLogScanner scanner, String directory, long startBlock, long syncInterval, int confirmations) {
+        this.scanner = scanner;
+        this.directory = Paths.get(directory);
+        this.startBlock = startBlock;
+        this.syncInterval = syncInterval;
+        this.confirmations = Math.max(confirmations, 0);
+        this.checkpoint = startBlock - 1;
+    }
+
+    /**
+     * Registers an event to be indexed. It must be called before the first synchronization
+     *
+     * @param name      name used to query the event
+     * @param address   address of the contract emitting the event
+     * @param event     the event
+     * @param keyTopics positions of the topics used as keys to query the event
+     * @return this
+     */
+    public synchronized EventIndex index(String name, String address, Event event, int... keyTopics) {
+        definitions.put(name, new IndexDefinition(name, address, EventEncoder.encode(event), keyTopics));
+        return this;
+    }
+
+    /**
+     * Checks if an event is registered in the index
+     *
+     * @param name the name of the event
+     * @return true if the event is indexed
+     */
+    public boolean isIndexed(String name) {
+        return definitions.containsKey(name);
+    }
+
+    /**
+     * Gets the last block ingested in the index
+     *
+     * @return the block number
+     */
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getStartBlock() {
+        return startBlock;
+    }
+
+    public int getConfirmations() {
+        return confirmations;
+    }
+
+    /**
+     * Gets the events whose topic at a given position has a value, ingesting first the new blocks if the
+     * last synchronization is older than the sync interval
+     *
+     * @param name       the name of the event
+     * @param topicIndex the position of the topic
+     * @param topicValue the value of the topic, 0x prefixed
+     * @return the logs in the order they were emitted
+     * @throws EthereumException if the new blocks can not be ingested
+     */
+    public List<EthLog.LogObject> getLogs(String name, int topicIndex, String topicValue) throws EthereumException {
+        return getLogs(name, topicIndex, topicValue, null, null);
+    }
+
+    /**
+     * Gets the events whose topic at a given position has a value in a block range.
+     * The events of the blocks not confirmed yet are fetched from the chain
+     *
+     * @param name       the name of the event
+     * @param topicIndex the position of the topic
+     * @param topicValue the value of the topic, 0x prefixed
+     * @param fromBlock  first block, null for no lower limit
+     * @param toBlock    last block, null for no upper limit
+     * @return the logs in the order they were emitted
+     * @throws EthereumException if the new blocks can not be ingested
+     */
+    public List<EthLog.LogObject> getLogs(String name, int topicIndex, String topicValue,
+                                          BigInteger fromBlock, BigInteger toBlock) throws EthereumException {
+        if (System.currentTimeMillis() - lastSync >= syncInterval)
+            sync();
+
+        List<EthLog.LogObject> result = new ArrayList<>();
+        long indexedUpTo;
+        lock.readLock().lock();
+        try {
+            indexedUpTo = checkpoint;
+            for (IndexedLog indexedLog : logsByKey.getOrDefault(key(name, topicIndex, topicValue), Collections.emptyList())) {
+                if (fromBlock != null && indexedLog.blockNumber < fromBlock.longValueExact())
+                    continue;
+                if (toBlock != null && indexedLog.blockNumber > toBlock.longValueExact())
+                    continue;
+                result.add(indexedLog.toLogObject());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // The blocks above the checkpoint are scanned up to the requested block, or up to the latest one
+        // when there is no upper limit, so the events mined since the last synchronization are included
+        long from = fromBlock != null ? Math.max(fromBlock.longValueExact(), indexedUpTo + 1) : indexedUpTo + 1;
+        IndexDefinition definition = definitions.get(name);
+        if (definition != null && (toBlock == null || from <= toBlock.longValueExact()))
+            result.addAll(scanner.scan(filter(definition, topicIndex, topicValue), BigInteger.valueOf(from), toBlock));
+        return result;
+    }
+
+    private static LogFilter filter(IndexDefinition definition, int topicIndex, String topicValue) {
+        LogFilter filter = new LogFilter(definition.address).addSingleTopic(definition.signature);
+        for (int i = 1; i < topicIndex; i++)
+            filter.addNullTopic();
+        return filter.addSingleTopic(topicValue);
+    }
+
+    /**
+     * Checks if the index can answer a query over a block range
+     *
+     * @param name      the name of the event
+     * @param fromBlock first block, null for no lower limit
+     * @param toBlock   last block, null for the latest block
+     * @return true if the events of the range are ingested or will be in the next synchronization
+     */
+    public boolean covers(String name, BigInteger fromBlock, BigInteger toBlock) {
+        return isIndexed(name) && (fromBlock == null || fromBlock.longValueExact() >= startBlock);
+    }
+
+    /**
+     * Ingests the events emitted since the last checkpoint
+     *
+     * @throws EthereumException if the events can not be fetched or persisted
+     */
+    public void sync() throws EthereumException {
+        synchronized (syncMonitor) {
+            if (System.currentTimeMillis() - lastSync < syncInterval && loaded)
+                return;
+
+            load();
+
+            long latest = scanner.getLatestBlockNumber().longValueExact();
+            long confirmed = latest - confirmations;
+            long from = checkpoint + 1;
+            if (from > confirmed) {
+                lastSync = System.currentTimeMillis();
+                return;
+            }
+
+            List<IndexedLog> newLogs = new ArrayList<>();
+            for (IndexDefinition definition : definitions.values()) {
+                LogFilter filter = new LogFilter(definition.address).addSingleTopic(definition.signature);
+                for (EthLog.LogObject logObject : scanner.scan(filter, BigInteger.valueOf(from), BigInteger.valueOf(confirmed)))
+                    newLogs.add(new IndexedLog(definition.name, logObject));
+            }
+            newLogs.sort((a, b) -> a.blockNumber != b.blockNumber ?
+                    Long.compare(a.blockNumber, b.blockNumber) : Long.compare(a.logIndex, b.logIndex));
+
+            try {
+                persist(newLogs, confirmed);
+            } catch (IOException e) {
+                throw new EthereumException("Unable to persist the event index: " + e.getMessage(), e);
+            }
+
+            lock.writeLock().lock();
+            try {
+                newLogs.forEach(this::add);
+                checkpoint = confirmed;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastSync = System.currentTimeMillis();
+            log.debug("Event index synchronized up to block " + confirmed + " (" + newLogs.size() + " new events)");
+        }
+    }
+
+    private static String key(String name, int topicIndex, String topicValue) {
+        return name + "/" + topicIndex + "/" + topicValue.toLowerCase();
+    }
+
+    private void add(IndexedLog indexedLog) {
+        if (!ingested.add(indexedLog.id()))
+            return;
+        IndexDefinition definition = definitions.get(indexedLog.name);
+        if (definition == null)
+            return;
+        for (int topicIndex : definition.keyTopics) {
+            if (indexedLog.topics == null || indexedLog.topics.size() <= topicIndex)
+                continue;
+            logsByKey.computeIfAbsent(key(indexedLog.name, topicIndex, indexedLog.topics.get(topicIndex)),
+                    k -> new ArrayList<>()).add(indexedLog);
+        }
+    }
+
+    private void load() throws EthereumException {
+        if (loaded)
+            return;
+
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        Path eventsFile = directory.resolve(EVENTS_FILE);
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(checkpointFile))
+                checkpoint = Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim());
+
+            if (Files.exists(eventsFile)) {
+                lock.writeLock().lock();
+                try (BufferedReader reader = Files.newBufferedReader(eventsFile, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isEmpty())
+                            continue;
+                        IndexedLog indexedLog;
+                        try {
+                            indexedLog = ModelMapper.read(line, IndexedLog.class);
+                        } catch (IOException e) {
+                            // A partially written line left by an interrupted synchronization
+                            log.warn("Ignoring corrupted entry of the event index");
+                            continue;
+                        }
+                        if (indexedLog.blockNumber <= checkpoint)
+                            add(indexedLog);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new EthereumException("Unable to load the event index from " + directory + ": " + e.getMessage(), e);
+        }
+        loaded = true;
+        log.debug("Event index loaded from " + directory + " up to block " + checkpoint);
+    }
+
+    private void persist(List<IndexedLog> newLogs, long confirmed) throws IOException {
+        if (!newLogs.isEmpty()) {
+            try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(EVENTS_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (IndexedLog indexedLog : newLogs) {
+                    writer.write(ModelMapper.write(indexedLog));
+                    writer.newLine();
+                }
+            }
+        }
+        // The checkpoint is replaced atomically once the events are written
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.write(tmp, String.valueOf(confirmed).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,285 @@
+package io.keyko.nevermined.core.events;
+
+import io.keyko.nevermined.exceptions.EthereumException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scans the logs of a contract splitting the block range in windows fetched in parallel.
+ * The size of the windows adapts to the node: it grows while the windows return few logs and shrinks
+ * when they return too many or the node fails answering (typically because of timeouts or result limits).
+ * Failed windows are split in halves and retried.
+ */
+public class EventLogScanner {
+
+    private static final Logger log = LogManager.getLogger(EventLogScanner.class);
+
+    public static final long DEFAULT_START_BLOCK = 0L;
+    public static final long DEFAULT_WINDOW_SIZE = 5000L;
+    public static final long DEFAULT_MAX_WINDOW_SIZE = 100000L;
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int DEFAULT_TARGET_LOGS = 1000;
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    private final Web3j web3j;
+    private final long startBlock;
+    private final long maxWindowSize;
+    private final int concurrency;
+    private final int targetLogs;
+    private final int maxRetries;
+    private final ExecutorService executor;
+
+    private volatile long windowSize;
+
+    private static class BlockRange {
+        private final long from;
+        private final long to;
+        private final int attempt;
+
+        private BlockRange(long from, long to, int attempt) {
+            this.from = from;
+            this.to = to;
+            this.attempt = attempt;
+        }
+
+        private long size() {
+            return to - from + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + from + ", " + to + "]";
+        }
+    }
+
+    private static class WindowResult {
+        private final BlockRange range;
+        private final List<EthLog.LogObject> logs;
+        private final Exception error;
+
+        private WindowResult(BlockRange range, List<EthLog.LogObject> logs, Exception error) {
+            this.range = range;
+            this.logs = logs;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Constructor using the default settings
+     *
+     * @param web3j the web3j client
+     */
+    public EventLogScanner(Web3j web3j) {
+        this(web3j, DEFAULT_START_BLOCK, DEFAULT_WINDOW_SIZE, DEFAULT_MAX_WINDOW_SIZE, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param web3j         the web3j client
+     * @param startBlock    block used when the scan has not a start block hint
+     * @param windowSize    initial number of blocks requested in every eth_getLogs call
+     * @param maxWindowSize maximum number of blocks requested in every eth_getLogs call
+     * @param concurrency   maximum number of eth_getLogs calls in flight
+     */
+    public EventLogScanner(Web3j web3j, long startBlock, long windowSize, long maxWindowSize, int concurrency) {
+        this(web3j, startBlock, windowSize, maxWindowSize, concurrency, DEFAULT_TARGET_LOGS, DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param web3j         the web3j client
+     * @param startBlock    block used when the scan has not a start block hint
+     * @param windowSize    initial number of blocks requested in every eth_getLogs call
+     * @param maxWindowSize maximum number of blocks requested in every eth_getLogs call
+     * @param concurrency   maximum number of eth_getLogs calls in flight
+     * @param targetLogs    number of logs per window above which the window shrinks
+     * @param maxRetries    number of times a failed window is split and retried before giving up
+     */
+    public EventLogScanner(Web3j web3j, long startBlock, long windowSize, long maxWindowSize, int concurrency,
+                           int targetLogs, int maxRetries) {
+        if (windowSize < 1 || maxWindowSize < windowSize)
+            throw new IllegalArgumentException("Invalid window size, it must be between 1 and " + maxWindowSize);
+        if (concurrency < 1)
+            throw new IllegalArgumentException("The concurrency must be greater than 0");
+
+        this.web3j = web3j;
+        this.startBlock = startBlock;
+        this.windowSize = windowSize;
+        this.maxWindowSize = maxWindowSize;
+        this.concurrency = concurrency;
+        this.targetLogs = targetLogs;
+        this.maxRetries = maxRetries;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "event-log-scanner-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Scans all the logs matching a filter from the configured start block to the latest block
+     *
+     * @param filter the filter
+     * @return the logs sorted as the node returns them
+     * @throws EthereumException if some window can not be fetched
+     */
+    public List<EthLog.LogObject> scan(LogFilter filter) throws EthereumException {
+        return scan(filter, null, null);
+    }
+
+    /**
+     * Scans all the logs matching a filter in a block range
+     *
+     * @param filter    the filter
+     * @param fromBlock first block to scan, if null the configured start block is used
+     * @param toBlock   last block to scan (included), if null the latest block is used
+     * @return the logs sorted as the node returns them
+     * @throws EthereumException if some window can not be fetched
+     */
+    public List<EthLog.LogObject> scan(LogFilter filter, BigInteger fromBlock, BigInteger toBlock) throws EthereumException {
+
+        long from = fromBlock != null ? fromBlock.longValueExact() : startBlock;
+        long to = toBlock != null ? toBlock.longValueExact() : getLatestBlockNumber().longValueExact();
+
+        List<EthLog.LogObject> result = new ArrayList<>();
+        if (from > to)
+            return result;
+
+        CompletionService<WindowResult> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<WindowResult>> futures = new ArrayList<>();
+        Map<Long, List<EthLog.LogObject>> windows = new TreeMap<>();
+        Deque<BlockRange> retries = new ArrayDeque<>();
+        long next = from;
+        int inFlight = 0;
+
+        try {
+            while (next <= to || !retries.isEmpty() || inFlight > 0) {
+
+                while (inFlight < concurrency && (next <= to || !retries.isEmpty())) {
+                    BlockRange range = retries.poll();
+                    if (range == null) {
+                        range = new BlockRange(next, Math.min(to, next + windowSize - 1), 0);
+                        next = range.to + 1;
+                    }
+                    final BlockRange window = range;
+                    futures.add(completionService.submit(() -> fetchWindow(filter, window)));
+                    inFlight++;
+                }
+
+                WindowResult windowResult = completionService.take().get();
+                inFlight--;
+
+                if (windowResult.error == null) {
+                    windows.put(windowResult.range.from, windowResult.logs);
+                    adaptWindowSize(windowResult.logs.size());
+                    continue;
+                }
+
+                BlockRange failed = windowResult.range;
+                if (failed.attempt >= maxRetries)
+                    throw new EthereumException("Unable to get the logs of blocks " + failed + " after "
+                            + maxRetries + " retries: " + windowResult.error.getMessage(), windowResult.error);
+
+                log.debug("Error getting the logs of blocks " + failed + ", retrying: " + windowResult.error.getMessage());
+                windowSize = Math.max(1, Math.min(windowSize, failed.size() / 2));
+                if (failed.size() > 1) {
+                    long middle = failed.from + failed.size() / 2;
+                    retries.add(new BlockRange(failed.from, middle - 1, failed.attempt + 1));
+                    retries.add(new BlockRange(middle, failed.to, failed.attempt + 1));
+                } else {
+                    retries.add(new BlockRange(failed.from, failed.to, failed.attempt + 1));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EthereumException("Interrupted while scanning logs");
+        } catch (ExecutionException e) {
+            throw new EthereumException("Error scanning logs: " + e.getMessage(), e);
+        } finally {
+            for (Future<WindowResult> future : futures)
+                future.cancel(true);
+        }
+
+        windows.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Gets the number of the latest block
+     *
+     * @return the block number
+     * @throws EthereumException if the node can not be queried
+     */
+    public BigInteger getLatestBlockNumber() throws EthereumException {
+        try {
+            EthBlockNumber blockNumber = web3j.ethBlockNumber().send();
+            if (blockNumber.hasError())
+                throw new EthereumException("Error getting the latest block: " + blockNumber.getError().getMessage());
+            return blockNumber.getBlockNumber();
+        } catch (IOException e) {
+            throw new EthereumException("Error getting the latest block: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the current size of the windows, after adapting to the previous responses of the node
+     *
+     * @return the number of blocks requested per eth_getLogs call
+     */
+    public long getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Stops the threads used to fetch the windows
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void adaptWindowSize(int logsReturned) {
+        if (logsReturned > targetLogs)
+            windowSize = Math.max(1, windowSize / 2);
+        else if (logsReturned < targetLogs / 4)
+            windowSize = Math.min(maxWindowSize, windowSize * 2);
+    }
+
+    private WindowResult fetchWindow(LogFilter filter, BlockRange range) {
+        try {
+            EthLog ethLog = web3j.ethGetLogs(
+                    filter.toEthFilter(BigInteger.valueOf(range.from), BigInteger.valueOf(range.to))).send();
+            if (ethLog.hasError())
+                return new WindowResult(range, null, new EthereumException(ethLog.getError().getMessage()));
+
+            List<EthLog.LogObject> logs = new ArrayList<>();
+            for (EthLog.LogResult logResult : ethLog.getLogs())
+                logs.add((EthLog.LogObject) logResult);
+            return new WindowResult(range, logs, null);
+        } catch (Exception e) {
+            return new WindowResult(range, null, e);
+        }
+    }
+}
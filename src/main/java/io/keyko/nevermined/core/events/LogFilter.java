@@ -0,0 +1,78 @@
+package io.keyko.nevermined.core.events;
+
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contract address and topics of an eth_getLogs query, independent of the block range
+ * so the same filter can be applied to different block windows
+ */
+public class LogFilter {
+
+    private final String address;
+    private final List<String> topics = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param address the address of the contract emitting the events
+     */
+    public LogFilter(String address) {
+        this.address = address;
+    }
+
+    /**
+     * Adds a topic that must match exactly
+     *
+     * @param topic the topic, 0x prefixed
+     * @return this
+     */
+    public LogFilter addSingleTopic(String topic) {
+        topics.add(topic);
+        return this;
+    }
+
+    /**
+     * Adds a topic matching any value
+     *
+     * @return this
+     */
+    public LogFilter addNullTopic() {
+        topics.add(null);
+        return this;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public List<String> getTopics() {
+        return Collections.unmodifiableList(topics);
+    }
+
+    /**
+     * Builds the EthFilter for a block window
+     *
+     * @param fromBlock first block of the window
+     * @param toBlock   last block of the window, included
+     * @return EthFilter
+     */
+    public EthFilter toEthFilter(BigInteger fromBlock, BigInteger toBlock) {
+        EthFilter ethFilter = new EthFilter(
+                DefaultBlockParameter.valueOf(fromBlock),
+                DefaultBlockParameter.valueOf(toBlock),
+                address);
+        for (String topic : topics) {
+            if (topic == null)
+                ethFilter.addNullTopic();
+            else
+                ethFilter.addSingleTopic(topic);
+        }
+        return ethFilter;
+    }
+}
@@ -0,0 +1,134 @@
+package io.keyko.nevermined.core.keeper;
+
+import io.keyko.nevermined.exceptions.EthereumException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups several read-only contract calls (eth_call) in a single JSON-RPC batch request, so
+ * they cost one round trip to the node instead of one per call.
+ * Big batches are split in chunks of maxBatchSize calls, and if the transport of the web3j client
+ * does not support batches the calls are sent one by one.
+ */
+public class ContractCallBatch {
+
+    private static final Logger log = LogManager.getLogger(ContractCallBatch.class);
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final Web3j web3j;
+    private final String from;
+    private final int maxBatchSize;
+    private final List<Function> functions = new ArrayList<>();
+    private final List<Request<?, EthCall>> requests = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param web3j the web3j client
+     * @param from  the address used as sender of the calls
+     */
+    public ContractCallBatch(Web3j web3j, String from) {
+        this(web3j, from, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param web3j        the web3j client
+     * @param from         the address used as sender of the calls
+     * @param maxBatchSize maximum number of calls sent in one JSON-RPC batch
+     */
+    public ContractCallBatch(Web3j web3j, String from, int maxBatchSize) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("The batch size must be greater than 0");
+        this.web3j = web3j;
+        this.from = from;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Adds a call to the batch
+     *
+     * @param contractAddress the address of the contract
+     * @param function        the function called, including the output types to decode
+     * @return the position of the result of the call in the list returned by send
+     */
+    public int add(String contractAddress, Function function) {
+        functions.add(function);
+        requests.add(web3j.ethCall(
+                Transaction.createEthCallTransaction(from, contractAddress, FunctionEncoder.encode(function)),
+                DefaultBlockParameterName.LATEST));
+        return requests.size() - 1;
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Sends all the calls added to the batch
+     *
+     * @return the decoded outputs of every call, in the order they were added
+     * @throws EthereumException if the request fails or some call is reverted
+     */
+    public List<List<Type>> send() throws EthereumException {
+        List<List<Type>> results = new ArrayList<>();
+        if (requests.isEmpty())
+            return results;
+
+        Map<Long, EthCall> responses = new HashMap<>();
+        for (int i = 0; i < requests.size(); i += maxBatchSize)
+            responses.putAll(sendRequests(requests.subList(i, Math.min(requests.size(), i + maxBatchSize))));
+
+        for (int i = 0; i < requests.size(); i++) {
+            EthCall ethCall = responses.get(requests.get(i).getId());
+            if (ethCall == null)
+                throw new EthereumException("No response received for the call to " + functions.get(i).getName());
+            if (ethCall.hasError())
+                throw new EthereumException("Error calling " + functions.get(i).getName() + ": " + ethCall.getError().getMessage());
+            results.add(FunctionReturnDecoder.decode(ethCall.getValue(), functions.get(i).getOutputParameters()));
+        }
+        return results;
+    }
+
+    private Map<Long, EthCall> sendRequests(List<Request<?, EthCall>> chunk) throws EthereumException {
+        Map<Long, EthCall> responses = new HashMap<>();
+        try {
+            if (chunk.size() > 1) {
+                try {
+                    BatchRequest batch = web3j.newBatch();
+                    chunk.forEach(batch::add);
+                    BatchResponse batchResponse = batch.send();
+                    for (Response<?> response : batchResponse.getResponses())
+                        responses.put(response.getId(), (EthCall) response);
+                    return responses;
+                } catch (UnsupportedOperationException e) {
+                    log.debug("JSON-RPC batches not supported by the web3j service, sending the calls one by one");
+                }
+            }
+            for (Request<?, EthCall> request : chunk)
+                responses.put(request.getId(), request.send());
+            return responses;
+        } catch (Exception e) {
+            throw new EthereumException("Error sending the contract calls: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.keyko.nevermined.core.keeper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Assigns the nonces of the transactions sent by an account locally, so several transactions can be
+ * submitted back to back without waiting for the previous ones to be mined.
+ * The nonce is read from the node the first time and after every reset, which must be done when a
+ * transaction submitted with a local nonce is rejected, dropped or replaced.
+ * The transactions sent from the account by other transaction managers (e.g. the ones of the keeper
+ * contracts) consume nonces the manager doesn't know about, so it must be synced with the node before
+ * starting a new sequence of transactions.
+ * Every TransactionPipeline.Factory owns the instance of its account, shared by all its pipelines, so the
+ * nonces of an API instance are not mixed with the ones of other instances or other nodes.
+ */
+public class NonceManager {
+
+    private static final Logger log = LogManager.getLogger(NonceManager.class);
+
+    private final Web3j web3j;
+    private final String address;
+
+    private BigInteger nextNonce;
+
+    /**
+     * Constructor
+     *
+     * @param web3j   the web3j client used to read the nonce of the account
+     * @param address the address of the account
+     */
+    public NonceManager(Web3j web3j, String address) {
+        this.web3j = web3j;
+        this.address = address;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Reserves the next nonce of the account
+     *
+     * @return the nonce
+     * @throws IOException if the nonce can not be read from the node
+     */
+    public synchronized BigInteger next() throws IOException {
+        if (nextNonce == null)
+            nextNonce = getTransactionCount(DefaultBlockParameterName.PENDING);
+        BigInteger nonce = nextNonce;
+        nextNonce = nextNonce.add(BigInteger.ONE);
+        return nonce;
+    }
+
+    /**
+     * Syncs the local nonce with the transactions of the account known by the node, including the ones in the pool.
+     * The local nonce is only moved forward, so the nonces reserved for transactions not broadcast yet are kept
+     *
+     * @return the next nonce of the account
+     * @throws IOException if the nonce can not be read from the node
+     */
+    public synchronized BigInteger sync() throws IOException {
+        BigInteger pending = getTransactionCount(DefaultBlockParameterName.PENDING);
+        if (nextNonce == null || pending.compareTo(nextNonce) > 0) {
+            if (nextNonce != null)
+                log.debug("Syncing the nonce of " + address + " from " + nextNonce + " to " + pending);
+            nextNonce = pending;
+        }
+        return nextNonce;
+    }
+
+    /**
+     * Returns a nonce that was reserved but not used because the transaction was not submitted.
+     * If other nonces were reserved after it the manager is reset instead, since they would leave a gap
+     *
+     * @param nonce the nonce
+     */
+    public synchronized void release(BigInteger nonce) {
+        if (nextNonce != null && nonce.add(BigInteger.ONE).equals(nextNonce))
+            nextNonce = nonce;
+        else
+            reset();
+    }
+
+    /**
+     * Discards the local nonce, so the next one is read again from the node
+     */
+    public synchronized void reset() {
+        log.debug("Resetting the nonce of " + address);
+        nextNonce = null;
+    }
+
+    /**
+     * Gets the number of transactions of the account
+     *
+     * @param blockParameter LATEST for the mined transactions, PENDING to include the ones in the pool
+     * @return the transaction count
+     * @throws IOException if the node can not be queried
+     */
+    public BigInteger getTransactionCount(DefaultBlockParameterName blockParameter) throws IOException {
+        EthGetTransactionCount transactionCount = web3j.ethGetTransactionCount(address, blockParameter).send();
+        if (transactionCount.hasError())
+            throw new IOException("Error getting the nonce of " + address + ": " + transactionCount.getError().getMessage());
+        return transactionCount.getTransactionCount();
+    }
+}
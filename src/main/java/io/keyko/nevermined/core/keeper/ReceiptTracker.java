@@ -0,0 +1,273 @@
+package io.keyko.nevermined.core.keeper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.tx.TransactionManager;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waits for the receipts of all the transactions in flight with a single polling loop.
+ * A single thread follows the new blocks of the chain and, every time a block is mined, requests the receipts
+ * of all the pending transactions in one JSON-RPC batch, completing the futures of the ones mined.
+ * The contracts loaded with a transaction manager wrapped by the tracker wait for their receipts here instead
+ * of polling them one by one. The thread only runs while there are pending transactions.
+ */
+public class ReceiptTracker {
+
+    private static final Logger log = LogManager.getLogger(ReceiptTracker.class);
+
+    public static final long DEFAULT_POLL_INTERVAL = 500L;
+
+    private final Web3j web3j;
+    private final long pollInterval;
+    private final long timeout;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService executor;
+
+    private final Map<String, PendingTransaction> pending = new ConcurrentHashMap<>();
+    private volatile boolean newTransactions = false;
+    private BigInteger lastBlock;
+    private ScheduledFuture<?> task;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong receiptRequests = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalConfirmationTime = new AtomicLong();
+    private final AtomicLong maxConfirmationTime = new AtomicLong();
+
+    private static class PendingTransaction {
+        private final long trackedAt = System.currentTimeMillis();
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param web3j        the web3j client
+     * @param pollInterval milliseconds between the checks of the latest block
+     * @param timeout      maximum milliseconds to wait for the receipt of a transaction
+     */
+    public ReceiptTracker(Web3j web3j, long pollInterval, long timeout) {
+        this(web3j, pollInterval, timeout, ContractCallBatch.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param web3j        the web3j client
+     * @param pollInterval milliseconds between the checks of the latest block
+     * @param timeout      maximum milliseconds to wait for the receipt of a transaction
+     * @param maxBatchSize maximum number of receipts requested in one JSON-RPC batch
+     */
+    public ReceiptTracker(Web3j web3j, long pollInterval, long timeout, int maxBatchSize) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("The batch size must be greater than 0");
+        this.web3j = web3j;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "receipt-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits for the receipt of a transaction
+     *
+     * @param transactionHash the hash of the transaction
+     * @return a future completed with the receipt, or with a TimeoutException
+     */
+    public CompletableFuture<TransactionReceipt> track(String transactionHash) {
+        PendingTransaction transaction = pending.computeIfAbsent(transactionHash, hash -> {
+            PendingTransaction created = new PendingTransaction();
+            created.future.orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((receipt, error) -> {
+                pending.remove(hash, created);
+                if (error instanceof TimeoutException)
+                    timedOut.incrementAndGet();
+            });
+            return created;
+        });
+        newTransactions = true;
+        start();
+        // Every caller gets its own copy, so cancelling it does not affect the other ones waiting for the same transaction
+        return transaction.future.copy();
+    }
+
+    /**
+     * Gets a receipt processor waiting for the receipts through the tracker
+     *
+     * @return TransactionReceiptProcessor
+     */
+    public TransactionReceiptProcessor getReceiptProcessor() {
+        return new TransactionReceiptProcessor(web3j) {
+            @Override
+            public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+                    throws IOException, TransactionException {
+                try {
+                    return track(transactionHash).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransactionException("Interrupted waiting for the receipt of the transaction " + transactionHash);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof TimeoutException)
+                        throw new TransactionException("Transaction receipt was not generated after " + timeout
+                                + " milliseconds for transaction: " + transactionHash);
+                    throw new IOException("Error waiting for the receipt of the transaction " + transactionHash, e.getCause());
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps a transaction manager so the receipts of its transactions are waited for through the tracker
+     *
+     * @param transactionManager the transaction manager sending the transactions
+     * @return TransactionManager
+     */
+    public TransactionManager wrap(TransactionManager transactionManager) {
+        return new TrackedTransactionManager(transactionManager, getReceiptProcessor());
+    }
+
+    /**
+     * Gets a snapshot of the counters of the tracker
+     *
+     * @return ReceiptTrackerStats
+     */
+    public ReceiptTrackerStats getStats() {
+        return new ReceiptTrackerStats(pending.size(), polls.get(), receiptRequests.get(), confirmed.get(),
+                timedOut.get(), totalConfirmationTime.get(), maxConfirmationTime.get());
+    }
+
+    /**
+     * Stops following the chain and cancels the pending transactions
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        pending.values().forEach(transaction -> transaction.future.cancel(true));
+        pending.clear();
+    }
+
+    private synchronized void start() {
+        if (task == null || task.isDone())
+            task = executor.scheduleWithFixedDelay(this::check, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopIfIdle() {
+        if (pending.isEmpty() && !newTransactions && task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    private void check() {
+        try {
+            if (pending.isEmpty()) {
+                stopIfIdle();
+                return;
+            }
+
+            // New receipts only appear with new blocks, except for the transactions tracked since the last check
+            BigInteger latestBlock = web3j.ethBlockNumber().send().getBlockNumber();
+            if (!newTransactions && latestBlock.equals(lastBlock))
+                return;
+            lastBlock = latestBlock;
+            newTransactions = false;
+
+            List<String> hashes = new ArrayList<>(pending.keySet());
+            polls.incrementAndGet();
+            receiptRequests.addAndGet(hashes.size());
+
+            Map<String, TransactionReceipt> receipts = new HashMap<>();
+            for (int i = 0; i < hashes.size(); i += maxBatchSize)
+                receipts.putAll(getReceipts(hashes.subList(i, Math.min(hashes.size(), i + maxBatchSize))));
+
+            long now = System.currentTimeMillis();
+            receipts.forEach((hash, receipt) -> {
+                PendingTransaction transaction = pending.get(hash);
+                if (transaction == null)
+                    return;
+                long confirmationTime = now - transaction.trackedAt;
+                confirmed.incrementAndGet();
+                totalConfirmationTime.addAndGet(confirmationTime);
+                maxConfirmationTime.accumulateAndGet(confirmationTime, Math::max);
+                transaction.future.complete(receipt);
+            });
+        } catch (Exception e) {
+            log.debug("Error checking the receipts of the pending transactions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Requests the receipts of some transactions in one batch, or one by one if the transport does not support batches
+     *
+     * @return the receipts of the transactions already mined, by hash
+     */
+    private Map<String, TransactionReceipt> getReceipts(List<String> hashes) throws IOException {
+        Map<Long, String> hashesById = new HashMap<>();
+        List<Request<?, EthGetTransactionReceipt>> requests = new ArrayList<>();
+        for (String hash : hashes) {
+            Request<?, EthGetTransactionReceipt> request = web3j.ethGetTransactionReceipt(hash);
+            hashesById.put(request.getId(), hash);
+            requests.add(request);
+        }
+
+        List<EthGetTransactionReceipt> responses = new ArrayList<>();
+        boolean batched = false;
+        if (requests.size() > 1) {
+            try {
+                BatchRequest batch = web3j.newBatch();
+                requests.forEach(batch::add);
+                BatchResponse batchResponse = batch.send();
+                for (Response<?> response : batchResponse.getResponses())
+                    responses.add((EthGetTransactionReceipt) response);
+                batched = true;
+            } catch (UnsupportedOperationException e) {
+                log.debug("JSON-RPC batches not supported by the web3j service, requesting the receipts one by one");
+            }
+        }
+        if (!batched) {
+            for (Request<?, EthGetTransactionReceipt> request : requests)
+                responses.add(request.send());
+        }
+
+        Map<String, TransactionReceipt> receipts = new HashMap<>();
+        for (EthGetTransactionReceipt response : responses) {
+            String hash = hashesById.get(response.getId());
+            if (hash == null)
+                continue;
+            if (response.hasError()) {
+                log.debug("Error getting the receipt of " + hash + ": " + response.getError().getMessage());
+                continue;
+            }
+            response.getTransactionReceipt().ifPresent(receipt -> receipts.put(hash, receipt));
+        }
+        return receipts;
+    }
+}
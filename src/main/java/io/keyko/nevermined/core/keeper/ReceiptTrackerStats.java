@@ -0,0 +1,87 @@
+package io.keyko.nevermined.core.keeper;
+
+/**
+ * Immutable snapshot of the counters of a ReceiptTracker
+ */
+public class ReceiptTrackerStats {
+
+    private final long pending;
+    private final long polls;
+    private final long receiptRequests;
+    private final long confirmed;
+    private final long timedOut;
+    private final long totalConfirmationTime;
+    private final long maxConfirmationTime;
+
+    public ReceiptTrackerStats(long pending, long polls, long receiptRequests, long confirmed, long timedOut,
+                               long totalConfirmationTime, long maxConfirmationTime) {
+        this.pending = pending;
+        this.polls = polls;
+        this.receiptRequests = receiptRequests;
+        this.confirmed = confirmed;
+        this.timedOut = timedOut;
+        this.totalConfirmationTime = totalConfirmationTime;
+        this.maxConfirmationTime = maxConfirmationTime;
+    }
+
+    /**
+     * Number of transactions waiting for their receipt
+     *
+     * @return the number of transactions
+     */
+    public long getPending() {
+        return pending;
+    }
+
+    /**
+     * Number of times the receipts of the pending transactions were requested, one per new block
+     *
+     * @return the number of polls
+     */
+    public long getPolls() {
+        return polls;
+    }
+
+    /**
+     * Number of eth_getTransactionReceipt calls sent to the node, grouped in one batch per poll
+     *
+     * @return the number of calls
+     */
+    public long getReceiptRequests() {
+        return receiptRequests;
+    }
+
+    public long getConfirmed() {
+        return confirmed;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Average milliseconds between a transaction being tracked and its receipt being received
+     *
+     * @return the average time, or 0 if no transaction was confirmed
+     */
+    public double getAverageConfirmationTime() {
+        return confirmed == 0 ? 0 : (double) totalConfirmationTime / confirmed;
+    }
+
+    public long getMaxConfirmationTime() {
+        return maxConfirmationTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiptTrackerStats{" +
+                "pending=" + pending +
+                ", polls=" + polls +
+                ", receiptRequests=" + receiptRequests +
+                ", confirmed=" + confirmed +
+                ", timedOut=" + timedOut +
+                ", averageConfirmationTime=" + getAverageConfirmationTime() +
+                ", maxConfirmationTime=" + maxConfirmationTime +
+                '}';
+    }
+}
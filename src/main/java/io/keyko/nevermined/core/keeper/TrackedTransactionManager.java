@@ -0,0 +1,46 @@
+package io.keyko.nevermined.core.keeper;
+
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.EthGetCode;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.TransactionManager;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Transaction manager sending the transactions through other transaction manager, keeping the way they
+ * are signed, but waiting for their receipts with a different receipt processor
+ */
+public class TrackedTransactionManager extends TransactionManager {
+
+    private final TransactionManager delegate;
+
+    /**
+     * Constructor
+     *
+     * @param delegate         the transaction manager sending the transactions
+     * @param receiptProcessor the processor used to wait for the receipts
+     */
+    public TrackedTransactionManager(TransactionManager delegate, TransactionReceiptProcessor receiptProcessor) {
+        super(receiptProcessor, delegate.getFromAddress());
+        this.delegate = delegate;
+    }
+
+    @Override
+    public EthSendTransaction sendTransaction(BigInteger gasPrice, BigInteger gasLimit, String to, String data,
+                                              BigInteger value, boolean constructor) throws IOException {
+        return delegate.sendTransaction(gasPrice, gasLimit, to, data, value, constructor);
+    }
+
+    @Override
+    public String sendCall(String to, String data, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return delegate.sendCall(to, data, defaultBlockParameter);
+    }
+
+    @Override
+    public EthGetCode getCode(String contractAddress, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return delegate.getCode(contractAddress, defaultBlockParameter);
+    }
+}
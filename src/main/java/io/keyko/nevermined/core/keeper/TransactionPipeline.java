@@ -0,0 +1,315 @@
+package io.keyko.nevermined.core.keeper;
+
+import io.keyko.common.web3.KeeperService;
+import io.keyko.nevermined.exceptions.EthereumException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.RemoteFunctionCall;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.Contract;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.TransactionManager;
+import org.web3j.tx.gas.ContractGasProvider;
+import org.web3j.tx.response.NoOpProcessor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Submits a sequence of dependent transactions back to back, with consecutive nonces assigned by the
+ * NonceManager of the account, and waits for all their receipts together.
+ * As the transactions of an account are mined in nonce order, the dependencies between them are kept
+ * while the whole sequence usually takes one block instead of one block per transaction.
+ * While waiting, dropped transactions are broadcast again and replaced ones (their nonce mined by other
+ * transaction) make the pipeline fail, resetting the nonce of the account.
+ */
+public class TransactionPipeline {
+
+    private static final Logger log = LogManager.getLogger(TransactionPipeline.class);
+
+    /**
+     * Number of receipt polling attempts between the checks of dropped or replaced transactions
+     */
+    private static final int RECOVERY_INTERVAL = 5;
+
+    private final Web3j web3j;
+    private final NonceManager nonceManager;
+    private final ContractGasProvider gasProvider;
+    private final PipelinedTransactionManager transactionManager;
+    private final int attempts;
+    private final long sleepDuration;
+
+    private final List<SubmittedTransaction> submitted = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * A contract wrapper loader, like the static load method of the generated contracts
+     *
+     * @param <T> the type of the contract
+     */
+    @FunctionalInterface
+    public interface ContractLoader<T extends Contract> {
+        T load(String address, Web3j web3j, TransactionManager transactionManager, ContractGasProvider gasProvider);
+    }
+
+    private static class SubmittedTransaction {
+        private final BigInteger nonce;
+        private final String hash;
+        private final String signedTransaction;
+
+        private SubmittedTransaction(BigInteger nonce, String hash, String signedTransaction) {
+            this.nonce = nonce;
+            this.hash = hash;
+            this.signedTransaction = signedTransaction;
+        }
+    }
+
+    /**
+     * Transaction manager using the local nonces and returning as soon as a transaction is accepted by the node
+     */
+    private class PipelinedTransactionManager extends RawTransactionManager {
+
+        private PipelinedTransactionManager(Web3j web3j, Credentials credentials, long chainId) {
+            super(web3j, credentials, chainId, new NoOpProcessor(web3j));
+        }
+
+        @Override
+        protected BigInteger getNonce() throws IOException {
+            return nonceManager.next();
+        }
+
+        @Override
+        public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
+            String signedTransaction = sign(rawTransaction);
+            EthSendTransaction ethSendTransaction;
+            try {
+                ethSendTransaction = web3j.ethSendRawTransaction(signedTransaction).send();
+            } catch (IOException e) {
+                nonceManager.release(rawTransaction.getNonce());
+                throw e;
+            }
+
+            if (ethSendTransaction.hasError()) {
+                // The nonce could be out of sync with the node (transactions sent by other clients)
+                nonceManager.reset();
+            } else {
+                submitted.add(new SubmittedTransaction(rawTransaction.getNonce(),
+                        ethSendTransaction.getTransactionHash(), signedTransaction));
+            }
+            return ethSendTransaction;
+        }
+    }
+
+    /**
+     * Creates the pipelines of an account with the same settings, all of them assigning the nonces with the
+     * NonceManager of the factory
+     */
+    public static class Factory {
+
+        private final KeeperService keeperService;
+        private final NonceManager nonceManager;
+        private final int attempts;
+        private final long sleepDuration;
+        private volatile Long chainId;
+
+        /**
+         * Constructor
+         *
+         * @param keeperService the keeper service of the account
+         * @param attempts      number of times the receipts are polled before giving up
+         * @param sleepDuration milliseconds between the receipt polls
+         */
+        public Factory(KeeperService keeperService, int attempts, long sleepDuration) {
+            this.keeperService = keeperService;
+            this.nonceManager = new NonceManager(keeperService.getWeb3(), keeperService.getCredentials().getAddress());
+            this.attempts = attempts;
+            this.sleepDuration = sleepDuration;
+        }
+
+        public NonceManager getNonceManager() {
+            return nonceManager;
+        }
+
+        /**
+         * Creates a new pipeline. The nonce of the account is synced with the node first, as the transactions
+         * sent through the transaction manager of the keeper consume nonces the pipelines don't know about
+         *
+         * @return TransactionPipeline
+         * @throws EthereumException if the chain id or the nonce can not be read from the node
+         */
+        public TransactionPipeline newPipeline() throws EthereumException {
+            if (chainId == null) {
+                try {
+                    chainId = keeperService.getWeb3().ethChainId().send().getChainId().longValueExact();
+                } catch (IOException | RuntimeException e) {
+                    throw new EthereumException("Error getting the chain id: " + e.getMessage(), e);
+                }
+            }
+            Credentials credentials = keeperService.getCredentials();
+            try {
+                nonceManager.sync();
+            } catch (IOException e) {
+                throw new EthereumException("Error getting the nonce of " + credentials.getAddress() + ": " + e.getMessage(), e);
+            }
+            return new TransactionPipeline(
+                    keeperService.getWeb3(),
+                    credentials,
+                    chainId,
+                    nonceManager,
+                    keeperService.getContractGasProvider(),
+                    attempts,
+                    sleepDuration);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param web3j         the web3j client
+     * @param credentials   credentials of the account signing the transactions
+     * @param chainId       id of the chain
+     * @param nonceManager  nonce manager of the account
+     * @param gasProvider   gas provider of the contracts bound to the pipeline
+     * @param attempts      number of times the receipts are polled before giving up
+     * @param sleepDuration milliseconds between the receipt polls
+     */
+    public TransactionPipeline(Web3j web3j, Credentials credentials, long chainId, NonceManager nonceManager,
+                               ContractGasProvider gasProvider, int attempts, long sleepDuration) {
+        this.web3j = web3j;
+        this.nonceManager = nonceManager;
+        this.gasProvider = gasProvider;
+        this.attempts = attempts;
+        this.sleepDuration = sleepDuration;
+        this.transactionManager = new PipelinedTransactionManager(web3j, credentials, chainId);
+    }
+
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    /**
+     * Loads a copy of a contract whose transactions are submitted through the pipeline
+     *
+     * @param contract the contract
+     * @param loader   the load method of the contract wrapper
+     * @param <T>      the type of the contract
+     * @return the contract bound to the pipeline
+     */
+    public <T extends Contract> T bind(T contract, ContractLoader<T> loader) {
+        return loader.load(contract.getContractAddress(), web3j, transactionManager, gasProvider);
+    }
+
+    /**
+     * Submits a transaction without waiting for it to be mined
+     *
+     * @param transaction the transaction of a contract bound to the pipeline
+     * @return the position of the receipt of the transaction in the list returned by awaitReceipts
+     * @throws EthereumException if the node does not accept the transaction
+     */
+    public int submit(RemoteFunctionCall<TransactionReceipt> transaction) throws EthereumException {
+        try {
+            transaction.send();
+        } catch (Exception e) {
+            throw new EthereumException("Error submitting the transaction: " + e.getMessage(), e);
+        }
+        SubmittedTransaction submittedTransaction = submitted.get(submitted.size() - 1);
+        log.debug("Transaction " + submittedTransaction.hash + " submitted with nonce " + submittedTransaction.nonce);
+        return submitted.size() - 1;
+    }
+
+    /**
+     * Number of transactions submitted
+     *
+     * @return the number of transactions
+     */
+    public int size() {
+        return submitted.size();
+    }
+
+    /**
+     * Waits until all the transactions submitted are mined
+     *
+     * @return the receipts, in the order the transactions were submitted
+     * @throws EthereumException if some transaction is not mined after all the attempts or it was replaced
+     */
+    public List<TransactionReceipt> awaitReceipts() throws EthereumException {
+        List<SubmittedTransaction> transactions = new ArrayList<>(submitted);
+        TransactionReceipt[] receipts = new TransactionReceipt[transactions.size()];
+
+        try {
+            for (int attempt = 0; attempt < attempts; attempt++) {
+                boolean pending = false;
+                for (int i = 0; i < transactions.size(); i++) {
+                    if (receipts[i] == null)
+                        receipts[i] = getReceipt(transactions.get(i).hash);
+                    pending = pending || receipts[i] == null;
+                }
+                if (!pending)
+                    return Arrays.asList(receipts);
+
+                if (attempt % RECOVERY_INTERVAL == RECOVERY_INTERVAL - 1)
+                    recover(transactions, receipts);
+                Thread.sleep(sleepDuration);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EthereumException("Interrupted while waiting for the transactions receipts");
+        } catch (IOException e) {
+            throw new EthereumException("Error getting the transactions receipts: " + e.getMessage(), e);
+        }
+
+        nonceManager.reset();
+        throw new EthereumException("The transactions were not mined after " + attempts + " attempts");
+    }
+
+    private TransactionReceipt getReceipt(String hash) throws IOException {
+        EthGetTransactionReceipt ethGetTransactionReceipt = web3j.ethGetTransactionReceipt(hash).send();
+        if (ethGetTransactionReceipt.hasError())
+            throw new IOException(ethGetTransactionReceipt.getError().getMessage());
+        return ethGetTransactionReceipt.getTransactionReceipt().orElse(null);
+    }
+
+    /**
+     * Checks the transactions still pending, broadcasting again the ones dropped from the pool
+     * and failing if some nonce was mined with other transaction
+     */
+    private void recover(List<SubmittedTransaction> transactions, TransactionReceipt[] receipts)
+            throws IOException, EthereumException {
+
+        BigInteger minedNonces = nonceManager.getTransactionCount(DefaultBlockParameterName.LATEST);
+        for (int i = 0; i < transactions.size(); i++) {
+            if (receipts[i] != null)
+                continue;
+            SubmittedTransaction transaction = transactions.get(i);
+
+            if (transaction.nonce.compareTo(minedNonces) < 0) {
+                receipts[i] = getReceipt(transaction.hash);
+                if (receipts[i] == null) {
+                    nonceManager.reset();
+                    throw new EthereumException("Transaction " + transaction.hash + " with nonce "
+                            + transaction.nonce + " was replaced by other transaction");
+                }
+                continue;
+            }
+
+            EthTransaction ethTransaction = web3j.ethGetTransactionByHash(transaction.hash).send();
+            if (!ethTransaction.hasError() && !ethTransaction.getTransaction().isPresent()) {
+                log.debug("Transaction " + transaction.hash + " dropped from the pool, broadcasting it again");
+                EthSendTransaction resent = web3j.ethSendRawTransaction(transaction.signedTransaction).send();
+                if (resent.hasError())
+                    log.warn("Error broadcasting again the transaction " + transaction.hash + ": "
+                            + resent.getError().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.keyko.nevermined.core.sla;
+
+import io.keyko.nevermined.manager.AgreementsManager;
+import io.keyko.nevermined.models.service.AgreementStatus;
+import io.keyko.nevermined.models.service.Condition;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.protocol.Web3j;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Waits for changes in the state of service agreements without blocking a thread per agreement.
+ * A single thread follows the new blocks of the chain and, every time a block is mined, checks the status
+ * of all the agreements being watched in one batched request, completing the futures of the watches satisfied.
+ * The thread only runs while there are pending watches. When the status can't be checked maxErrors times in a row,
+ * the pending watches fail with the last error instead of waiting for their timeout.
+ */
+public class AgreementWatcher {
+
+    private static final Logger log = LogManager.getLogger(AgreementWatcher.class);
+
+    public static final long DEFAULT_POLL_INTERVAL = 500L;
+    public static final long DEFAULT_CONDITION_TIMEOUT = 5000L;
+    public static final long DEFAULT_AGREEMENT_TIMEOUT = 10000L;
+    public static final int DEFAULT_MAX_ERRORS = 5;
+
+    private final AgreementsManager agreementsManager;
+    private final Web3j web3j;
+    private final long pollInterval;
+    private final long conditionTimeout;
+    private final long agreementTimeout;
+    private final int maxErrors;
+    private final ScheduledExecutorService executor;
+
+    private final Map<String, List<Watch>> watches = new ConcurrentHashMap<>();
+    private volatile boolean newWatches = false;
+    private BigInteger lastBlock;
+    // Checks failed in a row, only accessed by the thread of the watcher
+    private int errors = 0;
+    private ScheduledFuture<?> task;
+
+    private static class Watch {
+        private final Predicate<AgreementStatus> predicate;
+        private final CompletableFuture<AgreementStatus> future = new CompletableFuture<>();
+
+        private Watch(Predicate<AgreementStatus> predicate) {
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * Constructor using the default settings
+     *
+     * @param agreementsManager the manager used to get the status of the agreements
+     * @param web3j             the web3j client used to follow the new blocks
+     */
+    public AgreementWatcher(AgreementsManager agreementsManager, Web3j web3j) {
+        this(agreementsManager, web3j, DEFAULT_POLL_INTERVAL, DEFAULT_CONDITION_TIMEOUT, DEFAULT_AGREEMENT_TIMEOUT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param agreementsManager the manager used to get the status of the agreements
+     * @param web3j             the web3j client used to follow the new blocks
+     * @param pollInterval      milliseconds between the checks of the latest block
+     * @param conditionTimeout  default milliseconds to wait for the fulfillment of a condition
+     * @param agreementTimeout  default milliseconds to wait for the creation of an agreement
+     */
+    public AgreementWatcher(AgreementsManager agreementsManager, Web3j web3j, long pollInterval,
+                            long conditionTimeout, long agreementTimeout) {
+        this(agreementsManager, web3j, pollInterval, conditionTimeout, agreementTimeout, DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param agreementsManager the manager used to get the status of the agreements
+     * @param web3j             the web3j client used to follow the new blocks
+     * @param pollInterval      milliseconds between the checks of the latest block
+     * @param conditionTimeout  default milliseconds to wait for the fulfillment of a condition
+     * @param agreementTimeout  default milliseconds to wait for the creation of an agreement
+     * @param maxErrors         consecutive failed checks before the pending watches fail
+     */
+    public AgreementWatcher(AgreementsManager agreementsManager, Web3j web3j, long pollInterval,
+                            long conditionTimeout, long agreementTimeout, int maxErrors) {
+        this.agreementsManager = agreementsManager;
+        this.web3j = web3j;
+        this.pollInterval = pollInterval;
+        this.conditionTimeout = conditionTimeout;
+        this.agreementTimeout = agreementTimeout;
+        this.maxErrors = Math.max(1, maxErrors);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "agreement-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits until a condition of an agreement is fulfilled, up to the default condition timeout
+     *
+     * @param agreementId   the agreement id
+     * @param conditionType the condition
+     * @return a future completed with the status of the agreement, or with a TimeoutException
+     */
+    public CompletableFuture<AgreementStatus> waitForCondition(String agreementId, Condition.ConditionTypes conditionType) {
+        return waitForCondition(agreementId, conditionType, conditionTimeout);
+    }
+
+    /**
+     * Waits until a condition of an agreement is fulfilled
+     *
+     * @param agreementId   the agreement id
+     * @param conditionType the condition
+     * @param timeout       maximum milliseconds to wait
+     * @return a future completed with the status of the agreement, or with a TimeoutException
+     */
+    public CompletableFuture<AgreementStatus> waitForCondition(String agreementId, Condition.ConditionTypes conditionType,
+                                                               long timeout) {
+        return watch(agreementId, status -> isFulfilled(status, conditionType), timeout);
+    }
+
+    /**
+     * Waits until an agreement is stored on-chain, up to the default agreement timeout
+     *
+     * @param agreementId the agreement id
+     * @return a future completed with the status of the agreement, or with a TimeoutException
+     */
+    public CompletableFuture<AgreementStatus> waitForAgreement(String agreementId) {
+        return waitForAgreement(agreementId, agreementTimeout);
+    }
+
+    /**
+     * Waits until an agreement is stored on-chain
+     *
+     * @param agreementId the agreement id
+     * @param timeout     maximum milliseconds to wait
+     * @return a future completed with the status of the agreement, or with a TimeoutException
+     */
+    public CompletableFuture<AgreementStatus> waitForAgreement(String agreementId, long timeout) {
+        return watch(agreementId, AgreementWatcher::isCreated, timeout);
+    }
+
+    /**
+     * Waits until the status of an agreement matches a predicate
+     *
+     * @param agreementId the agreement id
+     * @param predicate   the predicate evaluated after every new block
+     * @param timeout     maximum milliseconds to wait
+     * @return a future completed with the status of the agreement, or with a TimeoutException
+     */
+    public CompletableFuture<AgreementStatus> watch(String agreementId, Predicate<AgreementStatus> predicate, long timeout) {
+        Watch watch = new Watch(predicate);
+        watches.computeIfAbsent(agreementId, k -> new CopyOnWriteArrayList<>()).add(watch);
+        watch.future.whenComplete((status, error) -> remove(agreementId, watch));
+        newWatches = true;
+        start();
+        return watch.future.orTimeout(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Number of agreements being watched
+     *
+     * @return the number of agreements
+     */
+    public int size() {
+        return watches.size();
+    }
+
+    /**
+     * Stops following the chain and cancels the pending watches
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        watches.values().forEach(list -> list.forEach(watch -> watch.future.cancel(true)));
+        watches.clear();
+    }
+
+    public static boolean isFulfilled(AgreementStatus status, Condition.ConditionTypes conditionType) {
+        if (status.conditions.isEmpty())
+            return false;
+        BigInteger conditionStatus = status.conditions.get(0).conditions.get(conditionType.toString());
+        return Condition.ConditionStatus.Fulfilled.getStatus().equals(conditionStatus);
+    }
+
+    public static boolean isCreated(AgreementStatus status) {
+        return !status.conditions.isEmpty() && !status.conditions.get(0).conditions.isEmpty();
+    }
+
+    private synchronized void start() {
+        if (task == null || task.isDone())
+            task = executor.scheduleWithFixedDelay(this::check, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopIfIdle() {
+        if (watches.isEmpty() && !newWatches && task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    private void remove(String agreementId, Watch watch) {
+        watches.computeIfPresent(agreementId, (k, list) -> {
+            list.remove(watch);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void check() {
+        try {
+            if (watches.isEmpty()) {
+                stopIfIdle();
+                return;
+            }
+
+            // The status only changes with new blocks, except for the watches added since the last check
+            BigInteger latestBlock = web3j.ethBlockNumber().send().getBlockNumber();
+            if (!newWatches && latestBlock.equals(lastBlock))
+                return;
+            newWatches = false;
+
+            List<String> agreementIds = new ArrayList<>(watches.keySet());
+            List<AgreementStatus> statuses = agreementsManager.getStatuses(agreementIds);
+            for (int i = 0; i < agreementIds.size(); i++) {
+                AgreementStatus status = statuses.get(i);
+                for (Watch watch : watches.getOrDefault(agreementIds.get(i), new ArrayList<>())) {
+                    if (watch.predicate.test(status))
+                        watch.future.complete(status);
+                }
+            }
+            // A failed check is repeated in the same block
+            lastBlock = latestBlock;
+            errors = 0;
+        } catch (Exception e) {
+            errors++;
+            log.warn("Error checking the status of the watched agreements (" + errors + "/" + maxErrors + "): "
+                    + e.getMessage());
+            if (errors >= maxErrors) {
+                errors = 0;
+                watches.values().forEach(list -> list.forEach(watch -> watch.future.completeExceptionally(e)));
+            }
+        }
+    }
+}
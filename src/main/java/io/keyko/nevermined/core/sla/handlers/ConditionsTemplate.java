@@ -0,0 +1,339 @@
+package io.keyko.nevermined.core.sla.handlers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.keyko.common.helpers.CryptoHelper;
+import io.keyko.nevermined.models.AssetRewards;
+import io.keyko.nevermined.models.ModelMapper;
+import io.keyko.nevermined.models.service.Condition;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conditions template of a service agreement compiled once from its json file.
+ * The template is parsed into Condition skeletons where every parameter value holding a placeholder,
+ * like "{parameter.assetId}" or {parameter.amounts}, is a slot. Filling the template copies the skeletons
+ * and resolves the slots, without reading the file, replacing text or parsing json again.
+ * The placeholders between quotes are resolved to strings, and the ones without quotes to the json value
+ * they would be replaced by, like the arrays of amounts and receivers of the asset rewards.
+ */
+final class ConditionsTemplate {
+
+    private static final String TEMPLATES_PATH = "sla/";
+    private static final String TEMPLATES_DIRECTORY = "src/main/resources/sla/";
+
+    private static final String RECEIVERS = "parameter.receivers";
+    private static final String AMOUNTS = "parameter.amounts";
+    private static final String NUMBER_NFTS = "parameter._numberNfts";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.]+)\\}");
+    // Prefix of the strings replacing the placeholders without quotes, so the template can be parsed as json
+    private static final char RAW_MARKER = '\u0000';
+
+    private static final Map<String, ConditionsTemplate> templates = new ConcurrentHashMap<>();
+
+    private final List<CompiledCondition> conditions;
+
+    private ConditionsTemplate(List<CompiledCondition> conditions) {
+        this.conditions = conditions;
+    }
+
+    /**
+     * Gets the compiled template of a conditions file, compiling it the first time
+     *
+     * @param fileName the name of the file under the sla directory
+     * @return ConditionsTemplate
+     * @throws IOException if the file can not be read or parsed
+     */
+    static ConditionsTemplate forFile(String fileName) throws IOException {
+        ConditionsTemplate template = templates.get(fileName);
+        if (template == null) {
+            ConditionsTemplate compiled = compile(load(fileName));
+            template = templates.putIfAbsent(fileName, compiled);
+            if (template == null)
+                template = compiled;
+        }
+        return template;
+    }
+
+    /**
+     * Compiles a conditions template
+     *
+     * @param json the content of the template
+     * @return ConditionsTemplate
+     * @throws IOException if the template is not valid json
+     */
+    static ConditionsTemplate compile(String json) throws IOException {
+        List<Condition> skeletons = ModelMapper.read(quoteRawPlaceholders(json), new TypeReference<List<Condition>>() {
+        });
+
+        List<CompiledCondition> compiled = new ArrayList<>(skeletons.size());
+        for (Condition skeleton : skeletons) {
+            List<Slot> slots = new ArrayList<>(skeleton.parameters.size());
+            for (Condition.ConditionParameter parameter : skeleton.parameters)
+                slots.add(compileValue(parameter.value));
+            compiled.add(new CompiledCondition(skeleton, slots));
+        }
+        return new ConditionsTemplate(compiled);
+    }
+
+    /**
+     * Creates the conditions of the template
+     *
+     * @param params       the value of the placeholders, by name
+     * @param assetRewards the asset rewards giving the amounts, receivers and number of nfts
+     * @return new conditions, not shared with other callers
+     * @throws IOException if the value of a placeholder without quotes is not valid json
+     */
+    List<Condition> fill(Map<String, Object> params, AssetRewards assetRewards) throws IOException {
+        Values values = new Values(params, assetRewards);
+        List<Condition> filled = new ArrayList<>(conditions.size());
+        for (CompiledCondition condition : conditions)
+            filled.add(condition.fill(values));
+        return filled;
+    }
+
+    private static String load(String fileName) throws IOException {
+        try (InputStream stream = ConditionsTemplate.class.getClassLoader().getResourceAsStream(TEMPLATES_PATH + fileName)) {
+            if (stream != null)
+                return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+        return new String(Files.readAllBytes(Paths.get(TEMPLATES_DIRECTORY + fileName)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replaces the placeholders used as json values, outside of any string, by marked strings
+     */
+    private static String quoteRawPlaceholders(String json) {
+        StringBuilder quoted = new StringBuilder(json.length());
+        Matcher matcher = PLACEHOLDER.matcher(json);
+        boolean inString = false;
+        int i = 0;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\' && i + 1 < json.length()) {
+                    quoted.append(c).append(json.charAt(i + 1));
+                    i += 2;
+                    continue;
+                }
+                if (c == '"')
+                    inString = false;
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' && matcher.find(i) && matcher.start() == i) {
+                quoted.append("\"\\u0000").append(matcher.group(1)).append('"');
+                i = matcher.end();
+                continue;
+            }
+            quoted.append(c);
+            i++;
+        }
+        return quoted.toString();
+    }
+
+    private static Slot compileValue(Object value) {
+        if (!(value instanceof String))
+            return new ConstantSlot(value);
+
+        String text = (String) value;
+        if (!text.isEmpty() && text.charAt(0) == RAW_MARKER)
+            return new RawSlot(text.substring(1));
+
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(last, matcher.start()));
+            names.add(matcher.group(1));
+            last = matcher.end();
+        }
+        if (names.isEmpty())
+            return new ConstantSlot(value);
+        literals.add(text.substring(last));
+        return new TextSlot(literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    /**
+     * Value of the placeholders for one filling of the template
+     */
+    private static class Values {
+
+        private final Map<String, Object> params;
+        private final AssetRewards assetRewards;
+
+        private Values(Map<String, Object> params, AssetRewards assetRewards) {
+            this.params = params;
+            this.assetRewards = assetRewards;
+        }
+
+        /**
+         * @return the text replacing the placeholder, or null if it has no value
+         */
+        private String text(String name) {
+            // The asset rewards take precedence over the params, as they were replaced first in the template
+            switch (name) {
+                case RECEIVERS:
+                    return assetRewards.getReceiversArrayString();
+                case AMOUNTS:
+                    return assetRewards.getAmountsArrayString();
+                case NUMBER_NFTS:
+                    return assetRewards.numberNFTs.toString();
+                default:
+                    Object value = params.get(name);
+                    if (value == null)
+                        return null;
+                    if (value instanceof byte[])
+                        return CryptoHelper.getHex((byte[]) value);
+                    return value.toString();
+            }
+        }
+
+        /**
+         * @return the json value replacing a placeholder without quotes
+         */
+        private Object json(String name) throws IOException {
+            switch (name) {
+                case RECEIVERS:
+                    return arrayOf(assetRewards.rewards.keySet());
+                case AMOUNTS:
+                    return arrayOf(assetRewards.rewards.values());
+                default:
+                    String text = text(name);
+                    if (text == null)
+                        throw new IOException("No value for the placeholder {" + name + "} of the conditions template");
+                    return ModelMapper.read(text, Object.class);
+            }
+        }
+
+        private static List<Object> arrayOf(Collection<String> values) {
+            // Same as getReceiversArrayString and getAmountsArrayString, that give [""] when there are no rewards
+            if (values.isEmpty())
+                return new ArrayList<>(Collections.singletonList(""));
+            return new ArrayList<>(values);
+        }
+    }
+
+    private interface Slot {
+        Object resolve(Values values) throws IOException;
+    }
+
+    private static class ConstantSlot implements Slot {
+
+        private final Object value;
+
+        private ConstantSlot(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object resolve(Values values) {
+            // Strings and numbers are immutable, but lists are copied so the skeleton can not be modified
+            if (value instanceof List)
+                return new ArrayList<>((List<?>) value);
+            return value;
+        }
+    }
+
+    private static class TextSlot implements Slot {
+
+        private final String[] literals;
+        private final String[] names;
+
+        private TextSlot(String[] literals, String[] names) {
+            this.literals = literals;
+            this.names = names;
+        }
+
+        @Override
+        public Object resolve(Values values) {
+            if (names.length == 1 && literals[0].isEmpty() && literals[1].isEmpty()) {
+                String text = values.text(names[0]);
+                return text != null ? text : "{" + names[0] + "}";
+            }
+
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                builder.append(literals[i]);
+                String text = values.text(names[i]);
+                if (text != null)
+                    builder.append(text);
+                else
+                    builder.append('{').append(names[i]).append('}');
+            }
+            return builder.append(literals[names.length]).toString();
+        }
+    }
+
+    private static class RawSlot implements Slot {
+
+        private final String name;
+
+        private RawSlot(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(Values values) throws IOException {
+            return values.json(name);
+        }
+    }
+
+    private static class CompiledCondition {
+
+        private final Condition skeleton;
+        private final List<Slot> slots;
+
+        private CompiledCondition(Condition skeleton, List<Slot> slots) {
+            this.skeleton = skeleton;
+            this.slots = slots;
+        }
+
+        private Condition fill(Values values) throws IOException {
+            Condition condition = new Condition();
+            condition.name = skeleton.name;
+            condition.timelock = skeleton.timelock;
+            condition.timeout = skeleton.timeout;
+            condition.contractName = skeleton.contractName;
+            condition.functionName = skeleton.functionName;
+
+            condition.parameters = new ArrayList<>(slots.size());
+            for (int i = 0; i < slots.size(); i++) {
+                Condition.ConditionParameter template = skeleton.parameters.get(i);
+                Condition.ConditionParameter parameter = new Condition.ConditionParameter();
+                parameter.name = template.name;
+                parameter.type = template.type;
+                parameter.value = slots.get(i).resolve(values);
+                condition.parameters.add(parameter);
+            }
+
+            condition.events = new ArrayList<>(skeleton.events.size());
+            for (Condition.Event template : skeleton.events) {
+                Condition.Event event = new Condition.Event();
+                event.name = template.name;
+                event.actorType = template.actorType;
+                if (template.handler != null) {
+                    event.handler = new Condition.Handler();
+                    event.handler.moduleName = template.handler.moduleName;
+                    event.handler.functionName = template.handler.functionName;
+                    event.handler.version = template.handler.version;
+                }
+                condition.events.add(event);
+            }
+            return condition;
+        }
+    }
+}
@@ -1,18 +1,13 @@
 package io.keyko.nevermined.core.sla.handlers;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import io.keyko.common.helpers.CryptoHelper;
 import io.keyko.common.helpers.EncodingHelper;
 import io.keyko.nevermined.contracts.AccessCondition;
 import io.keyko.nevermined.contracts.ComputeExecutionCondition;
 import io.keyko.nevermined.contracts.AccessTemplate;
 import io.keyko.nevermined.contracts.EscrowComputeExecutionTemplate;
 import io.keyko.nevermined.exceptions.InitializeConditionsException;
-import io.keyko.nevermined.models.AbstractModel;
 import io.keyko.nevermined.models.AssetRewards;
-import io.keyko.nevermined.models.service.Condition;
 import io.reactivex.Flowable;
-import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.web3j.abi.EventEncoder;
@@ -20,10 +15,6 @@ import org.web3j.abi.datatypes.Event;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.methods.request.EthFilter;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -36,8 +27,6 @@ public abstract class ServiceAgreementHandler {
 
     private static final Logger log = LogManager.getLogger(ServiceAgreementHandler.class);
 
-    private String conditionsTemplate = null;
-
 
     /**
      * Generates a new and random Service Agreement Id
@@ -170,34 +159,7 @@ public abstract class ServiceAgreementHandler {
     public List<io.keyko.nevermined.models.service.Condition> initializeConditions(Map<String, Object> params, AssetRewards assetRewards) throws InitializeConditionsException {
 
         try {
-            conditionsTemplate = IOUtils.toString(
-                    this.getClass().getClassLoader().getResourceAsStream("sla/" + getConditionFileTemplate()),
-                    StandardCharsets.UTF_8);
-
-        } catch (IOException ex) {
-        }
-
-        try {
-
-            if (conditionsTemplate == null)
-                conditionsTemplate = new String(Files.readAllBytes(Paths.get("src/main/resources/sla/" + getConditionFileTemplate())));
-
-            // Amounts and Receivers parameters
-            conditionsTemplate = conditionsTemplate.replaceAll("\\{parameter.receivers\\}", assetRewards.getReceiversArrayString());
-            conditionsTemplate = conditionsTemplate.replaceAll("\\{parameter.amounts\\}", assetRewards.getAmountsArrayString());
-            conditionsTemplate = conditionsTemplate.replaceAll("\\{parameter._numberNfts\\}", assetRewards.numberNFTs.toString());
-
-            params.forEach((_name, _func) -> {
-                if (_func instanceof byte[])
-                    conditionsTemplate = conditionsTemplate.replaceAll("\\{" + _name + "\\}", CryptoHelper.getHex((byte[]) _func));
-                else
-                    conditionsTemplate = conditionsTemplate.replaceAll("\\{" + _name + "\\}", _func.toString());
-            });
-
-            return AbstractModel
-                    .getMapperInstance()
-                    .readValue(conditionsTemplate, new TypeReference<List<Condition>>() {
-                    });
+            return ConditionsTemplate.forFile(getConditionFileTemplate()).fill(params, assetRewards);
         } catch (Exception e) {
             String msg = "Error initializing conditions for template";
             log.error(msg);
@@ -0,0 +1,545 @@
+package io.keyko.nevermined.external;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.keyko.common.helpers.JwtHelper;
+import io.keyko.nevermined.core.download.ChecksumMismatchException;
+import io.keyko.nevermined.core.download.ChecksumVerifier;
+import io.keyko.nevermined.core.download.DownloadEngine;
+import io.keyko.nevermined.exceptions.ServiceException;
+import io.keyko.nevermined.external.GatewayService.AccessTokenResult;
+import io.keyko.nevermined.external.GatewayService.ServiceExecutionResult;
+import io.keyko.nevermined.models.ModelMapper;
+import io.keyko.nevermined.models.gateway.ComputeLogs;
+import io.keyko.nevermined.models.gateway.ComputeStatus;
+import io.keyko.nevermined.models.gateway.EncryptionRequest;
+import io.keyko.nevermined.models.gateway.EncryptionResponse;
+import io.keyko.nevermined.models.gateway.ExecuteService;
+import io.keyko.nevermined.models.service.types.AuthorizationService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Asynchronous client of a Gateway.
+ * There is a single instance per Gateway url in every {@link GatewayClientRegistry}, each one of them holding an
+ * HTTP/2 capable client that keeps its connections open and multiplexes the concurrent requests. Every request
+ * returns a CompletableFuture, the static methods of {@link GatewayService} wait for them.
+ */
+public class GatewayClient {
+
+    private static final Logger log = LogManager.getLogger(GatewayClient.class);
+
+    private static final String TOKEN_URI = "/api/v1/gateway/services/oauth/token";
+    private static final String ENCRYPT_URI = "/api/v1/gateway/services/encrypt";
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String RANGE = "Range";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private volatile DownloadEngine downloadEngine;
+
+    /**
+     * Settings of the HTTP client used by every GatewayClient instance
+     */
+    public static class ConnectionSettings {
+
+        public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+        public static final int DEFAULT_REQUEST_TIMEOUT = 30000;
+
+        private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private boolean http2 = true;
+
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public ConnectionSettings setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Maximum milliseconds waiting for the response of a request. In the downloads it is the time until
+         * the response starts, the transfer of the content is not limited
+         *
+         * @return the timeout in milliseconds
+         */
+        public int getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public ConnectionSettings setRequestTimeout(int requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        public boolean isHttp2() {
+            return http2;
+        }
+
+        public ConnectionSettings setHttp2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+    }
+
+    /**
+     * Sets the connection settings used by the instances of the default registry created from now on
+     *
+     * @param settings the connection settings
+     */
+    public static void configure(ConnectionSettings settings) {
+        GatewayClientRegistry.getDefault().setSettings(settings);
+    }
+
+    /**
+     * Gets the instance of GatewayClient associated to a Gateway in the default registry, creating it if necessary
+     *
+     * @param url the url of the Gateway or of any of its service endpoints
+     * @return GatewayClient instance
+     */
+    public static GatewayClient getInstance(String url) {
+        return GatewayClientRegistry.getDefault().get(url);
+    }
+
+    /**
+     * Registers the client used for a Gateway in the default registry, replacing the existing one, for example
+     * to use an HttpClient with a custom configuration
+     *
+     * @param client the client
+     */
+    public static void register(GatewayClient client) {
+        GatewayClientRegistry.getDefault().register(client);
+    }
+
+    /**
+     * Releases the threads of all the instances of the default registry and empties it
+     */
+    public static void closeAll() {
+        GatewayClientRegistry.getDefault().close();
+    }
+
+    /**
+     * Gets the base url of a Gateway from the url of any of its endpoints, so all of them share the instance
+     *
+     * @param url the url
+     * @return the url with lowercase scheme and host, without default port and path
+     */
+    static String baseUrlOf(String url) {
+        final String normalized = MetadataApiService.normalizeUrl(url);
+        try {
+            URI uri = new URI(normalized);
+            if (uri.getScheme() == null || uri.getHost() == null)
+                return normalized;
+            return uri.getScheme() + "://" + uri.getRawAuthority().toLowerCase();
+        } catch (Exception e) {
+            return normalized;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param url      the url of the Gateway
+     * @param settings the connection settings
+     */
+    public GatewayClient(String url, ConnectionSettings settings) {
+        this(url, settings, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param url            the url of the Gateway
+     * @param settings       the connection settings
+     * @param downloadEngine the engine copying the downloaded files to disk, null to use the one of the
+     *                       default registry
+     */
+    public GatewayClient(String url, ConnectionSettings settings, DownloadEngine downloadEngine) {
+        this.baseUrl = baseUrlOf(url);
+        this.downloadEngine = downloadEngine;
+        this.requestTimeout = Duration.ofMillis(settings.getRequestTimeout());
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(settings.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(settings.getConnectTimeout()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Constructor using an existing HttpClient
+     *
+     * @param url            the url of the Gateway
+     * @param httpClient     the HTTP client
+     * @param requestTimeout maximum milliseconds waiting for the response of a request
+     */
+    public GatewayClient(String url, HttpClient httpClient, int requestTimeout) {
+        this.baseUrl = baseUrlOf(url);
+        this.requestTimeout = Duration.ofMillis(requestTimeout);
+        this.httpClient = httpClient;
+        this.executor = null;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Gets the engine copying the downloaded files to disk
+     *
+     * @return the engine of the client, or the one of the default registry if it doesn't have one
+     */
+    public DownloadEngine getDownloadEngine() {
+        final DownloadEngine engine = downloadEngine;
+        return engine != null ? engine : GatewayClientRegistry.getDefault().getDownloadEngine();
+    }
+
+    void setDownloadEngine(DownloadEngine downloadEngine) {
+        this.downloadEngine = downloadEngine;
+    }
+
+    /**
+     * Releases the threads of the client, the requests in progress are not completed
+     */
+    public void close() {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    private HttpRequest.Builder request(String endpoint) {
+        return HttpRequest.newBuilder(URI.create(endpoint)).timeout(requestTimeout);
+    }
+
+    private HttpRequest.Builder request(String endpoint, String accessToken) {
+        return request(endpoint).header(AUTHORIZATION, "Bearer " + accessToken);
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() == 200 || response.statusCode() == 201;
+    }
+
+    private static String describe(HttpResponse<String> response) {
+        return "HTTP " + response.statusCode() + " " + response.body();
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+    }
+
+    /**
+     * Requests an Access Token given a Grant Token
+     *
+     * @param grantToken the Grant Token generated by the user
+     * @return the result of the request, it never completes exceptionally
+     */
+    public CompletableFuture<AccessTokenResult> getAccessToken(String grantToken) {
+        final String form = "grant_type=" + URLEncoder.encode(JwtHelper.GRANT_TYPE, StandardCharsets.UTF_8)
+                + "&assertion=" + URLEncoder.encode(grantToken, StandardCharsets.UTF_8);
+        final HttpRequest request = request(baseUrl + TOKEN_URI)
+                .header(CONTENT_TYPE, "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    AccessTokenResult result = new AccessTokenResult();
+                    result.setOk(false);
+                    if (error != null) {
+                        result.SetMsg("Exception getting the access token: " + unwrap(error).getMessage());
+                    } else if (!isSuccess(response)) {
+                        result.setCode(response.statusCode());
+                        result.SetMsg("Unable to get access token: " + describe(response));
+                    } else {
+                        result.setCode(response.statusCode());
+                        try {
+                            Map<String, String> body = ModelMapper
+                                    .read(response.body(), new TypeReference<Map<String, String>>() {
+                                    });
+                            result.setAccessToken(body.get("access_token"));
+                            result.setOk(true);
+                        } catch (IOException e) {
+                            result.SetMsg("Exception parsing the access token response: " + e.getMessage());
+                        }
+                    }
+                    if (!result.getOk())
+                        log.error(result.getMsg());
+                    return result;
+                });
+    }
+
+    /**
+     * Asks the Gateway to encrypt a message
+     *
+     * @param gatewayUrl the url of the Gateway, including its path prefix if any
+     * @param message    the message to encrypt
+     * @param authType   AuthType to use for encryption
+     * @param did        DID used to encrypt when using SecretStore, or null
+     * @return the encryption response, completed with a ServiceException if the Gateway fails
+     */
+    public CompletableFuture<EncryptionResponse> encrypt(String gatewayUrl, String message,
+                                                         AuthorizationService.AuthTypes authType, String did) {
+        log.debug("Encrypting message using " + authType.name());
+
+        EncryptionRequest encryptionReq = new EncryptionRequest(message, authType.getName());
+        if (authType.equals(AuthorizationService.AuthTypes.SECRET_STORE) && did != null && !did.isEmpty())
+            encryptionReq.did = did;
+
+        final HttpRequest request;
+        try {
+            request = request(gatewayUrl + ENCRYPT_URI)
+                    .header(CONTENT_TYPE, "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(encryptionReq.toJson()))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new ServiceException("Error Encrypting Message: " + e.getMessage(), e));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null)
+                        throw new CompletionException(new ServiceException("Error Encrypting Message: "
+                                + unwrap(error).getMessage(), unwrap(error)));
+                    if (response.statusCode() != 200) {
+                        log.error("Unable to Encrypt Message: " + describe(response));
+                        throw new CompletionException(new ServiceException("Unable to Encrypt Message"));
+                    }
+                    try {
+                        return EncryptionResponse.fromJSON(new TypeReference<EncryptionResponse>() {
+                        }, response.body());
+                    } catch (IOException e) {
+                        throw new CompletionException(new ServiceException("Error Encrypting Message: "
+                                + e.getMessage(), e));
+                    }
+                });
+    }
+
+    /**
+     * Requests the execution of a Compute Service
+     *
+     * @param serviceEndpoint the execution endpoint of the service
+     * @param executeService  the payload
+     * @return the result of the request, it never completes exceptionally
+     */
+    public CompletableFuture<ServiceExecutionResult> initializeServiceExecution(String serviceEndpoint,
+                                                                              ExecuteService executeService) {
+        log.debug("Initializing Execution of Service. Agreement Id: [" + executeService.agreementId + "]: "
+                + serviceEndpoint);
+
+        final HttpRequest request = request(serviceEndpoint + "/" + executeService.agreementId,
+                executeService.accessToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    ServiceExecutionResult result = new ServiceExecutionResult();
+                    result.setOk(false);
+                    if (error != null) {
+                        log.error("Exception Initializing Execution of the Service: " + unwrap(error).getMessage());
+                        return result;
+                    }
+                    result.setCode(response.statusCode());
+                    if (!isSuccess(response)) {
+                        log.debug("Unable to Initialize Execution of the Service: " + describe(response));
+                        return result;
+                    }
+                    try {
+                        Map<String, String> body = ModelMapper
+                                .read(response.body(), new TypeReference<Map<String, String>>() {
+                                });
+                        result.setExecutionId(body.get("workflowId"));
+                        result.setOk(true);
+                    } catch (IOException e) {
+                        log.error("Exception Initializing Execution of the Service: " + e.getMessage());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Gets the status of a compute job
+     *
+     * @param serviceEndpoint the status endpoint of the compute job
+     * @param accessToken     JWT access token
+     * @return the status, completed with a ServiceException if the Gateway fails
+     */
+    public CompletableFuture<ComputeStatus> getComputeStatus(String serviceEndpoint, String accessToken) {
+        return getJson(serviceEndpoint, accessToken, "compute status", new TypeReference<ComputeStatus>() {
+        });
+    }
+
+    /**
+     * Gets the logs of a compute job
+     *
+     * @param serviceEndpoint the logs endpoint of the compute job
+     * @param accessToken     JWT access token
+     * @return the logs, completed with a ServiceException if the Gateway fails
+     */
+    public CompletableFuture<List<ComputeLogs>> getComputeLogs(String serviceEndpoint, String accessToken) {
+        return getJson(serviceEndpoint, accessToken, "compute logs", new TypeReference<List<ComputeLogs>>() {
+        });
+    }
+
+    private <T> CompletableFuture<T> getJson(String endpoint, String accessToken, String name,
+                                             TypeReference<T> type) {
+        final HttpRequest request = request(endpoint, accessToken).GET().build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        log.error("Exception getting the " + name + ": " + unwrap(error).getMessage());
+                        throw new CompletionException(new ServiceException("Exception getting the " + name,
+                                unwrap(error)));
+                    }
+                    if (!isSuccess(response)) {
+                        log.error("Unable to get the " + name + ": " + describe(response));
+                        throw new CompletionException(new ServiceException("Unable to get the " + name + ": "
+                                + describe(response)));
+                    }
+                    try {
+                        return ModelMapper.read(response.body(), type);
+                    } catch (IOException e) {
+                        log.error("Exception parsing the " + name + ": " + e.getMessage());
+                        throw new CompletionException(new ServiceException("Unable to parse the " + name, e));
+                    }
+                });
+    }
+
+    /**
+     * Downloads a whole file. The future completes as soon as the response starts, the content is read from
+     * the stream, that must be closed
+     *
+     * @param endpoint    the download endpoint of the file
+     * @param accessToken JWT access token
+     * @return the content of the file, completed with an IOException if the Gateway fails
+     */
+    public CompletableFuture<InputStream> download(String endpoint, String accessToken) {
+        log.debug("Downloading from URL[" + endpoint + "]");
+        return openStream(request(endpoint, accessToken).GET().build(), endpoint, false);
+    }
+
+    /**
+     * Downloads a range of bytes of a file, supporting files bigger than 2GB
+     *
+     * @param endpoint    the download endpoint of the file
+     * @param accessToken JWT access token
+     * @param startRange  the first byte of the range
+     * @param endRange    the last byte of the range, inclusive
+     * @return the content of the range, completed with an IOException if the Gateway fails or doesn't
+     * support ranges
+     */
+    public CompletableFuture<InputStream> downloadRange(String endpoint, String accessToken, long startRange,
+                                                        long endRange) {
+        log.debug("Downloading range " + startRange + "-" + endRange + " from URL[" + endpoint + "]");
+        return openStream(request(endpoint, accessToken)
+                .header(RANGE, "bytes=" + startRange + "-" + endRange)
+                .GET().build(), endpoint, true);
+    }
+
+    private CompletableFuture<InputStream> openStream(HttpRequest request, String endpoint, boolean range) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    // A 200 would be the whole file, that can't be used as a range
+                    final boolean valid = range ? response.statusCode() == HTTP_PARTIAL_CONTENT
+                            : response.statusCode() >= 200 && response.statusCode() < 300;
+                    if (valid)
+                        return response.body();
+                    try {
+                        response.body().close();
+                    } catch (IOException e) {
+                        log.debug("Unable to close the response of " + endpoint + ": " + e.getMessage());
+                    }
+                    throw new CompletionException(new IOException("Unable to download from " + endpoint
+                            + ": HTTP " + response.statusCode()));
+                });
+    }
+
+    /**
+     * Asks the Gateway for the size of a file, requesting its first byte
+     *
+     * @param endpoint    the download endpoint of the file
+     * @param accessToken JWT access token
+     * @return the size in bytes, or -1 if the gateway doesn't support ranges for the file
+     */
+    public CompletableFuture<Long> getFileSize(String endpoint, String accessToken) {
+        final HttpRequest request = request(endpoint, accessToken).header(RANGE, "bytes=0-0").GET().build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    final String contentRange = response.headers().firstValue(CONTENT_RANGE).orElse(null);
+                    if (response.statusCode() != HTTP_PARTIAL_CONTENT || contentRange == null)
+                        return -1L;
+                    // Content-Range: bytes 0-0/1234
+                    final String total = contentRange.substring(contentRange.lastIndexOf('/') + 1).trim();
+                    try {
+                        return "*".equals(total) ? -1L : Long.parseLong(total);
+                    } catch (NumberFormatException e) {
+                        throw new CompletionException(new IOException("Invalid Content-Range returned by "
+                                + endpoint, e));
+                    }
+                });
+    }
+
+    /**
+     * Downloads a whole file to disk with the download engine of the client, verifying its content
+     * while it is written. The copy runs in the threads of the client
+     *
+     * @param endpoint    the download endpoint of the file
+     * @param accessToken JWT access token
+     * @param destination path where the file will be stored
+     * @param verifier    the verifier of the content of the file, or null to not verify it
+     * @param listener    the listener of the progress of the download, or null
+     * @return the checksum of the file or null if it was not verified, completed with an IOException if the
+     * download fails or a ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public CompletableFuture<String> downloadToPath(String endpoint, String accessToken, Path destination,
+                                                    ChecksumVerifier verifier,
+                                                    DownloadEngine.ProgressListener listener) {
+        return download(endpoint, accessToken).thenApplyAsync(content -> {
+            try {
+                getDownloadEngine().copy(content, destination, -1, verifier, listener);
+                return verifier != null ? verifier.getChecksum() : null;
+            } catch (ChecksumMismatchException e) {
+                try {
+                    Files.deleteIfExists(destination);
+                } catch (IOException deleteException) {
+                    log.warn("Unable to delete " + destination + ": " + deleteException.getMessage());
+                }
+                throw new CompletionException(e);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor != null ? executor : ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,126 @@
+package io.keyko.nevermined.external;
+
+import io.keyko.nevermined.core.download.DownloadEngine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the GatewayClient of every Gateway, so each Gateway is called through a single HTTP client.
+ * The clients are created with the connection settings of the registry and copy the downloaded files with its
+ * DownloadEngine. A registry belongs to a NeverminedAPI instance, so its settings and its engine are not shared
+ * with other instances. The static methods of GatewayClient and GatewayService use the default registry.
+ */
+public class GatewayClientRegistry {
+
+    private static final Logger log = LogManager.getLogger(GatewayClientRegistry.class);
+
+    private static final GatewayClientRegistry defaultRegistry = new GatewayClientRegistry();
+
+    private final Map<String, GatewayClient> clients = new ConcurrentHashMap<>();
+    private volatile GatewayClient.ConnectionSettings settings;
+    private volatile DownloadEngine downloadEngine;
+
+    /**
+     * Constructor using the default connection settings and download engine
+     */
+    public GatewayClientRegistry() {
+        this(new GatewayClient.ConnectionSettings(), new DownloadEngine());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param settings       the connection settings of the clients
+     * @param downloadEngine the engine copying the downloaded files to disk
+     */
+    public GatewayClientRegistry(GatewayClient.ConnectionSettings settings, DownloadEngine downloadEngine) {
+        this.settings = settings;
+        this.downloadEngine = downloadEngine;
+    }
+
+    /**
+     * Gets the registry used by the static methods of GatewayClient and GatewayService
+     *
+     * @return the default registry
+     */
+    public static GatewayClientRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    /**
+     * Gets the client of a Gateway, creating it the first time the Gateway is used
+     *
+     * @param url the url of the Gateway or of any of its service endpoints
+     * @return the GatewayClient of the Gateway
+     */
+    public GatewayClient get(String url) {
+        return clients.computeIfAbsent(GatewayClient.baseUrlOf(url), baseUrl -> {
+            log.debug("Creating Gateway client: " + baseUrl);
+            return new GatewayClient(baseUrl, settings, downloadEngine);
+        });
+    }
+
+    /**
+     * Registers the client used for a Gateway, replacing and closing the existing one, for example to use an
+     * HttpClient with a custom configuration. The client copies the downloaded files with the engine of the registry
+     *
+     * @param client the client
+     * @return this
+     */
+    public GatewayClientRegistry register(GatewayClient client) {
+        client.setDownloadEngine(downloadEngine);
+        GatewayClient previous = clients.put(client.getBaseUrl(), client);
+        if (previous != null && previous != client)
+            previous.close();
+        return this;
+    }
+
+    public GatewayClient.ConnectionSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Sets the connection settings of the clients created from now on
+     *
+     * @param settings the connection settings
+     * @return this
+     */
+    public GatewayClientRegistry setSettings(GatewayClient.ConnectionSettings settings) {
+        this.settings = settings;
+        return this;
+    }
+
+    public DownloadEngine getDownloadEngine() {
+        return downloadEngine;
+    }
+
+    /**
+     * Sets the engine copying the downloaded files to disk, used by all the clients of the registry
+     *
+     * @param downloadEngine the download engine
+     * @return this
+     */
+    public GatewayClientRegistry setDownloadEngine(DownloadEngine downloadEngine) {
+        this.downloadEngine = downloadEngine;
+        clients.values().forEach(client -> client.setDownloadEngine(downloadEngine));
+        return this;
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Releases the threads of all the clients and empties the registry
+     */
+    public void close() {
+        for (String baseUrl : clients.keySet()) {
+            GatewayClient client = clients.remove(baseUrl);
+            if (client != null)
+                client.close();
+        }
+    }
+}
@@ -1,36 +1,36 @@
 package io.keyko.nevermined.external;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.keyko.common.helpers.HttpHelper;
-import io.keyko.common.helpers.JwtHelper;
 import io.keyko.common.helpers.HttpHelper.DownloadResult;
 import io.keyko.common.helpers.StringsHelper;
 import io.keyko.common.models.HttpResponse;
+import io.keyko.nevermined.core.download.ChecksumMismatchException;
+import io.keyko.nevermined.core.download.ChecksumVerifier;
+import io.keyko.nevermined.core.download.DownloadEngine;
 import io.keyko.nevermined.exceptions.ServiceException;
 import io.keyko.nevermined.models.AbstractModel;
+import io.keyko.nevermined.models.ModelMapper;
 import io.keyko.nevermined.models.gateway.*;
 import io.keyko.nevermined.models.service.Service;
 import io.keyko.nevermined.models.service.types.AuthorizationService;
 import org.apache.commons.httpclient.HttpException;
-import org.apache.commons.httpclient.NameValuePair;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URI;
+import java.io.InterruptedIOException;
 import java.net.URISyntaxException;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Service for Gateway's Integration
@@ -39,8 +39,6 @@ public class GatewayService {
 
     private static final Logger log = LogManager.getLogger(GatewayService.class);
 
-    private static final String ENCRYPT_URI = "/api/v1/gateway/services/encrypt";
-    private static final String AUTHORIZATION = "Authorization";
 
     public static class ServiceAgreementResult {
 
@@ -273,6 +271,20 @@ public class GatewayService {
 
     }
 
+    /**
+     * Sets the engine of the default registry copying the downloaded files to disk, bounding the memory and
+     * the throughput of all the downloads made through it
+     *
+     * @param engine the download engine
+     */
+    public static void setDownloadEngine(DownloadEngine engine) {
+        GatewayClientRegistry.getDefault().setDownloadEngine(engine);
+    }
+
+    public static DownloadEngine getDownloadEngine() {
+        return GatewayClientRegistry.getDefault().getDownloadEngine();
+    }
+
     /**
      * Calls a Gateway endpoint to download an asset
      *
@@ -291,14 +303,34 @@ public class GatewayService {
     public static InputStream downloadUrl(String serviceEndpoint, String consumerAddress, String serviceAgreementId,
             String did, int index, String accessToken, Boolean isRangeRequest, Integer startRange, Integer endRange)
             throws IOException {
+        return downloadUrl(GatewayClientRegistry.getDefault(), serviceEndpoint, consumerAddress, serviceAgreementId,
+                did, index, accessToken, isRangeRequest, startRange, endRange);
+    }
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put(AUTHORIZATION, "Bearer " + accessToken);
+    /**
+     * Calls a Gateway endpoint to download an asset using the clients of a registry
+     *
+     * @param gateways           the registry of the Gateway clients
+     * @param serviceEndpoint    the service endpoint
+     * @param consumerAddress    the address of the consumer
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param did                asset decentralized identifier
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @param startRange         the start of the bytes range
+     * @param endRange           the end of the bytes range
+     * @param isRangeRequest     indicates if is a range request
+     * @return an InputStream that represents the binary content
+     * @throws IOException Exception during the download process
+     */
+    public static InputStream downloadUrl(GatewayClientRegistry gateways, String serviceEndpoint,
+            String consumerAddress, String serviceAgreementId, String did, int index, String accessToken,
+            Boolean isRangeRequest, Integer startRange, Integer endRange) throws IOException {
 
         String endpoint = serviceEndpoint + "/" + serviceAgreementId + "/" + index;
         log.debug("Downloading from URL[" + endpoint + "]: for service Agreement " + serviceAgreementId);
 
-        return HttpHelper.download(endpoint, headers, isRangeRequest, startRange, endRange);
+        return download(gateways, endpoint, accessToken, isRangeRequest, startRange, endRange);
     }
 
     /**
@@ -317,14 +349,41 @@ public class GatewayService {
      */
     public static InputStream downloadUrlByOwner(String serviceEndpoint, String consumerAddress, String did, int index,
             String accessToken, Boolean isRangeRequest, Integer startRange, Integer endRange) throws IOException {
+        return downloadUrlByOwner(GatewayClientRegistry.getDefault(), serviceEndpoint, consumerAddress, did, index,
+                accessToken, isRangeRequest, startRange, endRange);
+    }
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put(AUTHORIZATION, "Bearer " + accessToken);
-        String endpoint = serviceEndpoint + "/" + +index;
+    /**
+     * Calls a Gateway endpoint by the owner of an asset to to download it using the clients of a registry
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the service endpoint
+     * @param consumerAddress the address of the consumer
+     * @param did             asset decentralized identifier
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @param startRange      the start of the bytes range
+     * @param endRange        the end of the bytes range
+     * @param isRangeRequest  indicates if is a range request
+     * @return an InputStream that represents the binary content
+     * @throws IOException Exception during the download process
+     */
+    public static InputStream downloadUrlByOwner(GatewayClientRegistry gateways, String serviceEndpoint,
+            String consumerAddress, String did, int index, String accessToken, Boolean isRangeRequest,
+            Integer startRange, Integer endRange) throws IOException {
+
+        String endpoint = serviceEndpoint + "/" + index;
         log.debug("Owner downloading from URL[" + endpoint + "]");
 
-        return HttpHelper.download(endpoint, headers, isRangeRequest, startRange, endRange);
+        return download(gateways, endpoint, accessToken, isRangeRequest, startRange, endRange);
+    }
 
+    private static InputStream download(GatewayClientRegistry gateways, String endpoint, String accessToken,
+            Boolean isRangeRequest, Integer startRange, Integer endRange) throws IOException {
+        final GatewayClient client = gateways.get(endpoint);
+        if (Boolean.TRUE.equals(isRangeRequest))
+            return awaitIO(client.downloadRange(endpoint, accessToken, startRange, endRange));
+        return awaitIO(client.download(endpoint, accessToken));
     }
 
     /**
@@ -348,11 +407,104 @@ public class GatewayService {
 
         InputStream inputStream = downloadUrl(serviceEndpoint, consumerAddress, serviceAgreementId, did, index,
                 accessToken, isRangeRequest, startRange, endRange);
-        ReadableByteChannel readableByteChannel = Channels.newChannel(inputStream);
-        FileOutputStream fileOutputStream = FileUtils.openOutputStream(new File(destinationPath));
+        copyToPath(inputStream, destinationPath, null, null);
+    }
 
-        fileOutputStream.getChannel().transferFrom(readableByteChannel, 0, Long.MAX_VALUE);
+    /**
+     * Calls a Gateway endpoint to download a whole file of an asset, verifying its content while it is written
+     *
+     * @param serviceEndpoint    the service endpoint
+     * @param consumerAddress    the address of the consumer
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param did                asset decentralized identifier
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @param destinationPath    path where the downloaded asset will be stored
+     * @param verifier           the verifier of the content of the file, or null to not verify it
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the download process
+     * @throws ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public static String downloadToPath(String serviceEndpoint, String consumerAddress, String serviceAgreementId,
+            String did, int index, String accessToken, String destinationPath, ChecksumVerifier verifier)
+            throws IOException {
+        return downloadToPath(serviceEndpoint, consumerAddress, serviceAgreementId, did, index, accessToken,
+                destinationPath, verifier, null);
+    }
 
+    /**
+     * Calls a Gateway endpoint to download a whole file of an asset, verifying its content while it is written
+     * and reporting the progress of the download
+     *
+     * @param serviceEndpoint    the service endpoint
+     * @param consumerAddress    the address of the consumer
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param did                asset decentralized identifier
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @param destinationPath    path where the downloaded asset will be stored
+     * @param verifier           the verifier of the content of the file, or null to not verify it
+     * @param listener           the listener of the progress of the download, or null
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the download process
+     * @throws ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public static String downloadToPath(String serviceEndpoint, String consumerAddress, String serviceAgreementId,
+            String did, int index, String accessToken, String destinationPath, ChecksumVerifier verifier,
+            DownloadEngine.ProgressListener listener) throws IOException {
+        return downloadToPath(GatewayClientRegistry.getDefault(), serviceEndpoint, consumerAddress,
+                serviceAgreementId, did, index, accessToken, destinationPath, verifier, listener);
+    }
+
+    /**
+     * Calls a Gateway endpoint to download a whole file of an asset using the clients of a registry, verifying
+     * its content while it is written with the download engine of the registry
+     *
+     * @param gateways           the registry of the Gateway clients
+     * @param serviceEndpoint    the service endpoint
+     * @param consumerAddress    the address of the consumer
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param did                asset decentralized identifier
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @param destinationPath    path where the downloaded asset will be stored
+     * @param verifier           the verifier of the content of the file, or null to not verify it
+     * @param listener           the listener of the progress of the download, or null
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the download process
+     * @throws ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public static String downloadToPath(GatewayClientRegistry gateways, String serviceEndpoint,
+            String consumerAddress, String serviceAgreementId, String did, int index, String accessToken,
+            String destinationPath, ChecksumVerifier verifier, DownloadEngine.ProgressListener listener)
+            throws IOException {
+
+        String endpoint = serviceEndpoint + "/" + serviceAgreementId + "/" + index;
+        return awaitIO(gateways.get(endpoint)
+                .downloadToPath(endpoint, accessToken, Paths.get(destinationPath), verifier, listener));
+    }
+
+    /**
+     * Copies a stream to a file with the download engine, hashing the bytes on the way if there is a verifier.
+     * The verifier checks the content when the copy ends, so a mismatch fails the download without reading
+     * the file again
+     *
+     * @param inputStream     the content of the file
+     * @param destinationPath path where the file will be stored
+     * @param verifier        the verifier of the content of the file, or null
+     * @param listener        the listener of the progress of the download, or null
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the copy
+     */
+    private static String copyToPath(InputStream inputStream, String destinationPath, ChecksumVerifier verifier,
+            DownloadEngine.ProgressListener listener) throws IOException {
+        try {
+            getDownloadEngine().copy(inputStream, Paths.get(destinationPath), -1, verifier, listener);
+        } catch (ChecksumMismatchException e) {
+            FileUtils.deleteQuietly(new File(destinationPath));
+            throw e;
+        }
+        return verifier != null ? verifier.getChecksum() : null;
     }
 
     /**
@@ -420,11 +572,264 @@ public class GatewayService {
 
         InputStream inputStream = downloadUrlByOwner(serviceEndpoint, consumerAddress, did, index, accessToken,
                 isRangeRequest, startRange, endRange);
-        ReadableByteChannel readableByteChannel = Channels.newChannel(inputStream);
-        FileOutputStream fileOutputStream = FileUtils.openOutputStream(new File(destinationPath));
+        copyToPath(inputStream, destinationPath, null, null);
+    }
+
+    /**
+     * Calls a Gateway endpoint by the owner of an asset to download a whole file, verifying its content while
+     * it is written
+     *
+     * @param serviceEndpoint the service endpoint
+     * @param consumerAddress the address of the consumer
+     * @param did             asset decentralized identifier
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @param destinationPath path where the downloaded asset will be stored
+     * @param verifier        the verifier of the content of the file, or null to not verify it
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the download process
+     * @throws ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public static String downloadToPathByOwner(String serviceEndpoint, String consumerAddress, String did, int index,
+            String accessToken, String destinationPath, ChecksumVerifier verifier) throws IOException {
+        return downloadToPathByOwner(serviceEndpoint, consumerAddress, did, index, accessToken, destinationPath,
+                verifier, null);
+    }
+
+    /**
+     * Calls a Gateway endpoint by the owner of an asset to download a whole file, verifying its content while
+     * it is written and reporting the progress of the download
+     *
+     * @param serviceEndpoint the service endpoint
+     * @param consumerAddress the address of the consumer
+     * @param did             asset decentralized identifier
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @param destinationPath path where the downloaded asset will be stored
+     * @param verifier        the verifier of the content of the file, or null to not verify it
+     * @param listener        the listener of the progress of the download, or null
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the download process
+     * @throws ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public static String downloadToPathByOwner(String serviceEndpoint, String consumerAddress, String did, int index,
+            String accessToken, String destinationPath, ChecksumVerifier verifier,
+            DownloadEngine.ProgressListener listener) throws IOException {
+        return downloadToPathByOwner(GatewayClientRegistry.getDefault(), serviceEndpoint, consumerAddress, did, index,
+                accessToken, destinationPath, verifier, listener);
+    }
+
+    /**
+     * Calls a Gateway endpoint by the owner of an asset to download a whole file using the clients of a registry,
+     * verifying its content while it is written with the download engine of the registry
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the service endpoint
+     * @param consumerAddress the address of the consumer
+     * @param did             asset decentralized identifier
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @param destinationPath path where the downloaded asset will be stored
+     * @param verifier        the verifier of the content of the file, or null to not verify it
+     * @param listener        the listener of the progress of the download, or null
+     * @return the checksum of the file, or null if it was not verified
+     * @throws IOException Exception during the download process
+     * @throws ChecksumMismatchException if the file doesn't match its checksum, the file is removed
+     */
+    public static String downloadToPathByOwner(GatewayClientRegistry gateways, String serviceEndpoint,
+            String consumerAddress, String did, int index, String accessToken, String destinationPath,
+            ChecksumVerifier verifier, DownloadEngine.ProgressListener listener) throws IOException {
+
+        String endpoint = serviceEndpoint + "/" + index;
+        return awaitIO(gateways.get(endpoint)
+                .downloadToPath(endpoint, accessToken, Paths.get(destinationPath), verifier, listener));
+    }
 
-        fileOutputStream.getChannel().transferFrom(readableByteChannel, 0, Long.MAX_VALUE);
+    /**
+     * Calls a Gateway endpoint to download a range of bytes of a file, supporting files bigger than 2GB
+     *
+     * @param serviceEndpoint    the service endpoint
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @param startRange         the first byte of the range
+     * @param endRange           the last byte of the range, inclusive
+     * @return an InputStream with the content of the range
+     * @throws IOException Exception during the download process or if the gateway doesn't support ranges
+     */
+    public static InputStream downloadRange(String serviceEndpoint, String serviceAgreementId, int index,
+            String accessToken, long startRange, long endRange) throws IOException {
+        return downloadRange(GatewayClientRegistry.getDefault(), serviceEndpoint, serviceAgreementId, index,
+                accessToken, startRange, endRange);
+    }
 
+    /**
+     * Calls a Gateway endpoint to download a range of bytes of a file using the clients of a registry
+     *
+     * @param gateways           the registry of the Gateway clients
+     * @param serviceEndpoint    the service endpoint
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @param startRange         the first byte of the range
+     * @param endRange           the last byte of the range, inclusive
+     * @return an InputStream with the content of the range
+     * @throws IOException Exception during the download process or if the gateway doesn't support ranges
+     */
+    public static InputStream downloadRange(GatewayClientRegistry gateways, String serviceEndpoint,
+            String serviceAgreementId, int index, String accessToken, long startRange, long endRange)
+            throws IOException {
+        return openRange(gateways, serviceEndpoint + "/" + serviceAgreementId + "/" + index, accessToken,
+                startRange, endRange);
+    }
+
+    /**
+     * Calls a Gateway endpoint by the owner of an asset to download a range of bytes of a file
+     *
+     * @param serviceEndpoint the service endpoint
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @param startRange      the first byte of the range
+     * @param endRange        the last byte of the range, inclusive
+     * @return an InputStream with the content of the range
+     * @throws IOException Exception during the download process or if the gateway doesn't support ranges
+     */
+    public static InputStream downloadRangeByOwner(String serviceEndpoint, int index, String accessToken,
+            long startRange, long endRange) throws IOException {
+        return downloadRangeByOwner(GatewayClientRegistry.getDefault(), serviceEndpoint, index, accessToken,
+                startRange, endRange);
+    }
+
+    /**
+     * Calls a Gateway endpoint by the owner of an asset to download a range of bytes of a file using the clients
+     * of a registry
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the service endpoint
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @param startRange      the first byte of the range
+     * @param endRange        the last byte of the range, inclusive
+     * @return an InputStream with the content of the range
+     * @throws IOException Exception during the download process or if the gateway doesn't support ranges
+     */
+    public static InputStream downloadRangeByOwner(GatewayClientRegistry gateways, String serviceEndpoint, int index,
+            String accessToken, long startRange, long endRange) throws IOException {
+        return openRange(gateways, serviceEndpoint + "/" + index, accessToken, startRange, endRange);
+    }
+
+    /**
+     * Asks the Gateway for the size of a file, requesting its first byte
+     *
+     * @param serviceEndpoint    the service endpoint
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @return the size in bytes, or -1 if the gateway doesn't support ranges for the file
+     * @throws IOException Exception during the request
+     */
+    public static long getFileSize(String serviceEndpoint, String serviceAgreementId, int index, String accessToken)
+            throws IOException {
+        return getFileSize(GatewayClientRegistry.getDefault(), serviceEndpoint, serviceAgreementId, index, accessToken);
+    }
+
+    /**
+     * Asks the Gateway for the size of a file using the clients of a registry, requesting its first byte
+     *
+     * @param gateways           the registry of the Gateway clients
+     * @param serviceEndpoint    the service endpoint
+     * @param serviceAgreementId the serviceAgreement Id
+     * @param index              index position of the file in the DDO
+     * @param accessToken        JWT access token
+     * @return the size in bytes, or -1 if the gateway doesn't support ranges for the file
+     * @throws IOException Exception during the request
+     */
+    public static long getFileSize(GatewayClientRegistry gateways, String serviceEndpoint, String serviceAgreementId,
+            int index, String accessToken) throws IOException {
+        return requestFileSize(gateways, serviceEndpoint + "/" + serviceAgreementId + "/" + index, accessToken);
+    }
+
+    /**
+     * Asks the Gateway for the size of a file of an asset owned by the caller, requesting its first byte
+     *
+     * @param serviceEndpoint the service endpoint
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @return the size in bytes, or -1 if the gateway doesn't support ranges for the file
+     * @throws IOException Exception during the request
+     */
+    public static long getFileSizeByOwner(String serviceEndpoint, int index, String accessToken) throws IOException {
+        return getFileSizeByOwner(GatewayClientRegistry.getDefault(), serviceEndpoint, index, accessToken);
+    }
+
+    /**
+     * Asks the Gateway for the size of a file of an asset owned by the caller using the clients of a registry,
+     * requesting its first byte
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the service endpoint
+     * @param index           index position of the file in the DDO
+     * @param accessToken     JWT access token
+     * @return the size in bytes, or -1 if the gateway doesn't support ranges for the file
+     * @throws IOException Exception during the request
+     */
+    public static long getFileSizeByOwner(GatewayClientRegistry gateways, String serviceEndpoint, int index,
+            String accessToken) throws IOException {
+        return requestFileSize(gateways, serviceEndpoint + "/" + index, accessToken);
+    }
+
+    private static InputStream openRange(GatewayClientRegistry gateways, String endpoint, String accessToken,
+            long startRange, long endRange) throws IOException {
+        return awaitIO(gateways.get(endpoint).downloadRange(endpoint, accessToken, startRange, endRange));
+    }
+
+    private static long requestFileSize(GatewayClientRegistry gateways, String endpoint, String accessToken)
+            throws IOException {
+        return awaitIO(gateways.get(endpoint).getFileSize(endpoint, accessToken));
+    }
+
+    /**
+     * Waits for the response of a download of the gateway client
+     *
+     * @param future the response
+     * @param <T>    type of the response
+     * @return the response
+     * @throws IOException Exception during the download process
+     */
+    private static <T> T awaitIO(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the gateway");
+        }
+    }
+
+    /**
+     * Waits for the response of a service of the gateway client
+     *
+     * @param future the response
+     * @param <T>    type of the response
+     * @return the response
+     * @throws ServiceException if the gateway fails
+     */
+    private static <T> T awaitService(CompletableFuture<T> future) throws ServiceException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceException)
+                throw (ServiceException) e.getCause();
+            throw new ServiceException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted waiting for the gateway", e);
+        }
     }
 
     /**
@@ -478,32 +883,23 @@ public class GatewayService {
      */
     public static EncryptionResponse encrypt(String gatewayUrl, String message, AuthorizationService.AuthTypes authType,
             String did) throws ServiceException {
+        return encrypt(GatewayClientRegistry.getDefault(), gatewayUrl, message, authType, did);
+    }
 
-        log.debug("Encrypting message using " + authType.name());
-
-        EncryptionRequest encryptionReq = new EncryptionRequest(message, authType.getName());
-        final String endpoint = gatewayUrl + ENCRYPT_URI;
-        if (authType.equals(AuthorizationService.AuthTypes.SECRET_STORE) && !did.isEmpty())
-            encryptionReq.did = did;
-
-        HttpResponse response;
-
-        try {
-            String payloadJson = encryptionReq.toJson();
-
-            response = HttpHelper.httpClientPost(endpoint, new ArrayList<>(), payloadJson);
-
-            if (response.getStatusCode() != 200) {
-                log.error("Unable to Encrypt Message: " + response.toString());
-                throw new ServiceException("Unable to Encrypt Message");
-            }
-            return EncryptionResponse.fromJSON(new TypeReference<>() {
-            }, response.getBody());
-
-        } catch (Exception e) {
-            log.error("Error encrypting message: " + e.getMessage());
-            throw new ServiceException("Error Encrypting Message: " + e.getMessage());
-        }
+    /**
+     * Calls a Gateway endpoint to encrypt a message using the clients of a registry
+     *
+     * @param gateways   the registry of the Gateway clients
+     * @param gatewayUrl encryption endpoint
+     * @param message    the message to encrypt
+     * @param authType   AuthType to use for encryption
+     * @param did        DID used to encrypt when using SecretStore
+     * @throws ServiceException Service Exception
+     * @return EncryptionResponse an object with the gateway encryption response
+     */
+    public static EncryptionResponse encrypt(GatewayClientRegistry gateways, String gatewayUrl, String message,
+            AuthorizationService.AuthTypes authType, String did) throws ServiceException {
+        return awaitService(gateways.get(gatewayUrl).encrypt(gatewayUrl, message, authType, did));
     }
 
     /**
@@ -516,45 +912,33 @@ public class GatewayService {
      */
     public static ServiceExecutionResult initializeServiceExecution(String serviceEndpoint,
             ExecuteService executeService) {
+        return initializeServiceExecution(GatewayClientRegistry.getDefault(), serviceEndpoint, executeService);
+    }
 
-        log.debug("Initializing Execution of Service. Agreement Id: [" + executeService.agreementId + "]: "
-                + serviceEndpoint);
-
-        Map<String, String> headers = new HashMap<>();
-        headers.put(AUTHORIZATION, "Bearer " + executeService.accessToken);
-
-        String endpoint = serviceEndpoint + "/" + executeService.agreementId;
-        ServiceExecutionResult result = new ServiceExecutionResult();
-        HttpResponse response;
-
+    /**
+     * Calls a Gateway endpoint to request the execution of a Compute Service using the clients of a registry
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the serviceEndpoint
+     * @param executeService  the payload
+     * @return an object that indicates if Gateway initialized the Execution of the
+     *         Service correctly
+     */
+    public static ServiceExecutionResult initializeServiceExecution(GatewayClientRegistry gateways,
+            String serviceEndpoint, ExecuteService executeService) {
         try {
-            response = HttpHelper.httpClientPost(endpoint, headers);
-            result.setCode(response.getStatusCode());
-
-            if (response.getStatusCode() != 200 && response.getStatusCode() != 201) {
-                log.debug("Unable to Initialize Execution of the Service: " + response.toString());
-                result.setOk(false);
-                return result;
-            }
-
-            result.setOk(true);
-            result.setExecutionId(getExecutionId(response.getBody()));
-            return result;
-        } catch (Exception e) {
+            return gateways.get(serviceEndpoint)
+                    .initializeServiceExecution(serviceEndpoint, executeService).get();
+        } catch (ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException)
+                Thread.currentThread().interrupt();
             log.error("Exception Initializing Execution of the Service: " + e.getMessage());
+            ServiceExecutionResult result = new ServiceExecutionResult();
             result.setOk(false);
             return result;
         }
     }
 
-    private static String getExecutionId(String bodyResponse) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, String> responseMap = mapper.readValue(bodyResponse, new TypeReference<Map<String, String>>() {
-        });
-
-        return responseMap.get("workflowId");
-    }
-
     /**
      * Calls a gateway endpoint to get the compute logs
      *
@@ -567,32 +951,23 @@ public class GatewayService {
      */
     public static List<ComputeLogs> getComputeLogs(String serviceEndpoint, String consumerAddress, String accessToken)
             throws ServiceException {
+        return getComputeLogs(GatewayClientRegistry.getDefault(), serviceEndpoint, consumerAddress, accessToken);
+    }
 
-        HttpResponse response;
-        List<ComputeLogs> logs;
-        Map<String, String> headers = new HashMap<>();
-        headers.put(AUTHORIZATION, "Bearer " + accessToken);
-
-        try {
-            response = HttpHelper.httpClientGet(serviceEndpoint, headers);
-        } catch (HttpException e) {
-            log.error("Exception getting the compute logs: " + e.getMessage());
-            throw new ServiceException("Exception getting the compute logs", e);
-        }
-
-        if (response.getStatusCode() != 200 && response.getStatusCode() != 201) {
-            log.error("Unable to get the compute logs: " + response.toString());
-            throw new ServiceException("Unable to get logs: " + response.toString());
-        }
-
-        try {
-            logs = ComputeLogs.fromJSON(new TypeReference<>() {
-            }, response.getBody());
-        } catch (IOException e) {
-            log.error("Exception parsing the compute logs: " + e.getMessage());
-            throw new ServiceException("Unable to parse logs", e);
-        }
-        return logs;
+    /**
+     * Calls a gateway endpoint to get the compute logs using the clients of a registry
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the gateway service endpoint
+     * @param consumerAddress the address of the consumer of the compute to the data
+     *                        job
+     * @param accessToken     JWT access token
+     * @return a list of compute logs.
+     * @throws ServiceException ServiceException
+     */
+    public static List<ComputeLogs> getComputeLogs(GatewayClientRegistry gateways, String serviceEndpoint,
+            String consumerAddress, String accessToken) throws ServiceException {
+        return awaitService(gateways.get(serviceEndpoint).getComputeLogs(serviceEndpoint, accessToken));
     }
 
     /**
@@ -607,32 +982,23 @@ public class GatewayService {
      */
     public static ComputeStatus getComputeStatus(String serviceEndpoint, String consumerAddress, String accessToken)
             throws ServiceException {
+        return getComputeStatus(GatewayClientRegistry.getDefault(), serviceEndpoint, consumerAddress, accessToken);
+    }
 
-        HttpResponse response;
-        ComputeStatus computeStatus;
-        Map<String, String> headers = new HashMap<>();
-        headers.put(AUTHORIZATION, "Bearer " + accessToken);
-
-        try {
-            response = HttpHelper.httpClientGet(serviceEndpoint, headers);
-        } catch (HttpException e) {
-            log.error("Exception getting the compute status: " + e.getMessage());
-            throw new ServiceException("Exception getting the compute status", e);
-        }
-
-        if (response.getStatusCode() != 200 && response.getStatusCode() != 201) {
-            log.error("Unable to get the compute status: " + response.toString());
-            throw new ServiceException("Unable to get compute status: " + response.toString());
-        }
-
-        try {
-            computeStatus = ComputeStatus.fromJSON(new TypeReference<>() {
-            }, response.getBody());
-        } catch (IOException e) {
-            log.error("Exception parsing the compute status: " + e.getMessage());
-            throw new ServiceException("Unable to parse status", e);
-        }
-        return computeStatus;
+    /**
+     * Calls a gateway endpoint to get the compute status using the clients of a registry
+     *
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint the gateway service endpoint
+     * @param consumerAddress the address of the consumer of the compute to the data
+     *                        job
+     * @param accessToken     JWT access token
+     * @return the current status of the compute job.
+     * @throws ServiceException ServiceException
+     */
+    public static ComputeStatus getComputeStatus(GatewayClientRegistry gateways, String serviceEndpoint,
+            String consumerAddress, String accessToken) throws ServiceException {
+        return awaitService(gateways.get(serviceEndpoint).getComputeStatus(serviceEndpoint, accessToken));
     }
 
     /**
@@ -644,62 +1010,21 @@ public class GatewayService {
      * @throws ServiceException ServiceException
      */
     public static AccessTokenResult getAccessToken(String serviceEndpoint, String grantToken) throws ServiceException {
-        ArrayList<NameValuePair> list = new ArrayList<NameValuePair>();
-        list.add(new NameValuePair("grant_type", JwtHelper.GRANT_TYPE));
-        list.add(new NameValuePair("assertion", grantToken));
-
-        HttpResponse response;
-        AccessTokenResult result = new AccessTokenResult();
-        try {
-            // resolve keeps the authority and replaces the path
-            serviceEndpoint = new URI(serviceEndpoint).resolve("/api/v1/gateway/services/oauth/token").toString();
-            response = HttpHelper.httpClientPost(serviceEndpoint, list);
-        } catch (HttpException | UnsupportedEncodingException | URISyntaxException e) {
-            String msg = "Exception getting the access token: " + e.getMessage();
-            log.error(msg);
-            result.setOk(false);
-            result.SetMsg(msg);
-            return result;
-        }
-        response.setStatusCode(response.getStatusCode());
-
-        if (response.getStatusCode() != 200 && response.getStatusCode() != 201) {
-            String msg = "Unable to get access token: " + response.toString();
-            log.error(msg);
-            result.setOk(false);
-            result.SetMsg(msg);
-            return result;
-        }
-
-        String accessToken;
-        try {
-            accessToken = getAccessTokenFromBody(response.getBody());
-        } catch (IOException e) {
-            String msg = "Exception parsing the access token response: " + e.getMessage();
-            log.error(msg);
-            result.setOk(false);
-            result.SetMsg(msg);
-            return result;
-        }
-        result.setAccessToken(accessToken);
-        result.setOk(true);
-
-        return result;
+        return getAccessToken(GatewayClientRegistry.getDefault(), serviceEndpoint, grantToken);
     }
 
     /**
-     * Retrieve the Access Token from the json body of the HTTP response.
+     * Calls the token endpoint to request an Access Token given a Grant Token using the clients of a registry
      *
-     * @param bodyResponse The body of the HTTP response
-     * @return String The access token.
-     * @throws IOException IOException
+     * @param gateways        the registry of the Gateway clients
+     * @param serviceEndpoint The endpoint of the service. We need this to retrieve the gateway host and port.
+     * @param grantToken      The Grant Token generated by the user.
+     * @return AccessTokenResult
+     * @throws ServiceException ServiceException
      */
-    private static String getAccessTokenFromBody(String bodyResponse) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, String> responseMap = mapper.readValue(bodyResponse, new TypeReference<Map<String, String>>() {
-        });
-
-        return responseMap.get("access_token");
+    public static AccessTokenResult getAccessToken(GatewayClientRegistry gateways, String serviceEndpoint,
+            String grantToken) throws ServiceException {
+        return awaitService(gateways.get(serviceEndpoint).getAccessToken(grantToken));
     }
 
     /**
@@ -710,8 +1035,7 @@ public class GatewayService {
      * @throws IOException IOException
      */
     private static String getFilecoinUrlFromBody(String bodyResponse) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, String> responseMap = mapper.readValue(bodyResponse, new TypeReference<Map<String, String>>() {
+        Map<String, String> responseMap = ModelMapper.read(bodyResponse, new TypeReference<Map<String, String>>() {
         });
 
         return responseMap.get("url");
@@ -0,0 +1,91 @@
+package io.keyko.nevermined.external;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the MetadataApiService of every Metadata API base url, so each Metadata API is called through a single
+ * pool of keep-alive connections. The instances are created with the connection settings of the registry.
+ * A registry belongs to a NeverminedAPI instance, so its settings are not shared with other instances.
+ * The static methods of MetadataApiService use the default registry.
+ */
+public class MetadataApiRegistry {
+
+    private static final Logger log = LogManager.getLogger(MetadataApiRegistry.class);
+
+    private static final MetadataApiRegistry defaultRegistry = new MetadataApiRegistry();
+
+    private final Map<String, MetadataApiService> instances = new ConcurrentHashMap<>();
+    private volatile MetadataApiService.ConnectionSettings settings;
+
+    /**
+     * Constructor using the default connection settings
+     */
+    public MetadataApiRegistry() {
+        this(new MetadataApiService.ConnectionSettings());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param settings the connection settings of the instances
+     */
+    public MetadataApiRegistry(MetadataApiService.ConnectionSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Gets the registry used by the static methods of MetadataApiService
+     *
+     * @return the default registry
+     */
+    public static MetadataApiRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    /**
+     * Gets the instance associated to a Metadata API url, creating it the first time the url is used
+     *
+     * @param url url of metadata api
+     * @return the MetadataApiService of the url
+     */
+    public MetadataApiService get(String url) {
+        return instances.computeIfAbsent(MetadataApiService.normalizeUrl(url), baseUrl -> {
+            log.debug("Creating Metadata API instance: " + baseUrl);
+            return new MetadataApiService(baseUrl, settings);
+        });
+    }
+
+    public MetadataApiService.ConnectionSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Sets the connection settings of the instances created from now on
+     *
+     * @param settings the connection settings
+     * @return this
+     */
+    public MetadataApiRegistry setSettings(MetadataApiService.ConnectionSettings settings) {
+        this.settings = settings;
+        return this;
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * Closes the connection pools of all the instances and empties the registry
+     */
+    public void close() {
+        for (String baseUrl : instances.keySet()) {
+            MetadataApiService instance = instances.remove(baseUrl);
+            if (instance != null)
+                instance.close();
+        }
+    }
+}
@@ -1,56 +1,221 @@
 package io.keyko.nevermined.external;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import io.keyko.common.helpers.HttpHelper;
 import io.keyko.common.models.HttpResponse;
 import io.keyko.nevermined.exceptions.DDOException;
-import io.keyko.nevermined.models.AbstractModel;
 import io.keyko.nevermined.models.DDO;
+import io.keyko.nevermined.models.ModelMapper;
 import io.keyko.nevermined.models.asset.AssetMetadata;
 import io.keyko.nevermined.models.metadata.SearchQuery;
 import io.keyko.nevermined.models.metadata.SearchResult;
-import org.apache.commons.httpclient.HttpException;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Service for Metadata Integration
+ * Service for Metadata Integration.
+ * There is a single instance per Metadata API base url in every {@link MetadataApiRegistry}, each one of them
+ * holding a pool of keep-alive connections.
  */
 public class MetadataApiService {
 
     private static final Logger log = LogManager.getLogger(MetadataApiService.class);
 
     private static final String DDO_URI = "/api/v1/metadata/assets/ddo";
-    private String ddoEndpoint;
+
+    private final String baseUrl;
+    private final String ddoEndpoint;
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * Settings of the connection pool used by every MetadataApiService instance
+     */
+    public static class ConnectionSettings {
+
+        public static final int DEFAULT_MAX_CONNECTIONS = 50;
+        public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+        public static final int DEFAULT_READ_TIMEOUT = 30000;
+        public static final long DEFAULT_IDLE_TIMEOUT = 30000L;
+
+        private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+        private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private int readTimeout = DEFAULT_READ_TIMEOUT;
+        private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public ConnectionSettings setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public ConnectionSettings setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public int getReadTimeout() {
+            return readTimeout;
+        }
+
+        public ConnectionSettings setReadTimeout(int readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public long getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public ConnectionSettings setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+    }
+
+    /**
+     * Sets the connection settings used by the instances of the default registry created from now on
+     *
+     * @param settings the connection settings
+     */
+    public static void configure(ConnectionSettings settings) {
+        MetadataApiRegistry.getDefault().setSettings(settings);
+    }
 
     /**
-     * Builds an instance of MetadataApiService
+     * Gets the instance of MetadataApiService associated to a Metadata API url in the default registry,
+     * creating it if necessary
      *
      * @param url url of metadata api
      * @return MetadataApiService instance
      */
     public static MetadataApiService getInstance(String url) {
-        log.debug("Getting Metadata API instance: " + url);
-        return new MetadataApiService(url);
+        return MetadataApiRegistry.getDefault().get(url);
+    }
+
+    /**
+     * Closes the connection pools of all the instances of the default registry and empties it
+     */
+    public static void closeAll() {
+        MetadataApiRegistry.getDefault().close();
+    }
+
+    /**
+     * Normalizes a url so the different representations of the same Metadata API share the instance
+     *
+     * @param url the url
+     * @return the url with lowercase scheme and host, without default port and trailing slash
+     */
+    static String normalizeUrl(String url) {
+        String trimmed = url.trim().replaceAll("/+$", "");
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null)
+                return trimmed;
+
+            String scheme = uri.getScheme().toLowerCase();
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || (scheme.equals("http") && port == 80)
+                    || (scheme.equals("https") && port == 443);
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            return scheme + "://" + uri.getHost().toLowerCase() + (defaultPort ? "" : ":" + port) + path;
+        } catch (Exception e) {
+            return trimmed;
+        }
     }
 
     /**
      * Constructor
      *
-     * @param url the url of Metadata Api
+     * @param url      the url of Metadata Api
+     * @param settings the connection settings
      */
-    private MetadataApiService(String url) {
-        String url1 = url.replaceAll("/$", "");
-        this.ddoEndpoint = url1 + DDO_URI;
+    MetadataApiService(String url, ConnectionSettings settings) {
+        this.baseUrl = url;
+        this.ddoEndpoint = url + DDO_URI;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(settings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.getMaxConnections());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(settings.getConnectTimeout())
+                .setConnectionRequestTimeout(settings.getConnectTimeout())
+                .setSocketTimeout(settings.getReadTimeout())
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.getIdleTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
     }
 
     public String getDdoEndpoint() {
         return ddoEndpoint;
     }
 
+    /**
+     * Closes the connection pool of this instance
+     */
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Error closing the Metadata API connection pool: " + e.getMessage());
+        }
+    }
+
+    private HttpResponse execute(HttpUriRequest request) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null)
+                return new HttpResponse(response.getStatusLine().getStatusCode(), "", StandardCharsets.UTF_8.name(), 0);
+
+            ContentType contentType = ContentType.getOrDefault(entity);
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            String body = EntityUtils.toString(entity, charset);
+            return new HttpResponse(response.getStatusLine().getStatusCode(), body, charset.name(), entity.getContentLength());
+        }
+    }
+
+    private HttpResponse execute(HttpEntityEnclosingRequestBase request, String payload) throws IOException {
+        request.setEntity(new StringEntity(payload, ContentType.APPLICATION_JSON));
+        return execute(request);
+    }
+
     /**
      * Registers a new DDO in Metadata Api
      *
@@ -64,8 +229,7 @@ public class MetadataApiService {
 
         try {
 
-            HttpResponse response = HttpHelper.httpClientPost(
-                    this.ddoEndpoint, new ArrayList<>(), DDO.cleanFileUrls(ddo).toJson());
+            HttpResponse response = execute(new HttpPost(this.ddoEndpoint), DDO.cleanFileUrls(ddo).toJson());
 
             if (response.getStatusCode() != 201) {
                 throw new DDOException("Unable to create DDO: " + response.toString());
@@ -93,8 +257,8 @@ public class MetadataApiService {
         HttpResponse response;
 
         try {
-            response = HttpHelper.httpClientGet(url);
-        } catch (HttpException e) {
+            response = execute(new HttpGet(url));
+        } catch (IOException | IllegalArgumentException e) {
             throw new DDOException("Unable to get DDO", e);
         }
 
@@ -131,8 +295,7 @@ public class MetadataApiService {
      * @throws Exception Exception
      */
     public boolean updateDDO(String id, DDO ddo) throws Exception {
-        HttpResponse response = HttpHelper.httpClientPut(
-                this.ddoEndpoint + "/" + id, new ArrayList<>(), ddo.toJson());
+        HttpResponse response = execute(new HttpPut(this.ddoEndpoint + "/" + id), ddo.toJson());
 
         if (response.getStatusCode() == 200 || response.getStatusCode() == 201) {
             return true;
@@ -155,8 +318,8 @@ public class MetadataApiService {
         HttpResponse response;
 
         try {
-            response = HttpHelper.httpClientGet(url);
-        } catch (HttpException e) {
+            response = execute(new HttpGet(url));
+        } catch (IOException | IllegalArgumentException e) {
             throw new DDOException("Unable to get DDO: ", e);
         }
 
@@ -165,10 +328,7 @@ public class MetadataApiService {
         }
 
         try {
-            return AbstractModel
-                    .getMapperInstance()
-                    .readValue(response.getBody(), new TypeReference<SearchResult>() {
-                    });
+            return ModelMapper.read(response.getBody(), SearchResult.class);
         } catch (IOException e) {
             throw new DDOException("Unable to search for DDO's: ", e);
         }
@@ -187,8 +347,7 @@ public class MetadataApiService {
         HttpResponse response;
 
         try {
-            response = HttpHelper.httpClientPost(
-                    this.ddoEndpoint + "/query", new ArrayList<>(), searchQuery.toJson());
+            response = execute(new HttpPost(this.ddoEndpoint + "/query"), searchQuery.toJson());
         } catch (Exception e) {
             throw new DDOException("Unable to get DDO", e);
         }
@@ -198,10 +357,7 @@ public class MetadataApiService {
         }
 
         try {
-            return AbstractModel
-                    .getMapperInstance()
-                    .readValue(response.getBody(), new TypeReference<SearchResult>() {
-                    });
+            return ModelMapper.read(response.getBody(), SearchResult.class);
         } catch (IOException e) {
             throw new DDOException("Unable to search for DDO's", e);
         }
@@ -218,7 +374,7 @@ public class MetadataApiService {
     public boolean retireAssetDDO(String id) throws DDOException {
         HttpResponse response;
         try {
-            response = HttpHelper.httpClientDelete(this.ddoEndpoint + "/" + id);
+            response = execute(new HttpDelete(this.ddoEndpoint + "/" + id));
         } catch (Exception e) {
             throw new DDOException("Unable to retire DDO with DID: " + id, e);
         }
@@ -239,8 +395,7 @@ public class MetadataApiService {
     public boolean validateMetadata(AssetMetadata metadata) throws DDOException {
         HttpResponse response;
         try {
-            response = HttpHelper.httpClientPost(
-                    this.ddoEndpoint + "/validate", new ArrayList<>(), metadata.toJson());
+            response = execute(new HttpPost(this.ddoEndpoint + "/validate"), metadata.toJson());
         } catch (Exception e) {
             throw new DDOException("Unable to call the validate endpoint", e);
         }
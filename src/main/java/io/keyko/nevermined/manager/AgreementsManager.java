@@ -2,8 +2,20 @@ package io.keyko.nevermined.manager;
 
 import io.keyko.common.helpers.EncodingHelper;
 import io.keyko.common.web3.KeeperService;
+import io.keyko.nevermined.contracts.AccessTemplate;
+import io.keyko.nevermined.contracts.AgreementStoreManager;
+import io.keyko.nevermined.contracts.ConditionStoreManager;
+import io.keyko.nevermined.contracts.DIDSalesTemplate;
+import io.keyko.nevermined.contracts.EscrowComputeExecutionTemplate;
+import io.keyko.nevermined.contracts.NFTAccessTemplate;
+import io.keyko.nevermined.contracts.NFTSalesTemplate;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.LogFilter;
+import io.keyko.nevermined.core.keeper.ContractCallBatch;
+import io.keyko.nevermined.core.keeper.TransactionPipeline;
 import io.keyko.nevermined.exceptions.ConditionNotFoundException;
 import io.keyko.nevermined.exceptions.EthereumException;
+import io.keyko.nevermined.exceptions.ServiceAgreementException;
 import io.keyko.nevermined.exceptions.ServiceException;
 import io.keyko.nevermined.external.MetadataApiService;
 import io.keyko.nevermined.models.DDO;
@@ -15,19 +27,24 @@ import io.keyko.nevermined.models.service.Service;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.DynamicArray;
 import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint8;
 import org.web3j.crypto.Keys;
-import org.web3j.protocol.core.DefaultBlockParameterName;
-import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
-import org.web3j.tuples.generated.Tuple8;
 import org.web3j.utils.Numeric;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -67,14 +84,8 @@ public class AgreementsManager extends BaseManager {
                                          String accessConsumer, Service service) throws Exception {
 
         log.debug("Creating agreement with id: " + agreementId);
-        TransactionReceipt txReceipt = accessTemplate.createAgreement(
-                EncodingHelper.hexStringToBytes("0x" + agreementId),
-                EncodingHelper.hexStringToBytes("0x" + ddo.getDID().getHash()),
-                conditionIds,
-                service.retrieveTimeOuts(),
-                service.retrieveTimeLocks(),
-                Keys.toChecksumAddress(accessConsumer)
-        ).send();
+        TransactionReceipt txReceipt = createAgreementCall(Service.ServiceTypes.ACCESS, agreementId, ddo, conditionIds,
+                accessConsumer, service, null).send();
         return txReceipt.isStatusOK();
     }
 
@@ -93,14 +104,8 @@ public class AgreementsManager extends BaseManager {
                                           String accessConsumer, Service service) throws Exception {
 
         log.debug("Creating agreement with id: " + agreementId);
-        TransactionReceipt txReceipt = escrowComputeExecutionTemplate.createAgreement(
-                EncodingHelper.hexStringToBytes("0x" + agreementId),
-                EncodingHelper.hexStringToBytes("0x" + ddo.getDID().getHash()),
-                conditionIds,
-                service.retrieveTimeOuts(),
-                service.retrieveTimeLocks(),
-                Keys.toChecksumAddress(accessConsumer)
-        ).send();
+        TransactionReceipt txReceipt = createAgreementCall(Service.ServiceTypes.COMPUTE, agreementId, ddo, conditionIds,
+                accessConsumer, service, null).send();
         return txReceipt.isStatusOK();
     }
 
@@ -119,14 +124,8 @@ public class AgreementsManager extends BaseManager {
                                          String accessConsumer, Service service) throws Exception {
 
         log.debug("Creating agreement with id: " + agreementId);
-        TransactionReceipt txReceipt = nftSalesTemplate.createAgreement(
-                EncodingHelper.hexStringToBytes("0x" + agreementId),
-                EncodingHelper.hexStringToBytes("0x" + ddo.getDID().getHash()),
-                Arrays.asList(conditionIds.get(1), conditionIds.get(0), conditionIds.get(2)),
-                service.retrieveTimeOuts(),
-                service.retrieveTimeLocks(),
-                Keys.toChecksumAddress(accessConsumer)
-        ).send();
+        TransactionReceipt txReceipt = createAgreementCall(Service.ServiceTypes.NFT_SALES, agreementId, ddo, conditionIds,
+                accessConsumer, service, null).send();
         return txReceipt.isStatusOK();
     }
 
@@ -145,14 +144,8 @@ public class AgreementsManager extends BaseManager {
                                             String accessConsumer, Service service) throws Exception {
 
         log.debug("Creating agreement with id: " + agreementId);
-        TransactionReceipt txReceipt = nftAccessTemplate.createAgreement(
-                EncodingHelper.hexStringToBytes("0x" + agreementId),
-                EncodingHelper.hexStringToBytes("0x" + ddo.getDID().getHash()),
-                Arrays.asList(conditionIds.get(1), conditionIds.get(0)),
-                service.retrieveTimeOuts(),
-                service.retrieveTimeLocks(),
-                Keys.toChecksumAddress(accessConsumer)
-        ).send();
+        TransactionReceipt txReceipt = createAgreementCall(Service.ServiceTypes.NFT_ACCESS, agreementId, ddo, conditionIds,
+                accessConsumer, service, null).send();
         return txReceipt.isStatusOK();
     }
 
@@ -171,17 +164,70 @@ public class AgreementsManager extends BaseManager {
                                             String accessConsumer, Service service) throws Exception {
 
         log.debug("Creating agreement with id: " + agreementId);
-        TransactionReceipt txReceipt = didSalesTemplate.createAgreement(
-                EncodingHelper.hexStringToBytes("0x" + agreementId),
-                EncodingHelper.hexStringToBytes("0x" + ddo.getDID().getHash()),
-                Arrays.asList(conditionIds.get(1), conditionIds.get(0), conditionIds.get(2)),
-                service.retrieveTimeOuts(),
-                service.retrieveTimeLocks(),
-                Keys.toChecksumAddress(accessConsumer)
-        ).send();
+        TransactionReceipt txReceipt = createAgreementCall(Service.ServiceTypes.DID_SALES, agreementId, ddo, conditionIds,
+                accessConsumer, service, null).send();
         return txReceipt.isStatusOK();
     }
 
+    /**
+     * Submits the creation of an agreement through a transaction pipeline, without waiting for it to be mined
+     *
+     * @param pipeline       the transaction pipeline
+     * @param agreementId    the agreement id
+     * @param ddo            the ddo
+     * @param conditionIds   list with the conditions ids
+     * @param accessConsumer eth address of the consumer of the agreement.
+     * @param service        an instance of Service
+     * @return the position of the transaction in the pipeline
+     * @throws Exception exception
+     */
+    public int submitAgreement(TransactionPipeline pipeline, String agreementId, DDO ddo, List<byte[]> conditionIds,
+                               String accessConsumer, Service service) throws Exception {
+
+        log.debug("Submitting agreement with id: " + agreementId);
+        return pipeline.submit(createAgreementCall(service.fetchServiceType(), agreementId, ddo, conditionIds,
+                accessConsumer, service, pipeline));
+    }
+
+    /**
+     * Builds the transaction creating an agreement with the template of a service type
+     *
+     * @param pipeline the pipeline the template is bound to, or null to use the template directly
+     */
+    private RemoteFunctionCall<TransactionReceipt> createAgreementCall(Service.ServiceTypes serviceType, String agreementId,
+                                                                       DDO ddo, List<byte[]> conditionIds, String accessConsumer,
+                                                                       Service service, TransactionPipeline pipeline) throws Exception {
+
+        final byte[] id = EncodingHelper.hexStringToBytes("0x" + agreementId);
+        final byte[] did = EncodingHelper.hexStringToBytes("0x" + ddo.getDID().getHash());
+        final List<BigInteger> timeOuts = service.retrieveTimeOuts();
+        final List<BigInteger> timeLocks = service.retrieveTimeLocks();
+        final String consumer = Keys.toChecksumAddress(accessConsumer);
+
+        switch (serviceType) {
+            case ACCESS:
+                return (pipeline == null ? accessTemplate : pipeline.bind(accessTemplate, AccessTemplate::load))
+                        .createAgreement(id, did, conditionIds, timeOuts, timeLocks, consumer);
+            case COMPUTE:
+                return (pipeline == null ? escrowComputeExecutionTemplate : pipeline.bind(escrowComputeExecutionTemplate, EscrowComputeExecutionTemplate::load))
+                        .createAgreement(id, did, conditionIds, timeOuts, timeLocks, consumer);
+            case NFT_SALES:
+                return (pipeline == null ? nftSalesTemplate : pipeline.bind(nftSalesTemplate, NFTSalesTemplate::load))
+                        .createAgreement(id, did, Arrays.asList(conditionIds.get(1), conditionIds.get(0), conditionIds.get(2)),
+                                timeOuts, timeLocks, consumer);
+            case NFT_ACCESS:
+                return (pipeline == null ? nftAccessTemplate : pipeline.bind(nftAccessTemplate, NFTAccessTemplate::load))
+                        .createAgreement(id, did, Arrays.asList(conditionIds.get(1), conditionIds.get(0)),
+                                timeOuts, timeLocks, consumer);
+            case DID_SALES:
+                return (pipeline == null ? didSalesTemplate : pipeline.bind(didSalesTemplate, DIDSalesTemplate::load))
+                        .createAgreement(id, did, Arrays.asList(conditionIds.get(1), conditionIds.get(0), conditionIds.get(2)),
+                                timeOuts, timeLocks, consumer);
+            default:
+                throw new ServiceAgreementException(agreementId, "Service type not supported");
+        }
+    }
+
     /**
      * Retrieve the agreement for a agreement_id.
      *
@@ -195,34 +241,75 @@ public class AgreementsManager extends BaseManager {
 
     /**
      * Get the status of a service agreement.
+     * The agreement and its conditions are fetched in two JSON-RPC batch requests.
      *
      * @param agreementId id of the agreement
      * @return AgreementStatus with condition status of each of the agreement's conditions.
      * @throws Exception Exception
      */
     public AgreementStatus getStatus(String agreementId) throws Exception {
+        return getStatuses(Collections.singletonList(agreementId)).get(0);
+    }
 
-        List<byte[]> condition_ids = agreementStoreManager.getAgreement(EncodingHelper.hexStringToBytes(agreementId)).send().component4();
-        AgreementStatus agreementStatus = new AgreementStatus();
-        agreementStatus.agreementId = agreementId;
-        AgreementStatus.ConditionStatusMap condition = new AgreementStatus.ConditionStatusMap();
-
-        boolean isFulfilled = true;
-        for (int i = 0; i <= condition_ids.size() - 1; i++) {
-            final Tuple8<String, BigInteger, BigInteger, BigInteger, BigInteger, String, String, BigInteger> agreementCondition =
-                    conditionStoreManager.getCondition(condition_ids.get(i)).send();
-
-            String address = agreementCondition.component1();
-            String conditionName = getConditionNameByAddress(Keys.toChecksumAddress(address));
-            BigInteger state = agreementCondition.component2();
-            condition.conditions.put(conditionName, state);
-            if (!state.equals(Condition.ConditionStatus.Fulfilled.getStatus()))
-                isFulfilled = false;
+    /**
+     * Get the status of several service agreements.
+     * All the agreements are fetched in one JSON-RPC batch request and all their conditions in another one,
+     * so the number of round trips to the node does not depend on the number of agreements.
+     *
+     * @param agreementIds ids of the agreements
+     * @return the AgreementStatus of every agreement, in the same order as the ids
+     * @throws Exception Exception
+     */
+    public List<AgreementStatus> getStatuses(List<String> agreementIds) throws Exception {
+
+        final String from = getKeeperService().getCredentials().getAddress();
+
+        ContractCallBatch agreementsBatch = new ContractCallBatch(getKeeperService().getWeb3(), from);
+        for (String agreementId : agreementIds) {
+            agreementsBatch.add(agreementStoreManager.getContractAddress(), new Function(
+                    AgreementStoreManager.FUNC_GETAGREEMENT,
+                    Collections.singletonList(new Bytes32(EncodingHelper.hexStringToBytes(agreementId))),
+                    Arrays.asList(new TypeReference<Bytes32>() {}, new TypeReference<Address>() {},
+                            new TypeReference<Address>() {}, new TypeReference<DynamicArray<Bytes32>>() {})));
+        }
+        List<List<Type>> agreements = agreementsBatch.send();
+
+        ContractCallBatch conditionsBatch = new ContractCallBatch(getKeeperService().getWeb3(), from);
+        List<List<Integer>> conditionPositions = new ArrayList<>();
+        for (List<Type> agreement : agreements) {
+            List<Integer> positions = new ArrayList<>();
+            for (Object conditionId : ((DynamicArray<?>) agreement.get(3)).getValue()) {
+                positions.add(conditionsBatch.add(conditionStoreManager.getContractAddress(), new Function(
+                        ConditionStoreManager.FUNC_GETCONDITION,
+                        Collections.singletonList((Bytes32) conditionId),
+                        Arrays.asList(new TypeReference<Address>() {}, new TypeReference<Uint8>() {}))));
+            }
+            conditionPositions.add(positions);
+        }
+        List<List<Type>> conditions = conditionsBatch.send();
+
+        List<AgreementStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < agreementIds.size(); i++) {
+            AgreementStatus agreementStatus = new AgreementStatus();
+            agreementStatus.agreementId = agreementIds.get(i);
+            AgreementStatus.ConditionStatusMap condition = new AgreementStatus.ConditionStatusMap();
+
+            boolean isFulfilled = true;
+            for (int position : conditionPositions.get(i)) {
+                List<Type> agreementCondition = conditions.get(position);
+                String address = (String) agreementCondition.get(0).getValue();
+                String conditionName = getConditionNameByAddress(Keys.toChecksumAddress(address));
+                BigInteger state = (BigInteger) agreementCondition.get(1).getValue();
+                condition.conditions.put(conditionName, state);
+                if (!state.equals(Condition.ConditionStatus.Fulfilled.getStatus()))
+                    isFulfilled = false;
+            }
+            agreementStatus.conditions.add(condition);
+            agreementStatus.conditionsFulfilled = isFulfilled;
+            statuses.add(agreementStatus);
         }
-        agreementStatus.conditions.add(condition);
-        agreementStatus.conditionsFulfilled = isFulfilled;
 
-        return agreementStatus;
+        return statuses;
     }
 
 
@@ -248,34 +335,31 @@ public class AgreementsManager extends BaseManager {
 
 
 
-    private List<DID> getAccessAgreementsFulfilledByConsumer(String consumerAddress) throws ServiceException {
+    private List<DID> getAccessAgreementsFulfilledByConsumer(String consumerAddress, BigInteger fromBlock, BigInteger toBlock)
+            throws ServiceException {
 
-        EthFilter didFilter = new EthFilter(
-                DefaultBlockParameterName.EARLIEST,
-                DefaultBlockParameterName.LATEST,
-                accessCondition.getContractAddress()
-        );
         try {
 
             final Event event = accessCondition.FULFILLED_EVENT;
             final String eventSignature = EventEncoder.encode(event);
-            didFilter.addSingleTopic(eventSignature);
-            didFilter.addNullTopic();
-            didFilter.addNullTopic();
-            didFilter.addOptionalTopics(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(consumerAddress), 64));
+            final String consumerTopic = Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(consumerAddress), 64);
+            LogFilter didFilter = new LogFilter(accessCondition.getContractAddress())
+                    .addSingleTopic(eventSignature)
+                    .addNullTopic()
+                    .addNullTopic()
+                    .addSingleTopic(consumerTopic);
 
-            EthLog ethLog;
+            List<EthLog.LogObject> logs;
 
             try {
-                ethLog = getKeeperService().getWeb3().ethGetLogs(didFilter).send();
-            } catch (IOException e) {
-                throw new EthereumException("Error creating consumedAssets filter.");
+                logs = getEventLogs(EventIndex.ACCESS_FULFILLED, 3, consumerTopic, didFilter, fromBlock, toBlock);
+            } catch (EthereumException e) {
+                throw new EthereumException("Error creating consumedAssets filter.", e);
             }
 
-            List<EthLog.LogResult> logs = ethLog.getLogs();
             List<DID> DIDlist = new ArrayList<>();
-            for (int i = 0; i <= logs.size() - 1; i++) {
-                DIDlist.add(DID.getFromHash(Numeric.cleanHexPrefix((((EthLog.LogObject) logs.get(i)).getTopics().get(2)))));
+            for (EthLog.LogObject logObject : logs) {
+                DIDlist.add(DID.getFromHash(Numeric.cleanHexPrefix(logObject.getTopics().get(2))));
             }
             return DIDlist;
 
@@ -287,34 +371,31 @@ public class AgreementsManager extends BaseManager {
     }
 
 
-    private List<DID> getComputeAgreementsFulfilledByConsumer(String consumerAddress) throws ServiceException {
+    private List<DID> getComputeAgreementsFulfilledByConsumer(String consumerAddress, BigInteger fromBlock, BigInteger toBlock)
+            throws ServiceException {
 
-        EthFilter didFilter = new EthFilter(
-                DefaultBlockParameterName.EARLIEST,
-                DefaultBlockParameterName.LATEST,
-                computeExecutionCondition.getContractAddress()
-        );
         try {
 
             final Event event = computeExecutionCondition.FULFILLED_EVENT;
             final String eventSignature = EventEncoder.encode(event);
-            didFilter.addSingleTopic(eventSignature);
-            didFilter.addNullTopic();
-            didFilter.addNullTopic();
-            didFilter.addOptionalTopics(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(consumerAddress), 64));
+            final String consumerTopic = Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(consumerAddress), 64);
+            LogFilter didFilter = new LogFilter(computeExecutionCondition.getContractAddress())
+                    .addSingleTopic(eventSignature)
+                    .addNullTopic()
+                    .addNullTopic()
+                    .addSingleTopic(consumerTopic);
 
-            EthLog ethLog;
+            List<EthLog.LogObject> logs;
 
             try {
-                ethLog = getKeeperService().getWeb3().ethGetLogs(didFilter).send();
-            } catch (IOException e) {
-                throw new EthereumException("Error creating consumedAssets filter.");
+                logs = getEventLogs(EventIndex.COMPUTE_FULFILLED, 3, consumerTopic, didFilter, fromBlock, toBlock);
+            } catch (EthereumException e) {
+                throw new EthereumException("Error creating consumedAssets filter.", e);
             }
 
-            List<EthLog.LogResult> logs = ethLog.getLogs();
             List<DID> DIDlist = new ArrayList<>();
-            for (int i = 0; i <= logs.size() - 1; i++) {
-                DIDlist.add(DID.getFromHash(Numeric.cleanHexPrefix((((EthLog.LogObject) logs.get(i)).getTopics().get(2)))));
+            for (EthLog.LogObject logObject : logs) {
+                DIDlist.add(DID.getFromHash(Numeric.cleanHexPrefix(logObject.getTopics().get(2))));
             }
             return DIDlist;
 
@@ -333,9 +414,24 @@ public class AgreementsManager extends BaseManager {
      * @throws ServiceException ServiceException
      */
     public List<DID> getConsumerAssets(String consumerAddress) throws ServiceException {
+        return getConsumerAssets(consumerAddress, null, null);
+    }
+
+    /**
+     * Gets the DIDs of the assets whose access or compute agreements were fulfilled for a consumer
+     * in a block range
+     *
+     * @param consumerAddress the address of the consumer
+     * @param fromBlock       first block to scan, if null the start block configured in the EventLogScanner is used
+     * @param toBlock         last block to scan, if null the latest block is used
+     * @return a List of DIDs
+     * @throws ServiceException ServiceException
+     */
+    public List<DID> getConsumerAssets(String consumerAddress, BigInteger fromBlock, BigInteger toBlock)
+            throws ServiceException {
 
-        return Stream.concat(getAccessAgreementsFulfilledByConsumer(consumerAddress).stream(),
-                getComputeAgreementsFulfilledByConsumer(consumerAddress).stream())
+        return Stream.concat(getAccessAgreementsFulfilledByConsumer(consumerAddress, fromBlock, toBlock).stream(),
+                getComputeAgreementsFulfilledByConsumer(consumerAddress, fromBlock, toBlock).stream())
                 .collect(Collectors.toList());
     }
 
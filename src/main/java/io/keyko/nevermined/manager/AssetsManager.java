@@ -2,6 +2,8 @@ package io.keyko.nevermined.manager;
 
 import io.keyko.common.helpers.EncodingHelper;
 import io.keyko.common.web3.KeeperService;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.LogFilter;
 import io.keyko.nevermined.exceptions.DDOException;
 import io.keyko.nevermined.exceptions.EthereumException;
 import io.keyko.nevermined.exceptions.NFTException;
@@ -15,14 +17,11 @@ import io.keyko.nevermined.models.metadata.SearchResult;
 import org.web3j.abi.EventEncoder;
 import org.web3j.abi.datatypes.Event;
 import org.web3j.crypto.Keys;
-import org.web3j.protocol.core.DefaultBlockParameterName;
-import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tuples.generated.Tuple9;
 import org.web3j.utils.Numeric;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
@@ -80,7 +79,9 @@ public class AssetsManager extends BaseManager {
      * @throws Exception if Metadata Api service fails updating the metadata
      */
     public boolean updateMetadata(String id, DDO ddo) throws Exception {
-        return getMetadataApiService().updateDDO(id, ddo);
+        boolean updated = getMetadataApiService().updateDDO(id, ddo);
+        invalidateDIDResolution(id);
+        return updated;
     }
 
     /**
@@ -119,7 +120,9 @@ public class AssetsManager extends BaseManager {
      * @throws DDOException DDOException
      */
     public Boolean deleteAsset(DID did) throws DDOException {
-        return getMetadataApiService().retireAssetDDO(did.getDid());
+        boolean retired = getMetadataApiService().retireAssetDDO(did.getDid());
+        invalidateDIDResolution(did.getDid());
+        return retired;
 
     }
 
@@ -155,31 +158,40 @@ public class AssetsManager extends BaseManager {
      * @throws ServiceException ServiceException
      */
     public List<DID> getOwnerAssets(String ownerAddress) throws ServiceException {
-        EthFilter didFilter = new EthFilter(
-                DefaultBlockParameterName.EARLIEST,
-                DefaultBlockParameterName.LATEST,
-                didRegistry.getContractAddress()
-        );
+        return getOwnerAssets(ownerAddress, null, null);
+    }
+
+    /**
+     * List of Asset objects published by ownerAddress in a block range
+     *
+     * @param ownerAddress ethereum address of owner/publisher
+     * @param fromBlock    first block to scan, if null the start block configured in the EventLogScanner is used
+     * @param toBlock      last block to scan, if null the latest block is used
+     * @return list of dids
+     * @throws ServiceException ServiceException
+     */
+    public List<DID> getOwnerAssets(String ownerAddress, BigInteger fromBlock, BigInteger toBlock) throws ServiceException {
         try {
 
             final Event event = didRegistry.DIDATTRIBUTEREGISTERED_EVENT;
             final String eventSignature = EventEncoder.encode(event);
-            didFilter.addSingleTopic(eventSignature);
-            didFilter.addNullTopic();
-            didFilter.addOptionalTopics(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(ownerAddress), 64));
+            final String ownerTopic = Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(ownerAddress), 64);
+            LogFilter didFilter = new LogFilter(didRegistry.getContractAddress())
+                    .addSingleTopic(eventSignature)
+                    .addNullTopic()
+                    .addSingleTopic(ownerTopic);
 
-            EthLog ethLog;
+            List<EthLog.LogObject> logs;
 
             try {
-                ethLog = getKeeperService().getWeb3().ethGetLogs(didFilter).send();
-            } catch (IOException e) {
-                throw new EthereumException("Error creating ownerAssets filter.");
+                logs = getEventLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, ownerTopic, didFilter, fromBlock, toBlock);
+            } catch (EthereumException e) {
+                throw new EthereumException("Error creating ownerAssets filter.", e);
             }
 
-            List<EthLog.LogResult> logs = ethLog.getLogs();
             List<DID> DIDlist = new ArrayList<>();
-            for (int i = 0; i <= logs.size() - 1; i++) {
-                DIDlist.add(DID.getFromHash(Numeric.cleanHexPrefix((((EthLog.LogObject) logs.get(i)).getTopics().get(1)))));
+            for (EthLog.LogObject logObject : logs) {
+                DIDlist.add(DID.getFromHash(Numeric.cleanHexPrefix(logObject.getTopics().get(1))));
             }
             return DIDlist;
 
@@ -9,8 +9,14 @@ import io.keyko.common.helpers.JwtHelper;
 import io.keyko.common.helpers.UrlHelper;
 import io.keyko.common.web3.KeeperService;
 import io.keyko.nevermined.contracts.*;
+import io.keyko.nevermined.core.cache.DIDResolutionCache;
+import io.keyko.nevermined.core.cache.DecryptedFilesCache;
 import io.keyko.nevermined.core.conditions.LockPaymentConditionPayable;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.EventLogScanner;
+import io.keyko.nevermined.core.events.LogFilter;
 import io.keyko.nevermined.exceptions.*;
+import io.keyko.nevermined.external.MetadataApiRegistry;
 import io.keyko.nevermined.external.MetadataApiService;
 import io.keyko.nevermined.models.Account;
 import io.keyko.nevermined.models.DDO;
@@ -29,8 +35,6 @@ import org.web3j.abi.datatypes.Type;
 import org.web3j.crypto.CipherException;
 import org.web3j.crypto.Hash;
 import org.web3j.crypto.Keys;
-import org.web3j.protocol.core.DefaultBlockParameterName;
-import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tuples.generated.Tuple9;
@@ -39,6 +43,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Abstract class for the Managers
@@ -46,14 +51,24 @@ import java.util.List;
 public abstract class BaseManager {
 
     protected static final Logger log = LogManager.getLogger(BaseManager.class);
-    private static final int MAX_SS_RETRIES = 10;
-    private static final long SS_DECRYPTION_SLEEP = 1000L;
+    public static final int DEFAULT_SS_RETRIES = 10;
+    public static final long DEFAULT_SS_RETRY_DELAY = 250L;
+    public static final long DEFAULT_SS_MAX_RETRY_DELAY = 8000L;
 
     private KeeperService keeperService;
     private MetadataApiService metadataApiService;
+    private MetadataApiRegistry metadataApiRegistry = MetadataApiRegistry.getDefault();
     private SecretStoreDto secretStoreDto;
     private EvmDto evmDto;
     private SecretStoreManager secretStoreManager;
+    private SecretStoreRegistry secretStoreRegistry;
+    private DIDResolutionCache didResolutionCache;
+    private DecryptedFilesCache decryptedFilesCache;
+    private int secretStoreRetries = DEFAULT_SS_RETRIES;
+    private long secretStoreRetryDelay = DEFAULT_SS_RETRY_DELAY;
+    private long secretStoreMaxRetryDelay = DEFAULT_SS_MAX_RETRY_DELAY;
+    private EventLogScanner eventLogScanner;
+    private EventIndex eventIndex;
     protected NeverminedToken tokenContract;
     protected Dispenser dispenser;
     protected DIDRegistry didRegistry;
@@ -120,7 +135,9 @@ public abstract class BaseManager {
         if (authorizationService == null)
             return getSecretStoreManager();
 
-        return SecretStoreManager.getInstance(SecretStoreDto.builder(authorizationService.serviceEndpoint), evmDto);
+        if (secretStoreRegistry == null)
+            return SecretStoreManager.getInstance(SecretStoreDto.builder(authorizationService.serviceEndpoint), evmDto);
+        return secretStoreRegistry.get(authorizationService.serviceEndpoint);
     }
 
     protected DDO buildDDO(MetadataService metadataService, String address) throws DDOException {
@@ -133,11 +150,32 @@ public abstract class BaseManager {
 
     public List<AssetMetadata.File> getDecriptedSecretStoreMetadataFiles(DDO ddo)
             throws IOException, EncryptionException, InterruptedException {
-        return getDecriptedSecretStoreMetadataFiles(ddo, MAX_SS_RETRIES);
+        return getDecriptedSecretStoreMetadataFiles(ddo, secretStoreRetries);
     }
 
+    /**
+     * Decrypts the files of an asset using the Secret Store. The files already decrypted are returned
+     * from the DecryptedFilesCache, if there is one. The failed decryptions are retried waiting an
+     * exponential backoff with jitter between them
+     *
+     * @param ddo     the DDO of the asset
+     * @param retries maximum number of decryption attempts
+     * @return the decrypted files
+     * @throws IOException          IOException
+     * @throws EncryptionException  if the files can't be decrypted after all the retries
+     * @throws InterruptedException if the thread is interrupted while waiting for the next retry
+     */
     public List<AssetMetadata.File> getDecriptedSecretStoreMetadataFiles(DDO ddo, int retries)
             throws IOException, EncryptionException, InterruptedException {
+        final String did = ddo.getDID().getHash();
+        final String encryptedFiles = ddo.getMetadataService().attributes.encryptedFiles;
+
+        if (decryptedFilesCache != null) {
+            List<AssetMetadata.File> cached = decryptedFilesCache.get(did, encryptedFiles);
+            if (cached != null)
+                return cached;
+        }
+
         int counter = 0;
         AuthorizationService authorizationService = ddo.getAuthorizationService();
         SecretStoreManager secretStoreManager = getSecretStoreInstance(authorizationService);
@@ -145,20 +183,41 @@ public abstract class BaseManager {
         String jsonFiles = null;
         while (counter < retries) {
             try {
-                jsonFiles = secretStoreManager.decryptDocument(ddo.getDID().getHash(),
-                        ddo.getMetadataService().attributes.encryptedFiles);
-                return DDO.fromJSON(new TypeReference<ArrayList<AssetMetadata.File>>() {
+                jsonFiles = secretStoreManager.decryptDocument(did, encryptedFiles);
+                List<AssetMetadata.File> files = DDO.fromJSON(new TypeReference<ArrayList<AssetMetadata.File>>() {
                 }, jsonFiles);
+                if (decryptedFilesCache != null)
+                    decryptedFilesCache.put(did, encryptedFiles, files);
+                return files;
             } catch (EncryptionException e) {
                 log.warn("Unable to decrypt [" + counter + "]");
                 counter++;
-                Thread.sleep(SS_DECRYPTION_SLEEP);
+                if (counter < retries)
+                    Thread.sleep(retryDelay(counter, secretStoreRetryDelay, secretStoreMaxRetryDelay));
             }
         }
         throw new EncryptionException("Unable to decrypt document after " + retries + " retries");
 
     }
 
+    /**
+     * Calculates the time to wait before retrying a failed attempt. The delay doubles with every attempt
+     * up to maxDelay, and half of it is random (jitter) so the clients don't retry at the same time
+     *
+     * @param attempt  number of attempts already failed, starting in 1
+     * @param delay    delay in milliseconds after the first attempt
+     * @param maxDelay maximum delay in milliseconds
+     * @return the time to wait in milliseconds, between half the delay and the delay
+     */
+    protected static long retryDelay(int attempt, long delay, long maxDelay) {
+        final int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        final long backoff = delay > maxDelay >> shift ? maxDelay : delay << shift;
+        if (backoff <= 1)
+            return Math.max(backoff, 0);
+        final long half = backoff / 2;
+        return backoff - half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
     public boolean tokenApprove(NeverminedToken tokenContract, String spenderAddress, String price)
             throws TokenApproveException {
 
@@ -197,14 +256,29 @@ public abstract class BaseManager {
      */
     public DDO resolveDID(DID did) throws DDOException {
 
+        if (didResolutionCache != null) {
+            DDO cachedDDO = didResolutionCache.getDDO(did);
+            if (cachedDDO != null)
+                return cachedDDO;
+        }
+
         try {
-            final Tuple9<String, byte[], String, String, BigInteger, List<String>, BigInteger, BigInteger, BigInteger> didAttributes = didRegistry
-                    .getDIDRegister(EncodingHelper.hexStringToBytes(did.getHash())).send();
+            String didUrl = didResolutionCache != null ? didResolutionCache.getUrl(did) : null;
 
-            String didUrl = didAttributes.component3();
+            if (didUrl == null) {
+                final Tuple9<String, byte[], String, String, BigInteger, List<String>, BigInteger, BigInteger, BigInteger> didAttributes = didRegistry
+                        .getDIDRegister(EncodingHelper.hexStringToBytes(did.getHash())).send();
 
-            MetadataApiService ddoMetadataDto = MetadataApiService.getInstance(UrlHelper.getBaseUrl(didUrl));
-            return ddoMetadataDto.getDDO(didUrl);
+                didUrl = didAttributes.component3();
+                if (didResolutionCache != null)
+                    didResolutionCache.putUrl(did, didUrl);
+            }
+
+            MetadataApiService ddoMetadataDto = metadataApiRegistry.get(UrlHelper.getBaseUrl(didUrl));
+            DDO ddo = ddoMetadataDto.getDDO(didUrl);
+            if (didResolutionCache != null)
+                didResolutionCache.putDDO(did, ddo);
+            return ddo;
 
         } catch (Exception ex) {
             log.error("Unable to retrieve DDO " + ex.getMessage());
@@ -221,39 +295,47 @@ public abstract class BaseManager {
      * @throws DDOException DDOException
      */
     public DDO resolveDIDFromEvent(DID did) throws DDOException {
+        return resolveDIDFromEvent(did, null, null);
+    }
 
-        EthFilter didFilter = new EthFilter(DefaultBlockParameterName.EARLIEST, DefaultBlockParameterName.LATEST,
-                didRegistry.getContractAddress());
+    /**
+     * Given a DID, scans the DIDRegistry events in a block range to resolve the Metadata API url and
+     * return the DDO found
+     *
+     * @param did       the did
+     * @param fromBlock first block to scan, if null the start block configured in the EventLogScanner is used
+     * @param toBlock   last block to scan, if null the latest block is used
+     * @return DDO
+     * @throws DDOException DDOException
+     */
+    public DDO resolveDIDFromEvent(DID did, BigInteger fromBlock, BigInteger toBlock) throws DDOException {
 
         try {
 
             final Event event = didRegistry.DIDATTRIBUTEREGISTERED_EVENT;
             final String eventSignature = EventEncoder.encode(event);
-            didFilter.addSingleTopic(eventSignature);
-
-            String didTopic = "0x" + did.getHash();
-            didFilter.addOptionalTopics(didTopic);
+            LogFilter didFilter = new LogFilter(didRegistry.getContractAddress())
+                    .addSingleTopic(eventSignature)
+                    .addSingleTopic("0x" + did.getHash());
 
-            EthLog ethLog;
+            List<EthLog.LogObject> logs;
 
             try {
-                ethLog = getKeeperService().getWeb3().ethGetLogs(didFilter).send();
-            } catch (IOException e) {
-                throw new EthereumException("Error searching DID " + did.toString() + " onchain: " + e.getMessage());
+                logs = getEventLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 1, "0x" + did.getHash(), didFilter, fromBlock, toBlock);
+            } catch (EthereumException e) {
+                throw new EthereumException("Error searching DID " + did.toString() + " onchain: " + e.getMessage(), e);
             }
 
-            List<EthLog.LogResult> logs = ethLog.getLogs();
-
             int numLogs = logs.size();
             if (numLogs < 1)
                 throw new DDOException("No events found for " + did.toString());
 
-            EthLog.LogResult logResult = logs.get(numLogs - 1);
-            List<Type> nonIndexed = FunctionReturnDecoder.decode(((EthLog.LogObject) logResult).getData(),
+            EthLog.LogObject logResult = logs.get(numLogs - 1);
+            List<Type> nonIndexed = FunctionReturnDecoder.decode(logResult.getData(),
                     event.getNonIndexedParameters());
             String didUrl = nonIndexed.get(0).getValue().toString();
 
-            MetadataApiService ddoMetadataDto = MetadataApiService.getInstance(UrlHelper.getBaseUrl(didUrl));
+            MetadataApiService ddoMetadataDto = metadataApiRegistry.get(UrlHelper.getBaseUrl(didUrl));
             return ddoMetadataDto.getDDO(didUrl);
 
         } catch (Exception ex) {
@@ -346,6 +428,175 @@ public abstract class BaseManager {
         return this;
     }
 
+    /**
+     * Get the registry of the Metadata API instances used to resolve the DIDs
+     *
+     * @return MetadataApiRegistry
+     */
+    public MetadataApiRegistry getMetadataApiRegistry() {
+        return metadataApiRegistry;
+    }
+
+    /**
+     * Set the registry of the Metadata API instances used to resolve the DIDs
+     *
+     * @param metadataApiRegistry MetadataApiRegistry, null uses the default one
+     * @return this
+     */
+    public BaseManager setMetadataApiRegistry(MetadataApiRegistry metadataApiRegistry) {
+        this.metadataApiRegistry = metadataApiRegistry != null ? metadataApiRegistry : MetadataApiRegistry.getDefault();
+        return this;
+    }
+
+    /**
+     * Get the registry of the managers of the Secret Store endpoints used by the assets
+     *
+     * @return SecretStoreRegistry or null if a new manager is created for every decryption
+     */
+    public SecretStoreRegistry getSecretStoreRegistry() {
+        return secretStoreRegistry;
+    }
+
+    /**
+     * Set the registry of the managers of the Secret Store endpoints used by the assets
+     *
+     * @param secretStoreRegistry SecretStoreRegistry, null creates a new manager for every decryption
+     * @return this
+     */
+    public BaseManager setSecretStoreRegistry(SecretStoreRegistry secretStoreRegistry) {
+        this.secretStoreRegistry = secretStoreRegistry;
+        return this;
+    }
+
+    /**
+     * Get the cache used to resolve DIDs
+     *
+     * @return DIDResolutionCache or null if the resolution is not cached
+     */
+    public DIDResolutionCache getDIDResolutionCache() {
+        return didResolutionCache;
+    }
+
+    /**
+     * Set the cache used to resolve DIDs. It can be shared between managers
+     *
+     * @param didResolutionCache DIDResolutionCache, null disables the cache
+     * @return this
+     */
+    public BaseManager setDIDResolutionCache(DIDResolutionCache didResolutionCache) {
+        this.didResolutionCache = didResolutionCache;
+        return this;
+    }
+
+    /**
+     * Get the cache of the files decrypted using the Secret Store
+     *
+     * @return DecryptedFilesCache or null if the decrypted files are not cached
+     */
+    public DecryptedFilesCache getDecryptedFilesCache() {
+        return decryptedFilesCache;
+    }
+
+    /**
+     * Set the cache of the files decrypted using the Secret Store. It can be shared between managers
+     *
+     * @param decryptedFilesCache DecryptedFilesCache, null disables the cache
+     * @return this
+     */
+    public BaseManager setDecryptedFilesCache(DecryptedFilesCache decryptedFilesCache) {
+        this.decryptedFilesCache = decryptedFilesCache;
+        return this;
+    }
+
+    /**
+     * Set the retries of the Secret Store decryptions. The delay between retries doubles with every
+     * attempt up to maxDelay
+     *
+     * @param retries  maximum number of decryption attempts
+     * @param delay    delay in milliseconds after the first failed attempt
+     * @param maxDelay maximum delay in milliseconds between attempts
+     * @return this
+     */
+    public BaseManager setSecretStoreRetries(int retries, long delay, long maxDelay) {
+        this.secretStoreRetries = retries;
+        this.secretStoreRetryDelay = delay;
+        this.secretStoreMaxRetryDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Get the engine used to scan the contract events. If none was set, one with the default
+     * settings is created
+     *
+     * @return EventLogScanner
+     */
+    public synchronized EventLogScanner getEventLogScanner() {
+        if (eventLogScanner == null)
+            eventLogScanner = new EventLogScanner(getKeeperService().getWeb3());
+        return eventLogScanner;
+    }
+
+    /**
+     * Set the engine used to scan the contract events. It can be shared between managers
+     *
+     * @param eventLogScanner EventLogScanner
+     * @return this
+     */
+    public synchronized BaseManager setEventLogScanner(EventLogScanner eventLogScanner) {
+        this.eventLogScanner = eventLogScanner;
+        return this;
+    }
+
+    /**
+     * Get the local index of contract events
+     *
+     * @return EventIndex or null if the events are not indexed
+     */
+    public EventIndex getEventIndex() {
+        return eventIndex;
+    }
+
+    /**
+     * Set the local index of contract events. When set, the event queries are answered from the index
+     *
+     * @param eventIndex EventIndex
+     * @return this
+     */
+    public BaseManager setEventIndex(EventIndex eventIndex) {
+        this.eventIndex = eventIndex;
+        return this;
+    }
+
+    /**
+     * Gets the logs of an event, from the local index if it covers the event and the block range or
+     * scanning the chain otherwise
+     *
+     * @param indexName  name of the event in the EventIndex
+     * @param topicIndex position of the topic used to look up the index
+     * @param topicValue value of the topic used to look up the index
+     * @param filter     filter used to scan the chain
+     * @param fromBlock  first block, null to use the default start block
+     * @param toBlock    last block, null to use the latest block
+     * @return the logs
+     * @throws EthereumException EthereumException
+     */
+    protected List<EthLog.LogObject> getEventLogs(String indexName, int topicIndex, String topicValue, LogFilter filter,
+                                                  BigInteger fromBlock, BigInteger toBlock) throws EthereumException {
+        if (eventIndex != null && eventIndex.covers(indexName, fromBlock, toBlock))
+            return eventIndex.getLogs(indexName, topicIndex, topicValue, fromBlock, toBlock);
+        return getEventLogScanner().scan(filter, fromBlock, toBlock);
+    }
+
+    /**
+     * Removes a DID from the resolution cache, if there is one
+     *
+     * @param did the did
+     */
+    protected void invalidateDIDResolution(String did) {
+        if (didResolutionCache != null)
+            didResolutionCache.invalidate(did);
+    }
+
     /**
      * Get the EvmDto
      *
@@ -5,6 +5,9 @@ import io.keyko.common.web3.KeeperService;
 import io.keyko.nevermined.api.helper.AccountsHelper;
 import io.keyko.nevermined.api.helper.InitializationHelper;
 import io.keyko.nevermined.contracts.ERC20Upgradeable;
+import io.keyko.nevermined.core.conditions.ConditionIdCalculator;
+import io.keyko.nevermined.core.conditions.LockPaymentConditionPayable;
+import io.keyko.nevermined.core.keeper.TransactionPipeline;
 import io.keyko.nevermined.exceptions.NFTException;
 import io.keyko.nevermined.exceptions.ServiceAgreementException;
 import io.keyko.nevermined.external.MetadataApiService;
@@ -15,6 +18,7 @@ import io.keyko.nevermined.models.service.Service;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.web3j.crypto.Keys;
+import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 
@@ -26,6 +30,8 @@ public class ConditionsManager extends BaseManager {
 
     private static final Logger log = LogManager.getLogger(ConditionsManager.class);
 
+    private boolean offlineConditionIds = true;
+
     public ConditionsManager(KeeperService keeperService, MetadataApiService metadataApiService) {
         super(keeperService, metadataApiService);
     }
@@ -42,6 +48,21 @@ public class ConditionsManager extends BaseManager {
         return new ConditionsManager(keeperService, metadataApiService);
     }
 
+    public boolean isOfflineConditionIds() {
+        return offlineConditionIds;
+    }
+
+    /**
+     * Sets how the condition ids are generated
+     *
+     * @param offlineConditionIds if true the ids are computed locally, if false the condition contracts are called
+     * @return ConditionsManager instance
+     */
+    public ConditionsManager setOfflineConditionIds(boolean offlineConditionIds) {
+        this.offlineConditionIds = offlineConditionIds;
+        return this;
+    }
+
     public String getTokenAddress(String tokenAddress)  {
         if (null == tokenAddress)
             return tokenContract.getContractAddress();
@@ -80,41 +101,14 @@ public class ConditionsManager extends BaseManager {
             else
                 service = ddo.getServiceByTemplate(agreement.templateId);
 
-            final List<BigInteger> _amounts = service.fetchAmounts();
-            final List<String> _receivers = service.fetchReceivers();
-            final String rewardAddress = Keys.toChecksumAddress(escrowCondition.getContractAddress());
-            final String _DDOtokenAddress = service.fetchConditionValue("_tokenAddress");
-            final String contractTokenAddress = getTokenAddress(_DDOtokenAddress);
-
-            final BigInteger amount = _amounts.stream()
-                    .reduce(BigInteger.ZERO, BigInteger::add);
-
-            TransactionReceipt txReceipt;
+            final String contractTokenAddress = getTokenAddress(service.fetchConditionValue("_tokenAddress"));
             if (!contractTokenAddress.equals(AccountsHelper.ZERO_ADDRESS)) {
                 final ERC20Upgradeable erc20Contract = InitializationHelper.loadERC20Contract(getKeeperService(), contractTokenAddress);
-                erc20Contract.approve(lockCondition.getContractAddress(), amount);
-
-                txReceipt = lockCondition.fulfill(
-                        EncodingHelper.hexStringToBytes(agreementId),
-                        EncodingHelper.hexStringToBytes(agreement.did.getHash()),
-                        rewardAddress,
-                        contractTokenAddress,
-                        _amounts,
-                        _receivers
-                ).send();
-
-            }   else    { // If we need to use ETH, we send the amount to pay in Wei
-                txReceipt = lockCondition.fulfill(
-                        EncodingHelper.hexStringToBytes(agreementId),
-                        EncodingHelper.hexStringToBytes(agreement.did.getHash()),
-                        rewardAddress,
-                        contractTokenAddress,
-                        _amounts,
-                        _receivers,
-                        amount
-                ).send();
+                erc20Contract.approve(lockCondition.getContractAddress(), service.fetchAmounts().stream()
+                        .reduce(BigInteger.ZERO, BigInteger::add));
             }
 
+            TransactionReceipt txReceipt = lockPaymentCall(agreementId, agreement.did, service, null).send();
             return txReceipt.isStatusOK();
 
         } catch (TransactionException e) {
@@ -123,6 +117,57 @@ public class ConditionsManager extends BaseManager {
         }
     }
 
+    /**
+     * Submits the lock of the payment for a service agreement through a transaction pipeline, without
+     * waiting for it to be mined. The ERC20 tokens must be approved before.
+     *
+     * @param pipeline    the transaction pipeline
+     * @param agreementId the agreement id
+     * @param did         the did of the asset
+     * @param service     the service of the agreement
+     * @return the position of the transaction in the pipeline
+     * @throws Exception exception
+     */
+    public int submitLockPayment(TransactionPipeline pipeline, String agreementId, DID did, Service service) throws Exception {
+        return pipeline.submit(lockPaymentCall(agreementId, did, service, pipeline));
+    }
+
+    /**
+     * Builds the transaction fulfilling the LockPaymentCondition
+     *
+     * @param pipeline the pipeline the condition is bound to, or null to use the condition directly
+     */
+    private RemoteFunctionCall<TransactionReceipt> lockPaymentCall(String agreementId, DID did, Service service,
+                                                                   TransactionPipeline pipeline) {
+        final List<BigInteger> _amounts = service.fetchAmounts();
+        final List<String> _receivers = service.fetchReceivers();
+        final String rewardAddress = Keys.toChecksumAddress(escrowCondition.getContractAddress());
+        final String contractTokenAddress = getTokenAddress(service.fetchConditionValue("_tokenAddress"));
+        final LockPaymentConditionPayable condition = pipeline == null ? lockCondition
+                : pipeline.bind(lockCondition, LockPaymentConditionPayable::load);
+
+        if (!contractTokenAddress.equals(AccountsHelper.ZERO_ADDRESS)) {
+            return condition.fulfill(
+                    EncodingHelper.hexStringToBytes(agreementId),
+                    EncodingHelper.hexStringToBytes(did.getHash()),
+                    rewardAddress,
+                    contractTokenAddress,
+                    _amounts,
+                    _receivers
+            );
+        }
+        // If we need to use ETH, we send the amount to pay in Wei
+        return condition.fulfill(
+                EncodingHelper.hexStringToBytes(agreementId),
+                EncodingHelper.hexStringToBytes(did.getHash()),
+                rewardAddress,
+                contractTokenAddress,
+                _amounts,
+                _receivers,
+                _amounts.stream().reduce(BigInteger.ZERO, BigInteger::add)
+        );
+    }
+
     /**
      * Grant access to an address to download a did.
      *
@@ -413,7 +458,7 @@ public class ConditionsManager extends BaseManager {
 
 
     /**
-     * Generates the Lock Payment condition identifier using the condition contract to be used in the service agreements
+     * Generates the Lock Payment condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param rewardAddress the address where payment is locked,
@@ -424,6 +469,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateLockPaymentConditionId(String serviceAgreementId, DID did, String rewardAddress, String tokenAddress, List<BigInteger> amounts, List<String> receivers) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    lockCondition.getContractAddress(), ConditionIdCalculator.hashLockPayment(did.getHash(), rewardAddress, tokenAddress, amounts, receivers)));
+
         final byte[] paramsHash = lockCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(rewardAddress),
@@ -440,7 +489,7 @@ public class ConditionsManager extends BaseManager {
     }
 
     /**
-     * Generates the Compute condition identifier using the condition contract to be used in the service agreements
+     * Generates the Compute condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param grantee the address to get access to the asset
@@ -448,6 +497,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateExecComputeConditionId(String serviceAgreementId, DID did, String grantee) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    computeExecutionCondition.getContractAddress(), ConditionIdCalculator.hashDIDGrantee(did.getHash(), grantee)));
+
         final byte[] paramsHash = computeExecutionCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(grantee)
@@ -461,7 +514,7 @@ public class ConditionsManager extends BaseManager {
     }
 
     /**
-     * Generates the Access condition identifier using the condition contract to be used in the service agreements
+     * Generates the Access condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param grantee the address to get access to the asset
@@ -469,6 +522,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateAccessConditionId(String serviceAgreementId, DID did, String grantee) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    accessCondition.getContractAddress(), ConditionIdCalculator.hashDIDGrantee(did.getHash(), grantee)));
+
         final byte[] paramsHash = accessCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(grantee)
@@ -482,7 +539,7 @@ public class ConditionsManager extends BaseManager {
     }
 
     /**
-     * Generates the Escrow Payment condition identifier using the condition contract to be used in the service agreements
+     * Generates the Escrow Payment condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param amounts payment amounts
@@ -495,6 +552,11 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateEscrowPaymentConditionId(String serviceAgreementId, DID did, List<BigInteger> amounts, List<String> receivers, String escrowConditionAddress, String tokenAddress, String lockConditionId, String releaseConditionId) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    escrowCondition.getContractAddress(), ConditionIdCalculator.hashEscrowPayment(did.getHash(), amounts, receivers,
+                            escrowConditionAddress, tokenAddress, lockConditionId, releaseConditionId)));
+
         final byte[] paramsHash = escrowCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 amounts,
@@ -513,7 +575,7 @@ public class ConditionsManager extends BaseManager {
     }
 
     /**
-     * Generates the NFT Holder condition identifier using the condition contract to be used in the service agreements
+     * Generates the NFT Holder condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param grantee the address to get access to the asset
@@ -522,6 +584,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateNFTHolderConditionId(String serviceAgreementId, DID did, String grantee, BigInteger numberNFTs) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    nftHolderCondition.getContractAddress(), ConditionIdCalculator.hashNFTHolder(did.getHash(), grantee, numberNFTs)));
+
         final byte[] paramsHash = nftHolderCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(grantee),
@@ -536,7 +602,7 @@ public class ConditionsManager extends BaseManager {
     }
 
     /**
-     * Generates the NFT Access condition identifier using the condition contract to be used in the service agreements
+     * Generates the NFT Access condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param grantee the address to get access to the NFT
@@ -544,6 +610,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateNFTAccessConditionId(String serviceAgreementId, DID did, String grantee) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    nftAccessCondition.getContractAddress(), ConditionIdCalculator.hashDIDGrantee(did.getHash(), grantee)));
+
         final byte[] paramsHash = nftAccessCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(grantee)
@@ -558,7 +628,7 @@ public class ConditionsManager extends BaseManager {
 
 
     /**
-     * Generates the Transfer DID Ownership condition identifier using the condition contract to be used in the service agreements
+     * Generates the Transfer DID Ownership condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param grantee the address to get access to the asset
@@ -566,6 +636,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateTransferDIDConditionId(String serviceAgreementId, DID did, String grantee) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    transferDIDCondition.getContractAddress(), ConditionIdCalculator.hashDIDGrantee(did.getHash(), grantee)));
+
         final byte[] paramsHash = transferDIDCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(grantee)
@@ -580,7 +654,7 @@ public class ConditionsManager extends BaseManager {
 
 
     /**
-     * Generates the Transfer NFT condition identifier using the condition contract to be used in the service agreements
+     * Generates the Transfer NFT condition identifier to be used in the service agreements
      * @param serviceAgreementId the service agreement id
      * @param did the asset decentralized identifier
      * @param grantee the address to get access to the asset
@@ -590,6 +664,10 @@ public class ConditionsManager extends BaseManager {
      * @throws Exception problem generating the condition id
      */
     public String generateTransferNFTConditionId(String serviceAgreementId, DID did, String grantee, BigInteger numberNFTs, String lockCondId) throws Exception {
+        if (offlineConditionIds)
+            return EncodingHelper.toHexString(ConditionIdCalculator.generateId(serviceAgreementId,
+                    transferNFTCondition.getContractAddress(), ConditionIdCalculator.hashTransferNFT(did.getHash(), grantee, numberNFTs, lockCondId)));
+
         final byte[] paramsHash = transferNFTCondition.hashValues(
                 EncodingHelper.hexStringToBytes(did.getHash()),
                 Keys.toChecksumAddress(grantee),
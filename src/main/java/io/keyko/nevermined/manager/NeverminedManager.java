@@ -6,8 +6,20 @@ import io.keyko.common.helpers.EthereumHelper;
 import io.keyko.common.helpers.UrlHelper;
 import io.keyko.common.web3.KeeperService;
 import io.keyko.nevermined.api.helper.AccountsHelper;
+import io.keyko.nevermined.contracts.DIDRegistry;
+import io.keyko.nevermined.contracts.NeverminedToken;
+import io.keyko.nevermined.core.cache.AccessTokenCache;
+import io.keyko.nevermined.core.compute.ComputeJobMonitor;
+import io.keyko.nevermined.core.download.ChecksumVerifier;
+import io.keyko.nevermined.core.download.DownloadCache;
+import io.keyko.nevermined.core.download.DownloadCheckpoint;
+import io.keyko.nevermined.core.download.ParallelDownloader;
+import io.keyko.nevermined.core.download.SegmentedDownloader;
+import io.keyko.nevermined.core.keeper.TransactionPipeline;
+import io.keyko.nevermined.core.sla.AgreementWatcher;
 import io.keyko.nevermined.core.sla.handlers.ServiceAgreementHandler;
 import io.keyko.nevermined.exceptions.*;
+import io.keyko.nevermined.external.GatewayClientRegistry;
 import io.keyko.nevermined.external.GatewayService;
 import io.keyko.nevermined.external.GatewayService.AccessTokenResult;
 import io.keyko.nevermined.external.MetadataApiService;
@@ -16,24 +28,42 @@ import io.keyko.nevermined.models.DDO;
 import io.keyko.nevermined.models.DID;
 import io.keyko.nevermined.models.Order;
 import io.keyko.nevermined.models.asset.AssetMetadata;
+import io.keyko.nevermined.models.asset.DownloadReport;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import io.keyko.nevermined.models.asset.OrderRequest;
 import io.keyko.nevermined.models.asset.OrderResult;
+import io.keyko.nevermined.models.asset.PublishReport;
+import io.keyko.nevermined.models.asset.PublishRequest;
+import io.keyko.nevermined.models.asset.PublishResult;
 import io.keyko.nevermined.models.gateway.ComputeLogs;
 import io.keyko.nevermined.models.gateway.ComputeStatus;
 import io.keyko.nevermined.models.gateway.ExecuteService;
 import io.keyko.nevermined.models.service.*;
 import io.keyko.nevermined.models.service.types.*;
 import io.reactivex.Flowable;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.web3j.crypto.CipherException;
 import org.web3j.crypto.Keys;
+import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -43,15 +73,32 @@ import java.util.concurrent.TimeoutException;
 public class NeverminedManager extends BaseManager {
 
     private static final Logger log = LogManager.getLogger(NeverminedManager.class);
+
+    public static final int DEFAULT_ORDER_CONCURRENCY = 4;
+    public static final int DEFAULT_PUBLISH_CONCURRENCY = 4;
+
     private AgreementsManager agreementsManager;
     private TemplatesManager templatesManager;
     private ConditionsManager conditionsManager;
     private AccountsManager accountsManager;
-    private HashMap<String, String> tokenCache;
+    private AgreementWatcher agreementWatcher;
+    private TransactionPipeline.Factory transactionPipelineFactory;
+    private Executor orderExecutor;
+    private int orderConcurrency = DEFAULT_ORDER_CONCURRENCY;
+    private int publishConcurrency = DEFAULT_PUBLISH_CONCURRENCY;
+    private int downloadParallelism = ParallelDownloader.DEFAULT_PARALLELISM;
+    private long downloadFileTimeout = 0;
+    private int downloadSegments = SegmentedDownloader.DEFAULT_SEGMENTS;
+    private int downloadSegmentRetries = SegmentedDownloader.DEFAULT_SEGMENT_RETRIES;
+    private boolean verifyChecksums = false;
+    private DownloadCache downloadCache;
+    private AccessTokenCache accessTokenCache;
+    private ComputeJobMonitor computeJobMonitor;
+    private GatewayClientRegistry gatewayClientRegistry = GatewayClientRegistry.getDefault();
 
     protected NeverminedManager(KeeperService keeperService, MetadataApiService metadataApiService) {
         super(keeperService, metadataApiService);
-        tokenCache = new HashMap<String, String>();
+        accessTokenCache = new AccessTokenCache();
     }
 
     /**
@@ -86,6 +133,196 @@ public class NeverminedManager extends BaseManager {
         return this;
     }
 
+    public NeverminedManager setAgreementWatcher(AgreementWatcher agreementWatcher) {
+        this.agreementWatcher = agreementWatcher;
+        return this;
+    }
+
+    public NeverminedManager setComputeJobMonitor(ComputeJobMonitor computeJobMonitor) {
+        this.computeJobMonitor = computeJobMonitor;
+        return this;
+    }
+
+    /**
+     * Sets the factory of the pipelines used to submit the transactions of an order back to back.
+     * If null, every transaction of the order waits for the previous one to be mined
+     *
+     * @param transactionPipelineFactory the factory, or null
+     * @return NeverminedManager
+     */
+    public NeverminedManager setTransactionPipelineFactory(TransactionPipeline.Factory transactionPipelineFactory) {
+        this.transactionPipelineFactory = transactionPipelineFactory;
+        return this;
+    }
+
+    /**
+     * Sets the executor running the bulk orders. If none is set, a pool of daemon threads is created when needed
+     *
+     * @param orderExecutor the executor
+     * @return NeverminedManager
+     */
+    public NeverminedManager setOrderExecutor(Executor orderExecutor) {
+        this.orderExecutor = orderExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the default number of orders run in parallel by a bulk order
+     *
+     * @param orderConcurrency the number of orders
+     * @return NeverminedManager
+     */
+    public NeverminedManager setOrderConcurrency(int orderConcurrency) {
+        this.orderConcurrency = orderConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the default number of assets processed in parallel by every stage of a bulk publication
+     *
+     * @param publishConcurrency the number of assets
+     * @return NeverminedManager
+     */
+    public NeverminedManager setPublishConcurrency(int publishConcurrency) {
+        this.publishConcurrency = publishConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the default number of files downloaded at the same time by accessAll and downloadAllByOwner
+     *
+     * @param downloadParallelism the number of files
+     * @return NeverminedManager
+     */
+    public NeverminedManager setDownloadParallelism(int downloadParallelism) {
+        this.downloadParallelism = downloadParallelism;
+        return this;
+    }
+
+    /**
+     * Sets the default maximum milliseconds to download every file in accessAll and downloadAllByOwner
+     *
+     * @param downloadFileTimeout the milliseconds, or 0 for no limit
+     * @return NeverminedManager
+     */
+    public NeverminedManager setDownloadFileTimeout(long downloadFileTimeout) {
+        this.downloadFileTimeout = downloadFileTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the default number of byte ranges fetched at the same time by the segmented downloads
+     *
+     * @param downloadSegments the number of ranges
+     * @return NeverminedManager
+     */
+    public NeverminedManager setDownloadSegments(int downloadSegments) {
+        this.downloadSegments = downloadSegments;
+        return this;
+    }
+
+    /**
+     * Sets the number of times a failed byte range of a segmented download is requested again
+     *
+     * @param downloadSegmentRetries the number of retries
+     * @return NeverminedManager
+     */
+    public NeverminedManager setDownloadSegmentRetries(int downloadSegmentRetries) {
+        this.downloadSegmentRetries = downloadSegmentRetries;
+        return this;
+    }
+
+    /**
+     * Sets if the files downloaded as a whole are hashed while they are written to disk and checked against
+     * the checksum and content length in the metadata
+     *
+     * @param verifyChecksums true to verify the files
+     * @return NeverminedManager
+     */
+    public NeverminedManager setVerifyChecksums(boolean verifyChecksums) {
+        this.verifyChecksums = verifyChecksums;
+        return this;
+    }
+
+    /**
+     * Sets the local cache of the downloaded files used by access and consumeBinary
+     *
+     * @param downloadCache the cache, or null to always download the files from the gateway
+     * @return NeverminedManager
+     */
+    public NeverminedManager setDownloadCache(DownloadCache downloadCache) {
+        this.downloadCache = downloadCache;
+        return this;
+    }
+
+    /**
+     * Sets the cache of the access tokens issued by the gateways
+     *
+     * @param accessTokenCache the cache
+     * @return NeverminedManager
+     */
+    public NeverminedManager setAccessTokenCache(AccessTokenCache accessTokenCache) {
+        this.accessTokenCache = accessTokenCache;
+        return this;
+    }
+
+    /**
+     * Gets the cache of the access tokens issued by the gateways, giving access to its statistics
+     *
+     * @return the AccessTokenCache
+     */
+    public AccessTokenCache getAccessTokenCache() {
+        return accessTokenCache;
+    }
+
+    /**
+     * Sets the registry of the clients used to call the gateways and of the engine copying the downloaded files
+     *
+     * @param gatewayClientRegistry the registry, or null to use the default one
+     * @return NeverminedManager
+     */
+    public NeverminedManager setGatewayClientRegistry(GatewayClientRegistry gatewayClientRegistry) {
+        this.gatewayClientRegistry = gatewayClientRegistry != null ? gatewayClientRegistry
+                : GatewayClientRegistry.getDefault();
+        return this;
+    }
+
+    public GatewayClientRegistry getGatewayClientRegistry() {
+        return gatewayClientRegistry;
+    }
+
+    private synchronized Executor getOrderExecutor() {
+        if (orderExecutor == null)
+            orderExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "order-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        return orderExecutor;
+    }
+
+    /**
+     * Gets the watcher used to wait for agreements and conditions, creating one with the default settings if none was set
+     *
+     * @return AgreementWatcher
+     */
+    public synchronized AgreementWatcher getAgreementWatcher() {
+        if (agreementWatcher == null)
+            agreementWatcher = new AgreementWatcher(agreementsManager, getKeeperService().getWeb3());
+        return agreementWatcher;
+    }
+
+    /**
+     * Gets the monitor following the status of the compute jobs, creating one with the default settings if none was set
+     *
+     * @return ComputeJobMonitor
+     */
+    public synchronized ComputeJobMonitor getComputeJobMonitor() {
+        if (computeJobMonitor == null)
+            computeJobMonitor = new ComputeJobMonitor();
+        return computeJobMonitor;
+    }
+
     /**
      * Generates a DID
      *
@@ -113,8 +350,7 @@ public class NeverminedManager extends BaseManager {
 
         try {
 
-            TransactionReceipt receipt = didRegistry.registerAttribute(EncodingHelper.hexStringToBytes(did.getHash()),
-                    EncodingHelper.hexStringToBytes(checksum.replace("0x", "")), providers, url).send();
+            TransactionReceipt receipt = registerAttribute(didRegistry, did, url, checksum, providers).send();
 
             return receipt.getStatus().equals("0x1");
 
@@ -123,6 +359,24 @@ public class NeverminedManager extends BaseManager {
         }
     }
 
+    /**
+     * Builds the transaction registering on-chain a DID, without sending it
+     *
+     * @param registry  the DIDRegistry contract, bound to the transaction manager sending the transaction
+     * @param did       the did
+     * @param url       metadata url
+     * @param checksum  calculated hash of the metadata
+     * @param providers list of providers addresses to give access
+     * @return the transaction
+     * @throws UnsupportedEncodingException if the did or the checksum are not hex strings
+     */
+    private static RemoteFunctionCall<TransactionReceipt> registerAttribute(DIDRegistry registry, DID did, String url,
+                                                                            String checksum, List<String> providers)
+            throws UnsupportedEncodingException {
+        return registry.registerAttribute(EncodingHelper.hexStringToBytes(did.getHash()),
+                EncodingHelper.hexStringToBytes(checksum.replace("0x", "")), providers, url);
+    }
+
 
     /**
      * Given a DID and a Metadata API url, register on-chain the DID. It allows to
@@ -390,119 +644,293 @@ public class NeverminedManager extends BaseManager {
 
         try {
 
-            // Definition of service endpoints
-            String metadataEndpoint;
-            if (providerConfig.getMetadataEndpoint() == null)
-                metadataEndpoint = getMetadataApiService().getDdoEndpoint() + "/{did}";
-            else
-                metadataEndpoint = providerConfig.getMetadataEndpoint();
-
-            // Initialization of services supported for this asset
-            MetadataService metadataService = new MetadataService(metadata, metadataEndpoint,
-                    Service.DEFAULT_METADATA_INDEX);
-
-            ProvenanceService provenanceService = new ProvenanceService(providerConfig.getMetadataEndpoint(),
-                    Service.DEFAULT_PROVENANCE_INDEX);
-
-            AuthorizationService authorizationService = null;
-            if (null != authConfig) {
-                if (authConfig.getService().equals(AuthorizationService.AuthTypes.SECRET_STORE))
-                    authorizationService = AuthorizationService.buildSecretStoreAuthService(
-                            providerConfig.getSecretStoreEndpoint(), Service.DEFAULT_AUTHORIZATION_INDEX,
-                            authConfig.getThreshold());
-                else if (authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_ECDSA))
-                    authorizationService = AuthorizationService.buildECDSAAuthService(providerConfig.getGatewayUrl(),
-                            Service.DEFAULT_AUTHORIZATION_INDEX);
-                else if (authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_RSA))
-                    authorizationService = AuthorizationService.buildRSAAuthService(providerConfig.getGatewayUrl(),
-                            Service.DEFAULT_AUTHORIZATION_INDEX);
-            }
+            final PreparedAsset asset = prepareAsset(metadata, providerConfig, serviceDescriptors, authConfig);
+            final DDO ddo = asset.ddo;
 
-            // Initializing DDO
-            DDO ddo = this.buildDDO(metadataService, getMainAccount().address);
-
-            Map<String, String> additionalOptions = Map.of(
-                    "contract.EscrowPaymentCondition.address", escrowCondition.getContractAddress()
-            );
-            // Adding services to DDO
-            for (ServiceDescriptor _serviceDescriptor : serviceDescriptors) {
-                List<Condition> conditions= ServiceBuilder.getGenericConditionParams(
-                        _serviceDescriptor.service, _serviceDescriptor.assetRewards, additionalOptions);
-                _serviceDescriptor.service.attributes.serviceAgreementTemplate.conditions = conditions;
-                ddo.addService(_serviceDescriptor.service);
+            // Registering DID
+            boolean success;
+            if (cap.compareTo(BigInteger.ZERO) >= 0) {
+                success = registerMintableDID(ddo.getDID().seed, asset.metadataEndpoint, ddo.getDID().getHash(), providerConfig.getProviderAddresses(), cap, royalties);
+            }   else {
+                success = registerDID(ddo.fetchDIDSeed(), asset.metadataEndpoint, ddo.getDID().getHash(), providerConfig.getProviderAddresses());
             }
 
-            ddo.addService(provenanceService);
+            if (!success)
+                throw new DIDRegisterException("Error registering DID on-chain");
+            invalidateDIDResolution(ddo.getDID().getDid());
+            // Storing DDO
+            return getMetadataApiService().createDDO(ddo);
 
-            if (authorizationService != null)
-                ddo.addService(authorizationService);
+        } catch (DDOException | DIDRegisterException | IOException | CipherException | DIDFormatException e) {
+            throw new DDOException("Error registering Asset.", e);
+        }
 
-            // Generating the DDO.proof, checksums and calculating DID
-            ddo = DDO.integrityBuilder(ddo, getKeeperService().getCredentials());
-            DID didWithSeed = ddo.getDID();
+    }
 
-            ddo = DDO.replaceConditionVariables(ddo, "did", ddo.getDID().getDid());
-            ddo = DDO.replaceConditionVariables(ddo, "assetId", ddo.getDID().getHash());
+    /**
+     * DDO ready to be registered, with its files encrypted
+     */
+    private static class PreparedAsset {
+        private final DDO ddo;
+        private final String metadataEndpoint;
 
-            // Add authentication
-            ddo.addAuthentication(ddo.id);
+        private PreparedAsset(DDO ddo, String metadataEndpoint) {
+            this.ddo = ddo;
+            this.metadataEndpoint = metadataEndpoint;
+        }
+    }
 
-            if (null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.ACCESS) ||
-                    null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.NFT_ACCESS) ||
-                    null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.DID_SALES) ||
-                    null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.COMPUTE))  {
+    /**
+     * Builds the DDO of a new asset, calculating its DID and encrypting its files, without registering it
+     *
+     * @param metadata           the metadata
+     * @param providerConfig     the service Endpoints
+     * @param serviceDescriptors different services to attach to the asset
+     * @param authConfig         auth configuration
+     * @return the DDO and the complete metadata url to register
+     */
+    private PreparedAsset prepareAsset(AssetMetadata metadata, ProviderConfig providerConfig,
+                                       List<ServiceDescriptor> serviceDescriptors, AuthConfig authConfig)
+            throws DDOException, IOException, CipherException, DIDFormatException {
+
+        // Definition of service endpoints
+        String metadataEndpoint;
+        if (providerConfig.getMetadataEndpoint() == null)
+            metadataEndpoint = getMetadataApiService().getDdoEndpoint() + "/{did}";
+        else
+            metadataEndpoint = providerConfig.getMetadataEndpoint();
+
+        // Initialization of services supported for this asset
+        MetadataService metadataService = new MetadataService(metadata, metadataEndpoint,
+                Service.DEFAULT_METADATA_INDEX);
+
+        ProvenanceService provenanceService = new ProvenanceService(providerConfig.getMetadataEndpoint(),
+                Service.DEFAULT_PROVENANCE_INDEX);
+
+        AuthorizationService authorizationService = null;
+        if (null != authConfig) {
+            if (authConfig.getService().equals(AuthorizationService.AuthTypes.SECRET_STORE))
+                authorizationService = AuthorizationService.buildSecretStoreAuthService(
+                        providerConfig.getSecretStoreEndpoint(), Service.DEFAULT_AUTHORIZATION_INDEX,
+                        authConfig.getThreshold());
+            else if (authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_ECDSA))
+                authorizationService = AuthorizationService.buildECDSAAuthService(providerConfig.getGatewayUrl(),
+                        Service.DEFAULT_AUTHORIZATION_INDEX);
+            else if (authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_RSA))
+                authorizationService = AuthorizationService.buildRSAAuthService(providerConfig.getGatewayUrl(),
+                        Service.DEFAULT_AUTHORIZATION_INDEX);
+        }
+
+        // Initializing DDO
+        DDO ddo = this.buildDDO(metadataService, getMainAccount().address);
+
+        Map<String, String> additionalOptions = Map.of(
+                "contract.EscrowPaymentCondition.address", escrowCondition.getContractAddress()
+        );
+        // Adding services to DDO. They are copied before completing them, as the descriptors can be shared
+        // by several assets published at the same time
+        for (ServiceDescriptor _serviceDescriptor : serviceDescriptors) {
+            final ServiceDescriptor serviceDescriptor = _serviceDescriptor.copy();
+            List<Condition> conditions= ServiceBuilder.getGenericConditionParams(
+                    serviceDescriptor.service, serviceDescriptor.assetRewards, additionalOptions);
+            serviceDescriptor.service.attributes.serviceAgreementTemplate.conditions = conditions;
+            ddo.addService(serviceDescriptor.service);
+        }
+
+        ddo.addService(provenanceService);
+
+        if (authorizationService != null)
+            ddo.addService(authorizationService);
+
+        // Generating the DDO.proof, checksums and calculating DID, replacing the DID variables of the conditions
+        ddo = DDO.integrityBuilder(ddo, getKeeperService().getCredentials(), true);
+        DID didWithSeed = ddo.getDID();
+
+        // Add authentication
+        ddo.addAuthentication(ddo.id);
+
+        if (null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.ACCESS) ||
+                null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.NFT_ACCESS) ||
+                null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.DID_SALES) ||
+                null != ServiceDescriptor.fetchServiceByType(serviceDescriptors, Service.ServiceTypes.COMPUTE))  {
+
+            if (authConfig.getService().equals(AuthorizationService.AuthTypes.SECRET_STORE))
+                ddo.secretStoreLocalEncryptFiles(gatewayClientRegistry, getSecretStoreManager(), authConfig);
+            else if (authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_ECDSA)
+                    || authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_RSA))
+                ddo.gatewayEncryptFiles(gatewayClientRegistry, authConfig);
+        }
 
-                if (authConfig.getService().equals(AuthorizationService.AuthTypes.SECRET_STORE))
-                    ddo.secretStoreLocalEncryptFiles(getSecretStoreManager(), authConfig);
-                else if (authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_ECDSA)
-                        || authConfig.getService().equals(AuthorizationService.AuthTypes.PSK_RSA))
-                    ddo.gatewayEncryptFiles(authConfig);
+        // Substitution of the did token in the url. The ddo will be registered using
+        // the complete metadata url
+        metadataEndpoint = UrlHelper.parseDDOUrl(metadataEndpoint, ddo.getDID().toString());
+
+        ddo = ddo.setDID(didWithSeed);
+        return new PreparedAsset(ddo, metadataEndpoint);
+    }
+
+    /**
+     * Creates several assets, using the default concurrency
+     *
+     * @param publishRequests the assets to create
+     * @return the result of every asset and the throughput of the publication
+     */
+    public PublishReport createAll(List<PublishRequest> publishRequests) {
+        return createAll(publishRequests, publishConcurrency);
+    }
+
+    /**
+     * Creates several assets in a pipeline of three stages, each one with its own threads:
+     * building the DDOs and encrypting their files, registering the DIDs on-chain and storing the DDOs
+     * in the Metadata API. Every stage processes up to concurrency assets in parallel and passes each asset
+     * to the next stage as soon as it is done, so an asset failing in a stage does not stop the other ones.
+     * The DIDs are only registered in parallel when the transaction pipeline is enabled, as it is the one
+     * assigning the nonces of the concurrent transactions; otherwise they are registered one after the other.
+     *
+     * @param publishRequests the assets to create
+     * @param concurrency     maximum number of assets in flight in every stage
+     * @return the result of every asset and the throughput of the publication
+     */
+    public PublishReport createAll(List<PublishRequest> publishRequests, int concurrency) {
+
+        final long start = System.currentTimeMillis();
+        final int width = Math.max(1, concurrency);
+        final ExecutorService prepareStage = newStageExecutor("publish-prepare", width);
+        final ExecutorService registerStage = newStageExecutor("publish-register",
+                transactionPipelineFactory == null ? 1 : width);
+        final ExecutorService storeStage = newStageExecutor("publish-store", width);
+
+        final List<PublishResult> results = new ArrayList<>(publishRequests.size());
+        try {
+            final List<CompletableFuture<PublishResult>> futures = new ArrayList<>(publishRequests.size());
+            for (PublishRequest request : publishRequests) {
+                final PublishTask task = new PublishTask(request);
+                futures.add(CompletableFuture
+                        .supplyAsync(() -> task.run(PublishResult.Stage.PREPARE,
+                                () -> prepareAsset(request)), prepareStage)
+                        .thenApplyAsync(asset -> task.run(PublishResult.Stage.REGISTER,
+                                () -> registerPublishedAsset(asset, request.getProviderConfig())), registerStage)
+                        .thenApplyAsync(asset -> task.run(PublishResult.Stage.STORE,
+                                () -> getMetadataApiService().createDDO(asset.ddo)), storeStage)
+                        .handle((ddo, error) -> task.result(ddo, error, System.currentTimeMillis() - start)));
             }
+            for (CompletableFuture<PublishResult> future : futures)
+                results.add(future.join());
+        } finally {
+            prepareStage.shutdown();
+            registerStage.shutdown();
+            storeStage.shutdown();
+        }
 
-            // Substitution of the did token in the url. The ddo will be registered using
-            // the complete metadata url
-            metadataEndpoint = UrlHelper.parseDDOUrl(metadataEndpoint, ddo.getDID().toString());
+        final PublishReport report = new PublishReport(results, System.currentTimeMillis() - start);
+        log.info("Bulk publication finished: " + report);
+        return report;
+    }
 
-            ddo = ddo.setDID(didWithSeed);
+    @FunctionalInterface
+    private interface PublishStep<T> {
+        T run() throws Exception;
+    }
 
-            // Registering DID
-            boolean success;
-            if (cap.compareTo(BigInteger.ZERO) >= 0) {
-                success = registerMintableDID(ddo.getDID().seed, metadataEndpoint, ddo.getDID().getHash(), providerConfig.getProviderAddresses(), cap, royalties);
-            }   else {
-                success = registerDID(ddo.fetchDIDSeed(), metadataEndpoint, ddo.getDID().getHash(), providerConfig.getProviderAddresses());
+    /**
+     * Publication of one asset, keeping the stage it is in to report where it failed
+     */
+    private static class PublishTask {
+        private final PublishRequest request;
+        private volatile PublishResult.Stage stage = PublishResult.Stage.PREPARE;
+
+        private PublishTask(PublishRequest request) {
+            this.request = request;
+        }
+
+        private <T> T run(PublishResult.Stage stage, PublishStep<T> step) {
+            this.stage = stage;
+            try {
+                return step.run();
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
+        }
 
-            if (!success)
-                throw new DIDRegisterException("Error registering DID on-chain");
-            // Storing DDO
-            return getMetadataApiService().createDDO(ddo);
+        private PublishResult result(DDO ddo, Throwable error, long elapsedMillis) {
+            if (error == null)
+                return PublishResult.success(request, ddo, elapsedMillis);
 
-        } catch (DDOException | DIDRegisterException | IOException | CipherException | DIDFormatException e) {
-            throw new DDOException("Error registering Asset.", e);
+            final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.error("Error publishing asset at stage " + stage + ": " + cause.getMessage());
+            return PublishResult.failure(request, stage, new DDOException("Error registering Asset.", cause),
+                    elapsedMillis);
         }
+    }
 
+    private static ExecutorService newStageExecutor(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    public boolean isConditionFulfilled(String serviceAgreementId, Condition.ConditionTypes conditionType)
-             {
-        final int maxRetries = 5;
-        final long sleepTime = 500L;
-        int iteration = 0;
+    /**
+     * Builds the DDO of an asset of a bulk publication, with the same defaults as AssetsAPI.create
+     */
+    private PreparedAsset prepareAsset(PublishRequest request) throws Exception {
+        final ProviderConfig providerConfig = request.getProviderConfig();
+        final AuthConfig authConfig = request.getAuthConfig() != null ? request.getAuthConfig()
+                : new AuthConfig(providerConfig.getGatewayUrl());
+
+        List<ServiceDescriptor> serviceDescriptors = request.getServiceDescriptors();
+        if (serviceDescriptors == null) {
+            final AssetRewards assetRewards = request.getAssetRewards() != null ? request.getAssetRewards()
+                    : new AssetRewards(getMainAccount().address, request.getMetadata().attributes.main.price);
+            final Service accessService = ServiceBuilder.getServiceBuilder(Service.ServiceTypes.ACCESS, assetRewards)
+                    .buildService(buildBasicAccessServiceConfiguration(providerConfig, assetRewards,
+                            getMainAccount().address));
+            serviceDescriptors = Arrays.asList(new ServiceDescriptor(accessService, assetRewards));
+        }
+        return prepareAsset(request.getMetadata(), providerConfig, serviceDescriptors, authConfig);
+    }
 
-        try {
-            while (iteration < maxRetries) {
-                AgreementStatus status = agreementsManager.getStatus(serviceAgreementId);
-                BigInteger conditionStatus = status.conditions.get(0).conditions.get(conditionType.toString());
-                log.debug("Condition check[" + conditionType + "] :" + conditionStatus);
-                if (conditionStatus.equals(Condition.ConditionStatus.Fulfilled.getStatus())) // Condition is fullfilled
-                    return true;
-                iteration++;
-
-                Thread.sleep(sleepTime);
+    /**
+     * Registers the DID of an asset of a bulk publication, through its own transaction pipeline if enabled
+     */
+    private PreparedAsset registerPublishedAsset(PreparedAsset asset, ProviderConfig providerConfig)
+            throws DIDRegisterException, DIDFormatException {
+
+        final DDO ddo = asset.ddo;
+        if (transactionPipelineFactory == null) {
+            if (!registerDID(ddo.fetchDIDSeed(), asset.metadataEndpoint, ddo.getDID().getHash(),
+                    providerConfig.getProviderAddresses()))
+                throw new DIDRegisterException("Error registering DID on-chain");
+        } else {
+            final DID did = ddo.fetchDIDSeed();
+            log.debug("Registering DID " + did.getHash() + " into Registry " + didRegistry.getContractAddress());
+            final TransactionReceipt receipt;
+            try {
+                final TransactionPipeline pipeline = transactionPipelineFactory.newPipeline();
+                pipeline.submit(registerAttribute(pipeline.bind(didRegistry, DIDRegistry::load), did,
+                        asset.metadataEndpoint, ddo.getDID().getHash(), providerConfig.getProviderAddresses()));
+                receipt = pipeline.awaitReceipts().get(0);
+            } catch (EthereumException | UnsupportedEncodingException e) {
+                throw new DIDRegisterException("Error registering DID " + did.getHash(), e);
             }
-        } catch (Exception e)   {
-            log.error("Error checking if a condition is fulfilled: " + e.getMessage());
+            if (!receipt.isStatusOK())
+                throw new DIDRegisterException("Transaction " + receipt.getTransactionHash()
+                        + " failed registering DID " + did.getHash());
+        }
+        invalidateDIDResolution(ddo.getDID().getDid());
+        return asset;
+    }
+
+    public boolean isConditionFulfilled(String serviceAgreementId, Condition.ConditionTypes conditionType) {
+        try {
+            getAgreementWatcher().waitForCondition(serviceAgreementId, conditionType).get();
+            log.debug("Condition check[" + conditionType + "] fulfilled");
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Error checking if a condition is fulfilled: " + e.getCause());
         }
         return false;
     }
@@ -564,8 +992,6 @@ public class NeverminedManager extends BaseManager {
     public OrderResult orderDirect(DID did, int serviceIndex, Service.ServiceTypes serviceType)
             throws OrderException, ServiceException {
 
-        String serviceAgreementId = ServiceAgreementHandler.generateSlaId();
-        OrderResult orderResult;
         DDO ddo;
         // Checking if DDO is already there and serviceIndex is included
         try {
@@ -575,16 +1001,147 @@ public class NeverminedManager extends BaseManager {
             throw new OrderException("Error processing Order with DID " + did.getDid(), e);
         }
 
-        Service service;
-        if (serviceIndex >= 0) {
-            service = ddo.getService(serviceIndex);
-        } else if (serviceType.toString().equalsIgnoreCase(Service.ServiceTypes.COMPUTE.toString())) {
-            service = ddo.getComputeService();
-            serviceIndex = service.index;
-        } else {
-            service = ddo.getAccessService();
-            serviceIndex = service.index;
-        }
+        Service service = selectOrderService(ddo, serviceIndex, serviceType);
+        return orderService(ddo, service, serviceIndex >= 0 ? serviceIndex : service.index, false);
+    }
+
+    /**
+     * Purchases several assets in parallel, using the default concurrency and executor
+     *
+     * @param orderRequests the assets and services to purchase
+     * @return a future for every request, in the same order, completed with the result of its order
+     */
+    public List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests) {
+        return orderAll(orderRequests, orderConcurrency);
+    }
+
+    /**
+     * Purchases several assets in parallel, using the default executor
+     *
+     * @param orderRequests the assets and services to purchase
+     * @param concurrency   maximum number of orders in flight
+     * @return a future for every request, in the same order, completed with the result of its order
+     */
+    public List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests, int concurrency) {
+        return orderAll(orderRequests, concurrency, getOrderExecutor());
+    }
+
+    /**
+     * Purchases several assets in parallel.
+     * The assets are resolved first and the tokens of all the orders are approved to the LockPaymentCondition
+     * in a single transaction. Then the orders run with up to concurrency of them in flight. The orders only run
+     * in parallel when the transaction pipeline is enabled, as it is the one assigning the nonces of the
+     * concurrent transactions; otherwise they run one after the other.
+     *
+     * @param orderRequests the assets and services to purchase
+     * @param concurrency   maximum number of orders in flight
+     * @param executor      the executor running the orders
+     * @return a future for every request, in the same order, completed with the result of its order
+     */
+    public List<CompletableFuture<OrderResult>> orderAll(List<OrderRequest> orderRequests, int concurrency,
+                                                         Executor executor) {
+
+        final int size = orderRequests.size();
+        final List<CompletableFuture<OrderResult>> futures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            futures.add(new CompletableFuture<>());
+        if (size == 0)
+            return futures;
+
+        final int workers = transactionPipelineFactory == null ? 1 : Math.max(1, Math.min(concurrency, size));
+        executor.execute(() -> {
+            try {
+                final DDO[] ddos = new DDO[size];
+                final Service[] services = new Service[size];
+                final int[] serviceIndexes = new int[size];
+
+                // Step 1. We resolve the assets and sum the prices paid with tokens
+                BigInteger tokensPrice = BigInteger.ZERO;
+                for (int i = 0; i < size; i++) {
+                    final OrderRequest orderRequest = orderRequests.get(i);
+                    try {
+                        ddos[i] = resolveDID(orderRequest.getDid());
+                        services[i] = selectOrderService(ddos[i], orderRequest.getServiceIndex(), orderRequest.getServiceType());
+                        serviceIndexes[i] = orderRequest.getServiceIndex() >= 0 ? orderRequest.getServiceIndex() : services[i].index;
+                        final String tokenAddress = conditionsManager.getTokenAddress(
+                                services[i].fetchConditionValue("_tokenAddress"));
+                        if (!tokenAddress.equals(AccountsHelper.ZERO_ADDRESS))
+                            tokensPrice = tokensPrice.add(services[i].fetchTotalPrice());
+                    } catch (Exception e) {
+                        ddos[i] = null;
+                        log.error("Error resolving did[" + orderRequest.getDid().getHash() + "]: " + e.getMessage());
+                        futures.get(i).completeExceptionally(
+                                new OrderException("Error processing Order with DID " + orderRequest.getDid().getDid(), e));
+                    }
+                }
+
+                // Step 2. We approve the tokens of all the orders at once
+                if (tokensPrice.signum() > 0)
+                    tokenApprove(tokenContract, lockCondition.getContractAddress(), tokensPrice.toString());
+
+                // Step 3. We run the orders, every worker taking the next one when it finishes
+                final Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+                for (int i = 0; i < size; i++) {
+                    if (ddos[i] != null)
+                        pending.add(i);
+                }
+                final Runnable worker = new Runnable() {
+                    @Override
+                    public void run() {
+                        final Integer i = pending.poll();
+                        if (i == null)
+                            return;
+                        try {
+                            futures.get(i).complete(orderService(ddos[i], services[i], serviceIndexes[i], true));
+                        } catch (Exception e) {
+                            futures.get(i).completeExceptionally(e);
+                        }
+                        executor.execute(this);
+                    }
+                };
+                for (int w = 0; w < workers; w++)
+                    executor.execute(worker);
+
+            } catch (Exception e) {
+                final OrderException error = new OrderException("Error processing the bulk Order", e);
+                futures.forEach(future -> future.completeExceptionally(error));
+            }
+        });
+        return futures;
+    }
+
+    /**
+     * Gets the service of a DDO to order, by index or by type if the index is negative
+     */
+    private Service selectOrderService(DDO ddo, int serviceIndex, Service.ServiceTypes serviceType)
+            throws ServiceException {
+        if (serviceIndex >= 0)
+            return ddo.getService(serviceIndex);
+        else if (serviceType != null && serviceType.toString().equalsIgnoreCase(Service.ServiceTypes.COMPUTE.toString()))
+            return ddo.getComputeService();
+        return ddo.getAccessService();
+    }
+
+    /**
+     * Orders a service of an asset already resolved
+     *
+     * @param ddo            the ddo
+     * @param service        the service ordered
+     * @param serviceIndex   the index of the service
+     * @param tokensApproved true if the tokens of the payment were already approved to the LockPaymentCondition
+     * @return the result of the order
+     * @throws OrderException   OrderException
+     * @throws ServiceException ServiceException
+     */
+    private OrderResult orderService(DDO ddo, Service service, int serviceIndex, boolean tokensApproved)
+            throws OrderException, ServiceException {
+
+        String serviceAgreementId = ServiceAgreementHandler.generateSlaId();
+        OrderResult orderResult;
+        DID did = ddo.getDID();
+
+        if (transactionPipelineFactory != null)
+            return orderPipelined(ddo, service, serviceIndex, serviceAgreementId, tokensApproved);
 
         try {
             // Step 1. We initialize the Service Agreement
@@ -609,7 +1166,8 @@ public class NeverminedManager extends BaseManager {
             BigInteger balance;
             if (!tokenAddress.equals(AccountsHelper.ZERO_ADDRESS))  {
                 balance = tokenContract.balanceOf(getMainAccount().address).send();
-                tokenApprove(tokenContract, lockCondition.getContractAddress(), totalPrice.toString());
+                if (!tokensApproved)
+                    tokenApprove(tokenContract, lockCondition.getContractAddress(), totalPrice.toString());
             }   else    {
                 balance = accountsManager.getEthAccountBalance(getMainAccount().address);
             }
@@ -648,6 +1206,96 @@ public class NeverminedManager extends BaseManager {
 
     }
 
+    /**
+     * Orders a service submitting the creation of the agreement, the token approval and the lock of the
+     * payment through a transaction pipeline, so the three transactions are mined together instead of
+     * waiting for each one before sending the next
+     *
+     * @param ddo                the ddo
+     * @param service            the service ordered
+     * @param serviceIndex       the index of the service
+     * @param serviceAgreementId the service agreement id
+     * @param tokensApproved     true if the tokens of the payment were already approved to the LockPaymentCondition
+     * @return the result of the order
+     * @throws OrderException   OrderException
+     * @throws ServiceException ServiceException
+     */
+    private OrderResult orderPipelined(DDO ddo, Service service, int serviceIndex, String serviceAgreementId,
+                                       boolean tokensApproved) throws OrderException, ServiceException {
+
+        final String consumerAddress = getMainAccount().getAddress();
+        final List<byte[]> conditionsId;
+        final BigInteger totalPrice;
+        final String tokenAddress;
+        try {
+            if (!templatesManager.isTemplateApproved(service.templateId))
+                throw new ServiceAgreementException(serviceAgreementId,
+                        "The template " + service.templateId + " is not approved");
+
+            conditionsId = generateServiceConditionsId(serviceAgreementId, consumerAddress, ddo, serviceIndex);
+
+            totalPrice = service.fetchTotalPrice();
+            tokenAddress = conditionsManager.getTokenAddress(service.fetchConditionValue("_tokenAddress"));
+            BigInteger balance;
+            if (!tokenAddress.equals(AccountsHelper.ZERO_ADDRESS))
+                balance = tokenContract.balanceOf(consumerAddress).send();
+            else
+                balance = accountsManager.getEthAccountBalance(consumerAddress);
+
+            if (balance.compareTo(totalPrice) < 0) {
+                log.warn("Consumer account does not have sufficient token balance to fulfill the "
+                        + "LockPaymentCondition. Do `requestTokens` using the `dispenser` contract then try this again.");
+                log.warn("token balance is: " + balance + " price is: " + totalPrice);
+                throw new LockPaymentFulfillException(
+                        "LockPaymentCondition.fulfill will fail due to insufficient token balance in the consumer account.");
+            }
+        } catch (ServiceAgreementException | LockPaymentFulfillException e) {
+            String msg = "Error processing Order with DID " + ddo.getDID().getDid() + " and ServiceAgreementID "
+                    + serviceAgreementId;
+            log.error(msg + ": " + e.getMessage());
+            throw new OrderException(msg, e);
+        } catch (Exception e) {
+            String msg = "Error preparing the Order with ServiceAgreementID " + serviceAgreementId;
+            log.error(msg + ": " + e.getMessage());
+            throw new OrderException(msg, e);
+        }
+
+        final int lockPaymentIndex;
+        final List<TransactionReceipt> receipts;
+        try {
+            // The transactions of the account are mined in nonce order, so each one sees the effects of the previous
+            final TransactionPipeline pipeline = transactionPipelineFactory.newPipeline();
+            agreementsManager.submitAgreement(pipeline, serviceAgreementId, ddo, conditionsId, consumerAddress, service);
+            if (!tokenAddress.equals(AccountsHelper.ZERO_ADDRESS) && !tokensApproved)
+                pipeline.submit(pipeline.bind(tokenContract, NeverminedToken::load)
+                        .approve(Keys.toChecksumAddress(lockCondition.getContractAddress()), totalPrice));
+            lockPaymentIndex = conditionsManager.submitLockPayment(pipeline, EthereumHelper.add0x(serviceAgreementId),
+                    ddo.getDID(), service);
+            receipts = pipeline.awaitReceipts();
+        } catch (Exception e) {
+            String msg = "Error submitting the transactions of the Order with ServiceAgreementID " + serviceAgreementId;
+            log.error(msg + ": " + e.getMessage());
+            throw new OrderException(msg, e);
+        }
+
+        for (int i = 0; i < lockPaymentIndex; i++) {
+            if (!receipts.get(i).isStatusOK())
+                throw new OrderException("Transaction " + receipts.get(i).getTransactionHash()
+                        + " failed processing the Order with ServiceAgreementID " + serviceAgreementId);
+        }
+        log.debug("Service Agreement " + serviceAgreementId + " initialized successfully");
+
+        if (!receipts.get(lockPaymentIndex).isStatusOK()) {
+            log.error("Unable to fulfill LockPayment: transaction " + receipts.get(lockPaymentIndex).getTransactionHash()
+                    + " failed");
+            this.fulfillEscrowPaymentCondition(serviceAgreementId, serviceIndex);
+            return new OrderResult(serviceAgreementId, false, true);
+        }
+
+        final boolean isFulfilled = isConditionFulfilled(serviceAgreementId, Condition.ConditionTypes.lockPayment);
+        return new OrderResult(serviceAgreementId, isFulfilled, false, serviceIndex);
+    }
+
     /**
      * Purchases an Asset represented by a DID. It implies to initialize a Service
      * Agreement between publisher and consumer
@@ -757,6 +1405,10 @@ public class NeverminedManager extends BaseManager {
 
         Service service = ddo.getService(serviceIndex);
 
+        // The NFT_ACCESS services don't need a payment, so there is nothing to pipeline
+        if (transactionPipelineFactory != null && !service.type.equals(Service.ServiceTypes.NFT_ACCESS.toString()))
+            return orderPipelined(ddo, service, serviceIndex, serviceAgreementId, false);
+
         try {
             // Step 1. We initialize the Service Agreement
             final boolean isInitialized = initializeServiceAgreementDirect(ddo, serviceIndex, serviceAgreementId);
@@ -832,48 +1484,168 @@ public class NeverminedManager extends BaseManager {
      * Agreement between publisher and consumer
      *
      * @param did          the did
-     * @param serviceIndex the service index in the ddo to download
-     * @param basePath     path where we want to download the asset files
-     * @return true if the asset was purchased successfully, if not false
-     * @throws ServiceException        ServiceException
+     * @param serviceIndex the service index in the ddo to download
+     * @param basePath     path where we want to download the asset files
+     * @return true if the asset was purchased successfully, if not false
+     * @throws ServiceException        ServiceException
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public boolean downloadAssetByOwner(DID did, int serviceIndex, String basePath)
+            throws ServiceException, DownloadServiceException {
+        return downloadAssetByOwner(did, serviceIndex, basePath, 0);
+    }
+
+    /**
+     * Purchases an Asset represented by a DID. It implies to initialize a Service
+     * Agreement between publisher and consumer
+     *
+     * @param did          the did
+     * @param serviceIndex the service index in the ddo to download
+     * @param basePath     path where we want to download the asset files
+     * @param fileIndex    index of the file inside the files definition in metadata
+     * @return true if the asset was purchased successfully, if not false
+     * @throws ServiceException        ServiceException
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public boolean downloadAssetByOwner(DID did, int serviceIndex, String basePath, int fileIndex)
+            throws ServiceException, DownloadServiceException {
+
+        Service service;
+        DDO ddo;
+        // Checking if DDO is already there and serviceIndex is included
+        try {
+            ddo = resolveDID(did);
+        } catch (DDOException e) {
+            log.error("Error resolving did[" + did.getHash() + "]: " + e.getMessage());
+            throw new DownloadServiceException("Error resolving did " + did.getDid(), e);
+        }
+
+        if (serviceIndex >= 0) {
+            service = ddo.getService(serviceIndex);
+        } else {
+            service = ddo.getAccessService();
+            serviceIndex = service.index;
+        }
+
+        Map<String, Object> consumeData = fetchAssetDataBeforeConsume(did, serviceIndex);
+        // For direct access by owners we replace the /access URI by /download
+        String serviceEndpoint = ((String) consumeData.get("serviceEndpoint")).replace("/access", "/download");
+        List<AssetMetadata.File> files = (List<AssetMetadata.File>) consumeData.get("files");
+        String checkConsumerAddress = Keys.toChecksumAddress(getMainAccount().address);
+
+        // Get Access Token
+        String accessToken = getDownloadAccessToken(serviceEndpoint, did);
+
+        // getConsumeData returns a list with only one file in case of consuming by
+        // index
+        for (AssetMetadata.File file : files) {
+
+            try {
+                String destinationPath = buildDestinationPath(basePath, did, fileIndex, file);
+                GatewayService.downloadToPathByOwner(gatewayClientRegistry, serviceEndpoint, checkConsumerAddress,
+                        did.getDid(), file.index, accessToken, destinationPath, verifierOf(file), null);
+
+            } catch (IOException e) {
+                String msg = "Error downloading asset by owner with DID " + did.getDid();
+
+                log.error(msg + ": " + e.getMessage());
+                throw new DownloadServiceException(msg, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Downloads all the files of an Asset by its owner in parallel, using the default parallelism and timeout
+     *
+     * @param did          the did
+     * @param serviceIndex the service index in the ddo to download
+     * @param basePath     path where we want to download the asset files
+     * @return the result of the download of every file
+     * @throws ServiceException         ServiceException
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public DownloadReport downloadAllByOwner(DID did, int serviceIndex, String basePath)
+            throws ServiceException, DownloadServiceException {
+        return downloadAllByOwner(did, serviceIndex, basePath, downloadParallelism, downloadFileTimeout);
+    }
+
+    /**
+     * Downloads all the files of an Asset by its owner in parallel
+     *
+     * @param did          the did
+     * @param serviceIndex the service index in the ddo to download
+     * @param basePath     path where we want to download the asset files
+     * @param parallelism  maximum number of files downloaded at the same time
+     * @param fileTimeout  maximum milliseconds to download every file, or 0 for no limit
+     * @return the result of the download of every file
+     * @throws ServiceException         ServiceException
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public DownloadReport downloadAllByOwner(DID did, int serviceIndex, String basePath, int parallelism,
+                                             long fileTimeout) throws ServiceException, DownloadServiceException {
+
+        if (serviceIndex < 0) {
+            try {
+                serviceIndex = resolveDID(did).getAccessService().index;
+            } catch (DDOException e) {
+                log.error("Error resolving did[" + did.getHash() + "]: " + e.getMessage());
+                throw new DownloadServiceException("Error resolving did " + did.getDid(), e);
+            }
+        }
+
+        Map<String, Object> consumeData = fetchAssetDataBeforeConsume(did, serviceIndex);
+        // For direct access by owners we replace the /access URI by /download
+        String serviceEndpoint = ((String) consumeData.get("serviceEndpoint")).replace("/access", "/download");
+        List<AssetMetadata.File> files = (List<AssetMetadata.File>) consumeData.get("files");
+        String checkConsumerAddress = Keys.toChecksumAddress(getMainAccount().address);
+
+        // Get Access Token
+        String accessToken = getDownloadAccessToken(serviceEndpoint, did);
+
+        List<ParallelDownloader.FileDownload> downloads = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            final AssetMetadata.File file = files.get(i);
+            final int index = file.index != null ? file.index : i;
+            downloads.add(new ParallelDownloader.FileDownload(index, buildDestinationPath(basePath, did, index, file),
+                    () -> GatewayService.downloadUrlByOwner(gatewayClientRegistry, serviceEndpoint, checkConsumerAddress,
+                            did.getDid(), index, accessToken, false, 0, 0), verifierOf(file)));
+        }
+        return new ParallelDownloader(parallelism, fileTimeout, gatewayClientRegistry.getDownloadEngine())
+                .downloadAll(downloads);
+    }
+
+    /**
+     * Downloads one file of an Asset owned by the caller splitting it in byte ranges fetched concurrently,
+     * using the default number of segments
+     *
+     * @param did          the did
+     * @param serviceIndex id of the service in the DDO
+     * @param fileIndex    index of the file inside the files definition in metadata
+     * @param basePath     the path where the asset will be downloaded
+     * @return the result of the download of the file
      * @throws DownloadServiceException DownloadServiceException
      */
-    public boolean downloadAssetByOwner(DID did, int serviceIndex, String basePath)
-            throws ServiceException, DownloadServiceException {
-        return downloadAssetByOwner(did, serviceIndex, basePath, 0);
+    public FileDownloadResult downloadSegmentedByOwner(DID did, int serviceIndex, int fileIndex, String basePath)
+            throws DownloadServiceException {
+        return downloadSegmentedByOwner(did, serviceIndex, fileIndex, basePath, downloadSegments);
     }
 
     /**
-     * Purchases an Asset represented by a DID. It implies to initialize a Service
-     * Agreement between publisher and consumer
+     * Downloads one file of an Asset owned by the caller splitting it in byte ranges fetched concurrently.
+     * Calling it again after a failure only requests the ranges missing in the checkpoint next to the file.
+     * If the gateway doesn't report the size of the file it is downloaded in a single request
      *
      * @param did          the did
-     * @param serviceIndex the service index in the ddo to download
-     * @param basePath     path where we want to download the asset files
+     * @param serviceIndex id of the service in the DDO
      * @param fileIndex    index of the file inside the files definition in metadata
-     * @return true if the asset was purchased successfully, if not false
-     * @throws ServiceException        ServiceException
+     * @param basePath     the path where the asset will be downloaded
+     * @param segments     maximum number of byte ranges fetched at the same time
+     * @return the result of the download of the file
      * @throws DownloadServiceException DownloadServiceException
      */
-    public boolean downloadAssetByOwner(DID did, int serviceIndex, String basePath, int fileIndex)
-            throws ServiceException, DownloadServiceException {
-
-        Service service;
-        DDO ddo;
-        // Checking if DDO is already there and serviceIndex is included
-        try {
-            ddo = resolveDID(did);
-        } catch (DDOException e) {
-            log.error("Error resolving did[" + did.getHash() + "]: " + e.getMessage());
-            throw new DownloadServiceException("Error resolving did " + did.getDid(), e);
-        }
-
-        if (serviceIndex >= 0) {
-            service = ddo.getService(serviceIndex);
-        } else {
-            service = ddo.getAccessService();
-            serviceIndex = service.index;
-        }
+    public FileDownloadResult downloadSegmentedByOwner(DID did, int serviceIndex, int fileIndex, String basePath,
+                                                       int segments) throws DownloadServiceException {
 
         Map<String, Object> consumeData = fetchAssetDataBeforeConsume(did, serviceIndex);
         // For direct access by owners we replace the /access URI by /download
@@ -884,23 +1656,30 @@ public class NeverminedManager extends BaseManager {
         // Get Access Token
         String accessToken = getDownloadAccessToken(serviceEndpoint, did);
 
-        // getConsumeData returns a list with only one file in case of consuming by
-        // index
-        for (AssetMetadata.File file : files) {
-
-            try {
-                String destinationPath = buildDestinationPath(basePath, did, fileIndex, file);
-                GatewayService.downloadToPathByOwner(serviceEndpoint, checkConsumerAddress, did.getDid(), file.index,
-                        accessToken, destinationPath, false, 0, 0);
-
-            } catch (IOException e) {
-                String msg = "Error downloading asset by owner with DID " + did.getDid();
-
-                log.error(msg + ": " + e.getMessage());
-                throw new DownloadServiceException(msg, e);
-            }
+        AssetMetadata.File file = findFile(files, fileIndex);
+        String destinationPath = buildDestinationPath(basePath, did, fileIndex, file);
+        long size;
+        try {
+            size = GatewayService.getFileSizeByOwner(gatewayClientRegistry, serviceEndpoint, fileIndex, accessToken);
+        } catch (IOException e) {
+            String msg = "Error getting the size of the file " + fileIndex + " of the asset with DID " + did.getDid();
+            log.error(msg + ": " + e.getMessage());
+            throw new DownloadServiceException(msg, e);
         }
-        return true;
+
+        if (size < 0)
+            return new ParallelDownloader(1, 0, gatewayClientRegistry.getDownloadEngine())
+                    .download(new ParallelDownloader.FileDownload(fileIndex, destinationPath,
+                            () -> GatewayService.downloadUrlByOwner(gatewayClientRegistry, serviceEndpoint,
+                                    checkConsumerAddress, did.getDid(), fileIndex, accessToken, false, 0, 0),
+                            verifierOf(file)));
+
+        DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath, did.getDid(), null, fileIndex, size);
+        return new SegmentedDownloader(segments, downloadSegmentRetries, gatewayClientRegistry.getDownloadEngine())
+                .download(fileIndex, destinationPath, size,
+                        (start, end) -> GatewayService.downloadRangeByOwner(gatewayClientRegistry, serviceEndpoint,
+                                fileIndex, accessToken, start, end),
+                        checkpoint, verifierOf(file));
     }
 
     public List<byte[]> generateServiceConditionsId(String serviceAgreementId, String consumerAddress, DDO ddo,
@@ -1048,28 +1827,16 @@ public class NeverminedManager extends BaseManager {
 
     private boolean checkAgreementStatus(String serviceAgreementId) throws ServiceAgreementException {
 
-        Boolean result = false;
+        log.debug("Checking if the agreement is on-chain...");
         try {
-            if (!result) {
-                int retries = 10;
-                int sleepTime = 1000;
-                for (int i = 0; i < retries && !result; i++) {
-                    log.debug("Checking if the agreement is on-chain...");
-                    Agreement agreement = agreementsManager.getAgreement(serviceAgreementId);
-                    if (!agreement.templateId.equals(AccountsHelper.ZERO_ADDRESS)) {
-                        return true;
-                    }
-                    Thread.sleep(sleepTime);
-                }
-            }
-        } catch (Exception e) {
-            throw new ServiceAgreementException(serviceAgreementId, "There was a problem checking the status", e);
+            getAgreementWatcher().waitForAgreement(serviceAgreementId).get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceAgreementException(serviceAgreementId, "Interrupted checking the status", e);
+        } catch (ExecutionException e) {
+            throw new ServiceAgreementException(serviceAgreementId, "The create Agreement Transaction has failed", e.getCause());
         }
-
-        if (!result)
-            throw new ServiceAgreementException(serviceAgreementId, "The create Agreement Transaction has failed");
-
-        return false;
     }
 
     /**
@@ -1203,28 +1970,194 @@ public class NeverminedManager extends BaseManager {
         String accessToken = getAccessAccessToken(
                 serviceEndpoint, serviceAgreementId, did, serviceType);
 
-        for (AssetMetadata.File file : files) {
-
-            // For each url we call to download Gateway endpoint that requires
-            // consumerAddress, serviceAgreementId and url as a parameters
-            try {
-                String destinationPath = buildDestinationPath(basePath, did, fileIndex, file);
-                GatewayService.downloadToPath(serviceEndpoint, checkConsumerAddress, agreementId, did.getDid(),
-                        fileIndex, accessToken, destinationPath, false, 0, 0);
-
-            } catch (IOException e) {
-                String msg = "Error consuming asset with DID " + did.getDid() + " and Service Agreement "
-                        + serviceAgreementId;
+        // The file downloaded is the one with fileIndex, so it is the one verified and cached
+        AssetMetadata.File file = findFile(files, fileIndex);
 
-                log.error(msg + ": " + e.getMessage());
-                throw new DownloadServiceException(msg, e);
+        // We call to download Gateway endpoint that requires
+        // consumerAddress, serviceAgreementId and the file index as parameters
+        try {
+            String destinationPath = buildDestinationPath(basePath, did, fileIndex, file);
+            if (downloadCache != null
+                    && downloadCache.copyTo(did.getDid(), fileIndex, file, Paths.get(destinationPath))) {
+                log.debug("File " + fileIndex + " of " + did.getDid() + " copied from the download cache");
+                return true;
             }
+            GatewayService.downloadToPath(gatewayClientRegistry, serviceEndpoint, checkConsumerAddress, agreementId,
+                    did.getDid(), fileIndex, accessToken, destinationPath, verifierOf(file), null);
+            if (downloadCache != null)
+                downloadCache.put(did.getDid(), fileIndex, file, Paths.get(destinationPath));
+
+        } catch (IOException e) {
+            String msg = "Error consuming asset with DID " + did.getDid() + " and Service Agreement "
+                    + serviceAgreementId;
 
+            log.error(msg + ": " + e.getMessage());
+            throw new DownloadServiceException(msg, e);
         }
 
         return true;
     }
 
+    /**
+     * Downloads all the files of an Asset previously ordered through a Service Agreement in parallel,
+     * using the default parallelism and timeout
+     *
+     * @param serviceAgreementId the service agreement id
+     * @param did                the did
+     * @param serviceIndex       id of the service in the DDO
+     * @param basePath           the path where the asset will be downloaded
+     * @return the result of the download of every file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public DownloadReport accessAll(String serviceAgreementId, DID did, int serviceIndex, String basePath)
+            throws DownloadServiceException {
+        return accessAll(serviceAgreementId, did, serviceIndex, basePath, downloadParallelism, downloadFileTimeout);
+    }
+
+    /**
+     * Downloads all the files of an Asset previously ordered through a Service Agreement in parallel.
+     * A file failing or timing out does not stop the other ones, the result of every file is in the report
+     *
+     * @param serviceAgreementId the service agreement id
+     * @param did                the did
+     * @param serviceIndex       id of the service in the DDO
+     * @param basePath           the path where the asset will be downloaded
+     * @param parallelism        maximum number of files downloaded at the same time
+     * @param fileTimeout        maximum milliseconds to download every file, or 0 for no limit
+     * @return the result of the download of every file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public DownloadReport accessAll(String serviceAgreementId, DID did, int serviceIndex, String basePath,
+                                    int parallelism, long fileTimeout) throws DownloadServiceException {
+
+        Map<String, Object> consumeData = fetchAssetDataBeforeConsume(did, serviceIndex);
+        String serviceEndpoint = (String) consumeData.get("serviceEndpoint");
+        List<AssetMetadata.File> files = (List<AssetMetadata.File>) consumeData.get("files");
+        final Service.ServiceTypes serviceType = Service.ServiceTypes.getFromName(consumeData.get("serviceType").toString());
+
+        String checkConsumerAddress = Keys.toChecksumAddress(getMainAccount().address);
+        String agreementId = EthereumHelper.add0x(serviceAgreementId);
+
+        // Get Access Token
+        String accessToken = getAccessAccessToken(
+                serviceEndpoint, serviceAgreementId, did, serviceType);
+
+        List<ParallelDownloader.FileDownload> downloads = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            final AssetMetadata.File file = files.get(i);
+            final int index = file.index != null ? file.index : i;
+            downloads.add(new ParallelDownloader.FileDownload(index, buildDestinationPath(basePath, did, index, file),
+                    () -> GatewayService.downloadUrl(gatewayClientRegistry, serviceEndpoint, checkConsumerAddress,
+                            agreementId, did.getDid(), index, accessToken, false, 0, 0), verifierOf(file)));
+        }
+        return new ParallelDownloader(parallelism, fileTimeout, gatewayClientRegistry.getDownloadEngine())
+                .downloadAll(downloads);
+    }
+
+    /**
+     * Downloads one file of an Asset previously ordered through a Service Agreement splitting it in byte ranges
+     * fetched concurrently, using the default number of segments
+     *
+     * @param serviceAgreementId the service agreement id
+     * @param did                the did
+     * @param serviceIndex       id of the service in the DDO
+     * @param fileIndex          index of the file inside the files definition in metadata
+     * @param basePath           the path where the asset will be downloaded
+     * @return the result of the download of the file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public FileDownloadResult accessSegmented(String serviceAgreementId, DID did, int serviceIndex, int fileIndex,
+                                              String basePath) throws DownloadServiceException {
+        return accessSegmented(serviceAgreementId, did, serviceIndex, fileIndex, basePath, downloadSegments);
+    }
+
+    /**
+     * Downloads one file of an Asset previously ordered through a Service Agreement splitting it in byte ranges
+     * fetched concurrently. Every range is written in its position of the file and retried on its own.
+     * The ranges written are recorded in a checkpoint next to the file, so calling it again after a failure
+     * only requests the missing ranges. If the gateway doesn't report the size of the file it is downloaded
+     * in a single request
+     *
+     * @param serviceAgreementId the service agreement id
+     * @param did                the did
+     * @param serviceIndex       id of the service in the DDO
+     * @param fileIndex          index of the file inside the files definition in metadata
+     * @param basePath           the path where the asset will be downloaded
+     * @param segments           maximum number of byte ranges fetched at the same time
+     * @return the result of the download of the file
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    public FileDownloadResult accessSegmented(String serviceAgreementId, DID did, int serviceIndex, int fileIndex,
+                                              String basePath, int segments) throws DownloadServiceException {
+
+        Map<String, Object> consumeData = fetchAssetDataBeforeConsume(did, serviceIndex);
+        String serviceEndpoint = (String) consumeData.get("serviceEndpoint");
+        List<AssetMetadata.File> files = (List<AssetMetadata.File>) consumeData.get("files");
+        final Service.ServiceTypes serviceType = Service.ServiceTypes.getFromName(consumeData.get("serviceType").toString());
+
+        String checkConsumerAddress = Keys.toChecksumAddress(getMainAccount().address);
+        String agreementId = EthereumHelper.add0x(serviceAgreementId);
+
+        // Get Access Token
+        String accessToken = getAccessAccessToken(serviceEndpoint, serviceAgreementId, did, serviceType);
+
+        AssetMetadata.File file = findFile(files, fileIndex);
+        String destinationPath = buildDestinationPath(basePath, did, fileIndex, file);
+        long size;
+        try {
+            size = GatewayService.getFileSize(gatewayClientRegistry, serviceEndpoint, agreementId, fileIndex,
+                    accessToken);
+        } catch (IOException e) {
+            String msg = "Error getting the size of the file " + fileIndex + " of the asset with DID " + did.getDid()
+                    + " and Service Agreement " + serviceAgreementId;
+            log.error(msg + ": " + e.getMessage());
+            throw new DownloadServiceException(msg, e);
+        }
+
+        if (size < 0)
+            return new ParallelDownloader(1, 0, gatewayClientRegistry.getDownloadEngine())
+                    .download(new ParallelDownloader.FileDownload(fileIndex, destinationPath,
+                            () -> GatewayService.downloadUrl(gatewayClientRegistry, serviceEndpoint,
+                                    checkConsumerAddress, agreementId, did.getDid(), fileIndex, accessToken,
+                                    false, 0, 0),
+                            verifierOf(file)));
+
+        DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath, did.getDid(), agreementId, fileIndex,
+                size);
+        return new SegmentedDownloader(segments, downloadSegmentRetries, gatewayClientRegistry.getDownloadEngine())
+                .download(fileIndex, destinationPath, size,
+                        (start, end) -> GatewayService.downloadRange(gatewayClientRegistry, serviceEndpoint,
+                                agreementId, fileIndex, accessToken, start, end),
+                        checkpoint, verifierOf(file));
+    }
+
+    /**
+     * Creates the verifier of the content of a file when the verification of checksums is enabled
+     *
+     * @param file the file in the metadata
+     * @return the verifier, or null if the file is not verified
+     */
+    private ChecksumVerifier verifierOf(AssetMetadata.File file) {
+        return verifyChecksums ? ChecksumVerifier.forFile(file) : null;
+    }
+
+    /**
+     * Finds a file in the files definition in metadata by its index
+     *
+     * @param files     the files of the asset
+     * @param fileIndex index of the file inside the files definition in metadata
+     * @return the file
+     * @throws DownloadServiceException if the asset doesn't have the file
+     */
+    private AssetMetadata.File findFile(List<AssetMetadata.File> files, int fileIndex) throws DownloadServiceException {
+        for (int i = 0; i < files.size(); i++) {
+            final AssetMetadata.File file = files.get(i);
+            if ((file.index != null ? file.index : i) == fileIndex)
+                return file;
+        }
+        throw new DownloadServiceException("The asset doesn't have a file with index " + fileIndex);
+    }
+
     /**
      * Constructs the final path where the file should be downloaded
      *
@@ -1284,12 +2217,24 @@ public class NeverminedManager extends BaseManager {
         String checkConsumerAddress = Keys.toChecksumAddress(getMainAccount().address);
         String agreementId = EthereumHelper.add0x(serviceAgreementId);
 
+        AssetMetadata.File file = null;
+        if (downloadCache != null) {
+            file = findFile((List<AssetMetadata.File>) consumeData.get("files"), fileIndex);
+            InputStream cached = openCached(did, fileIndex, file, isRangeRequest, rangeStart, rangeEnd);
+            if (cached != null)
+                return cached;
+        }
+
         // Get Access Token
         String accessToken = getAccessAccessToken(serviceEndpoint, serviceAgreementId, did, serviceType);
 
         try {
-            return GatewayService.downloadUrl(serviceEndpoint, checkConsumerAddress, agreementId, did.getDid(),
-                    fileIndex, accessToken, isRangeRequest, rangeStart, rangeEnd);
+            InputStream content = GatewayService.downloadUrl(gatewayClientRegistry, serviceEndpoint,
+                    checkConsumerAddress, agreementId, did.getDid(), fileIndex, accessToken, isRangeRequest,
+                    rangeStart, rangeEnd);
+            if (downloadCache != null && !Boolean.TRUE.equals(isRangeRequest))
+                return downloadCache.cacheWhileReading(did.getDid(), fileIndex, file, content);
+            return content;
 
         } catch (IOException e) {
             String msg = "Error consuming asset with DID " + did.getDid() + " and Service Agreement "
@@ -1300,6 +2245,40 @@ public class NeverminedManager extends BaseManager {
         }
     }
 
+    /**
+     * Opens a file from the download cache, skipping to the requested range of bytes
+     *
+     * @param did            the did
+     * @param fileIndex      index of the file inside the files definition in metadata
+     * @param file           the file in the metadata
+     * @param isRangeRequest indicates if is a request by range of bytes
+     * @param rangeStart     the start of the bytes range
+     * @param rangeEnd       the end of the bytes range, inclusive
+     * @return the content, or null if the file is not cached
+     */
+    private InputStream openCached(DID did, int fileIndex, AssetMetadata.File file, Boolean isRangeRequest,
+                                   Integer rangeStart, Integer rangeEnd) {
+        InputStream cached = null;
+        try {
+            cached = downloadCache.open(did.getDid(), fileIndex, file);
+            if (cached == null || !Boolean.TRUE.equals(isRangeRequest))
+                return cached;
+            IOUtils.skipFully(cached, rangeStart);
+            return new BoundedInputStream(cached, rangeEnd - rangeStart + 1L);
+        } catch (IOException e) {
+            log.warn("Unable to read the file " + fileIndex + " of " + did.getDid() + " from the download cache: "
+                    + e.getMessage());
+            if (cached != null) {
+                try {
+                    cached.close();
+                } catch (IOException closeException) {
+                    log.debug("Unable to close the cached file: " + closeException.getMessage());
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * Executes a remote service associated with an asset and serviceAgreementId
      *
@@ -1329,7 +2308,8 @@ public class NeverminedManager extends BaseManager {
         String accessToken = getExecuteAccessToken(serviceEndpoint, serviceAgreementId, workflowDID);
 
         ExecuteService executeService = new ExecuteService(serviceAgreementId, workflowDID.did, checkConsumerAddress, accessToken);
-        GatewayService.ServiceExecutionResult result = GatewayService.initializeServiceExecution(serviceEndpoint, executeService);
+        GatewayService.ServiceExecutionResult result = GatewayService.initializeServiceExecution(
+                gatewayClientRegistry, serviceEndpoint, executeService);
         if (!result.getOk()) {
             String msg = "There was a problem initializing the execution of the service. HTTP Code: " + result.getCode();
             log.error(msg);
@@ -1357,7 +2337,8 @@ public class NeverminedManager extends BaseManager {
         // Get Access Token
         String accessToken = getComputeAccessToken(serviceEndpoint, serviceAgreementId, executionId);
 
-        return GatewayService.getComputeLogs(serviceEndpoint, Keys.toChecksumAddress(getMainAccount().getAddress()), accessToken);
+        return GatewayService.getComputeLogs(gatewayClientRegistry, serviceEndpoint,
+                Keys.toChecksumAddress(getMainAccount().getAddress()), accessToken);
     }
 
     /**
@@ -1378,16 +2359,63 @@ public class NeverminedManager extends BaseManager {
         // Get Access Token
         String accessToken = getComputeAccessToken(serviceEndpoint, serviceAgreementId, executionId);
 
-        return GatewayService.getComputeStatus(serviceEndpoint, Keys.toChecksumAddress(getMainAccount().getAddress()), accessToken);
+        return GatewayService.getComputeStatus(gatewayClientRegistry, serviceEndpoint,
+                Keys.toChecksumAddress(getMainAccount().getAddress()), accessToken);
+    }
+
+    /**
+     * Follows the status of a compute job with the compute job monitor, that polls the gateway with an interval
+     * growing while the status doesn't change and stops when the job finishes
+     *
+     * @param serviceAgreementId The agreement id for the compute to the data
+     * @param executionId The id of the compute job
+     * @param providerConfig The configuration of the provider.
+     * @return a Flowable emitting every change of status of the compute job, completed when the job finishes
+     */
+    public Flowable<ComputeStatus> watchComputeStatus(String serviceAgreementId, String executionId,
+                                                      ProviderConfig providerConfig) {
+        final String serviceEndpoint = providerConfig.getAccessEndpoint()
+                .replace("/access", "/compute/status/") + serviceAgreementId + "/" + executionId;
+
+        return getComputeJobMonitor().watch(providerConfig.getGatewayUrl(), serviceAgreementId, executionId, () -> {
+            // The token is cached until it is about to expire, so it is not requested on every poll
+            final String accessToken = getComputeAccessToken(serviceEndpoint, serviceAgreementId, executionId);
+            return gatewayClientRegistry.get(serviceEndpoint).getComputeStatus(serviceEndpoint, accessToken);
+        });
+    }
+
+    /**
+     * Follows the logs of a compute job with the compute job monitor, getting only the lines not read before
+     * until the job finishes
+     *
+     * @param serviceAgreementId The agreement id for the compute to the data
+     * @param executionId The id of the compute job
+     * @param providerConfig The configuration of the provider.
+     * @return a Flowable emitting the new lines of the logs, completed when the job finishes
+     */
+    public Flowable<ComputeLogs> tailComputeLogs(String serviceAgreementId, String executionId,
+                                                 ProviderConfig providerConfig) {
+        final String statusEndpoint = providerConfig.getAccessEndpoint()
+                .replace("/access", "/compute/status/") + serviceAgreementId + "/" + executionId;
+        final String logsEndpoint = providerConfig.getAccessEndpoint()
+                .replace("/access", "/compute/logs/") + serviceAgreementId + "/" + executionId;
+
+        return getComputeJobMonitor().tailLogs(providerConfig.getGatewayUrl(), serviceAgreementId, executionId,
+                () -> {
+                    final String accessToken = getComputeAccessToken(statusEndpoint, serviceAgreementId, executionId);
+                    return gatewayClientRegistry.get(statusEndpoint).getComputeStatus(statusEndpoint, accessToken);
+                },
+                () -> {
+                    final String accessToken = getComputeAccessToken(logsEndpoint, serviceAgreementId, executionId);
+                    return gatewayClientRegistry.get(logsEndpoint).getComputeLogs(logsEndpoint, accessToken);
+                });
     }
 
     /**
      * Get the Access Token for the Download service.
      *
-     * It first tries to retrieve it from the cache. If not available it:
-     *  - generates a grant token
-     *  - makes a call to the gateway to fetch the access token
-     *  - caches the token
+     * The token is taken from the cache while it is not about to expire, otherwise it is requested
+     * to the gateway, sharing the request with the concurrent calls for the same token.
      *
      * @param serviceEndpoint The endpoint of the service.
      * @param did The did.
@@ -1395,12 +2423,21 @@ public class NeverminedManager extends BaseManager {
      * @throws DownloadServiceException DownloadServiceException
      */
     private String getDownloadAccessToken(String serviceEndpoint, DID did) throws DownloadServiceException {
-        // Check if token is cached
-        String cacheKey = getCacheKey(serviceEndpoint, did.getDid());
-        if (tokenCache.containsKey(cacheKey)) {
-            return tokenCache.get(cacheKey);
-        }
+        return accessTokenCache.get(AccessTokenCache.key("download", serviceEndpoint, did.getDid()),
+                () -> requestDownloadAccessToken(serviceEndpoint, did));
+    }
 
+    /**
+     * Requests an Access Token for the Download service:
+     *  - generates a grant token
+     *  - makes a call to the gateway to fetch the access token
+     *
+     * @param serviceEndpoint The endpoint of the service.
+     * @param did The did.
+     * @return String The Access Token.
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    private String requestDownloadAccessToken(String serviceEndpoint, DID did) throws DownloadServiceException {
         // Generate Grant Token
         String grantToken;
         try {
@@ -1415,7 +2452,7 @@ public class NeverminedManager extends BaseManager {
         // Request Access Token
         AccessTokenResult result;
         try {
-            result = GatewayService.getAccessToken(serviceEndpoint, grantToken);
+            result = GatewayService.getAccessToken(gatewayClientRegistry, serviceEndpoint, grantToken);
         } catch (ServiceException e) {
             String msg = "Error requesting access token: ";
             log.error(msg + e.getMessage());
@@ -1429,17 +2466,14 @@ public class NeverminedManager extends BaseManager {
         }
         log.debug("Access Token: " + result.getAccessToken());
 
-        tokenCache.put(cacheKey, result.getAccessToken());
         return result.getAccessToken();
     }
 
     /**
      * Get the Access Token for the Access service.
      *
-     * It first tries to retrieve it from the cache. If not available it:
-     *  - generates a grant token
-     *  - makes a call to the gateway to fetch the access token
-     *  - caches the token
+     * The token is taken from the cache while it is not about to expire, otherwise it is requested
+     * to the gateway, sharing the request with the concurrent calls for the same token.
      *
      * @param serviceEndpoint The service endpoint.
      * @param serviceAgreementId The Service Agreement Id.
@@ -1450,13 +2484,24 @@ public class NeverminedManager extends BaseManager {
      */
     private String getAccessAccessToken(String serviceEndpoint, String serviceAgreementId, DID did, Service.ServiceTypes serviceType)
             throws DownloadServiceException {
+        return accessTokenCache.get(AccessTokenCache.key("access", serviceEndpoint, serviceAgreementId, did.getDid()),
+                () -> requestAccessAccessToken(serviceEndpoint, serviceAgreementId, did, serviceType));
+    }
 
-        // Check if token is cached
-        String cacheKey = getCacheKey(serviceEndpoint, serviceAgreementId, did.getDid());
-        if (tokenCache.containsKey(cacheKey)) {
-            return tokenCache.get(cacheKey);
-        }
-
+    /**
+     * Requests an Access Token for the Access service:
+     *  - generates a grant token
+     *  - makes a call to the gateway to fetch the access token
+     *
+     * @param serviceEndpoint The service endpoint.
+     * @param serviceAgreementId The Service Agreement Id.
+     * @param did The did.
+     * @param serviceType the type of the service
+     * @return String The Access Token.
+     * @throws DownloadServiceException DownloadServiceException
+     */
+    private String requestAccessAccessToken(String serviceEndpoint, String serviceAgreementId, DID did, Service.ServiceTypes serviceType)
+            throws DownloadServiceException {
         // Generate Grant Token
         String grantToken;
         try {
@@ -1475,7 +2520,7 @@ public class NeverminedManager extends BaseManager {
         // Request Access Token
         AccessTokenResult result;
         try {
-            result = GatewayService.getAccessToken(serviceEndpoint, grantToken);
+            result = GatewayService.getAccessToken(gatewayClientRegistry, serviceEndpoint, grantToken);
         } catch (ServiceException e) {
             String msg = "Error requesting access token: ";
             log.error(msg + e.getMessage());
@@ -1489,17 +2534,14 @@ public class NeverminedManager extends BaseManager {
         }
         log.debug("Access Token: " + result.getAccessToken());
 
-        tokenCache.put(cacheKey, result.getAccessToken());
         return result.getAccessToken();
     }
 
     /**
      * Get the Access Token for the Execute service.
      *
-     * It first tries to retrieve it from the cache. If not available it:
-     *  - generates a grant token
-     *  - makes a call to the gateway to fetch the access token
-     *  - caches the token
+     * The token is taken from the cache while it is not about to expire, otherwise it is requested
+     * to the gateway, sharing the request with the concurrent calls for the same token.
      *
      * @param serviceEndpoint The service endpoint.
      * @param serviceAgreementId The Service Agreement Id.
@@ -1509,13 +2551,23 @@ public class NeverminedManager extends BaseManager {
      */
     private String getExecuteAccessToken(String serviceEndpoint, String serviceAgreementId, DID workflowDID)
             throws ServiceException {
+        return accessTokenCache.get(AccessTokenCache.key("execute", serviceEndpoint, serviceAgreementId, workflowDID.getDid()),
+                () -> requestExecuteAccessToken(serviceEndpoint, serviceAgreementId, workflowDID));
+    }
 
-        // Check if token is cached
-        String cacheKey = getCacheKey(serviceEndpoint, serviceAgreementId, workflowDID.getDid());
-        if (tokenCache.containsKey(cacheKey)) {
-            return tokenCache.get(cacheKey);
-        }
-
+    /**
+     * Requests an Access Token for the Execute service:
+     *  - generates a grant token
+     *  - makes a call to the gateway to fetch the access token
+     *
+     * @param serviceEndpoint The service endpoint.
+     * @param serviceAgreementId The Service Agreement Id.
+     * @param workflowDID The workflow did.
+     * @return String The Access Token.
+     * @throws ServiceException ServiceException
+     */
+    private String requestExecuteAccessToken(String serviceEndpoint, String serviceAgreementId, DID workflowDID)
+            throws ServiceException {
         // Generate Grant Token
         String grantToken;
         try {
@@ -1530,7 +2582,7 @@ public class NeverminedManager extends BaseManager {
         // Request Access Token
         AccessTokenResult result;
         try {
-            result = GatewayService.getAccessToken(serviceEndpoint, grantToken);
+            result = GatewayService.getAccessToken(gatewayClientRegistry, serviceEndpoint, grantToken);
         } catch (ServiceException e) {
             String msg = "Error requesting access token: ";
             log.error(msg + e.getMessage());
@@ -1544,17 +2596,14 @@ public class NeverminedManager extends BaseManager {
         }
         log.debug("Access Token: " + result.getAccessToken());
 
-        tokenCache.put(cacheKey, result.getAccessToken());
         return result.getAccessToken();
     }
 
     /**
      * Get the Access Token for the Compute service.
      *
-     * It first tries to retrieve it from the cache. If not available it:
-     *  - generates a grant token
-     *  - makes a call to the gateway to fetch the access token
-     *  - caches the token
+     * The token is taken from the cache while it is not about to expire, otherwise it is requested
+     * to the gateway, sharing the request with the concurrent calls for the same token.
      *
      * @param serviceEndpoint The service endpoint.
      * @param serviceAgreementId The Service Agreement Id.
@@ -1564,13 +2613,23 @@ public class NeverminedManager extends BaseManager {
      */
     private String getComputeAccessToken(String serviceEndpoint, String serviceAgreementId, String executionId)
             throws ServiceException {
+        return accessTokenCache.get(AccessTokenCache.key("compute", serviceEndpoint, serviceAgreementId, executionId),
+                () -> requestComputeAccessToken(serviceEndpoint, serviceAgreementId, executionId));
+    }
 
-        // Check if token is cached
-        String cacheKey = getCacheKey(serviceEndpoint, serviceAgreementId, executionId);
-        if (tokenCache.containsKey(cacheKey)) {
-            return tokenCache.get(cacheKey);
-        }
-
+    /**
+     * Requests an Access Token for the Compute service:
+     *  - generates a grant token
+     *  - makes a call to the gateway to fetch the access token
+     *
+     * @param serviceEndpoint The service endpoint.
+     * @param serviceAgreementId The Service Agreement Id.
+     * @param executionId The execution Id.
+     * @return String The Access Token.
+     * @throws ServiceException ServiceException
+     */
+    private String requestComputeAccessToken(String serviceEndpoint, String serviceAgreementId, String executionId)
+            throws ServiceException {
         // Generate Grant Token
         String grantToken;
         try {
@@ -1585,7 +2644,7 @@ public class NeverminedManager extends BaseManager {
         // Request Access Token
         AccessTokenResult result;
         try {
-            result = GatewayService.getAccessToken(serviceEndpoint, grantToken);
+            result = GatewayService.getAccessToken(gatewayClientRegistry, serviceEndpoint, grantToken);
         } catch (ServiceException e) {
             String msg = "Error requesting access token: ";
             log.error(msg + e.getMessage());
@@ -1599,22 +2658,9 @@ public class NeverminedManager extends BaseManager {
         }
         log.debug("Access Token: " + result.getAccessToken());
 
-        tokenCache.put(cacheKey, result.getAccessToken());
         return result.getAccessToken();
     }
 
-    /**
-     * Generates a unique cache key based of the request arguments.
-     *
-     * This key will be used to search the token cache.
-     *
-     * @param args List of arguments.
-     * @return String The cache key.
-     */
-    private String getCacheKey(String ... args) {
-        return String.join("", args);
-    }
-
     // TODO: to be implemented
     public Order getOrder(String orderId) {
         return null;
@@ -2,6 +2,8 @@ package io.keyko.nevermined.manager;
 
 import io.keyko.common.helpers.EncodingHelper;
 import io.keyko.common.web3.KeeperService;
+import io.keyko.nevermined.core.events.EventIndex;
+import io.keyko.nevermined.core.events.LogFilter;
 import io.keyko.nevermined.exceptions.DIDRegisterException;
 import io.keyko.nevermined.exceptions.EthereumException;
 import io.keyko.nevermined.exceptions.ProvenanceException;
@@ -13,13 +15,10 @@ import org.web3j.abi.EventEncoder;
 import org.web3j.abi.FunctionReturnDecoder;
 import org.web3j.abi.datatypes.Event;
 import org.web3j.abi.datatypes.Type;
-import org.web3j.protocol.core.DefaultBlockParameterName;
-import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tuples.generated.Tuple9;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
@@ -195,32 +194,41 @@ public class ProvenanceManager extends BaseManager {
 
     // Events
     public List<ProvenanceEvent> getDIDProvenanceEvents(DID did) throws ProvenanceException {
+        return getDIDProvenanceEvents(did, null, null);
+    }
+
+    /**
+     * Gets the provenance events of a DID registered in a block range
+     *
+     * @param did       the did
+     * @param fromBlock first block to scan, if null the start block configured in the EventLogScanner is used
+     * @param toBlock   last block to scan, if null the latest block is used
+     * @return a List of ProvenanceEvent
+     * @throws ProvenanceException ProvenanceException
+     */
+    public List<ProvenanceEvent> getDIDProvenanceEvents(DID did, BigInteger fromBlock, BigInteger toBlock) throws ProvenanceException {
 
         List<ProvenanceEvent> provenanceEvents = new ArrayList<>();
-        EthFilter didFilter = new EthFilter(
-                DefaultBlockParameterName.EARLIEST,
-                DefaultBlockParameterName.LATEST,
-                didRegistry.getContractAddress()
-        );
 
         try {
             String didTopic = "0x" + did.getHash();
             final Event event = didRegistry.PROVENANCEATTRIBUTEREGISTERED_EVENT;
             final String eventSignature = EventEncoder.encode(event);
-            didFilter.addSingleTopic(eventSignature);
-            didFilter.addNullTopic();
-            didFilter.addOptionalTopics(didTopic);
-            EthLog ethLog;
+            LogFilter didFilter = new LogFilter(didRegistry.getContractAddress())
+                    .addSingleTopic(eventSignature)
+                    .addNullTopic()
+                    .addSingleTopic(didTopic);
+            List<EthLog.LogObject> logs;
 
             try {
-                ethLog = getKeeperService().getWeb3().ethGetLogs(didFilter).send();
-            } catch (IOException e) {
-                throw new EthereumException("Error searching DID " + did.toString() + " onchain: " + e.getMessage());
+                logs = getEventLogs(EventIndex.PROVENANCE_ATTRIBUTE_REGISTERED, 2, didTopic, didFilter, fromBlock, toBlock);
+            } catch (EthereumException e) {
+                throw new EthereumException("Error searching DID " + did.toString() + " onchain: " + e.getMessage(), e);
             }
 
-            for (EthLog.LogResult logResult: ethLog.getLogs())  {
-                List<Type> indexedValues = FunctionReturnDecoder.decode(((EthLog.LogObject) logResult).getData(), event.getIndexedParameters());
-                List<Type> nonIndexedValues = FunctionReturnDecoder.decode(((EthLog.LogObject) logResult).getData(), event.getNonIndexedParameters());
+            for (EthLog.LogObject logResult: logs)  {
+                List<Type> indexedValues = FunctionReturnDecoder.decode(logResult.getData(), event.getIndexedParameters());
+                List<Type> nonIndexedValues = FunctionReturnDecoder.decode(logResult.getData(), event.getNonIndexedParameters());
                 provenanceEvents.add(
                         new ProvenanceEvent(
                             indexedValues.get(0).toString(),
@@ -244,45 +252,61 @@ public class ProvenanceManager extends BaseManager {
 
     // Events
     public List<ProvenanceEvent> getProvenanceMethodEvents(ProvenanceEntry.ProvenanceMethod method, DID did) throws ProvenanceException {
+        return getProvenanceMethodEvents(method, did, null, null);
+    }
+
+    /**
+     * Gets the events of a provenance method for a DID registered in a block range
+     *
+     * @param method    the provenance method
+     * @param did       the did
+     * @param fromBlock first block to scan, if null the start block configured in the EventLogScanner is used
+     * @param toBlock   last block to scan, if null the latest block is used
+     * @return a List of ProvenanceEvent
+     * @throws ProvenanceException ProvenanceException
+     */
+    public List<ProvenanceEvent> getProvenanceMethodEvents(ProvenanceEntry.ProvenanceMethod method, DID did,
+                                                           BigInteger fromBlock, BigInteger toBlock) throws ProvenanceException {
 
         List<ProvenanceEvent> provenanceEvents = new ArrayList<>();
-        EthFilter didFilter = new EthFilter(
-                DefaultBlockParameterName.EARLIEST,
-                DefaultBlockParameterName.LATEST,
-                didRegistry.getContractAddress()
-        );
 
         try {
             Event event;
+            String indexName;
             String didTopic = "0x" + did.getHash();
-            if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_GENERATED_BY))
+            if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_GENERATED_BY)) {
                 event = didRegistry.WASGENERATEDBY_EVENT;
-            else if (method.equals(ProvenanceEntry.ProvenanceMethod.USED))
+                indexName = EventIndex.WAS_GENERATED_BY;
+            } else if (method.equals(ProvenanceEntry.ProvenanceMethod.USED)) {
                 event = didRegistry.USED_EVENT;
-            else if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_DERIVED_FROM))
+                indexName = EventIndex.USED;
+            } else if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_DERIVED_FROM)) {
                 event = didRegistry.WASDERIVEDFROM_EVENT;
-            else if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_ASSOCIATED_WITH))
+                indexName = EventIndex.WAS_DERIVED_FROM;
+            } else if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_ASSOCIATED_WITH)) {
                 event = didRegistry.WASASSOCIATEDWITH_EVENT;
-            else if (method.equals(ProvenanceEntry.ProvenanceMethod.ACTED_ON_BEHALF))
+                indexName = EventIndex.WAS_ASSOCIATED_WITH;
+            } else if (method.equals(ProvenanceEntry.ProvenanceMethod.ACTED_ON_BEHALF)) {
                 event = didRegistry.ACTEDONBEHALF_EVENT;
-            else
+                indexName = EventIndex.ACTED_ON_BEHALF;
+            } else
                 throw new ProvenanceException("ProvenanceMethod provided not supported: " + method.toString());
 
             final String eventSignature = EventEncoder.encode(event);
-            didFilter.addSingleTopic(eventSignature);
-
-            didFilter.addOptionalTopics(didTopic);
-            EthLog ethLog;
+            LogFilter didFilter = new LogFilter(didRegistry.getContractAddress())
+                    .addSingleTopic(eventSignature)
+                    .addSingleTopic(didTopic);
+            List<EthLog.LogObject> logs;
 
             try {
-                ethLog = getKeeperService().getWeb3().ethGetLogs(didFilter).send();
-            } catch (IOException e) {
-                throw new EthereumException("Error searching DID " + did.toString() + " onchain: " + e.getMessage());
+                logs = getEventLogs(indexName, 1, didTopic, didFilter, fromBlock, toBlock);
+            } catch (EthereumException e) {
+                throw new EthereumException("Error searching DID " + did.toString() + " onchain: " + e.getMessage(), e);
             }
 
-            for (EthLog.LogResult logResult: ethLog.getLogs())  {
-                List<Type> indexedValues = FunctionReturnDecoder.decode(((EthLog.LogObject) logResult).getData(), event.getIndexedParameters());
-                List<Type> nonIndexedValues = FunctionReturnDecoder.decode(((EthLog.LogObject) logResult).getData(), event.getNonIndexedParameters());
+            for (EthLog.LogObject logResult: logs)  {
+                List<Type> indexedValues = FunctionReturnDecoder.decode(logResult.getData(), event.getIndexedParameters());
+                List<Type> nonIndexedValues = FunctionReturnDecoder.decode(logResult.getData(), event.getNonIndexedParameters());
 
                 if (method.equals(ProvenanceEntry.ProvenanceMethod.WAS_GENERATED_BY) ||
                     method.equals(ProvenanceEntry.ProvenanceMethod.USED) ||
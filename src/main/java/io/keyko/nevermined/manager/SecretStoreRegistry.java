@@ -0,0 +1,69 @@
+package io.keyko.nevermined.manager;
+
+import io.keyko.secretstore.core.EvmDto;
+import io.keyko.secretstore.core.SecretStoreDto;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the SecretStoreManager of every Secret Store endpoint used to decrypt the files of the assets,
+ * so the clients are created once per endpoint instead of once per decryption.
+ * A registry belongs to a NeverminedAPI instance and all its managers use the EVM settings of its account,
+ * so the clients are released with the instance and never shared with other accounts.
+ */
+public class SecretStoreRegistry {
+
+    private final EvmDto evmDto;
+    private final Map<String, SecretStoreManager> managers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param evmDto the EVM dto of the account decrypting the files
+     */
+    public SecretStoreRegistry(EvmDto evmDto) {
+        this.evmDto = evmDto;
+    }
+
+    /**
+     * Registers the manager of an endpoint, replacing the existing one
+     *
+     * @param endpoint           the url of the secret store
+     * @param secretStoreManager the manager connected to the endpoint
+     * @return this
+     */
+    public SecretStoreRegistry register(String endpoint, SecretStoreManager secretStoreManager) {
+        managers.put(normalizeEndpoint(endpoint), secretStoreManager);
+        return this;
+    }
+
+    /**
+     * Gets the manager connected to a Secret Store endpoint, creating it the first time the endpoint is used
+     *
+     * @param endpoint the url of the secret store
+     * @return the SecretStoreManager of the endpoint
+     */
+    public SecretStoreManager get(String endpoint) {
+        final String url = normalizeEndpoint(endpoint);
+        return managers.computeIfAbsent(url, k -> SecretStoreManager.getInstance(SecretStoreDto.builder(url), evmDto));
+    }
+
+    public int size() {
+        return managers.size();
+    }
+
+    /**
+     * Removes all the managers, so the next requests create new ones
+     */
+    public void clear() {
+        managers.clear();
+    }
+
+    static String normalizeEndpoint(String endpoint) {
+        String url = endpoint.trim();
+        while (url.endsWith("/"))
+            url = url.substring(0, url.length() - 1);
+        return url;
+    }
+}
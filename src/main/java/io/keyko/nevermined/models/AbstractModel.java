@@ -1,11 +1,8 @@
 package io.keyko.nevermined.models;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
 import io.keyko.common.helpers.CryptoHelper;
 import io.keyko.nevermined.models.service.types.AuthorizationService;
 import org.apache.logging.log4j.LogManager;
@@ -13,44 +10,37 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.text.DateFormat;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 public abstract class AbstractModel {
 
     protected static final Logger logger = LogManager.getLogger(AbstractModel.class);
 
-    private static ObjectMapper objectMapper = null;
-
     public static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
+    /**
+     * @deprecated SimpleDateFormat isn't thread-safe, use ModelDateFormat instead
+     */
+    @Deprecated
     public static final DateFormat DATE_FORMAT = new SimpleDateFormat(DATE_PATTERN);
 
+    /**
+     * Gets the ObjectMapper shared by the models
+     *
+     * @return ObjectMapper
+     * @see ModelMapper
+     */
     public static ObjectMapper getMapperInstance() {
-        if (objectMapper == null) {
-
-            objectMapper = new ObjectMapper();
-            objectMapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.setDateFormat(DATE_FORMAT);
-        }
-
-        return objectMapper;
-    }
-
-
-    private static <T> ObjectReader getReaderInstance(Class<T> clazz) {
-        return getMapperInstance().readerFor(clazz);
+        return ModelMapper.getMapper();
     }
 
     public static <T> Object convertToModel(Class<T> clazz, String json) throws IOException {
-        return getReaderInstance(clazz).readValue(json);
+        return ModelMapper.read(json, clazz);
     }
 
     public static <T> T fromJSON(final TypeReference<T> type, final String json) throws IOException {
-        return getMapperInstance().readValue(json, type);
+        return ModelMapper.read(json, type);
     }
 
     public String checksum() throws JsonProcessingException {
@@ -58,23 +48,15 @@ public abstract class AbstractModel {
     }
 
     public String toJson() throws JsonProcessingException {
-        return getMapperInstance().writeValueAsString(this);
+        return ModelMapper.write(this);
     }
 
     public String toJson(Object object) throws JsonProcessingException {
-        return getMapperInstance().writeValueAsString(object);
-    }
-
-    private static String getNowFormatted() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern(DATE_PATTERN));
+        return ModelMapper.write(object);
     }
 
     public static Date getDateNowFormatted() {
-        try {
-            return DATE_FORMAT.parse(getNowFormatted());
-        } catch (ParseException ex) {
-            return new Date();
-        }
+        return ModelDateFormat.now();
     }
 
 }
\ No newline at end of file
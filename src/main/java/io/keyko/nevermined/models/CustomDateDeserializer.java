@@ -5,28 +5,13 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
 import java.util.Date;
-import java.util.TimeZone;
 
 public class CustomDateDeserializer extends StdDeserializer<Date> {
 
     public static final String ALT_DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
 
-    private SimpleDateFormat formatter = initializeFormatter(AbstractModel.DATE_PATTERN);
-
-    private SimpleDateFormat altFormatter = initializeFormatter(ALT_DATE_PATTERN);
-
-    private SimpleDateFormat initializeFormatter(String pattern) {
-
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern);
-        formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-        return formatter;
-
-    }
-
     public CustomDateDeserializer() {
         this(null);
     }
@@ -35,15 +20,9 @@ public class CustomDateDeserializer extends StdDeserializer<Date> {
     public Date deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
         String date = jsonParser.getText();
         try {
-            return formatter.parse(date);
-        } catch (ParseException e) {
-
-            try {
-                return altFormatter.parse(date);
-            }
-            catch (ParseException e2) {
-                throw new IOException(e);
-            }
+            return ModelDateFormat.parse(date);
+        } catch (DateTimeException e) {
+            throw new IOException(e);
         }
     }
 
@@ -0,0 +1,20 @@
+package io.keyko.nevermined.models;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Date;
+
+public class CustomDateSerializer extends StdSerializer<Date> {
+
+    public CustomDateSerializer() {
+        super(Date.class);
+    }
+
+    @Override
+    public void serialize(Date date, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+        jsonGenerator.writeString(ModelDateFormat.format(date));
+    }
+}
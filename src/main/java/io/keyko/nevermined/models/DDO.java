@@ -2,7 +2,6 @@ package io.keyko.nevermined.models;
 
 import com.fasterxml.jackson.annotation.*;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.google.api.client.util.Base64;
 import io.keyko.common.helpers.EncodingHelper;
@@ -10,6 +9,7 @@ import io.keyko.common.helpers.EthereumHelper;
 import io.keyko.nevermined.exceptions.DDOException;
 import io.keyko.nevermined.exceptions.DIDFormatException;
 import io.keyko.nevermined.exceptions.ServiceException;
+import io.keyko.nevermined.external.GatewayClientRegistry;
 import io.keyko.nevermined.external.GatewayService;
 import io.keyko.nevermined.manager.SecretStoreManager;
 import io.keyko.nevermined.models.gateway.EncryptionResponse;
@@ -25,7 +25,6 @@ import org.web3j.crypto.Hash;
 import org.web3j.crypto.Keys;
 import org.web3j.crypto.Sign;
 
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.*;
 
@@ -317,6 +316,22 @@ DDO extends AbstractModel implements FromJsonToModel {
      * @throws DDOException if there is an error calculating anything
      */
     public static DDO integrityBuilder(DDO ddo, Credentials credentials) throws DDOException {
+        return integrityBuilder(ddo, credentials, false);
+    }
+
+    /**
+     * Same as integrityBuilder(ddo, credentials), optionally replacing also the {parameter.did} and
+     * {parameter.assetId} variables of the service conditions. All the placeholders are resolved in a single
+     * traversal of the DDO, which is modified and returned
+     *
+     * @param ddo the DDO used as starting point to calculate the checksums
+     * @param credentials account credentials
+     * @param replaceConditionVariables if the condition variables must be replaced by the DID generated
+     * @return DDO
+     * @throws DDOException if there is an error calculating anything
+     */
+    public static DDO integrityBuilder(DDO ddo, Credentials credentials, boolean replaceConditionVariables)
+            throws DDOException {
         try {
             // 1. Sorting services
             Collections.sort(ddo.services, new DDOServiceIndexSorter());
@@ -335,12 +350,17 @@ DDO extends AbstractModel implements FromJsonToModel {
             ddo.proof.creator= Keys.toChecksumAddress(credentials.getAddress());
             ddo.proof.created= getDateNowFormatted();
 
-            // Replace any {did} entry in the JSON by the real DID generated
-            DDO newDDO = fromJSON(new TypeReference<DDO>() {},
-                    ddo.toJson().replaceAll("\\{did\\}", _id));
-            newDDO.id = _id;
-            newDDO.did = didFromSeed;
-            return newDDO;
+            // Replace any {did} entry in the DDO by the real DID generated
+            LinkedHashMap<String, String> placeholders = new LinkedHashMap<>();
+            placeholders.put("{did}", _id);
+            if (replaceConditionVariables) {
+                placeholders.put(conditionVariable("did"), _id);
+                placeholders.put(conditionVariable("assetId"), didFromSeed.getHash());
+            }
+            PlaceholderResolver.resolve(ddo, placeholders);
+            ddo.id = _id;
+            ddo.did = didFromSeed;
+            return ddo;
 
         } catch (Exception ex)  {
             throw new DDOException("Unable to generate service checksum: " + ex.getMessage());
@@ -348,14 +368,19 @@ DDO extends AbstractModel implements FromJsonToModel {
     }
 
     public DDO secretStoreLocalEncryptFiles(SecretStoreManager secretStoreManager, AuthConfig authConfig) throws DDOException {
+        return secretStoreLocalEncryptFiles(GatewayClientRegistry.getDefault(), secretStoreManager, authConfig);
+    }
+
+    public DDO secretStoreLocalEncryptFiles(GatewayClientRegistry gateways, SecretStoreManager secretStoreManager,
+                                            AuthConfig authConfig) throws DDOException {
 
         try {
             Service metadataService = this.getMetadataService();
             Service authService = this.getAuthorizationService();
 
             String filesJson = metadataService.toJson(metadataService.attributes.main.files);
-            EncryptionResponse encryptionResponse = GatewayService.encrypt(
-                    authConfig.getServiceEndpoint(), filesJson, authConfig.getService());
+            EncryptionResponse encryptionResponse = GatewayService.encrypt(gateways,
+                    authConfig.getServiceEndpoint(), filesJson, authConfig.getService(), null);
 
             metadataService.attributes.encryptedFiles = encryptionResponse.hash;
             authService.attributes.main.publicKey = encryptionResponse.publicKey;
@@ -368,14 +393,18 @@ DDO extends AbstractModel implements FromJsonToModel {
     }
 
     public DDO gatewayEncryptFiles(AuthConfig authConfig) throws DDOException {
+        return gatewayEncryptFiles(GatewayClientRegistry.getDefault(), authConfig);
+    }
+
+    public DDO gatewayEncryptFiles(GatewayClientRegistry gateways, AuthConfig authConfig) throws DDOException {
         try {
             Service metadataService = this.getMetadataService();
             Service authService = this.getAuthorizationService();
 
             String filesJson = metadataService.toJson(metadataService.attributes.main.files);
 
-            EncryptionResponse encryptionResponse = GatewayService.encrypt(
-                    authConfig.getServiceEndpoint(), filesJson, authConfig.getService());
+            EncryptionResponse encryptionResponse = GatewayService.encrypt(gateways,
+                    authConfig.getServiceEndpoint(), filesJson, authConfig.getService(), null);
 
             metadataService.attributes.encryptedFiles = encryptionResponse.hash;
             authService.attributes.main.publicKey = encryptionResponse.publicKey;
@@ -559,16 +588,14 @@ DDO extends AbstractModel implements FromJsonToModel {
 
     @JsonIgnore
     public static DDO replaceConditionVariables(DDO ddo, String name, String value) {
-        try {
-            return DDO.fromJSON(new TypeReference<DDO>() {},
-                    ddo.toJson().replaceAll("\\{parameter." + name + "\\}", value)
-            );
-        } catch (JsonProcessingException e) {
-            log.error("Unable to parse DDO");
-        } catch (IOException e) {
-            log.error("Unable to generate DDO");
-        }
+        LinkedHashMap<String, String> placeholders = new LinkedHashMap<>();
+        placeholders.put(conditionVariable(name), value);
+        PlaceholderResolver.resolve(ddo, placeholders);
         return ddo;
     }
 
+    private static String conditionVariable(String name) {
+        return "{parameter." + name + "}";
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package io.keyko.nevermined.models;
+
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Formats and parses the dates of the models. It's based on java.time, so unlike SimpleDateFormat it can be
+ * shared between threads. The dates are always in UTC.
+ */
+public final class ModelDateFormat {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter
+            .ofPattern(AbstractModel.DATE_PATTERN)
+            .withZone(ZoneOffset.UTC);
+
+    private static final DateTimeFormatter ALT_FORMATTER = DateTimeFormatter
+            .ofPattern(CustomDateDeserializer.ALT_DATE_PATTERN)
+            .withZone(ZoneOffset.UTC);
+
+    private ModelDateFormat() {
+    }
+
+    /**
+     * Formats a date using AbstractModel.DATE_PATTERN
+     *
+     * @param date the date
+     * @return the formatted date
+     */
+    public static String format(Date date) {
+        return FORMATTER.format(date.toInstant());
+    }
+
+    /**
+     * Parses a date formatted using AbstractModel.DATE_PATTERN or CustomDateDeserializer.ALT_DATE_PATTERN.
+     * Anything after the seconds is ignored with the alternative pattern (milliseconds, offsets...)
+     *
+     * @param text the formatted date
+     * @return the date
+     * @throws java.time.DateTimeException if the text doesn't match any of the patterns
+     */
+    public static Date parse(String text) {
+        try {
+            return Date.from(Instant.from(FORMATTER.parse(text)));
+        } catch (DateTimeParseException e) {
+            return Date.from(Instant.from(ALT_FORMATTER.parse(text, new ParsePosition(0))));
+        }
+    }
+
+    /**
+     * Gets the current date, truncated to seconds as the pattern of the models doesn't keep the milliseconds
+     *
+     * @return the current date
+     */
+    public static Date now() {
+        return Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+}
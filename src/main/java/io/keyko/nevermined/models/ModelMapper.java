@@ -0,0 +1,127 @@
+package io.keyko.nevermined.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central place of the JSON serialization of the models, and of the records persisted by the SDK
+ * (the events of the EventIndex and the download checkpoints).
+ * The ObjectMapper is built and configured once when the class is loaded, and the ObjectReader and
+ * ObjectWriter of every type are cached, so the (de)serializers of a type are resolved only the first time.
+ * Readers and writers are immutable and can be shared between threads.
+ * If the Jackson Afterburner module is in the classpath it's registered, replacing the reflection used to
+ * access the properties with generated bytecode. It can be disabled with the system property
+ * nevermined.json.accelerator=false
+ */
+public final class ModelMapper {
+
+    private static final Logger log = LogManager.getLogger(ModelMapper.class);
+
+    public static final String ACCELERATOR_PROPERTY = "nevermined.json.accelerator";
+    public static final String ACCELERATOR_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    private static final boolean ACCELERATED = Boolean.parseBoolean(System.getProperty(ACCELERATOR_PROPERTY, "true"))
+            && loadAccelerator() != null;
+    private static final ObjectMapper MAPPER = newMapper(ACCELERATED);
+
+    private static final ConcurrentHashMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private ModelMapper() {
+    }
+
+    /**
+     * Builds a new ObjectMapper with the configuration used by the models
+     *
+     * @param accelerated if the Afterburner module must be registered when it's in the classpath
+     * @return the ObjectMapper
+     */
+    public static ObjectMapper newMapper(boolean accelerated) {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.registerModule(new SimpleModule("ModelDates")
+                .addSerializer(Date.class, new CustomDateSerializer())
+                .addDeserializer(Date.class, new CustomDateDeserializer(Date.class)));
+
+        if (accelerated) {
+            final Module accelerator = loadAccelerator();
+            if (accelerator != null)
+                mapper.registerModule(accelerator);
+        }
+        return mapper;
+    }
+
+    private static Module loadAccelerator() {
+        try {
+            return (Module) Class.forName(ACCELERATOR_MODULE).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Unable to load the Jackson Afterburner module: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the shared ObjectMapper uses the Afterburner module
+     *
+     * @return true if the module is registered
+     */
+    public static boolean isAccelerated() {
+        return ACCELERATED;
+    }
+
+    /**
+     * Gets the shared ObjectMapper. It must not be reconfigured, use newMapper to get a different configuration
+     *
+     * @return the ObjectMapper
+     */
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
+    public static ObjectReader readerFor(Class<?> clazz) {
+        return readerFor(MAPPER.getTypeFactory().constructType(clazz));
+    }
+
+    public static ObjectReader readerFor(TypeReference<?> type) {
+        return readerFor(MAPPER.getTypeFactory().constructType(type));
+    }
+
+    public static ObjectReader readerFor(JavaType type) {
+        return readers.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    public static ObjectWriter writerFor(Class<?> clazz) {
+        return writers.computeIfAbsent(clazz, MAPPER::writerFor);
+    }
+
+    public static <T> T read(String json, Class<T> clazz) throws IOException {
+        return readerFor(clazz).readValue(json);
+    }
+
+    public static <T> T read(String json, TypeReference<T> type) throws IOException {
+        return readerFor(type).readValue(json);
+    }
+
+    public static String write(Object value) throws JsonProcessingException {
+        if (value == null)
+            return "null";
+        return writerFor(value.getClass()).writeValueAsString(value);
+    }
+}
@@ -0,0 +1,143 @@
+package io.keyko.nevermined.models;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces placeholders like {did} or {parameter.assetId} in all the string values of a model, walking the object
+ * graph instead of serializing it to JSON, replacing the text and parsing it back.
+ * Only the classes of the models package are walked, together with the lists, maps and arrays they contain.
+ * The placeholders are replaced in the order given, as consecutive text replacements over the JSON would do.
+ */
+final class PlaceholderResolver {
+
+    private static final String MODELS_PACKAGE = "io.keyko.nevermined.models";
+
+    private static final Map<Class<?>, List<Field>> fieldsCache = new ConcurrentHashMap<>();
+
+    private final Map<String, String> replacements;
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private PlaceholderResolver(Map<String, String> replacements) {
+        this.replacements = replacements;
+    }
+
+    /**
+     * Replaces the placeholders of a model in place
+     *
+     * @param model        the model
+     * @param replacements the value of every placeholder, in the order they are replaced
+     */
+    static void resolve(Object model, LinkedHashMap<String, String> replacements) {
+        new PlaceholderResolver(replacements).resolveValue(model);
+    }
+
+    private String resolveString(String value) {
+        if (value.indexOf('{') < 0)
+            return value;
+        String result = value;
+        for (Map.Entry<String, String> replacement : replacements.entrySet())
+            result = result.replace(replacement.getKey(), replacement.getValue());
+        return result;
+    }
+
+    /**
+     * Resolves a value, returning the value to store in its place: the same instance when it could be modified in
+     * place, or a new one for strings and unmodifiable collections
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object resolveValue(Object value) {
+        if (value == null)
+            return null;
+        if (value instanceof String)
+            return resolveString((String) value);
+        if (!visited.add(value))
+            return value;
+
+        if (value instanceof List)
+            return resolveList((List) value);
+        if (value instanceof Map)
+            return resolveMap((Map) value);
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            for (int i = 0; i < array.length; i++)
+                array[i] = resolveValue(array[i]);
+            return array;
+        }
+        if (value.getClass().getName().startsWith(MODELS_PACKAGE) && !value.getClass().isEnum())
+            resolveFields(value);
+        return value;
+    }
+
+    private List<Object> resolveList(List<Object> list) {
+        List<Object> resolved = new ArrayList<>(list.size());
+        boolean changed = false;
+        for (Object element : list) {
+            Object resolvedElement = resolveValue(element);
+            changed = changed || resolvedElement != element;
+            resolved.add(resolvedElement);
+        }
+        if (!changed)
+            return list;
+        try {
+            for (int i = 0; i < resolved.size(); i++)
+                list.set(i, resolved.get(i));
+            return list;
+        } catch (UnsupportedOperationException e) {
+            return resolved;
+        }
+    }
+
+    private Map<Object, Object> resolveMap(Map<Object, Object> map) {
+        Map<Object, Object> resolved = new LinkedHashMap<>();
+        boolean changed = false;
+        boolean keysChanged = false;
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            Object key = entry.getKey() instanceof String ? resolveString((String) entry.getKey()) : entry.getKey();
+            Object value = resolveValue(entry.getValue());
+            keysChanged = keysChanged || key != entry.getKey();
+            changed = changed || value != entry.getValue();
+            resolved.put(key, value);
+        }
+        if (!changed && !keysChanged)
+            return map;
+        try {
+            if (keysChanged)
+                map.clear();
+            map.putAll(resolved);
+            return map;
+        } catch (UnsupportedOperationException e) {
+            return resolved;
+        }
+    }
+
+    private void resolveFields(Object model) {
+        for (Field field : getFields(model.getClass())) {
+            try {
+                Object value = field.get(model);
+                Object resolved = resolveValue(value);
+                if (resolved != value)
+                    field.set(model, resolved);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to resolve the placeholders of " + field, e);
+            }
+        }
+    }
+
+    private static List<Field> getFields(Class<?> clazz) {
+        return fieldsCache.computeIfAbsent(clazz, k -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = k; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic())
+                        continue;
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            return fields;
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package io.keyko.nevermined.models.asset;
+
+import java.util.List;
+
+/**
+ * Results of the download of several files of an asset
+ */
+public class DownloadReport {
+
+    private final List<FileDownloadResult> files;
+    private final long elapsedMillis;
+
+    public DownloadReport(List<FileDownloadResult> files, long elapsedMillis) {
+        this.files = files;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Result of every file, in the same order they were requested
+     *
+     * @return the results
+     */
+    public List<FileDownloadResult> getFiles() {
+        return files;
+    }
+
+    /**
+     * Whether all the files were downloaded
+     *
+     * @return true if no file failed
+     */
+    public boolean isSuccess() {
+        return files.stream().allMatch(FileDownloadResult::isSuccess);
+    }
+
+    public long getDownloaded() {
+        return files.stream().filter(FileDownloadResult::isSuccess).count();
+    }
+
+    public long getFailed() {
+        return files.size() - getDownloaded();
+    }
+
+    /**
+     * Bytes written to disk by all the downloads
+     *
+     * @return the number of bytes
+     */
+    public long getTotalBytes() {
+        return files.stream().mapToLong(FileDownloadResult::getBytes).sum();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Bytes downloaded per second
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        if (elapsedMillis <= 0)
+            return getTotalBytes();
+        return getTotalBytes() * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DownloadReport{downloaded=" + getDownloaded() + ", failed=" + getFailed() + ", bytes="
+                + getTotalBytes() + ", elapsedMillis=" + elapsedMillis + "}";
+    }
+}
@@ -0,0 +1,90 @@
+package io.keyko.nevermined.models.asset;
+
+/**
+ * Result of the download of one file of an asset
+ */
+public class FileDownloadResult {
+
+    public enum Status {
+        DOWNLOADED,
+        FAILED,
+        TIMED_OUT,
+        CHECKSUM_MISMATCH
+    }
+
+    private final int index;
+    private final String destinationPath;
+    private final Status status;
+    private final long bytes;
+    private final long elapsedMillis;
+    private final Exception error;
+    private final String checksum;
+
+    public FileDownloadResult(int index, String destinationPath, Status status, long bytes, long elapsedMillis,
+                              Exception error) {
+        this(index, destinationPath, status, bytes, elapsedMillis, error, null);
+    }
+
+    public FileDownloadResult(int index, String destinationPath, Status status, long bytes, long elapsedMillis,
+                              Exception error, String checksum) {
+        this.index = index;
+        this.destinationPath = destinationPath;
+        this.status = status;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Index of the file inside the files definition in metadata
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getDestinationPath() {
+        return destinationPath;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.DOWNLOADED;
+    }
+
+    /**
+     * Bytes written to the destination, also when the download did not finish
+     *
+     * @return the number of bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Error that made the download fail
+     *
+     * @return the error, or null if the file was downloaded
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * Checksum of the content downloaded, computed while it was written to disk
+     *
+     * @return the checksum in hexadecimal, or null if the file was not verified
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,66 @@
+package io.keyko.nevermined.models.asset;
+
+import io.keyko.nevermined.models.DID;
+import io.keyko.nevermined.models.service.Service;
+
+/**
+ * Asset and service to purchase in a bulk order
+ */
+public class OrderRequest {
+
+    private final DID did;
+    private final int serviceIndex;
+    private final Service.ServiceTypes serviceType;
+
+    /**
+     * Orders the access service of an asset
+     *
+     * @param did the did of the asset
+     */
+    public OrderRequest(DID did) {
+        this(did, -1, Service.ServiceTypes.ACCESS);
+    }
+
+    /**
+     * Orders a service of an asset by index
+     *
+     * @param did          the did of the asset
+     * @param serviceIndex the index of the service
+     */
+    public OrderRequest(DID did, int serviceIndex) {
+        this(did, serviceIndex, null);
+    }
+
+    /**
+     * Orders a service of an asset by type
+     *
+     * @param did         the did of the asset
+     * @param serviceType the type of the service
+     */
+    public OrderRequest(DID did, Service.ServiceTypes serviceType) {
+        this(did, -1, serviceType);
+    }
+
+    private OrderRequest(DID did, int serviceIndex, Service.ServiceTypes serviceType) {
+        this.did = did;
+        this.serviceIndex = serviceIndex;
+        this.serviceType = serviceType;
+    }
+
+    public DID getDid() {
+        return did;
+    }
+
+    /**
+     * Index of the service ordered
+     *
+     * @return the index, or -1 if the service is selected by type
+     */
+    public int getServiceIndex() {
+        return serviceIndex;
+    }
+
+    public Service.ServiceTypes getServiceType() {
+        return serviceType;
+    }
+}
@@ -0,0 +1,62 @@
+package io.keyko.nevermined.models.asset;
+
+import java.util.List;
+
+/**
+ * Results of a bulk publication of assets
+ */
+public class PublishReport {
+
+    private final List<PublishResult> results;
+    private final long elapsedMillis;
+    private final int published;
+
+    public PublishReport(List<PublishResult> results, long elapsedMillis) {
+        this.results = results;
+        this.elapsedMillis = elapsedMillis;
+        this.published = (int) results.stream().filter(PublishResult::isSuccess).count();
+    }
+
+    /**
+     * Result of every asset, in the same order of the requests
+     *
+     * @return the results
+     */
+    public List<PublishResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Milliseconds taken by the whole publication
+     *
+     * @return the milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getPublished() {
+        return published;
+    }
+
+    public int getFailed() {
+        return results.size() - published;
+    }
+
+    /**
+     * Assets published per second
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        if (elapsedMillis <= 0)
+            return published;
+        return published * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PublishReport{published=" + published + ", failed=" + getFailed() + ", elapsedMillis="
+                + elapsedMillis + ", throughput=" + String.format("%.2f", getThroughput()) + " assets/s}";
+    }
+}
@@ -0,0 +1,111 @@
+package io.keyko.nevermined.models.asset;
+
+import io.keyko.nevermined.models.AssetRewards;
+import io.keyko.nevermined.models.service.AuthConfig;
+import io.keyko.nevermined.models.service.ProviderConfig;
+import io.keyko.nevermined.models.service.ServiceDescriptor;
+
+import java.util.List;
+
+/**
+ * Asset to create in a bulk publication
+ */
+public class PublishRequest {
+
+    private final AssetMetadata metadata;
+    private final ProviderConfig providerConfig;
+    private final AuthConfig authConfig;
+    private final AssetRewards assetRewards;
+    private final List<ServiceDescriptor> serviceDescriptors;
+
+    /**
+     * Creates an asset with an access service, paid to the main account with the price of the metadata
+     *
+     * @param metadata       the metadata of the DDO
+     * @param providerConfig the endpoints of the DDO's services
+     */
+    public PublishRequest(AssetMetadata metadata, ProviderConfig providerConfig) {
+        this(metadata, providerConfig, null, null, null);
+    }
+
+    /**
+     * Creates an asset with an access service
+     *
+     * @param metadata       the metadata of the DDO
+     * @param providerConfig the endpoints of the DDO's services
+     * @param assetRewards   the rewards to be distributed
+     */
+    public PublishRequest(AssetMetadata metadata, ProviderConfig providerConfig, AssetRewards assetRewards) {
+        this(metadata, providerConfig, null, assetRewards, null);
+    }
+
+    /**
+     * Creates an asset with an access service
+     *
+     * @param metadata       the metadata of the DDO
+     * @param providerConfig the endpoints of the DDO's services
+     * @param authConfig     auth configuration
+     * @param assetRewards   the rewards to be distributed
+     */
+    public PublishRequest(AssetMetadata metadata, ProviderConfig providerConfig, AuthConfig authConfig,
+                          AssetRewards assetRewards) {
+        this(metadata, providerConfig, authConfig, assetRewards, null);
+    }
+
+    /**
+     * Creates an asset with some services
+     *
+     * @param metadata           the metadata of the DDO
+     * @param serviceDescriptors the services attached to the asset
+     * @param providerConfig     the endpoints of the DDO's services
+     * @param authConfig         auth configuration
+     */
+    public PublishRequest(AssetMetadata metadata, List<ServiceDescriptor> serviceDescriptors,
+                          ProviderConfig providerConfig, AuthConfig authConfig) {
+        this(metadata, providerConfig, authConfig, null, serviceDescriptors);
+    }
+
+    private PublishRequest(AssetMetadata metadata, ProviderConfig providerConfig, AuthConfig authConfig,
+                           AssetRewards assetRewards, List<ServiceDescriptor> serviceDescriptors) {
+        this.metadata = metadata;
+        this.providerConfig = providerConfig;
+        this.authConfig = authConfig;
+        this.assetRewards = assetRewards;
+        this.serviceDescriptors = serviceDescriptors;
+    }
+
+    public AssetMetadata getMetadata() {
+        return metadata;
+    }
+
+    public ProviderConfig getProviderConfig() {
+        return providerConfig;
+    }
+
+    /**
+     * Auth configuration of the asset
+     *
+     * @return the configuration, or null to use the default authorization service of the gateway
+     */
+    public AuthConfig getAuthConfig() {
+        return authConfig;
+    }
+
+    /**
+     * Rewards of the access service of the asset
+     *
+     * @return the rewards, or null to pay the price of the metadata to the main account
+     */
+    public AssetRewards getAssetRewards() {
+        return assetRewards;
+    }
+
+    /**
+     * Services attached to the asset
+     *
+     * @return the services, or null to attach an access service
+     */
+    public List<ServiceDescriptor> getServiceDescriptors() {
+        return serviceDescriptors;
+    }
+}
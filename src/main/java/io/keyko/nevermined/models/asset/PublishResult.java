@@ -0,0 +1,93 @@
+package io.keyko.nevermined.models.asset;
+
+import io.keyko.nevermined.models.DDO;
+
+/**
+ * Result of the creation of one asset in a bulk publication
+ */
+public class PublishResult {
+
+    /**
+     * Stages an asset goes through when it is published
+     */
+    public enum Stage {
+        /**
+         * Building the DDO and encrypting its files
+         */
+        PREPARE,
+        /**
+         * Registering the DID on-chain
+         */
+        REGISTER,
+        /**
+         * Storing the DDO in the Metadata API
+         */
+        STORE
+    }
+
+    private final PublishRequest request;
+    private final DDO ddo;
+    private final Stage failedStage;
+    private final Exception error;
+    private final long elapsedMillis;
+
+    private PublishResult(PublishRequest request, DDO ddo, Stage failedStage, Exception error, long elapsedMillis) {
+        this.request = request;
+        this.ddo = ddo;
+        this.failedStage = failedStage;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static PublishResult success(PublishRequest request, DDO ddo, long elapsedMillis) {
+        return new PublishResult(request, ddo, null, null, elapsedMillis);
+    }
+
+    public static PublishResult failure(PublishRequest request, Stage failedStage, Exception error, long elapsedMillis) {
+        return new PublishResult(request, null, failedStage, error, elapsedMillis);
+    }
+
+    public PublishRequest getRequest() {
+        return request;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * DDO created
+     *
+     * @return the DDO, or null if the publication failed
+     */
+    public DDO getDdo() {
+        return ddo;
+    }
+
+    /**
+     * Stage where the publication failed
+     *
+     * @return the stage, or null if the asset was published
+     */
+    public Stage getFailedStage() {
+        return failedStage;
+    }
+
+    /**
+     * Error that made the publication fail
+     *
+     * @return the error, or null if the asset was published
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * Milliseconds since the publication of the batch started until the asset was published or failed
+     *
+     * @return the milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -23,7 +23,7 @@ import java.util.stream.Collectors;
 
 //@JsonIgnoreProperties(ignoreUnknown = true)
 @JsonPropertyOrder(alphabetic = true)
-public class Service extends AbstractModel implements FromJsonToModel {
+public class Service extends AbstractModel implements FromJsonToModel, Cloneable {
 
     /**
      * Type of service in the DDO
@@ -124,6 +124,21 @@ public class Service extends AbstractModel implements FromJsonToModel {
         @JsonProperty
         public ServiceCuration curation;
 
+        /**
+         * Copies the attributes with their own main, additional information, agreement template and curation
+         *
+         * @return the copy
+         */
+        public Attributes copy() {
+            final Attributes copy = new Attributes();
+            copy.encryptedFiles = encryptedFiles;
+            copy.main = main != null ? main.copy() : null;
+            copy.additionalInformation = additionalInformation != null ? additionalInformation.copy() : null;
+            copy.serviceAgreementTemplate = serviceAgreementTemplate != null ? serviceAgreementTemplate.copy() : null;
+            copy.curation = curation != null ? curation.copy() : null;
+            return copy;
+        }
+
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -148,6 +163,22 @@ public class Service extends AbstractModel implements FromJsonToModel {
         @JsonProperty
         public List<Condition> conditions = new ArrayList<>();
 
+        /**
+         * Copies the template with its own lists and condition dependencies. The conditions themselves are shared,
+         * so they are expected to be replaced in the copy before being completed
+         *
+         * @return the copy
+         */
+        public ServiceAgreementTemplate copy() {
+            final ServiceAgreementTemplate copy = new ServiceAgreementTemplate();
+            copy.contractName = contractName;
+            copy.events = events != null ? new ArrayList<>(events) : null;
+            copy.fulfillmentOrder = fulfillmentOrder != null ? new ArrayList<>(fulfillmentOrder) : null;
+            copy.conditionDependency = conditionDependency != null ? conditionDependency.copy() : null;
+            copy.conditions = conditions != null ? new ArrayList<>(conditions) : null;
+            return copy;
+        }
+
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -168,6 +199,15 @@ public class Service extends AbstractModel implements FromJsonToModel {
                 Condition.ConditionTypes.lockPayment.toString(),
                 Condition.ConditionTypes.access.toString());
 
+        public ConditionDependency copy() {
+            final ConditionDependency copy = new ConditionDependency();
+            copy.lockPayment = lockPayment != null ? new ArrayList<>(lockPayment) : null;
+            copy.access = access != null ? new ArrayList<>(access) : null;
+            copy.execCompute = execCompute != null ? new ArrayList<>(execCompute) : null;
+            copy.escrowPayment = escrowPayment != null ? new ArrayList<>(escrowPayment) : null;
+            return copy;
+        }
+
         public static List<String> defaultComputeEscrowPaymentCondition() {
             return Arrays.asList(
                     Condition.ConditionTypes.lockPayment.toString(),
@@ -188,6 +228,23 @@ public class Service extends AbstractModel implements FromJsonToModel {
         this.attributes.additionalInformation = new ServiceAdditionalInformation();
     }
 
+    /**
+     * Copies the service, keeping its type, with its own attributes, so the copy can be completed for an asset
+     * without modifying this service
+     *
+     * @return the copy
+     */
+    public Service copy() {
+        final Service copy;
+        try {
+            copy = (Service) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new NeverminedRuntimeException("Unable to copy the service " + type, e);
+        }
+        copy.attributes = attributes != null ? attributes.copy() : null;
+        return copy;
+    }
+
     public String getTemplateId()   {
         return this.templateId;
     }
@@ -40,6 +40,18 @@ public class ServiceDescriptor extends AbstractModel implements FromJsonToModel
         this.assetRewards = assetRewards;
     }
 
+    /**
+     * Copies the descriptor with a copy of its service, so the service can be completed for an asset
+     * without modifying the descriptor, that may be shared by several assets.
+     * Only the objects changed while preparing an asset are copied: the service, its attributes and its
+     * agreement template, whose conditions are replaced by the ones of the asset
+     *
+     * @return the copy
+     */
+    public ServiceDescriptor copy() {
+        return new ServiceDescriptor(service != null ? service.copy() : null, assetRewards);
+    }
+
     public static ServiceDescriptor fetchServiceByType(List<ServiceDescriptor> serviceDescriptors, Service.ServiceTypes serviceType) {
         try {
             return serviceDescriptors.stream()
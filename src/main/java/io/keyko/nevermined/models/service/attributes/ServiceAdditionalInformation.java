@@ -3,6 +3,7 @@ package io.keyko.nevermined.models.service.attributes;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.keyko.nevermined.exceptions.NeverminedRuntimeException;
 import io.keyko.nevermined.models.AbstractModel;
 import io.keyko.nevermined.models.asset.AssetMetadata;
 
@@ -10,7 +11,7 @@ import java.util.ArrayList;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonPropertyOrder(alphabetic = true)
-public class ServiceAdditionalInformation extends AbstractModel {
+public class ServiceAdditionalInformation extends AbstractModel implements Cloneable {
 
     // Dataset Asset Properties
 
@@ -35,4 +36,21 @@ public class ServiceAdditionalInformation extends AbstractModel {
     @JsonProperty
     public String inLanguage;
 
+    /**
+     * Copies the additional information with its own lists, sharing the rest of the values
+     *
+     * @return the copy
+     */
+    public ServiceAdditionalInformation copy() {
+        final ServiceAdditionalInformation copy;
+        try {
+            copy = (ServiceAdditionalInformation) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new NeverminedRuntimeException("Unable to copy the additional information of the service", e);
+        }
+        copy.tags = tags != null ? new ArrayList<>(tags) : null;
+        copy.categories = categories != null ? new ArrayList<>(categories) : null;
+        copy.links = links != null ? new ArrayList<>(links) : null;
+        return copy;
+    }
 }
@@ -20,4 +20,12 @@ public class ServiceCuration {
     @JsonProperty
     public boolean isListed;
 
+    public ServiceCuration copy() {
+        final ServiceCuration copy = new ServiceCuration();
+        copy.rating = rating;
+        copy.numVotes = numVotes;
+        copy.schema = schema;
+        copy.isListed = isListed;
+        return copy;
+    }
 }
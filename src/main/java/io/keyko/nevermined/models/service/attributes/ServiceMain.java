@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.keyko.nevermined.exceptions.NeverminedRuntimeException;
 import io.keyko.nevermined.models.AbstractModel;
 import io.keyko.nevermined.models.CustomDateDeserializer;
 import io.keyko.nevermined.models.asset.AssetMetadata;
@@ -19,7 +20,7 @@ import java.util.Date;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonPropertyOrder(alphabetic = true)
-public class ServiceMain extends AbstractModel {
+public class ServiceMain extends AbstractModel implements Cloneable {
 
     @JsonProperty
     public String type;
@@ -107,4 +108,20 @@ public class ServiceMain extends AbstractModel {
         @JsonProperty
         public int rounds;
     }
+
+    /**
+     * Copies the attributes with their own list of files, sharing the rest of the values
+     *
+     * @return the copy
+     */
+    public ServiceMain copy() {
+        final ServiceMain copy;
+        try {
+            copy = (ServiceMain) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new NeverminedRuntimeException("Unable to copy the main attributes of the service", e);
+        }
+        copy.files = files != null ? new ArrayList<>(files) : null;
+        return copy;
+    }
 }
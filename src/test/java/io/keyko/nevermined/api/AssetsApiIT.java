@@ -19,7 +19,11 @@ import io.keyko.nevermined.models.Balance;
 import io.keyko.nevermined.models.DDO;
 import io.keyko.nevermined.models.DID;
 import io.keyko.nevermined.models.asset.AssetMetadata;
+import io.keyko.nevermined.models.asset.OrderRequest;
 import io.keyko.nevermined.models.asset.OrderResult;
+import io.keyko.nevermined.models.asset.PublishReport;
+import io.keyko.nevermined.models.asset.PublishRequest;
+import io.keyko.nevermined.models.asset.PublishResult;
 import io.keyko.nevermined.models.service.*;
 import io.keyko.nevermined.models.service.types.ComputingService;
 import io.keyko.nevermined.models.service.types.DIDSalesService;
@@ -36,6 +40,7 @@ import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
@@ -228,6 +233,63 @@ public class AssetsApiIT {
 
     }
 
+    @Test
+    public void createAll() throws Exception {
+
+        final AssetRewards assetRewards = getTestAssetRewards();
+        final int numberOfAssets = 3;
+
+        List<PublishRequest> publishRequests = new ArrayList<>();
+        for (int i = 0; i < numberOfAssets; i++) {
+            AssetMetadata metadata = DDO.fromJSON(new TypeReference<AssetMetadata>() {}, METADATA_JSON_CONTENT);
+            metadata.attributes.main.name = metadataBase.attributes.main.name + " " + i;
+            metadata.attributes.main.dateCreated = new Date();
+            publishRequests.add(new PublishRequest(metadata, providerConfig, assetRewards));
+        }
+
+        PublishReport report = neverminedAPI.getAssetsAPI().createAll(publishRequests, 2);
+        assertEquals(numberOfAssets, report.getPublished());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.getThroughput() > 0);
+
+        Set<String> dids = new HashSet<>();
+        for (PublishResult result : report.getResults()) {
+            assertTrue(result.isSuccess());
+            DDO resolvedDDO = neverminedAPI.getAssetsAPI().resolve(new DID(result.getDdo().id));
+            assertEquals(result.getDdo().id, resolvedDDO.id);
+            dids.add(resolvedDDO.id);
+        }
+        assertEquals(numberOfAssets, dids.size());
+    }
+
+    @Test
+    public void orderAll() throws Exception {
+
+        final AssetRewards testAssetRewards = getTestAssetRewards();
+        final int numberOfAssets = 3;
+
+        List<OrderRequest> orderRequests = new ArrayList<>();
+        for (int i = 0; i < numberOfAssets; i++) {
+            metadataBase.attributes.main.dateCreated = new Date();
+            DDO ddo = neverminedAPI.getAssetsAPI().create(metadataBase, providerConfig, testAssetRewards);
+            orderRequests.add(new OrderRequest(new DID(ddo.id), Service.DEFAULT_ACCESS_INDEX));
+        }
+
+        neverminedAPIConsumer.getAccountsAPI().requestTokens(
+                new BigInteger(testAssetRewards.totalPrice).multiply(BigInteger.valueOf(numberOfAssets)));
+
+        List<CompletableFuture<OrderResult>> futures = neverminedAPIConsumer.getAssetsAPI().orderAll(orderRequests, 2);
+        assertEquals(numberOfAssets, futures.size());
+
+        Set<String> agreementIds = new HashSet<>();
+        for (CompletableFuture<OrderResult> future : futures) {
+            OrderResult orderResult = future.get(2, TimeUnit.MINUTES);
+            assertTrue(orderResult.isAccessGranted());
+            agreementIds.add(orderResult.getServiceAgreementId());
+        }
+        assertEquals(numberOfAssets, agreementIds.size());
+    }
+
     @Test
     public void consumeBinaryDirectly() throws Exception {
 
@@ -0,0 +1,124 @@
+package io.keyko.nevermined.core.cache;
+
+import io.keyko.nevermined.exceptions.ServiceException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class AccessTokenCacheTest {
+
+    private static String jwt(long expSeconds) {
+        final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"ES256K\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"iss\":\"0x00\",\"exp\":" + expSeconds + "}").getBytes(StandardCharsets.UTF_8))
+                + ".signature";
+    }
+
+    @Test
+    public void renewsTheTokensBeforeTheirExpiration() throws Exception {
+        final AtomicLong now = new AtomicLong(0);
+        final AtomicInteger loads = new AtomicInteger(0);
+        final AccessTokenCache cache = new AccessTokenCache(10, 1000L, 5000L, now::get);
+        final List<String> key = AccessTokenCache.key("access", "http://gateway", "0x01", "did:nv:01");
+
+        final String first = cache.get(key, () -> jwt(60 + loads.incrementAndGet()));
+        now.set(54999);
+        assertEquals(first, cache.get(key, () -> jwt(60 + loads.incrementAndGet())));
+        now.set(56001);
+        assertNotEquals(first, cache.get(key, () -> jwt(60 + loads.incrementAndGet())));
+
+        assertEquals(2, loads.get());
+        final CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getExpirations());
+    }
+
+    @Test
+    public void usesTheDefaultTtlWithoutExpClaim() throws Exception {
+        final AtomicLong now = new AtomicLong(0);
+        final AccessTokenCache cache = new AccessTokenCache(10, 1000L, 0L, now::get);
+
+        assertEquals(1000L, cache.expirationOf("not-a-jwt"));
+        assertEquals(42000L, cache.expirationOf(jwt(42)));
+    }
+
+    @Test
+    public void keepsTheArgumentsApart() throws Exception {
+        final AccessTokenCache cache = new AccessTokenCache();
+        cache.get(AccessTokenCache.key("compute", "ab", "c"), () -> "1");
+
+        assertEquals("2", cache.get(AccessTokenCache.key("compute", "a", "bc"), () -> "2"));
+        assertEquals("1", cache.get(AccessTokenCache.key("compute", "ab", "c"), () -> "3"));
+    }
+
+    @Test
+    public void sharesTheConcurrentRequests() throws Exception {
+        final AccessTokenCache cache = new AccessTokenCache();
+        final List<String> key = AccessTokenCache.key("download", "http://gateway", "did:nv:01");
+        final AtomicInteger loads = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                futures.add(executor.submit(() -> cache.get(key, () -> {
+                    loads.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "token";
+                })));
+            while (cache.getSharedLoads() < 7 && loads.get() < 8)
+                Thread.sleep(10);
+            release.countDown();
+
+            for (Future<String> future : futures)
+                assertEquals("token", future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7, cache.getSharedLoads());
+    }
+
+    @Test
+    public void doesNotCacheTheFailedRequests() throws Exception {
+        final AccessTokenCache cache = new AccessTokenCache();
+        final List<String> key = AccessTokenCache.key("execute", "http://gateway", "0x01", "did:nv:02");
+
+        try {
+            cache.get(key, () -> {
+                throw new ServiceException("Error requesting the access token");
+            });
+            fail("The request should fail");
+        } catch (ServiceException e) {
+            assertEquals(1, cache.getFailedLoads());
+        }
+        assertEquals("token", cache.get(key, () -> "token"));
+    }
+
+    @Test
+    public void evictsTheTokensExpiringFirst() throws Exception {
+        final AtomicLong now = new AtomicLong(0);
+        final AccessTokenCache cache = new AccessTokenCache(2, 1000L, 0L, now::get);
+        cache.get(AccessTokenCache.key("a"), () -> jwt(30));
+        cache.get(AccessTokenCache.key("b"), () -> jwt(10));
+        cache.get(AccessTokenCache.key("c"), () -> jwt(20));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals("new", cache.get(AccessTokenCache.key("b"), () -> "new"));
+    }
+}
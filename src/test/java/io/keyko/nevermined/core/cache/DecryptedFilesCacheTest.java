@@ -0,0 +1,64 @@
+package io.keyko.nevermined.core.cache;
+
+import io.keyko.nevermined.models.asset.AssetMetadata;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class DecryptedFilesCacheTest {
+
+    private static final String DID = "did:nv:0ebed8226ada17fde24b6bf2b95d27f8f05fcce09139ff5cec31f6d81a7cd2ea";
+    private static final String ENCRYPTED_FILES = "0x2e48ceefcca7abb024f90c87c676fce8f7913f889605a349c08c0c4a822c69ad";
+
+    private static List<AssetMetadata.File> files(int count) {
+        final List<AssetMetadata.File> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final AssetMetadata.File file = new AssetMetadata.File();
+            file.index = i;
+            files.add(file);
+        }
+        return files;
+    }
+
+    @Test
+    public void keysTheFilesByDidAndEncryptedFiles() {
+        final DecryptedFilesCache cache = new DecryptedFilesCache(10, 1000L);
+        cache.put(DID, ENCRYPTED_FILES, files(2));
+
+        assertEquals(2, cache.get(DID, ENCRYPTED_FILES).size());
+        assertEquals(2, cache.get("0x" + DID.substring("did:nv:".length()), ENCRYPTED_FILES).size());
+        // The DDO was published again with other files
+        assertNull(cache.get(DID, ENCRYPTED_FILES + "00"));
+
+        assertTrue(cache.invalidate(DID, ENCRYPTED_FILES));
+        assertNull(cache.get(DID, ENCRYPTED_FILES));
+    }
+
+    @Test
+    public void returnsACopyOfTheFiles() {
+        final DecryptedFilesCache cache = new DecryptedFilesCache(10, 1000L);
+        final List<AssetMetadata.File> decrypted = files(2);
+        cache.put(DID, ENCRYPTED_FILES, decrypted);
+
+        decrypted.clear();
+        cache.get(DID, ENCRYPTED_FILES).remove(0);
+        assertEquals(2, cache.get(DID, ENCRYPTED_FILES).size());
+    }
+
+    @Test
+    public void expiresTheFiles() {
+        final AtomicLong now = new AtomicLong(0);
+        final DecryptedFilesCache cache = new DecryptedFilesCache(10, 1000L, now::get);
+        cache.put(DID, ENCRYPTED_FILES, files(1));
+
+        now.set(999);
+        assertNotNull(cache.get(DID, ENCRYPTED_FILES));
+        now.set(1001);
+        assertNull(cache.get(DID, ENCRYPTED_FILES));
+        assertEquals(0, cache.size());
+    }
+}
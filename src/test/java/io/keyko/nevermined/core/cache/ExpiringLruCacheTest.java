@@ -0,0 +1,50 @@
+package io.keyko.nevermined.core.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ExpiringLruCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 1000L);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(3, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    public void expiresEntries() {
+        AtomicLong now = new AtomicLong(0);
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 100L, now::get);
+        cache.put("a", "1");
+        now.set(99);
+        assertEquals("1", cache.get("a"));
+        now.set(100);
+        assertNull(cache.get("a"));
+
+        assertEquals(1, cache.stats().getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void normalizesDIDKeys() {
+        String hash = "0AE2c2a1b8b5e4d35a1f1ed4ff2ee98b8c1c2a19fb0d0bc6e93a1b7dce1b3f1b";
+        assertEquals(hash.toLowerCase(), DIDResolutionCache.toKey("did:nv:" + hash));
+        assertEquals(hash.toLowerCase(), DIDResolutionCache.toKey("0x" + hash));
+    }
+}
@@ -0,0 +1,224 @@
+package io.keyko.nevermined.core.compute;
+
+import io.keyko.nevermined.models.gateway.ComputeLogs;
+import io.keyko.nevermined.models.gateway.ComputeStatus;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ComputeJobMonitorTest {
+
+    private static CompletableFuture<ComputeStatus> status(String value) {
+        final ComputeStatus status = new ComputeStatus();
+        status.status = value;
+        return CompletableFuture.completedFuture(status);
+    }
+
+    @Test
+    public void emitsTheTransitionsUntilTheJobFinishes() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 20, 4, 3);
+        final String[] script = {"Pending", "Pending", "Running", "Running", "Running", "Succeeded"};
+        final AtomicInteger polls = new AtomicInteger(0);
+
+        final TestSubscriber<String> subscriber = monitor
+                .watch("http://gateway", "0x01", "job-1",
+                        () -> status(script[Math.min(polls.getAndIncrement(), script.length - 1)]))
+                .map(status -> status.status)
+                .test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertValues("Pending", "Running", "Succeeded");
+        subscriber.assertComplete();
+
+        final int pollsWhenFinished = polls.get();
+        Thread.sleep(100);
+        assertEquals(pollsWhenFinished, polls.get());
+        assertEquals(0, monitor.size());
+        monitor.shutdown();
+    }
+
+    @Test
+    public void pollsEveryJobOnceForAllTheSubscribers() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 10, 4, 3);
+        final AtomicInteger polls = new AtomicInteger(0);
+
+        final TestSubscriber<ComputeStatus> first = monitor
+                .watch("http://gateway", "0x01", "job-1", () -> status(polls.incrementAndGet() < 5 ? "Running" : "Failed"))
+                .test();
+        final TestSubscriber<ComputeStatus> second = monitor
+                .watch("http://gateway", "0x01", "job-1", () -> {
+                    throw new IllegalStateException("The job is already watched");
+                })
+                .test();
+
+        assertTrue(first.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        assertTrue(second.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        first.assertComplete();
+        second.assertComplete();
+        assertEquals(5, polls.get());
+        monitor.shutdown();
+    }
+
+    @Test
+    public void pollsLessOftenWhileTheStatusDoesNotChange() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 80, 4, 3);
+        final AtomicInteger polls = new AtomicInteger(0);
+
+        final TestSubscriber<ComputeStatus> subscriber = monitor
+                .watch("http://gateway", "0x01", "job-1", () -> {
+                    polls.incrementAndGet();
+                    return status("Running");
+                })
+                .test();
+        Thread.sleep(400);
+        subscriber.cancel();
+
+        // A fixed interval would have polled about 40 times
+        assertTrue("Polls: " + polls.get(), polls.get() > 2 && polls.get() < 15);
+        subscriber.assertValueCount(1);
+        assertEquals(0, monitor.size());
+        monitor.shutdown();
+    }
+
+    @Test
+    public void limitsTheRequestsToEveryGateway() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 10, 2, 3);
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger maxInFlight = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService gateway = Executors.newCachedThreadPool();
+
+        final TestSubscriber<?>[] subscribers = new TestSubscriber<?>[6];
+        for (int i = 0; i < subscribers.length; i++) {
+            subscribers[i] = monitor.watch("http://gateway", "0x01", "job-" + i, () -> CompletableFuture.supplyAsync(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                return status("Succeeded").join();
+            }, gateway)).test();
+        }
+        Thread.sleep(100);
+        assertEquals(2, inFlight.get());
+        release.countDown();
+
+        for (TestSubscriber<?> subscriber : subscribers) {
+            assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+            subscriber.assertComplete();
+        }
+        assertEquals(2, maxInFlight.get());
+        monitor.shutdown();
+        gateway.shutdown();
+    }
+
+    @Test
+    public void failsAfterTheConsecutiveErrors() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 10, 4, 3);
+        final AtomicInteger polls = new AtomicInteger(0);
+
+        final TestSubscriber<ComputeStatus> subscriber = monitor
+                .watch("http://gateway", "0x01", "job-1", () -> {
+                    polls.incrementAndGet();
+                    throw new IllegalStateException("Gateway unavailable");
+                })
+                .test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertError(IllegalStateException.class);
+        assertEquals(3, polls.get());
+        assertEquals(0, monitor.size());
+        monitor.shutdown();
+    }
+
+    @Test
+    public void tailsTheLogsUntilTheJobFinishes() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 10, 4, 3, 5);
+        final List<ComputeLogs> logs = new ArrayList<>();
+        final AtomicInteger statusPolls = new AtomicInteger(0);
+
+        final TestSubscriber<String> subscriber = monitor
+                .tailLogs("http://gateway", "0x01", "job-1",
+                        () -> {
+                            // Writes a line on every poll of the status
+                            synchronized (logs) {
+                                logs.add(ComputeLogTailTest.line("algorithm", "line " + logs.size()));
+                            }
+                            return status(statusPolls.incrementAndGet() < 5 ? "Running" : "Succeeded");
+                        },
+                        () -> {
+                            synchronized (logs) {
+                                return CompletableFuture.completedFuture(new ArrayList<>(logs));
+                            }
+                        })
+                .map(line -> line.content)
+                .test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertComplete();
+        subscriber.assertValues("line 0", "line 1", "line 2", "line 3", "line 4");
+        monitor.shutdown();
+    }
+
+    @Test
+    public void retriesTheFailedLogsRequests() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 20, 4, 3, 5);
+        final AtomicInteger logsRequests = new AtomicInteger(0);
+        final List<ComputeLogs> logs = new ArrayList<>();
+        logs.add(ComputeLogTailTest.line("algorithm", "line 0"));
+
+        final TestSubscriber<String> subscriber = monitor
+                .tailLogs("http://gateway", "0x01", "job-1",
+                        () -> status("Succeeded"),
+                        () -> {
+                            // Every other request fails
+                            if (logsRequests.incrementAndGet() % 2 == 1) {
+                                final CompletableFuture<List<ComputeLogs>> failed = new CompletableFuture<>();
+                                failed.completeExceptionally(new IllegalStateException("Gateway unavailable"));
+                                return failed;
+                            }
+                            return CompletableFuture.completedFuture(logs);
+                        })
+                .map(line -> line.content)
+                .test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertComplete();
+        subscriber.assertValues("line 0");
+        monitor.shutdown();
+    }
+
+    @Test
+    public void stopsTailingTheLogsAfterTheConsecutiveErrors() throws Exception {
+        final ComputeJobMonitor monitor = new ComputeJobMonitor(10, 20, 4, 3, 5);
+        final AtomicInteger logsRequests = new AtomicInteger(0);
+
+        final TestSubscriber<ComputeLogs> subscriber = monitor
+                .tailLogs("http://gateway", "0x01", "job-1",
+                        () -> status("Running"),
+                        () -> {
+                            logsRequests.incrementAndGet();
+                            final CompletableFuture<List<ComputeLogs>> failed = new CompletableFuture<>();
+                            failed.completeExceptionally(new IllegalStateException("Gateway unavailable"));
+                            return failed;
+                        })
+                .test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertError(IllegalStateException.class);
+        assertEquals(3, logsRequests.get());
+        monitor.shutdown();
+    }
+}
@@ -0,0 +1,55 @@
+package io.keyko.nevermined.core.compute;
+
+import io.keyko.nevermined.models.gateway.ComputeLogs;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ComputeLogTailTest {
+
+    static ComputeLogs line(String podName, String content) {
+        final ComputeLogs line = new ComputeLogs();
+        line.podName = podName;
+        line.content = content;
+        return line;
+    }
+
+    private static List<String> contents(List<ComputeLogs> lines) {
+        final List<String> contents = new ArrayList<>();
+        lines.forEach(line -> contents.add(line.content));
+        return contents;
+    }
+
+    @Test
+    public void returnsOnlyTheNewLines() {
+        final ComputeLogTail tail = new ComputeLogTail();
+
+        assertEquals(Arrays.asList("a1", "a2"), contents(tail.update(Arrays.asList(line("a", "a1"), line("a", "a2")))));
+        assertEquals(Arrays.asList("a3"), contents(tail.update(Arrays.asList(line("a", "a1"), line("a", "a2"), line("a", "a3")))));
+        assertTrue(tail.update(Arrays.asList(line("a", "a1"), line("a", "a2"), line("a", "a3"))).isEmpty());
+        assertEquals(3, tail.getOffset("a"));
+    }
+
+    @Test
+    public void countsTheLinesOfEveryPod() {
+        final ComputeLogTail tail = new ComputeLogTail();
+        tail.update(Arrays.asList(line("configurator", "c1"), line("algorithm", "x1")));
+
+        final List<ComputeLogs> newLines = tail.update(Arrays.asList(
+                line("configurator", "c1"), line("algorithm", "x1"), line("publishing", "p1"), line("algorithm", "x2")));
+        assertEquals(Arrays.asList("p1", "x2"), contents(newLines));
+    }
+
+    @Test
+    public void returnsAgainTheLogsOfARestartedPod() {
+        final ComputeLogTail tail = new ComputeLogTail();
+        tail.update(Arrays.asList(line("algorithm", "x1"), line("algorithm", "x2")));
+
+        assertEquals(Arrays.asList("y1"), contents(tail.update(Arrays.asList(line("algorithm", "y1")))));
+        assertEquals(1, tail.getOffset("algorithm"));
+    }
+}
@@ -0,0 +1,56 @@
+package io.keyko.nevermined.core.conditions;
+
+import org.junit.Test;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class ConditionIdCalculatorTest {
+
+    private static final String DID = "0x319d158c3a5d81d15b0160cf8929916089218bdb4aa78c3ecd16633afd44b8ae";
+    private static final String AGREEMENT_ID = "0x0000000000000000000000000000000000000000000000000000000000000abc";
+    private static final String ADDRESS_1 = "0x00bd138abd70e2f00903268f3db08f2d25677c9e";
+    private static final String ADDRESS_2 = "0x068ed00cf0441e4829d9784fcbe7b9e26d4bd8d0";
+
+    private static String word(String hex) {
+        return Numeric.toHexStringNoPrefixZeroPadded(Numeric.toBigInt(hex), 64);
+    }
+
+    private static String word(long value) {
+        return Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(value), 64);
+    }
+
+    private static byte[] keccak(String... words) {
+        return Hash.sha3(Numeric.hexStringToByteArray(String.join("", words)));
+    }
+
+    @Test
+    public void hashesStaticValues() {
+        assertArrayEquals(keccak(word(DID), word(ADDRESS_1)),
+                ConditionIdCalculator.hashDIDGrantee(DID, ADDRESS_1));
+        assertArrayEquals(keccak(word(DID), word(ADDRESS_1), word(3)),
+                ConditionIdCalculator.hashNFTHolder(DID, ADDRESS_1, BigInteger.valueOf(3)));
+    }
+
+    @Test
+    public void generatesIdsFromTheConditionAddress() {
+        byte[] valueHash = ConditionIdCalculator.hashDIDGrantee(DID, ADDRESS_1);
+        assertArrayEquals(keccak(word(AGREEMENT_ID), word(ADDRESS_2), Numeric.toHexStringNoPrefix(valueHash)),
+                ConditionIdCalculator.generateId(AGREEMENT_ID, ADDRESS_2, valueHash));
+    }
+
+    @Test
+    public void hashesDynamicArrays() {
+        // did, reward, token, offset of amounts, offset of receivers, amounts, receivers
+        byte[] expected = keccak(word(DID), word(ADDRESS_1), word(ADDRESS_2), word(5 * 32), word(8 * 32),
+                word(2), word(10), word(2),
+                word(2), word(ADDRESS_1), word(ADDRESS_2));
+
+        assertArrayEquals(expected, ConditionIdCalculator.hashLockPayment(DID, ADDRESS_1, ADDRESS_2,
+                Arrays.asList(BigInteger.TEN, BigInteger.valueOf(2)), Arrays.asList(ADDRESS_1, ADDRESS_2)));
+    }
+}
@@ -0,0 +1,137 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.models.asset.AssetMetadata;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+public class ChecksumVerifierTest {
+
+    private static final byte[] CONTENT = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+    private static final String MD5 = "9e107d9d372bb6826bd81d3542a419d6";
+    private static final String SHA256 = "d7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592";
+    private static final String KECCAK256 = "4d741b6f1eb29cb2a9b9911c82f56fa8d73b04959d3d9d222895df6c0b28aa15";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static AssetMetadata.File file(String checksum, String checksumType, String contentLength) {
+        final AssetMetadata.File file = new AssetMetadata.File();
+        file.index = 0;
+        file.checksum = checksum;
+        file.checksumType = checksumType;
+        file.contentLength = contentLength;
+        return file;
+    }
+
+    @Test
+    public void verifiesTheChecksumOfTheMetadata() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file(MD5, "MD5", String.valueOf(CONTENT.length)));
+        verifier.update(CONTENT, 0, 10);
+        verifier.update(CONTENT, 10, CONTENT.length - 10);
+
+        assertEquals(MD5, verifier.verify());
+        assertEquals(CONTENT.length, verifier.getLength());
+    }
+
+    @Test
+    public void readsTheAlgorithmFromTheChecksumPrefix() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file("sha256:" + SHA256.toUpperCase(), null, null));
+        verifier.update(CONTENT, 0, CONTENT.length);
+
+        assertEquals("sha256", verifier.getAlgorithm());
+        assertEquals(SHA256, verifier.verify());
+    }
+
+    @Test
+    public void supportsKeccak() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file("0x" + KECCAK256, "keccak-256", null));
+        verifier.update(CONTENT, 0, CONTENT.length);
+
+        assertEquals(KECCAK256, verifier.verify());
+    }
+
+    @Test
+    public void skipsTheFilesWithoutSupportedChecksum() {
+        assertNull(ChecksumVerifier.forFile(file(null, "MD5", null)));
+        assertNull(ChecksumVerifier.forFile(file(MD5, null, null)));
+        assertNull(ChecksumVerifier.forFile(file(MD5, "CRC32", null)));
+    }
+
+    @Test
+    public void failsWhenTheChecksumDoesNotMatch() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file(MD5, "MD5", null));
+        verifier.update(CONTENT, 0, CONTENT.length - 1);
+
+        try {
+            verifier.verify();
+            fail("The checksum should not match");
+        } catch (ChecksumMismatchException e) {
+            assertEquals(MD5, e.getExpectedChecksum());
+            assertNotNull(e.getActualChecksum());
+            assertNotEquals(MD5, e.getActualChecksum());
+        }
+    }
+
+    @Test(expected = ChecksumMismatchException.class)
+    public void failsAsSoonAsTheFileIsLongerThanExpected() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file(MD5, "MD5", "10"));
+        verifier.update(CONTENT, 0, 11);
+    }
+
+    @Test
+    public void hashesTheBytesCopiedThroughTheChannel() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file(SHA256, "SHA-256", null));
+        final String path = folder.newFile().getAbsolutePath();
+
+        try (ReadableByteChannel source = verifier.wrap(Channels.newChannel(new ByteArrayInputStream(CONTENT)));
+             FileOutputStream output = new FileOutputStream(path)) {
+            output.getChannel().transferFrom(source, 0, Long.MAX_VALUE);
+        }
+
+        assertEquals(SHA256, verifier.getChecksum());
+        assertArrayEquals(CONTENT, Files.readAllBytes(Paths.get(path)));
+    }
+
+    @Test
+    public void stopsTheChannelCopyWhenTheFileIsLongerThanExpected() throws Exception {
+        final ChecksumVerifier verifier = ChecksumVerifier.forFile(file(MD5, "MD5", "10"));
+        final String path = folder.newFile().getAbsolutePath();
+
+        try (ReadableByteChannel source = verifier.wrap(Channels.newChannel(new ByteArrayInputStream(new byte[100_000])));
+             FileOutputStream output = new FileOutputStream(path)) {
+            output.getChannel().transferFrom(source, 0, Long.MAX_VALUE);
+            verifier.verify();
+            fail("The length should not match");
+        } catch (ChecksumMismatchException e) {
+            assertTrue(verifier.getLength() < 100_000);
+        }
+    }
+
+    @Test
+    public void reportsTheChecksumOfTheParallelDownloads() throws Exception {
+        final String path = folder.getRoot().getAbsolutePath() + "/file";
+        final ParallelDownloader downloader = new ParallelDownloader(1, 0);
+
+        FileDownloadResult result = downloader.download(new ParallelDownloader.FileDownload(0, path,
+                () -> new ByteArrayInputStream(CONTENT), ChecksumVerifier.forFile(file(MD5, "MD5", null))));
+        assertTrue(result.isSuccess());
+        assertEquals(MD5, result.getChecksum());
+
+        result = downloader.download(new ParallelDownloader.FileDownload(0, path,
+                () -> new ByteArrayInputStream(new byte[10]), ChecksumVerifier.forFile(file(MD5, "MD5", null))));
+        assertEquals(FileDownloadResult.Status.CHECKSUM_MISMATCH, result.getStatus());
+        assertFalse(Files.exists(Paths.get(path)));
+    }
+}
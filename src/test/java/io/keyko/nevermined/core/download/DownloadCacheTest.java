@@ -0,0 +1,133 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.models.asset.AssetMetadata;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DownloadCacheTest {
+
+    private static final String DID = "did:nv:0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final byte[] CONTENT = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+    private static final String MD5 = "9e107d9d372bb6826bd81d3542a419d6";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static AssetMetadata.File file(String checksum) {
+        final AssetMetadata.File file = new AssetMetadata.File();
+        file.index = 0;
+        file.checksum = checksum;
+        file.checksumType = "MD5";
+        return file;
+    }
+
+    private Path downloaded(byte[] content) throws Exception {
+        final Path path = folder.newFile().toPath();
+        Files.write(path, content);
+        return path;
+    }
+
+    @Test
+    public void servesTheFilesStored() throws Exception {
+        final DownloadCache cache = new DownloadCache(folder.newFolder().toPath(), 1024);
+        final Path destination = folder.getRoot().toPath().resolve("copy/file");
+
+        assertFalse(cache.copyTo(DID, 0, file(MD5), destination));
+        assertTrue(cache.put(DID, 0, file(MD5), downloaded(CONTENT)));
+        assertTrue(cache.copyTo(DID, 0, file(MD5), destination));
+        assertArrayEquals(CONTENT, Files.readAllBytes(destination));
+
+        try (InputStream input = cache.open(DID, 0, file(MD5))) {
+            assertArrayEquals(CONTENT, IOUtils.toByteArray(input));
+        }
+        assertEquals(2, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(CONTENT.length, cache.getSize());
+    }
+
+    @Test
+    public void keysTheFilesByChecksum() throws Exception {
+        final DownloadCache cache = new DownloadCache(folder.newFolder().toPath(), 1024);
+        cache.put(DID, 0, file(MD5), downloaded(CONTENT));
+
+        assertNull(cache.open(DID, 0, file("d41d8cd98f00b204e9800998ecf8427e")));
+        assertNull(cache.open(DID, 1, file(MD5)));
+        assertNotNull(cache.open(DID.substring("did:nv:".length()), 0, file("0x" + MD5.toUpperCase())));
+    }
+
+    @Test
+    public void onlyStoresTheFilesMatchingTheirChecksum() throws Exception {
+        final DownloadCache cache = new DownloadCache(folder.newFolder().toPath(), 1024);
+
+        assertFalse(cache.put(DID, 0, file(MD5), downloaded(new byte[10])));
+        assertFalse(cache.put(DID, 0, file(null), downloaded(CONTENT)));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void removesTheCorruptedFiles() throws Exception {
+        final Path directory = folder.newFolder().toPath();
+        final DownloadCache cache = new DownloadCache(directory, 1024);
+        cache.put(DID, 0, file(MD5), downloaded(CONTENT));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Files.write(files.findFirst().get(), new byte[CONTENT.length]);
+        }
+
+        assertNull(cache.open(DID, 0, file(MD5)));
+        assertEquals(0, cache.getSize());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedFiles() throws Exception {
+        final DownloadCache cache = new DownloadCache(folder.newFolder().toPath(), CONTENT.length * 2);
+        cache.put(DID, 0, file(MD5), downloaded(CONTENT));
+        cache.put(DID, 1, file(MD5), downloaded(CONTENT));
+        cache.open(DID, 0, file(MD5)).close();
+        cache.put(DID, 2, file(MD5), downloaded(CONTENT));
+
+        assertEquals(1, cache.getStats().getEvictions());
+        assertNotNull(cache.open(DID, 0, file(MD5)));
+        assertNull(cache.open(DID, 1, file(MD5)));
+        assertNotNull(cache.open(DID, 2, file(MD5)));
+    }
+
+    @Test
+    public void cachesTheStreamsReadToTheEnd() throws Exception {
+        final DownloadCache cache = new DownloadCache(folder.newFolder().toPath(), 1024);
+
+        try (InputStream input = cache.cacheWhileReading(DID, 0, file(MD5), new ByteArrayInputStream(CONTENT))) {
+            input.read(new byte[10]);
+        }
+        assertNull(cache.open(DID, 0, file(MD5)));
+
+        try (InputStream input = cache.cacheWhileReading(DID, 0, file(MD5), new ByteArrayInputStream(CONTENT))) {
+            assertArrayEquals(CONTENT, IOUtils.toByteArray(input));
+        }
+        assertNotNull(cache.open(DID, 0, file(MD5)));
+    }
+
+    @Test
+    public void loadsTheFilesAlreadyStored() throws Exception {
+        final Path directory = folder.newFolder().toPath();
+        new DownloadCache(directory, 1024).put(DID, 0, file(MD5), downloaded(CONTENT));
+
+        final DownloadCache cache = new DownloadCache(directory, 1024);
+        assertEquals(CONTENT.length, cache.getSize());
+        assertNotNull(cache.open(DID, 0, file(MD5)));
+    }
+}
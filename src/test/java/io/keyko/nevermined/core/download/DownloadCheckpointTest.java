@@ -0,0 +1,81 @@
+package io.keyko.nevermined.core.download;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DownloadCheckpointTest {
+
+    private static final String DID = "did:nv:0123456789abcdef";
+    private static final String AGREEMENT_ID = "0xabcdef";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String destinationPath() throws Exception {
+        return folder.newFile("datafile").getAbsolutePath();
+    }
+
+    @Test
+    public void mergesTheCompletedRanges() throws Exception {
+        final DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath(), DID, AGREEMENT_ID, 0, 1000);
+
+        checkpoint.complete(100, 199);
+        checkpoint.complete(300, 399);
+        checkpoint.complete(200, 299);
+        checkpoint.complete(350, 499);
+
+        assertEquals(400, checkpoint.getCompletedBytes());
+        final List<long[]> missing = checkpoint.getMissing();
+        assertEquals(2, missing.size());
+        assertArrayEquals(new long[]{0, 99}, missing.get(0));
+        assertArrayEquals(new long[]{500, 999}, missing.get(1));
+    }
+
+    @Test
+    public void hasNothingMissingWhenTheFileIsComplete() throws Exception {
+        final DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath(), DID, AGREEMENT_ID, 0, 1000);
+
+        checkpoint.complete(0, 999);
+
+        assertTrue(checkpoint.getMissing().isEmpty());
+    }
+
+    @Test
+    public void resumesFromTheSavedCheckpoint() throws Exception {
+        final String destinationPath = destinationPath();
+        final DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath, DID, AGREEMENT_ID, 2, 1000);
+        checkpoint.complete(0, 499);
+        checkpoint.save();
+
+        final DownloadCheckpoint resumed = DownloadCheckpoint.open(destinationPath, DID, AGREEMENT_ID, 2, 1000);
+
+        assertEquals(500, resumed.getCompletedBytes());
+        assertArrayEquals(new long[]{500, 999}, resumed.getMissing().get(0));
+    }
+
+    @Test
+    public void ignoresTheCheckpointOfOtherDownload() throws Exception {
+        final String destinationPath = destinationPath();
+        final DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath, DID, AGREEMENT_ID, 2, 1000);
+        checkpoint.complete(0, 499);
+        checkpoint.save();
+
+        assertEquals(0, DownloadCheckpoint.open(destinationPath, DID, "0x123456", 2, 1000).getCompletedBytes());
+        assertEquals(0, DownloadCheckpoint.open(destinationPath, DID, AGREEMENT_ID, 1, 1000).getCompletedBytes());
+        assertEquals(0, DownloadCheckpoint.open(destinationPath, DID, AGREEMENT_ID, 2, 2000).getCompletedBytes());
+    }
+
+    @Test
+    public void ignoresACorruptedCheckpoint() throws Exception {
+        final String destinationPath = destinationPath();
+        Files.write(DownloadCheckpoint.pathOf(destinationPath), "{\"did\": ".getBytes());
+
+        assertEquals(1, DownloadCheckpoint.open(destinationPath, DID, AGREEMENT_ID, 0, 1000).getMissing().size());
+    }
+}
@@ -0,0 +1,130 @@
+package io.keyko.nevermined.core.download;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class DownloadEngineTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] randomContent(int size) {
+        final byte[] content = new byte[size];
+        new Random(7).nextBytes(content);
+        return content;
+    }
+
+    /**
+     * Stream remembering if it was closed
+     */
+    private static class TrackedInputStream extends ByteArrayInputStream {
+        final AtomicBoolean closed = new AtomicBoolean(false);
+
+        TrackedInputStream(byte[] content) {
+            super(content);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed.set(true);
+            super.close();
+        }
+    }
+
+    @Test
+    public void copiesTheStreamAndClosesIt() throws Exception {
+        final byte[] content = randomContent(3 * 1024 * 1024 + 17);
+        final TrackedInputStream input = new TrackedInputStream(content);
+        final Path destination = folder.getRoot().toPath().resolve("dir/file");
+        final List<Long> progress = new ArrayList<>();
+
+        final long bytes = new DownloadEngine(16 * 1024, 2, 0).copy(input, destination, content.length, null,
+                (transferred, total) -> {
+                    assertEquals(content.length, total);
+                    progress.add(transferred);
+                });
+
+        assertEquals(content.length, bytes);
+        assertTrue(input.closed.get());
+        assertArrayEquals(content, Files.readAllBytes(destination));
+        assertEquals(4, progress.size());
+        assertEquals(content.length, (long) progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void closesTheStreamWhenTheFileCannotBeWritten() {
+        final TrackedInputStream input = new TrackedInputStream(new byte[100]);
+        final DownloadEngine engine = new DownloadEngine(1024, 1, 0);
+
+        try {
+            engine.copy(input, folder.getRoot().toPath(), -1, null, null);
+            fail("A directory can't be written as a file");
+        } catch (IOException e) {
+            assertTrue(input.closed.get());
+        }
+        assertEquals(0, engine.getActiveTransfers());
+    }
+
+    @Test
+    public void neverAllocatesMoreBuffersThanTheLimit() throws Exception {
+        final byte[] content = randomContent(256 * 1024);
+        final DownloadEngine engine = new DownloadEngine(4 * 1024, 3, 0);
+        final ExecutorService executor = Executors.newFixedThreadPool(20);
+        final AtomicLong maxActive = new AtomicLong(0);
+
+        try {
+            final List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final Path destination = folder.getRoot().toPath().resolve("file" + i);
+                futures.add(executor.submit(() -> engine.copy(new ByteArrayInputStream(content), destination, -1,
+                        null, (transferred, total) -> maxActive.accumulateAndGet(engine.getActiveTransfers(), Math::max))));
+            }
+            for (Future<Long> future : futures)
+                assertEquals(content.length, (long) future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(engine.getAllocatedBuffers() <= 3);
+        assertTrue(maxActive.get() <= 3);
+        assertEquals(0, engine.getActiveTransfers());
+    }
+
+    @Test
+    public void limitsTheThroughput() throws Exception {
+        final byte[] content = randomContent(200 * 1024);
+        final DownloadEngine engine = new DownloadEngine(8 * 1024, 1, 400 * 1024);
+
+        final long start = System.currentTimeMillis();
+        engine.copy(new ByteArrayInputStream(content), folder.getRoot().toPath().resolve("file"), -1, null, null);
+
+        assertTrue(System.currentTimeMillis() - start >= 400);
+    }
+
+    @Test
+    public void verifiesTheContent() throws Exception {
+        final ChecksumVerifier verifier = new ChecksumVerifier("MD5", "9e107d9d372bb6826bd81d3542a419d6", -1);
+        final InputStream input = new ByteArrayInputStream("The quick brown fox jumps over the lazy dog".getBytes());
+
+        new DownloadEngine().copy(input, folder.getRoot().toPath().resolve("file"), -1, verifier, null);
+
+        assertEquals("9e107d9d372bb6826bd81d3542a419d6", verifier.getChecksum());
+    }
+}
@@ -0,0 +1,127 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.models.asset.DownloadReport;
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ParallelDownloaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String path(String name) {
+        return folder.getRoot().getAbsolutePath() + "/files/" + name;
+    }
+
+    /**
+     * Stream that blocks until it is closed
+     */
+    private static class BlockingInputStream extends InputStream {
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public int read() throws IOException {
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Stream closed");
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    @Test
+    public void downloadsAllTheFiles() throws Exception {
+        List<ParallelDownloader.FileDownload> downloads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final byte[] content = ("content of file " + i).getBytes();
+            downloads.add(new ParallelDownloader.FileDownload(i, path("file" + i),
+                    () -> new ByteArrayInputStream(content)));
+        }
+
+        DownloadReport report = new ParallelDownloader(3, 0).downloadAll(downloads);
+
+        assertTrue(report.isSuccess());
+        assertEquals(10, report.getFiles().size());
+        for (int i = 0; i < 10; i++) {
+            FileDownloadResult result = report.getFiles().get(i);
+            assertEquals(i, result.getIndex());
+            assertEquals("content of file " + i, new String(Files.readAllBytes(Paths.get(result.getDestinationPath()))));
+            assertEquals(result.getBytes(), Files.size(Paths.get(result.getDestinationPath())));
+        }
+        assertEquals(report.getFiles().stream().mapToLong(FileDownloadResult::getBytes).sum(), report.getTotalBytes());
+    }
+
+    @Test
+    public void reportsTheFailedFilesWithoutStoppingTheOtherOnes() {
+        List<ParallelDownloader.FileDownload> downloads = Arrays.asList(
+                new ParallelDownloader.FileDownload(0, path("file0"), () -> new ByteArrayInputStream(new byte[100])),
+                new ParallelDownloader.FileDownload(1, path("file1"), () -> {
+                    throw new IOException("Not found");
+                }),
+                new ParallelDownloader.FileDownload(2, path("file2"), () -> new ByteArrayInputStream(new byte[200])));
+
+        DownloadReport report = new ParallelDownloader(2, 0).downloadAll(downloads);
+
+        assertFalse(report.isSuccess());
+        assertEquals(2, report.getDownloaded());
+        assertEquals(1, report.getFailed());
+        assertEquals(FileDownloadResult.Status.FAILED, report.getFiles().get(1).getStatus());
+        assertNotNull(report.getFiles().get(1).getError());
+        assertEquals(300, report.getTotalBytes());
+    }
+
+    @Test
+    public void abortsTheFilesTakingLongerThanTheTimeout() {
+        List<ParallelDownloader.FileDownload> downloads = Arrays.asList(
+                new ParallelDownloader.FileDownload(0, path("file0"), BlockingInputStream::new),
+                new ParallelDownloader.FileDownload(1, path("file1"), () -> new ByteArrayInputStream(new byte[10])));
+
+        DownloadReport report = new ParallelDownloader(2, 200).downloadAll(downloads);
+
+        assertEquals(FileDownloadResult.Status.TIMED_OUT, report.getFiles().get(0).getStatus());
+        assertEquals(FileDownloadResult.Status.DOWNLOADED, report.getFiles().get(1).getStatus());
+    }
+
+    @Test
+    public void abortsTheFilesWhoseStreamIsNeverOpened() {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        List<ParallelDownloader.FileDownload> downloads = Arrays.asList(
+                new ParallelDownloader.FileDownload(0, path("file0"), () -> {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    throw new IOException("Interrupted");
+                }),
+                new ParallelDownloader.FileDownload(1, path("file1"), () -> new ByteArrayInputStream(new byte[10])));
+
+        final long start = System.currentTimeMillis();
+        DownloadReport report = new ParallelDownloader(2, 200, new DownloadEngine()).downloadAll(downloads);
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(FileDownloadResult.Status.TIMED_OUT, report.getFiles().get(0).getStatus());
+        assertEquals(FileDownloadResult.Status.DOWNLOADED, report.getFiles().get(1).getStatus());
+        assertEquals(10, report.getFiles().get(1).getBytes());
+    }
+}
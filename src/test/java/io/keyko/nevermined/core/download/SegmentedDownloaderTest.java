@@ -0,0 +1,206 @@
+package io.keyko.nevermined.core.download;
+
+import io.keyko.nevermined.models.asset.FileDownloadResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SegmentedDownloaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] randomContent(int size) {
+        final byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+
+    private static InputStream range(byte[] content, long start, long end) {
+        return new ByteArrayInputStream(content, (int) start, (int) (end - start + 1));
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        final ChecksumVerifier verifier = new ChecksumVerifier("SHA-256", null, -1);
+        verifier.update(content, 0, content.length);
+        return verifier.verify();
+    }
+
+    private String path(String name) {
+        return folder.getRoot().getAbsolutePath() + "/files/" + name;
+    }
+
+    @Test
+    public void splitsTheFileInRangesCoveringAllTheBytes() {
+        final List<SegmentedDownloader.Segment> segments = new SegmentedDownloader(4, 0, 10).split(1003);
+
+        assertEquals(4, segments.size());
+        assertEquals(0, segments.get(0).start);
+        assertEquals(1002, segments.get(3).end);
+        for (int i = 1; i < segments.size(); i++)
+            assertEquals(segments.get(i - 1).end + 1, segments.get(i).start);
+    }
+
+    @Test
+    public void usesLessSegmentsForSmallFiles() {
+        assertEquals(1, new SegmentedDownloader(4, 0, 100).split(150).size());
+        assertEquals(2, new SegmentedDownloader(4, 0, 100).split(250).size());
+        assertTrue(new SegmentedDownloader(4, 0, 100).split(0).isEmpty());
+    }
+
+    @Test
+    public void writesEveryRangeInItsPosition() throws Exception {
+        final byte[] content = randomContent(100_000);
+        final Set<Long> requestedStarts = ConcurrentHashMap.newKeySet();
+
+        final FileDownloadResult result = new SegmentedDownloader(5, 0, 1000).download(3, path("file"),
+                content.length, (start, end) -> {
+                    requestedStarts.add(start);
+                    return range(content, start, end);
+                });
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getIndex());
+        assertEquals(content.length, result.getBytes());
+        assertEquals(5, requestedStarts.size());
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(result.getDestinationPath())));
+    }
+
+    @Test
+    public void retriesTheFailedRangeFromTheLastByteWritten() throws Exception {
+        final byte[] content = randomContent(50_000);
+        final AtomicInteger requests = new AtomicInteger();
+
+        final FileDownloadResult result = new SegmentedDownloader(2, 1, 1000).download(0, path("file"),
+                content.length, (start, end) -> {
+                    final InputStream input = range(content, start, end);
+                    // The first request of every range breaks after 1000 bytes
+                    if (start == 0 || start == content.length / 2)
+                        return new FilterInputStream(input) {
+                            private int read = 0;
+
+                            @Override
+                            public int read(byte[] b, int off, int len) throws IOException {
+                                if (read >= 1000)
+                                    throw new IOException("Connection reset");
+                                final int n = super.read(b, off, Math.min(len, 1000 - read));
+                                read += n;
+                                return n;
+                            }
+                        };
+                    requests.incrementAndGet();
+                    return input;
+                });
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, requests.get());
+        assertEquals(content.length, result.getBytes());
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(result.getDestinationPath())));
+    }
+
+    @Test
+    public void failsWhenARangeRunsOutOfRetries() {
+        final byte[] content = randomContent(10_000);
+
+        final FileDownloadResult result = new SegmentedDownloader(2, 2, 1000).download(0, path("file"),
+                content.length, (start, end) -> {
+                    if (start == 0)
+                        throw new IOException("Gateway unavailable");
+                    return range(content, start, end);
+                });
+
+        assertEquals(FileDownloadResult.Status.FAILED, result.getStatus());
+        assertEquals("Gateway unavailable", result.getError().getMessage());
+    }
+
+    @Test
+    public void resumesAFailedDownloadRequestingOnlyTheMissingRanges() throws Exception {
+        final byte[] content = randomContent(40_000);
+        final String destinationPath = path("file");
+        final Set<Long> requestedStarts = ConcurrentHashMap.newKeySet();
+
+        // The second half of the file is not available the first time
+        DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath, "did:nv:1", "0x1", 0, content.length);
+        FileDownloadResult result = new SegmentedDownloader(2, 0, 1000).download(0, destinationPath,
+                content.length, (start, end) -> {
+                    if (start >= content.length / 2)
+                        throw new IOException("Connection reset");
+                    return range(content, start, end);
+                }, checkpoint);
+
+        assertFalse(result.isSuccess());
+        assertTrue(Files.exists(checkpoint.getPath()));
+
+        checkpoint = DownloadCheckpoint.open(destinationPath, "did:nv:1", "0x1", 0, content.length);
+        assertEquals(content.length / 2, checkpoint.getCompletedBytes());
+
+        result = new SegmentedDownloader(2, 0, 1000).download(0, destinationPath, content.length,
+                (start, end) -> {
+                    requestedStarts.add(start);
+                    return range(content, start, end);
+                }, checkpoint);
+
+        assertTrue(result.isSuccess());
+        assertEquals(content.length / 2, result.getBytes());
+        assertTrue(requestedStarts.stream().allMatch(start -> start >= content.length / 2));
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(destinationPath)));
+        assertFalse(Files.exists(checkpoint.getPath()));
+    }
+
+    @Test
+    public void writesTheRangesWithTheEngine() throws Exception {
+        final byte[] content = randomContent(100_000);
+        final DownloadEngine engine = new DownloadEngine(4 * 1024, 2, 0);
+
+        final FileDownloadResult result = new SegmentedDownloader(4, 0, 1000, engine).download(0, path("file"),
+                content.length, (start, end) -> range(content, start, end));
+
+        assertTrue(result.isSuccess());
+        assertTrue(engine.getAllocatedBuffers() <= 2);
+        assertEquals(0, engine.getActiveTransfers());
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(result.getDestinationPath())));
+    }
+
+    @Test
+    public void verifiesTheFileOnceAllTheRangesAreWritten() throws Exception {
+        final byte[] content = randomContent(50_000);
+        final String checksum = sha256(content);
+
+        final FileDownloadResult result = new SegmentedDownloader(4, 0, 1000).download(0, path("file"),
+                content.length, (start, end) -> range(content, start, end), null,
+                new ChecksumVerifier("SHA-256", checksum, content.length));
+
+        assertTrue(result.isSuccess());
+        assertEquals(checksum, result.getChecksum());
+    }
+
+    @Test
+    public void removesTheFileAndTheCheckpointWhenTheChecksumDoesNotMatch() throws Exception {
+        final byte[] content = randomContent(40_000);
+        final String destinationPath = path("file");
+        final DownloadCheckpoint checkpoint = DownloadCheckpoint.open(destinationPath, "did:nv:1", "0x1", 0,
+                content.length);
+
+        final FileDownloadResult result = new SegmentedDownloader(2, 0, 1000).download(0, destinationPath,
+                content.length, (start, end) -> range(content, start, end), checkpoint,
+                new ChecksumVerifier("SHA-256", sha256(new byte[]{1}), content.length));
+
+        assertEquals(FileDownloadResult.Status.CHECKSUM_MISMATCH, result.getStatus());
+        assertFalse(Files.exists(Paths.get(destinationPath)));
+        assertFalse(Files.exists(checkpoint.getPath()));
+    }
+}
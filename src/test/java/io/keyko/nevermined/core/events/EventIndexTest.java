@@ -0,0 +1,143 @@
+package io.keyko.nevermined.core.events;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.keyko.nevermined.contracts.DIDRegistry.DIDATTRIBUTEREGISTERED_EVENT;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class EventIndexTest {
+
+    private static final String CONTRACT = "0x0000000000000000000000000000000000000001";
+    private static final String OWNER = "0x000000000000000000000000000000000000000000000000000000000000000a";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static EthLog.LogObject logObject(long block, String did) {
+        EthLog.LogObject logObject = new EthLog.LogObject();
+        logObject.setAddress(CONTRACT);
+        logObject.setBlockNumber("0x" + Long.toHexString(block));
+        logObject.setLogIndex("0x0");
+        logObject.setTransactionHash("0x" + Long.toHexString(block));
+        logObject.setTopics(Arrays.asList(EventEncoder.encode(DIDATTRIBUTEREGISTERED_EVENT), did, OWNER));
+        logObject.setData("0x");
+        return logObject;
+    }
+
+    private EventIndex newIndex(EventLogScanner scanner) {
+        return new EventIndex(scanner, folder.getRoot().getAbsolutePath(), 0, 0)
+                .index(EventIndex.DID_ATTRIBUTE_REGISTERED, CONTRACT, DIDATTRIBUTEREGISTERED_EVENT, 1, 2);
+    }
+
+    @Test
+    public void ingestsOnlyTheNewBlocks() throws Exception {
+        String did1 = "0x01";
+        String did2 = "0x02";
+
+        EventLogScanner scanner = mock(EventLogScanner.class);
+        when(scanner.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(10));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.ZERO), eq(BigInteger.valueOf(10))))
+                .thenReturn(Collections.singletonList(logObject(5, did1)));
+
+        EventIndex index = newIndex(scanner);
+        List<EthLog.LogObject> logs = index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER);
+        assertEquals(1, logs.size());
+        assertEquals(10, index.getCheckpoint());
+
+        when(scanner.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(20));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.valueOf(11)), eq(BigInteger.valueOf(20))))
+                .thenReturn(Collections.singletonList(logObject(15, did2)));
+
+        logs = index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER);
+        assertEquals(2, logs.size());
+        assertEquals(BigInteger.valueOf(5), logs.get(0).getBlockNumber());
+        assertEquals(BigInteger.valueOf(15), logs.get(1).getBlockNumber());
+        assertEquals(1, index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 1, did2).size());
+        assertEquals(1, index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER,
+                BigInteger.valueOf(11), null).size());
+    }
+
+    @Test
+    public void reloadsThePersistedIndex() throws Exception {
+        EventLogScanner scanner = mock(EventLogScanner.class);
+        when(scanner.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(10));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.ZERO), eq(BigInteger.valueOf(10))))
+                .thenReturn(Collections.singletonList(logObject(5, "0x01")));
+        newIndex(scanner).sync();
+
+        EventLogScanner restarted = mock(EventLogScanner.class);
+        when(restarted.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(10));
+
+        EventIndex index = newIndex(restarted);
+        assertEquals(1, index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER).size());
+        assertEquals(10, index.getCheckpoint());
+        verify(restarted, never()).scan(any(LogFilter.class), eq(BigInteger.ZERO), any());
+    }
+
+    @Test
+    public void returnsTheEventsMinedSinceTheLastSync() throws Exception {
+        EventLogScanner scanner = mock(EventLogScanner.class);
+        when(scanner.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(10));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.ZERO), eq(BigInteger.valueOf(10))))
+                .thenReturn(Collections.singletonList(logObject(5, "0x01")));
+
+        EventIndex index = new EventIndex(scanner, folder.getRoot().getAbsolutePath(), 0, 60000)
+                .index(EventIndex.DID_ATTRIBUTE_REGISTERED, CONTRACT, DIDATTRIBUTEREGISTERED_EVENT, 1, 2);
+        index.sync();
+
+        // A new block is mined before the next synchronization is due
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.valueOf(11)), isNull()))
+                .thenReturn(Collections.singletonList(logObject(12, "0x02")));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.valueOf(11)), eq(BigInteger.valueOf(30))))
+                .thenReturn(Collections.singletonList(logObject(12, "0x02")));
+
+        List<EthLog.LogObject> logs = index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER);
+        assertEquals(2, logs.size());
+        assertEquals(BigInteger.valueOf(12), logs.get(1).getBlockNumber());
+        assertEquals(2, index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER,
+                null, BigInteger.valueOf(30)).size());
+        assertEquals(10, index.getCheckpoint());
+    }
+
+    @Test
+    public void persistsOnlyTheConfirmedBlocks() throws Exception {
+        EventLogScanner scanner = mock(EventLogScanner.class);
+        when(scanner.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(20));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.ZERO), eq(BigInteger.valueOf(15))))
+                .thenReturn(Collections.singletonList(logObject(5, "0x01")));
+        when(scanner.scan(any(LogFilter.class), eq(BigInteger.valueOf(16)), isNull()))
+                .thenReturn(Collections.singletonList(logObject(18, "0x02")));
+
+        EventIndex index = new EventIndex(scanner, folder.getRoot().getAbsolutePath(), 0, 0, 5)
+                .index(EventIndex.DID_ATTRIBUTE_REGISTERED, CONTRACT, DIDATTRIBUTEREGISTERED_EVENT, 1, 2);
+        List<EthLog.LogObject> logs = index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER);
+        assertEquals(2, logs.size());
+        assertEquals(BigInteger.valueOf(18), logs.get(1).getBlockNumber());
+        assertEquals(15, index.getCheckpoint());
+
+        // The unconfirmed block is replaced by a reorganization, so its event is gone after a restart
+        EventLogScanner restarted = mock(EventLogScanner.class);
+        when(restarted.getLatestBlockNumber()).thenReturn(BigInteger.valueOf(20));
+        when(restarted.scan(any(LogFilter.class), any(), any())).thenReturn(Collections.emptyList());
+
+        index = new EventIndex(restarted, folder.getRoot().getAbsolutePath(), 0, 0, 5)
+                .index(EventIndex.DID_ATTRIBUTE_REGISTERED, CONTRACT, DIDATTRIBUTEREGISTERED_EVENT, 1, 2);
+        logs = index.getLogs(EventIndex.DID_ATTRIBUTE_REGISTERED, 2, OWNER);
+        assertEquals(1, logs.size());
+        assertEquals(BigInteger.valueOf(5), logs.get(0).getBlockNumber());
+        verify(restarted, never()).scan(any(LogFilter.class), eq(BigInteger.ZERO), any());
+    }
+}
@@ -0,0 +1,91 @@
+package io.keyko.nevermined.core.events;
+
+import io.keyko.nevermined.exceptions.EthereumException;
+import org.junit.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EventLogScannerTest {
+
+    private static final String CONTRACT = "0x0000000000000000000000000000000000000001";
+
+    /**
+     * Mocks a node with one log per block that refuses the queries of more than maxBlocks blocks
+     */
+    @SuppressWarnings("unchecked")
+    private static Web3j mockNode(long maxBlocks) throws Exception {
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.ethGetLogs(any(EthFilter.class))).thenAnswer(invocation -> {
+            EthFilter filter = invocation.getArgument(0);
+            long from = ((DefaultBlockParameterNumber) filter.getFromBlock()).getBlockNumber().longValue();
+            long to = ((DefaultBlockParameterNumber) filter.getToBlock()).getBlockNumber().longValue();
+
+            EthLog ethLog = new EthLog();
+            if (to - from + 1 > maxBlocks) {
+                ethLog.setError(new Response.Error(-32005, "query returned more than 10000 results"));
+            } else {
+                List<EthLog.LogResult> logs = new ArrayList<>();
+                for (long block = from; block <= to; block++) {
+                    EthLog.LogObject logObject = new EthLog.LogObject();
+                    logObject.setBlockNumber("0x" + Long.toHexString(block));
+                    logs.add(logObject);
+                }
+                ethLog.setResult(logs);
+            }
+
+            Request<?, EthLog> request = mock(Request.class);
+            when(request.send()).thenReturn(ethLog);
+            return request;
+        });
+        return web3j;
+    }
+
+    private static void assertSequential(List<EthLog.LogObject> logs, long from, long to) {
+        assertEquals(to - from + 1, logs.size());
+        for (int i = 0; i < logs.size(); i++)
+            assertEquals(BigInteger.valueOf(from + i), logs.get(i).getBlockNumber());
+    }
+
+    @Test
+    public void mergesParallelWindowsInOrder() throws Exception {
+        EventLogScanner scanner = new EventLogScanner(mockNode(Long.MAX_VALUE), 0, 7, 7, 3);
+
+        List<EthLog.LogObject> logs = scanner.scan(new LogFilter(CONTRACT), BigInteger.valueOf(5), BigInteger.valueOf(104));
+
+        assertSequential(logs, 5, 104);
+        scanner.shutdown();
+    }
+
+    @Test
+    public void shrinksWindowsRejectedByTheNode() throws Exception {
+        EventLogScanner scanner = new EventLogScanner(mockNode(16), 0, 100, 1000, 2);
+
+        List<EthLog.LogObject> logs = scanner.scan(new LogFilter(CONTRACT), BigInteger.ZERO, BigInteger.valueOf(299));
+
+        assertSequential(logs, 0, 299);
+        scanner.shutdown();
+    }
+
+    @Test(expected = EthereumException.class)
+    public void failsAfterMaxRetries() throws Exception {
+        EventLogScanner scanner = new EventLogScanner(mockNode(0), 0, 8, 8, 2, 1000, 2);
+        try {
+            scanner.scan(new LogFilter(CONTRACT), BigInteger.ZERO, BigInteger.valueOf(20));
+        } finally {
+            scanner.shutdown();
+        }
+    }
+}
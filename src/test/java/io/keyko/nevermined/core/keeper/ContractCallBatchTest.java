@@ -0,0 +1,72 @@
+package io.keyko.nevermined.core.keeper;
+
+import org.junit.Test;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ContractCallBatchTest {
+
+    private static final String CONTRACT = "0x0000000000000000000000000000000000000001";
+    private static final String FROM = "0x0000000000000000000000000000000000000002";
+
+    /**
+     * Mocks a node answering every call with the last byte of its data, returning the responses of a batch in reverse order
+     */
+    @SuppressWarnings("unchecked")
+    private static Web3jService mockService() throws Exception {
+        Web3jService service = mock(Web3jService.class);
+        when(service.sendBatch(any(BatchRequest.class))).thenAnswer(invocation -> {
+            BatchRequest batch = invocation.getArgument(0);
+            List responses = new ArrayList<>();
+            for (Request<?, ?> request : batch.getRequests()) {
+                String data = ((Transaction) request.getParams().get(0)).getData();
+                EthCall ethCall = new EthCall();
+                ethCall.setId(request.getId());
+                ethCall.setResult(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(data.substring(data.length() - 2)), 64));
+                responses.add(ethCall);
+            }
+            Collections.reverse(responses);
+            return new BatchResponse(batch.getRequests(), responses);
+        });
+        return service;
+    }
+
+    private static Function function(int value) {
+        return new Function("get", Collections.singletonList(new Uint256(value)),
+                Collections.singletonList(new TypeReference<Uint256>() {}));
+    }
+
+    @Test
+    public void sendsTheCallsInChunks() throws Exception {
+        Web3jService service = mockService();
+        ContractCallBatch batch = new ContractCallBatch(Web3j.build(service), FROM, 100);
+        for (int i = 0; i < 250; i++)
+            assertEquals(i, batch.add(CONTRACT, function(i % 256)));
+
+        List<List<Type>> results = batch.send();
+
+        assertEquals(250, results.size());
+        for (int i = 0; i < 250; i++)
+            assertEquals(BigInteger.valueOf(i % 256), results.get(i).get(0).getValue());
+        verify(service, times(3)).sendBatch(any(BatchRequest.class));
+    }
+}
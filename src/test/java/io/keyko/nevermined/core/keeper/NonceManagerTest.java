@@ -0,0 +1,137 @@
+package io.keyko.nevermined.core.keeper;
+
+import io.keyko.common.web3.KeeperService;
+import org.junit.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthChainId;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class NonceManagerTest {
+
+    /**
+     * Mocks a node whose account has sent the given number of transactions.
+     * If several counts are given every query returns the next one, and the last one after that
+     */
+    @SuppressWarnings("unchecked")
+    private static Web3j mockWeb3j(long transactionCount, long... nextTransactionCounts) throws Exception {
+        EthGetTransactionCount[] nextResponses = new EthGetTransactionCount[nextTransactionCounts.length];
+        for (int i = 0; i < nextTransactionCounts.length; i++)
+            nextResponses[i] = transactionCountResponse(nextTransactionCounts[i]);
+        Request<?, EthGetTransactionCount> request = mock(Request.class);
+        when(request.send()).thenReturn(transactionCountResponse(transactionCount), nextResponses);
+
+        EthChainId chainId = new EthChainId();
+        chainId.setResult("0x539");
+        Request<?, EthChainId> chainIdRequest = mock(Request.class);
+        when(chainIdRequest.send()).thenReturn(chainId);
+
+        Web3j web3j = mock(Web3j.class);
+        doReturn(request).when(web3j).ethGetTransactionCount(anyString(), any(DefaultBlockParameterName.class));
+        doReturn(chainIdRequest).when(web3j).ethChainId();
+        return web3j;
+    }
+
+    private static EthGetTransactionCount transactionCountResponse(long transactionCount) {
+        EthGetTransactionCount response = new EthGetTransactionCount();
+        response.setResult("0x" + Long.toHexString(transactionCount));
+        return response;
+    }
+
+    private static KeeperService mockKeeperService(Web3j web3j, Credentials credentials) {
+        KeeperService keeperService = mock(KeeperService.class);
+        when(keeperService.getWeb3()).thenReturn(web3j);
+        when(keeperService.getCredentials()).thenReturn(credentials);
+        return keeperService;
+    }
+
+    @Test
+    public void assignsConsecutiveNonces() throws Exception {
+        Web3j web3j = mockWeb3j(5);
+        NonceManager nonceManager = new NonceManager(web3j, "0x00000000000000000000000000000000000000a1");
+
+        assertEquals(BigInteger.valueOf(5), nonceManager.next());
+        assertEquals(BigInteger.valueOf(6), nonceManager.next());
+        assertEquals(BigInteger.valueOf(7), nonceManager.next());
+        verify(web3j, times(1)).ethGetTransactionCount(anyString(), any(DefaultBlockParameterName.class));
+    }
+
+    @Test
+    public void sharesTheNonceManagerOfAFactoryBetweenItsPipelines() throws Exception {
+        Web3j web3j = mockWeb3j(0);
+        Credentials credentials = Credentials.create("0x00000000000000000000000000000000000000000000000000000000000000a2");
+        KeeperService keeperService = mockKeeperService(web3j, credentials);
+        TransactionPipeline.Factory factory = new TransactionPipeline.Factory(keeperService, 1, 1);
+
+        assertSame(factory.getNonceManager(), factory.getNonceManager());
+        assertEquals(credentials.getAddress(), factory.getNonceManager().getAddress());
+        assertNotSame(factory.getNonceManager(),
+                new TransactionPipeline.Factory(keeperService, 1, 1).getNonceManager());
+    }
+
+    @Test
+    public void reusesTheLastNonceReleased() throws Exception {
+        Web3j web3j = mockWeb3j(3);
+        NonceManager nonceManager = new NonceManager(web3j, "0x00000000000000000000000000000000000000a3");
+
+        BigInteger nonce = nonceManager.next();
+        nonceManager.release(nonce);
+
+        assertEquals(nonce, nonceManager.next());
+        verify(web3j, times(1)).ethGetTransactionCount(anyString(), any(DefaultBlockParameterName.class));
+    }
+
+    @Test
+    public void readsTheNonceAgainAfterAGap() throws Exception {
+        Web3j web3j = mockWeb3j(3);
+        NonceManager nonceManager = new NonceManager(web3j, "0x00000000000000000000000000000000000000a4");
+
+        BigInteger first = nonceManager.next();
+        nonceManager.next();
+        nonceManager.release(first);
+
+        assertEquals(BigInteger.valueOf(3), nonceManager.next());
+        verify(web3j, times(2)).ethGetTransactionCount(anyString(), any(DefaultBlockParameterName.class));
+    }
+
+    @Test
+    public void syncsWithTheTransactionsSentDirectly() throws Exception {
+        // The pipeline reads 5 and sends 5 and 6, then the keeper sends 7 directly, so the node reports 8
+        Web3j web3j = mockWeb3j(5, 8);
+        Credentials credentials = Credentials.create("0x00000000000000000000000000000000000000000000000000000000000000a5");
+        TransactionPipeline.Factory factory = new TransactionPipeline.Factory(mockKeeperService(web3j, credentials), 1, 1);
+        NonceManager nonceManager = factory.getNonceManager();
+
+        factory.newPipeline();
+        assertEquals(BigInteger.valueOf(5), nonceManager.next());
+        assertEquals(BigInteger.valueOf(6), nonceManager.next());
+
+        factory.newPipeline();
+        assertEquals(BigInteger.valueOf(8), nonceManager.next());
+        assertEquals(BigInteger.valueOf(9), nonceManager.next());
+    }
+
+    @Test
+    public void keepsTheNoncesNotBroadcastYetWhenSyncing() throws Exception {
+        Web3j web3j = mockWeb3j(2);
+        NonceManager nonceManager = new NonceManager(web3j, "0x00000000000000000000000000000000000000a6");
+
+        assertEquals(BigInteger.valueOf(2), nonceManager.next());
+        assertEquals(BigInteger.valueOf(3), nonceManager.next());
+
+        assertEquals(BigInteger.valueOf(4), nonceManager.sync());
+        assertEquals(BigInteger.valueOf(4), nonceManager.next());
+        verify(web3j, times(2)).ethGetTransactionCount(anyString(), any(DefaultBlockParameterName.class));
+    }
+}
@@ -0,0 +1,127 @@
+package io.keyko.nevermined.core.keeper;
+
+import org.junit.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReceiptTrackerTest {
+
+    private final AtomicLong block = new AtomicLong(1);
+    private final Set<String> mined = ConcurrentHashMap.newKeySet();
+
+    private Response<?> respond(Request<?, ?> request) {
+        Response<?> response;
+        if (request.getMethod().equals("eth_blockNumber")) {
+            EthBlockNumber blockNumber = new EthBlockNumber();
+            blockNumber.setResult("0x" + Long.toHexString(block.get()));
+            response = blockNumber;
+        } else {
+            String hash = (String) request.getParams().get(0);
+            EthGetTransactionReceipt ethGetTransactionReceipt = new EthGetTransactionReceipt();
+            if (mined.contains(hash)) {
+                TransactionReceipt receipt = new TransactionReceipt();
+                receipt.setTransactionHash(hash);
+                ethGetTransactionReceipt.setResult(receipt);
+            }
+            response = ethGetTransactionReceipt;
+        }
+        response.setId(request.getId());
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Web3jService mockService() throws Exception {
+        Web3jService service = mock(Web3jService.class);
+        when(service.send(any(Request.class), any(Class.class)))
+                .thenAnswer(invocation -> respond(invocation.getArgument(0)));
+        when(service.sendBatch(any(BatchRequest.class))).thenAnswer(invocation -> {
+            BatchRequest batch = invocation.getArgument(0);
+            List responses = new ArrayList<>();
+            for (Request<?, ?> request : batch.getRequests())
+                responses.add(respond(request));
+            return new BatchResponse(batch.getRequests(), responses);
+        });
+        return service;
+    }
+
+    @Test
+    public void completesTheMinedTransactionsInOneBatch() throws Exception {
+        Web3jService service = mockService();
+        ReceiptTracker tracker = new ReceiptTracker(Web3j.build(service), 10, 5000);
+
+        CompletableFuture<TransactionReceipt> first = tracker.track("0x01");
+        CompletableFuture<TransactionReceipt> second = tracker.track("0x02");
+        CompletableFuture<TransactionReceipt> third = tracker.track("0x03");
+
+        mined.add("0x01");
+        mined.add("0x02");
+        mined.add("0x03");
+        block.incrementAndGet();
+
+        assertEquals("0x01", first.get().getTransactionHash());
+        assertEquals("0x02", second.get().getTransactionHash());
+        assertEquals("0x03", third.get().getTransactionHash());
+
+        ReceiptTrackerStats stats = tracker.getStats();
+        assertEquals(3, stats.getConfirmed());
+        assertTrue(stats.getReceiptRequests() >= 3);
+        verify(service, atLeastOnce()).sendBatch(any(BatchRequest.class));
+        tracker.shutdown();
+    }
+
+    @Test
+    public void sharesTheReceiptOfTheSameTransaction() throws Exception {
+        ReceiptTracker tracker = new ReceiptTracker(Web3j.build(mockService()), 10, 5000);
+
+        CompletableFuture<TransactionReceipt> first = tracker.track("0x01");
+        CompletableFuture<TransactionReceipt> second = tracker.track("0x01");
+        first.cancel(true);
+
+        mined.add("0x01");
+        block.incrementAndGet();
+
+        assertEquals("0x01", second.get().getTransactionHash());
+        tracker.shutdown();
+    }
+
+    @Test
+    public void waitsThroughTheReceiptProcessor() throws Exception {
+        ReceiptTracker tracker = new ReceiptTracker(Web3j.build(mockService()), 10, 5000);
+        mined.add("0x01");
+
+        assertEquals("0x01", tracker.getReceiptProcessor().waitForTransactionReceipt("0x01").getTransactionHash());
+        tracker.shutdown();
+    }
+
+    @Test
+    public void timesOutWhenTheTransactionIsNotMined() throws Exception {
+        ReceiptTracker tracker = new ReceiptTracker(Web3j.build(mockService()), 10, 100);
+        try {
+            tracker.track("0x01").get();
+            fail("The transaction should not be mined");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        tracker.shutdown();
+    }
+}
@@ -0,0 +1,101 @@
+package io.keyko.nevermined.core.sla;
+
+import io.keyko.nevermined.manager.AgreementsManager;
+import io.keyko.nevermined.models.service.AgreementStatus;
+import io.keyko.nevermined.models.service.Condition;
+import org.junit.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AgreementWatcherTest {
+
+    private final AtomicLong block = new AtomicLong(1);
+    private volatile BigInteger lockPaymentState = Condition.ConditionStatus.Unfulfilled.getStatus();
+    private final AtomicBoolean nodeDown = new AtomicBoolean(false);
+
+    @SuppressWarnings("unchecked")
+    private AgreementWatcher newWatcher() throws Exception {
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.ethBlockNumber()).thenAnswer(invocation -> {
+            EthBlockNumber blockNumber = new EthBlockNumber();
+            blockNumber.setResult("0x" + Long.toHexString(block.get()));
+            Request<?, EthBlockNumber> request = mock(Request.class);
+            if (nodeDown.get())
+                when(request.send()).thenThrow(new IOException("Connection refused"));
+            else
+                when(request.send()).thenReturn(blockNumber);
+            return request;
+        });
+
+        AgreementsManager agreementsManager = mock(AgreementsManager.class);
+        when(agreementsManager.getStatuses(anyList())).thenAnswer(invocation -> {
+            List<AgreementStatus> statuses = new ArrayList<>();
+            for (Object agreementId : (List<?>) invocation.getArgument(0)) {
+                AgreementStatus status = new AgreementStatus();
+                status.agreementId = (String) agreementId;
+                AgreementStatus.ConditionStatusMap conditions = new AgreementStatus.ConditionStatusMap();
+                conditions.conditions.put(Condition.ConditionTypes.lockPayment.toString(), lockPaymentState);
+                status.conditions.add(conditions);
+                statuses.add(status);
+            }
+            return statuses;
+        });
+        return new AgreementWatcher(agreementsManager, web3j, 10, 2000, 2000, 3);
+    }
+
+    @Test
+    public void completesWhenTheConditionIsFulfilled() throws Exception {
+        AgreementWatcher watcher = newWatcher();
+
+        CompletableFuture<AgreementStatus> future = watcher.waitForCondition("0x01", Condition.ConditionTypes.lockPayment);
+        assertTrue(watcher.waitForAgreement("0x01").get().conditions.size() > 0);
+        assertFalse(future.isDone());
+
+        lockPaymentState = Condition.ConditionStatus.Fulfilled.getStatus();
+        block.incrementAndGet();
+
+        assertEquals("0x01", future.get().agreementId);
+        watcher.shutdown();
+    }
+
+    @Test
+    public void timesOutWhenTheConditionIsNotFulfilled() throws Exception {
+        AgreementWatcher watcher = newWatcher();
+        try {
+            watcher.waitForCondition("0x01", Condition.ConditionTypes.lockPayment, 100).get();
+            fail("The condition should not be fulfilled");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        watcher.shutdown();
+    }
+
+    @Test
+    public void failsThePendingWatchesAfterMaxErrors() throws Exception {
+        AgreementWatcher watcher = newWatcher();
+        nodeDown.set(true);
+        try {
+            watcher.waitForCondition("0x01", Condition.ConditionTypes.lockPayment, 10000).get();
+            fail("The watch should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        watcher.shutdown();
+    }
+}
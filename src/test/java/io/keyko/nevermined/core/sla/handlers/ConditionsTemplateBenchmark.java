@@ -0,0 +1,58 @@
+package io.keyko.nevermined.core.sla.handlers;
+
+import io.keyko.nevermined.models.AssetRewards;
+import io.keyko.nevermined.models.service.Condition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the initialization of the conditions from the compiled templates with the replacement
+ * of the placeholders in the text of the templates.
+ * Run it from the test classpath with the main method, or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionsTemplateBenchmark {
+
+    @Param({"sla-access-conditions-template.json", "sla-nft-sales-conditions-template.json"})
+    public String fileName;
+
+    private Map<String, Object> params;
+    private AssetRewards assetRewards;
+    private ConditionsTemplate template;
+
+    @Setup
+    public void setUp() throws Exception {
+        params = ConditionsTemplateTest.sampleParams();
+        assetRewards = ConditionsTemplateTest.sampleRewards();
+        template = ConditionsTemplate.forFile(fileName);
+    }
+
+    @Benchmark
+    public List<Condition> textReplacement() throws Exception {
+        return ConditionsTemplateTest.legacyConditions(fileName, params, assetRewards);
+    }
+
+    @Benchmark
+    public List<Condition> compiledTemplate() throws Exception {
+        return template.fill(params, assetRewards);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ConditionsTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
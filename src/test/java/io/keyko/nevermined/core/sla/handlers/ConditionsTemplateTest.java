@@ -0,0 +1,117 @@
+package io.keyko.nevermined.core.sla.handlers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.keyko.common.helpers.CryptoHelper;
+import io.keyko.nevermined.models.AbstractModel;
+import io.keyko.nevermined.models.AssetRewards;
+import io.keyko.nevermined.models.service.Condition;
+import org.junit.Test;
+import org.web3j.crypto.Hash;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ConditionsTemplateTest {
+
+    private static final String[] TEMPLATES = {
+            "sla-access-conditions-template.json",
+            "sla-computing-conditions-template.json",
+            "sla-did-sales-conditions-template.json",
+            "sla-nft-access-conditions-template.json",
+            "sla-nft-sales-conditions-template.json"
+    };
+
+    static Map<String, Object> sampleParams() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("contract.EscrowPaymentCondition.address", "0x1bf5EA8E1aD6f3c5f48a8a0D2D22D6DD8A9cF0C4");
+        params.put("parameter.price", "30");
+        params.put("parameter.tokenAddress", "0x9A3DBCa554e9f6b9257aAa24010DA8377C57c17e");
+        params.put("parameter.assetId", Hash.sha3("did:nv:1234".getBytes(StandardCharsets.UTF_8)));
+        return params;
+    }
+
+    static AssetRewards sampleRewards() {
+        Map<String, String> rewards = new HashMap<>();
+        rewards.put("0x00Bd138aBD70e2F00903268F3Db08f2D25677C9e", "10");
+        rewards.put("0x068ed00cf0441e4829d9784fcbe7b9e26d4bd8d0", "20");
+        AssetRewards assetRewards = new AssetRewards(rewards);
+        assetRewards.numberNFTs = BigInteger.TEN;
+        return assetRewards;
+    }
+
+    /**
+     * Initializes the conditions replacing the placeholders in the text of the template and parsing it,
+     * as they were initialized before the templates were compiled
+     */
+    static List<Condition> legacyConditions(String fileName, Map<String, Object> params, AssetRewards assetRewards) throws Exception {
+        String template = new String(Files.readAllBytes(Paths.get("src/main/resources/sla/" + fileName)), StandardCharsets.UTF_8);
+        template = template.replaceAll("\\{parameter.receivers\\}", assetRewards.getReceiversArrayString());
+        template = template.replaceAll("\\{parameter.amounts\\}", assetRewards.getAmountsArrayString());
+        template = template.replaceAll("\\{parameter._numberNfts\\}", assetRewards.numberNFTs.toString());
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            if (param.getValue() instanceof byte[])
+                template = template.replaceAll("\\{" + param.getKey() + "\\}", CryptoHelper.getHex((byte[]) param.getValue()));
+            else
+                template = template.replaceAll("\\{" + param.getKey() + "\\}", param.getValue().toString());
+        }
+        return AbstractModel.getMapperInstance().readValue(template, new TypeReference<List<Condition>>() {
+        });
+    }
+
+    private static String toJson(List<Condition> conditions) throws Exception {
+        return AbstractModel.getMapperInstance().writeValueAsString(conditions);
+    }
+
+    @Test
+    public void fillsTheConditionsAsTheTextReplacement() throws Exception {
+        for (String fileName : TEMPLATES) {
+            List<Condition> expected = legacyConditions(fileName, sampleParams(), sampleRewards());
+            List<Condition> conditions = ConditionsTemplate.forFile(fileName).fill(sampleParams(), sampleRewards());
+            assertEquals(fileName, toJson(expected), toJson(conditions));
+        }
+    }
+
+    @Test
+    public void fillsTheConditionsWithoutRewardsAsTheTextReplacement() throws Exception {
+        for (String fileName : TEMPLATES) {
+            List<Condition> expected = legacyConditions(fileName, sampleParams(), new AssetRewards());
+            List<Condition> conditions = ConditionsTemplate.forFile(fileName).fill(sampleParams(), new AssetRewards());
+            assertEquals(fileName, toJson(expected), toJson(conditions));
+        }
+    }
+
+    @Test
+    public void fillsIndependentCopies() throws Exception {
+        ConditionsTemplate template = ConditionsTemplate.forFile("sla-access-conditions-template.json");
+        List<Condition> first = template.fill(sampleParams(), sampleRewards());
+        first.get(0).getParameterByName("_did").value = "modified";
+        first.get(0).events.get(0).handler.version = "modified";
+
+        List<Condition> second = template.fill(sampleParams(), sampleRewards());
+        assertNotEquals("modified", second.get(0).getParameterByName("_did").value);
+        assertNotEquals("modified", second.get(0).events.get(0).handler.version);
+        assertSame(template, ConditionsTemplate.forFile("sla-access-conditions-template.json"));
+    }
+
+    @Test
+    public void keepsThePlaceholdersWithoutValue() throws Exception {
+        ConditionsTemplate template = ConditionsTemplate.compile("[{\"name\": \"access\", \"parameters\": ["
+                + "{\"name\": \"_did\", \"type\": \"bytes32\", \"value\": \"0x{parameter.assetId}-{parameter.unknown}\"},"
+                + "{\"name\": \"_values\", \"type\": \"uint256[]\", \"value\": {parameter.values}}]}]");
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("parameter.assetId", "1234");
+        params.put("parameter.values", "[1, 2]");
+        Condition condition = template.fill(params, sampleRewards()).get(0);
+
+        assertEquals("0x1234-{parameter.unknown}", condition.getParameterByName("_did").value);
+        assertEquals(List.of(1, 2), condition.getParameterByName("_values").value);
+    }
+}
@@ -0,0 +1,62 @@
+package io.keyko.nevermined.external;
+
+import io.keyko.nevermined.core.download.DownloadEngine;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GatewayClientRegistryTest {
+
+    @Test
+    public void sharesTheClientOfAGateway() {
+        GatewayClientRegistry registry = new GatewayClientRegistry();
+        try {
+            GatewayClient client = registry.get("http://localhost:8030");
+            assertSame(client, registry.get("http://localhost:8030/api/v1/gateway/services/compute/status"));
+            assertNotSame(client, registry.get("http://localhost:8031"));
+            assertEquals(2, registry.size());
+        } finally {
+            registry.close();
+        }
+    }
+
+    @Test
+    public void keepsTheClientsAndTheEngineOfEveryRegistry() {
+        DownloadEngine engine = new DownloadEngine(1024, 2, 0);
+        GatewayClientRegistry registry = new GatewayClientRegistry(new GatewayClient.ConnectionSettings(), engine);
+        GatewayClientRegistry other = new GatewayClientRegistry();
+        try {
+            GatewayClient client = registry.get("http://localhost:8030");
+            assertNotSame(client, other.get("http://localhost:8030"));
+            assertNotSame(client, GatewayClient.getInstance("http://localhost:8030"));
+            assertSame(engine, client.getDownloadEngine());
+            assertNotSame(engine, other.get("http://localhost:8030").getDownloadEngine());
+
+            registry.close();
+            assertEquals(0, registry.size());
+            assertEquals(1, other.size());
+        } finally {
+            other.close();
+            GatewayClient.closeAll();
+        }
+    }
+
+    @Test
+    public void usesTheEngineOfTheRegistryInItsClients() {
+        GatewayClientRegistry registry = new GatewayClientRegistry();
+        try {
+            GatewayClient client = registry.get("http://localhost:8030");
+            GatewayClient registered = new GatewayClient("http://localhost:8031", new GatewayClient.ConnectionSettings());
+            registry.register(registered);
+            assertSame(registered, registry.get("http://localhost:8031"));
+            assertSame(registry.getDownloadEngine(), registered.getDownloadEngine());
+
+            DownloadEngine engine = new DownloadEngine(1024, 2, 0);
+            registry.setDownloadEngine(engine);
+            assertSame(engine, client.getDownloadEngine());
+            assertSame(engine, registered.getDownloadEngine());
+        } finally {
+            registry.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.keyko.nevermined.external;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.keyko.nevermined.exceptions.ServiceException;
+import io.keyko.nevermined.models.gateway.ComputeStatus;
+import io.keyko.nevermined.models.gateway.EncryptionResponse;
+import io.keyko.nevermined.models.service.types.AuthorizationService;
+import org.apache.commons.io.IOUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+public class GatewayClientTest {
+
+    private static final byte[] CONTENT = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+
+    private static HttpServer server;
+    private static String gatewayUrl;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/gateway/services/oauth/token", exchange -> {
+            final String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            respond(exchange, body.contains("assertion=grant") ? 200 : 400, "{\"access_token\": \"token\"}");
+        });
+        server.createContext("/api/v1/gateway/services/compute/status", exchange -> {
+            final boolean authorized = "Bearer token".equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            respond(exchange, authorized ? 200 : 401, "{\"status\": \"Running\"}");
+        });
+        server.createContext("/api/v1/gateway/services/access", exchange -> {
+            final String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range == null) {
+                exchange.sendResponseHeaders(200, CONTENT.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(CONTENT);
+                }
+                return;
+            }
+            final String[] bounds = range.substring("bytes=".length()).split("-");
+            final int start = Integer.parseInt(bounds[0]);
+            final int end = Integer.parseInt(bounds[1]);
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + CONTENT.length);
+            exchange.sendResponseHeaders(206, end - start + 1);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(CONTENT, start, end - start + 1);
+            }
+        });
+        server.createContext("/api/v1/gateway/services/nonrange", exchange -> {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(CONTENT);
+            }
+        });
+        server.createContext("/gateway/api/v1/gateway/services/encrypt", exchange -> {
+            final String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            respond(exchange, body.contains("\"message\":\"secret\"") ? 200 : 400,
+                    "{\"hash\": \"0xencrypted\", \"method\": \"PSK-RSA\"}");
+        });
+        server.start();
+        gatewayUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        GatewayClient.closeAll();
+        server.stop(0);
+    }
+
+    @Test
+    public void sharesInstancesPerGateway() {
+        assertEquals("http://localhost:8030", GatewayClient.baseUrlOf("HTTP://LocalHost:8030/api/v1/gateway/services/access"));
+        assertEquals("https://gateway.nevermined.io", GatewayClient.baseUrlOf("https://gateway.nevermined.io:443/"));
+
+        GatewayClient client = GatewayClient.getInstance("http://localhost:8030");
+        assertSame(client, GatewayClient.getInstance("http://localhost:8030/api/v1/gateway/services/compute/status"));
+        assertNotSame(client, GatewayClient.getInstance("http://localhost:8031"));
+    }
+
+    @Test
+    public void requestsTheAccessTokens() throws Exception {
+        final GatewayClient client = GatewayClient.getInstance(gatewayUrl);
+
+        final GatewayService.AccessTokenResult result = client.getAccessToken("grant").get();
+        assertTrue(result.getOk());
+        assertEquals("token", result.getAccessToken());
+
+        final GatewayService.AccessTokenResult rejected = client.getAccessToken("other").get();
+        assertFalse(rejected.getOk());
+        assertEquals(Integer.valueOf(400), rejected.getCode());
+    }
+
+    @Test
+    public void getsTheComputeStatus() throws Exception {
+        final String endpoint = gatewayUrl + "/api/v1/gateway/services/compute/status/0x01";
+
+        final ComputeStatus status = GatewayService.getComputeStatus(endpoint, "0x00", "token");
+        assertEquals("Running", status.status);
+
+        try {
+            GatewayClient.getInstance(endpoint).getComputeStatus(endpoint, "invalid").get();
+            fail("The request should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServiceException);
+        }
+    }
+
+    @Test
+    public void downloadsRangesOfFiles() throws Exception {
+        final String endpoint = gatewayUrl + "/api/v1/gateway/services/access/0x01/0";
+
+        assertEquals(CONTENT.length, GatewayService.getFileSize(gatewayUrl + "/api/v1/gateway/services/access", "0x01", 0, "token"));
+        try (InputStream input = GatewayClient.getInstance(endpoint).downloadRange(endpoint, "token", 4, 8).get()) {
+            assertEquals("quick", IOUtils.toString(input, StandardCharsets.UTF_8));
+        }
+        try (InputStream input = GatewayClient.getInstance(endpoint).download(endpoint, "token").get()) {
+            assertArrayEquals(CONTENT, IOUtils.toByteArray(input));
+        }
+    }
+
+    @Test
+    public void rejectsTheWholeFileAsRange() throws Exception {
+        final String endpoint = gatewayUrl + "/api/v1/gateway/services/nonrange/0x01/0";
+
+        assertEquals(-1L, (long) GatewayClient.getInstance(endpoint).getFileSize(endpoint, "token").get());
+        try {
+            GatewayService.downloadRange(gatewayUrl + "/api/v1/gateway/services/nonrange", "0x01", 0, "token", 0, 4);
+            fail("The range should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("HTTP 200"));
+        }
+    }
+
+    @Test
+    public void encryptsUsingTheGatewayPath() throws Exception {
+        final String prefixedGatewayUrl = gatewayUrl + "/gateway";
+
+        final EncryptionResponse response = GatewayService.encrypt(prefixedGatewayUrl, "secret",
+                AuthorizationService.AuthTypes.PSK_RSA);
+        assertEquals("0xencrypted", response.hash);
+        assertEquals("PSK-RSA", response.method);
+    }
+}
@@ -0,0 +1,43 @@
+package io.keyko.nevermined.external;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetadataApiRegistryTest {
+
+    @Test
+    public void sharesTheInstanceOfABaseUrl() {
+        MetadataApiRegistry registry = new MetadataApiRegistry();
+        try {
+            MetadataApiService service = registry.get("http://localhost:5000");
+            assertSame(service, registry.get("http://LOCALHOST:5000/"));
+            assertNotSame(service, registry.get("http://localhost:5001"));
+            assertEquals(2, registry.size());
+        } finally {
+            registry.close();
+        }
+    }
+
+    @Test
+    public void keepsTheInstancesOfEveryRegistry() {
+        MetadataApiRegistry registry = new MetadataApiRegistry(new MetadataApiService.ConnectionSettings()
+                .setMaxConnections(5));
+        MetadataApiRegistry other = new MetadataApiRegistry();
+        try {
+            MetadataApiService service = registry.get("http://localhost:5000");
+            assertNotSame(service, other.get("http://localhost:5000"));
+            assertNotSame(service, MetadataApiService.getInstance("http://localhost:5000"));
+            assertEquals(5, registry.getSettings().getMaxConnections());
+            assertEquals(MetadataApiService.ConnectionSettings.DEFAULT_MAX_CONNECTIONS,
+                    other.getSettings().getMaxConnections());
+
+            registry.close();
+            assertEquals(0, registry.size());
+            assertEquals(1, other.size());
+        } finally {
+            other.close();
+            MetadataApiService.closeAll();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.keyko.nevermined.external;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetadataApiServiceTest {
+
+    @AfterClass
+    public static void tearDown() {
+        MetadataApiService.closeAll();
+    }
+
+    @Test
+    public void normalizeUrl() {
+        assertEquals("http://localhost:5000", MetadataApiService.normalizeUrl("http://localhost:5000/"));
+        assertEquals("http://localhost:5000", MetadataApiService.normalizeUrl("HTTP://LocalHost:5000"));
+        assertEquals("https://metadata.nevermined.io", MetadataApiService.normalizeUrl("https://metadata.nevermined.io:443/"));
+        assertEquals("http://localhost:5000/metadata", MetadataApiService.normalizeUrl(" http://localhost:5000/metadata// "));
+    }
+
+    @Test
+    public void sharesInstancesPerBaseUrl() {
+        MetadataApiService service = MetadataApiService.getInstance("http://localhost:5000");
+
+        assertSame(service, MetadataApiService.getInstance("http://LOCALHOST:5000/"));
+        assertNotSame(service, MetadataApiService.getInstance("http://localhost:5001"));
+        assertEquals("http://localhost:5000/api/v1/metadata/assets/ddo", service.getDdoEndpoint());
+    }
+}
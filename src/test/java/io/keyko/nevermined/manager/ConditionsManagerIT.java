@@ -0,0 +1,112 @@
+package io.keyko.nevermined.manager;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import io.keyko.common.web3.KeeperService;
+import io.keyko.nevermined.api.config.NeverminedConfig;
+import io.keyko.nevermined.api.config.NeverminedConfigFactory;
+import io.keyko.nevermined.api.helper.InitializationHelper;
+import io.keyko.nevermined.models.DID;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the condition ids computed locally match the ones computed by the condition contracts
+ */
+public class ConditionsManagerIT {
+
+    private static final Config config = ConfigFactory.load();
+    private static ConditionsManager conditionsManager;
+
+    private static final String AGREEMENT_ID = "0x0000000000000000000000000000000000000000000000000000000000000abc";
+    private static final String ADDRESS_1 = "0x00bd138abd70e2f00903268f3db08f2d25677c9e";
+    private static final String ADDRESS_2 = "0x068ed00cf0441e4829d9784fcbe7b9e26d4bd8d0";
+    private static final List<BigInteger> AMOUNTS = Arrays.asList(BigInteger.TEN, BigInteger.valueOf(2));
+    private static final List<String> RECEIVERS = Arrays.asList(ADDRESS_1, ADDRESS_2);
+    private static DID did;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        Properties properties = new Properties();
+        config.entrySet().forEach(e -> properties.setProperty(e.getKey(), config.getString(e.getKey())));
+        NeverminedConfig neverminedConfig = NeverminedConfigFactory.getNeverminedConfig(properties);
+        InitializationHelper initializationHelper = new InitializationHelper(neverminedConfig);
+        KeeperService keeper = initializationHelper.getKeeper();
+
+        conditionsManager = ConditionsManager.getInstance(keeper, null);
+        conditionsManager
+                .setLockCondition(initializationHelper.loadLockPaymentCondition(keeper))
+                .setAccessCondition(initializationHelper.loadAccessCondition(keeper))
+                .setEscrowCondition(initializationHelper.loadEscrowPaymentCondition(keeper))
+                .setComputeExecutionCondition(initializationHelper.loadComputeExecutionCondition(keeper))
+                .setNFTHolderCondition(initializationHelper.loadNFTHolderCondition(keeper))
+                .setNFTAccessCondition(initializationHelper.loadNFTAccessCondition(keeper))
+                .setTransferDIDCondition(initializationHelper.loadTransferDIDCondition(keeper))
+                .setTransferNFTCondition(initializationHelper.loadTransferNFTCondition(keeper));
+
+        did = DID.builder();
+    }
+
+    private static void assertParity(Callable<String> generator) throws Exception {
+        conditionsManager.setOfflineConditionIds(false);
+        String remote = generator.call();
+        conditionsManager.setOfflineConditionIds(true);
+        assertEquals(remote, generator.call());
+    }
+
+    @Test
+    public void lockPaymentConditionId() throws Exception {
+        assertParity(() -> conditionsManager.generateLockPaymentConditionId(
+                AGREEMENT_ID, did, ADDRESS_1, ADDRESS_2, AMOUNTS, RECEIVERS));
+    }
+
+    @Test
+    public void accessConditionId() throws Exception {
+        assertParity(() -> conditionsManager.generateAccessConditionId(AGREEMENT_ID, did, ADDRESS_1));
+    }
+
+    @Test
+    public void execComputeConditionId() throws Exception {
+        assertParity(() -> conditionsManager.generateExecComputeConditionId(AGREEMENT_ID, did, ADDRESS_1));
+    }
+
+    @Test
+    public void escrowPaymentConditionId() throws Exception {
+        String lockConditionId = conditionsManager.generateLockPaymentConditionId(
+                AGREEMENT_ID, did, ADDRESS_1, ADDRESS_2, AMOUNTS, RECEIVERS);
+        String accessConditionId = conditionsManager.generateAccessConditionId(AGREEMENT_ID, did, ADDRESS_1);
+        assertParity(() -> conditionsManager.generateEscrowPaymentConditionId(
+                AGREEMENT_ID, did, AMOUNTS, RECEIVERS, ADDRESS_1, ADDRESS_2, lockConditionId, accessConditionId));
+    }
+
+    @Test
+    public void nftHolderConditionId() throws Exception {
+        assertParity(() -> conditionsManager.generateNFTHolderConditionId(AGREEMENT_ID, did, ADDRESS_1, BigInteger.ONE));
+    }
+
+    @Test
+    public void nftAccessConditionId() throws Exception {
+        assertParity(() -> conditionsManager.generateNFTAccessConditionId(AGREEMENT_ID, did, ADDRESS_1));
+    }
+
+    @Test
+    public void transferDIDConditionId() throws Exception {
+        assertParity(() -> conditionsManager.generateTransferDIDConditionId(AGREEMENT_ID, did, ADDRESS_1));
+    }
+
+    @Test
+    public void transferNFTConditionId() throws Exception {
+        String lockConditionId = conditionsManager.generateLockPaymentConditionId(
+                AGREEMENT_ID, did, ADDRESS_1, ADDRESS_2, AMOUNTS, RECEIVERS);
+        assertParity(() -> conditionsManager.generateTransferNFTConditionId(
+                AGREEMENT_ID, did, ADDRESS_1, BigInteger.ONE, lockConditionId));
+    }
+}
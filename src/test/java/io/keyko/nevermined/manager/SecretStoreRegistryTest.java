@@ -0,0 +1,44 @@
+package io.keyko.nevermined.manager;
+
+import io.keyko.secretstore.core.EvmDto;
+import io.keyko.secretstore.core.SecretStoreDto;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SecretStoreRegistryTest {
+
+    private static final EvmDto EVM_DTO = EvmDto.builder("http://localhost:8545",
+            "0x00bd138abd70e2f00903268f3db08f2d25677c9e", "secret");
+
+    @Test
+    public void sharesTheManagerOfAnEndpoint() {
+        SecretStoreRegistry registry = new SecretStoreRegistry(EVM_DTO);
+
+        SecretStoreManager manager = registry.get("http://localhost:12001");
+        assertSame(manager, registry.get(" http://localhost:12001/ "));
+        assertNotSame(manager, registry.get("http://localhost:12002"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void keepsTheManagersOfEveryRegistry() {
+        SecretStoreRegistry registry = new SecretStoreRegistry(EVM_DTO);
+        SecretStoreRegistry other = new SecretStoreRegistry(EVM_DTO);
+
+        assertNotSame(registry.get("http://localhost:12001"), other.get("http://localhost:12001"));
+
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertEquals(1, other.size());
+    }
+
+    @Test
+    public void usesTheRegisteredManagers() {
+        SecretStoreManager manager = SecretStoreManager.getInstance(
+                SecretStoreDto.builder("http://localhost:12001"), EVM_DTO);
+        SecretStoreRegistry registry = new SecretStoreRegistry(EVM_DTO).register("http://localhost:12001/", manager);
+
+        assertSame(manager, registry.get("http://localhost:12001"));
+    }
+}
@@ -5,6 +5,7 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import io.keyko.nevermined.exceptions.DIDFormatException;
 import io.keyko.nevermined.models.service.Service;
+import io.keyko.nevermined.models.service.ServiceDescriptor;
 import io.keyko.nevermined.models.service.types.AccessService;
 import io.keyko.nevermined.models.service.types.AuthorizationService;
 import org.apache.logging.log4j.LogManager;
@@ -17,6 +18,8 @@ import org.web3j.crypto.WalletUtils;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -219,6 +222,44 @@ public class DDOTest {
     }
 
 
+    @Test
+    public void resolvePlaceholdersAsTheJsonReplacement() throws Exception {
+        String json = DDO_JSON_CONTENT
+                .replaceFirst("\"value\": \"\"", "\"value\": \"{parameter.assetId}\"")
+                .replaceFirst("\"value\": \"\"", "\"value\": \"{parameter.did}\"");
+        DID did = DID.builder();
+
+        String expected = DDO.fromJSON(new TypeReference<DDO>() {}, json
+                .replaceAll("\\{did\\}", did.getDid())
+                .replaceAll("\\{parameter.did\\}", did.getDid())
+                .replaceAll("\\{parameter.assetId\\}", did.getHash()))
+                .toJson();
+
+        DDO ddo = DDO.fromJSON(new TypeReference<DDO>() {}, json);
+        LinkedHashMap<String, String> placeholders = new LinkedHashMap<>();
+        placeholders.put("{did}", did.getDid());
+        PlaceholderResolver.resolve(ddo, placeholders);
+        ddo = DDO.replaceConditionVariables(ddo, "did", did.getDid());
+        ddo = DDO.replaceConditionVariables(ddo, "assetId", did.getHash());
+
+        assertTrue(json.contains("{did}"));
+        assertFalse(ddo.toJson().contains("{did}"));
+        assertEquals(expected, ddo.toJson());
+    }
+
+    @Test
+    public void integrityBuilderReplacesTheConditionVariables() throws Exception {
+        String json = DDO_JSON_CONTENT
+                .replaceFirst("\"value\": \"\"", "\"value\": \"{parameter.assetId}\"");
+        DDO ddo = DDO.integrityBuilder(DDO.fromJSON(new TypeReference<DDO>() {}, json), credentials, true);
+
+        String ddoJson = ddo.toJson();
+        assertFalse(ddoJson.contains("{did}"));
+        assertFalse(ddoJson.contains("{parameter.assetId}"));
+        assertTrue(ddoJson.contains("\"" + ddo.getDID().getHash() + "\""));
+        assertEquals(ddo.id, ddo.getDID().getDid());
+    }
+
     @Test
     public void generateRandomDID() throws Exception {
         DID did= DID.builder();
@@ -319,4 +360,22 @@ public class DDOTest {
         assertNull(newDdo.getMetadataService().attributes.main.files.get(0).url);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void copiesTheServiceOfTheDescriptors() throws Exception {
+        DDO ddo = DDO.fromJSON(new TypeReference<DDO>() {}, DDO_JSON_CONTENT);
+        ServiceDescriptor descriptor = new ServiceDescriptor(ddo.getAccessService(), null);
+
+        ServiceDescriptor copy = descriptor.copy();
+        copy.service.attributes.serviceAgreementTemplate.conditions = new ArrayList<>();
+
+        assertTrue(copy.service instanceof AccessService);
+        assertNotSame(descriptor.service, copy.service);
+        assertEquals(descriptor.service.templateId, copy.service.templateId);
+        assertNotSame(descriptor.service.attributes.main, copy.service.attributes.main);
+        assertEquals(descriptor.service.attributes.main.name, copy.service.attributes.main.name);
+        assertFalse(descriptor.service.attributes.serviceAgreementTemplate.conditions.isEmpty());
+        assertEquals(descriptor.service.attributes.serviceAgreementTemplate.events.size(),
+                copy.service.attributes.serviceAgreementTemplate.events.size());
+    }
+
+}
@@ -0,0 +1,79 @@
+package io.keyko.nevermined.models;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.keyko.nevermined.models.service.Condition;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ModelMapperTest {
+
+    private static final String DDO_JSON_SAMPLE = "src/test/resources/examples/ddo-example.json";
+
+    @Test
+    public void formatsTheDatesInUTC() throws Exception {
+        final Date date = ModelDateFormat.parse("2019-02-08T08:13:49Z");
+        assertEquals(1549613629000L, date.getTime());
+        assertEquals("2019-02-08T08:13:49Z", ModelDateFormat.format(date));
+
+        assertEquals(date, ModelDateFormat.parse("2019-02-08T08:13:49"));
+        assertEquals(date, ModelDateFormat.parse("2019-02-08T08:13:49.123+00:00"));
+        assertEquals(0, ModelDateFormat.now().getTime() % 1000);
+
+        assertEquals("\"2019-02-08T08:13:49Z\"", ModelMapper.write(date));
+        assertEquals(date, ModelMapper.read("\"2019-02-08T08:13:49\"", Date.class));
+    }
+
+    @Test
+    public void parsesTheDatesConcurrently() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final long time = 1549613629000L + i * 86_401_000L;
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        if (ModelDateFormat.parse(ModelDateFormat.format(new Date(time))).getTime() != time)
+                            return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results)
+                assertTrue(result.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void cachesTheReadersAndWriters() {
+        assertSame(ModelMapper.readerFor(DDO.class), ModelMapper.readerFor(DDO.class));
+        assertSame(ModelMapper.readerFor(new TypeReference<List<Condition>>() {
+        }), ModelMapper.readerFor(new TypeReference<List<Condition>>() {
+        }));
+        assertSame(ModelMapper.writerFor(DDO.class), ModelMapper.writerFor(DDO.class));
+        assertSame(ModelMapper.getMapper(), AbstractModel.getMapperInstance());
+    }
+
+    @Test
+    public void keepsTheDDOsAfterARoundTrip() throws Exception {
+        final String json = new String(Files.readAllBytes(Paths.get(DDO_JSON_SAMPLE)));
+        final DDO ddo = DDO.fromJSON(new TypeReference<DDO>() {
+        }, json);
+        final DDO copy = ModelMapper.read(ddo.toJson(), DDO.class);
+
+        assertEquals(ddo.toJson(), copy.toJson());
+        assertEquals(ddo.created, copy.created);
+        assertEquals(ddo.services.size(), copy.services.size());
+    }
+}
@@ -0,0 +1,125 @@
+package io.keyko.nevermined.models;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.keyko.nevermined.models.metadata.SearchResult;
+import io.keyko.nevermined.models.service.Condition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the (de)serialization of the models parsed in the hot paths: DDOs, search results and conditions.
+ * The readers and writers are cached as in ModelMapper, the mapper benchmarks show the cost of resolving the
+ * type in every call. The accelerated runs only differ when the Jackson Afterburner module is in the classpath.
+ * Run it from the test classpath with the main method, or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelSerializationBenchmark {
+
+    private static final String DDO_JSON_SAMPLE = "src/test/resources/examples/ddo-example.json";
+    private static final int SEARCH_RESULTS = 20;
+
+    private static final TypeReference<DDO> DDO_TYPE = new TypeReference<DDO>() {
+    };
+    private static final TypeReference<List<Condition>> CONDITIONS_TYPE = new TypeReference<List<Condition>>() {
+    };
+
+    @Param({"false", "true"})
+    public boolean accelerated;
+
+    private ObjectMapper mapper;
+    private ObjectReader ddoReader;
+    private ObjectWriter ddoWriter;
+    private ObjectReader searchResultReader;
+    private ObjectWriter searchResultWriter;
+    private ObjectReader conditionsReader;
+    private ObjectWriter conditionsWriter;
+
+    private String ddoJson;
+    private String searchResultJson;
+    private String conditionsJson;
+    private DDO ddo;
+    private SearchResult searchResult;
+    private List<Condition> conditions;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = ModelMapper.newMapper(accelerated);
+        ddoReader = mapper.readerFor(DDO.class);
+        ddoWriter = mapper.writerFor(DDO.class);
+        searchResultReader = mapper.readerFor(SearchResult.class);
+        searchResultWriter = mapper.writerFor(SearchResult.class);
+        conditionsReader = mapper.readerFor(CONDITIONS_TYPE);
+        conditionsWriter = mapper.writerFor(CONDITIONS_TYPE);
+
+        ddoJson = new String(Files.readAllBytes(Paths.get(DDO_JSON_SAMPLE)));
+        ddo = ddoReader.readValue(ddoJson);
+
+        List<DDO> results = new ArrayList<>();
+        for (int i = 0; i < SEARCH_RESULTS; i++)
+            results.add(ddoReader.readValue(ddoJson));
+        searchResult = new SearchResult(results, 1, 1, SEARCH_RESULTS);
+        searchResultJson = searchResultWriter.writeValueAsString(searchResult);
+
+        conditions = ddo.getAccessService().attributes.serviceAgreementTemplate.conditions;
+        conditionsJson = conditionsWriter.writeValueAsString(conditions);
+    }
+
+    @Benchmark
+    public DDO readDDO() throws Exception {
+        return ddoReader.readValue(ddoJson);
+    }
+
+    @Benchmark
+    public DDO readDDOWithMapper() throws Exception {
+        return mapper.readValue(ddoJson, DDO_TYPE);
+    }
+
+    @Benchmark
+    public String writeDDO() throws Exception {
+        return ddoWriter.writeValueAsString(ddo);
+    }
+
+    @Benchmark
+    public SearchResult readSearchResult() throws Exception {
+        return searchResultReader.readValue(searchResultJson);
+    }
+
+    @Benchmark
+    public String writeSearchResult() throws Exception {
+        return searchResultWriter.writeValueAsString(searchResult);
+    }
+
+    @Benchmark
+    public List<Condition> readConditions() throws Exception {
+        return conditionsReader.readValue(conditionsJson);
+    }
+
+    @Benchmark
+    public String writeConditions() throws Exception {
+        return conditionsWriter.writeValueAsString(conditions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ModelSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}